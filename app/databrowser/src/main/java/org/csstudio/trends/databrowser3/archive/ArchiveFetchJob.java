@@ -13,7 +13,9 @@ import java.text.MessageFormat;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -31,7 +33,6 @@ import org.epics.vtype.VType;
 import org.phoebus.archive.reader.ArchiveReader;
 import org.phoebus.archive.reader.ArchiveReaders;
 import org.phoebus.archive.reader.UnknownChannelException;
-import org.phoebus.archive.reader.ValueIterator;
 import org.phoebus.framework.jobs.Job;
 import org.phoebus.framework.jobs.JobManager;
 import org.phoebus.framework.jobs.JobMonitor;
@@ -55,6 +56,9 @@ public class ArchiveFetchJob implements JobRunnable
     /** Limit the number of concurrently running jobs */
     private static final Semaphore concurrent_requests = new Semaphore(Preferences.concurrent_requests, true);
 
+    /** Cache for archived samples, shared by all jobs */
+    private static final ArchiveSampleCache cache = new ArchiveSampleCache(Preferences.archive_cache_mb * 1024L * 1024L);
+
     /** Item for which to fetch samples */
     private final PVItem item;
 
@@ -106,15 +110,7 @@ public class ArchiveFetchJob implements JobRunnable
             final long start_time = System.currentTimeMillis();
             long samples = 0;
 
-            // Number of bins. Negative values are scaling factor for display width
-            int bins = Preferences.plot_bins;
-            if (bins < 0)
-                bins = DataBrowserInstance.display_pixel_width * (-bins);
-            // Bins could be 0 when display_pixel_width has not been initialed
-            // (no DB instance had been opened)
-            if (bins <= 0)
-                bins = 800;
-
+            final int bins = getBins();
             final Collection<ArchiveDataSource> archives = item.getArchiveDataSources();
             final List<ArchiveDataSource> archives_without_channel = new ArrayList<>();
             int i = 0;
@@ -132,13 +128,11 @@ public class ArchiveFetchJob implements JobRunnable
                 )
                 {
                     reader.set(the_reader);
-                    final ValueIterator value_iter;
+                    final List<VType> result;
                     try
                     {
-                        if (item.getRequestType() == RequestType.RAW)
-                            value_iter = the_reader.getRawValues(item.getResolvedName(), start, end);
-                        else
-                            value_iter = the_reader.getOptimizedValues(item.getResolvedName(), start, end, bins);
+                        result = cache.getSamples(the_reader, url, item.getResolvedName(), item.getRequestType(),
+                                                  start, end, bins, () -> cancelled);
                     }
                     catch (UnknownChannelException e)
                     {
@@ -147,11 +141,6 @@ public class ArchiveFetchJob implements JobRunnable
                         archives_without_channel.add(archive);
                         continue;
                     }
-                    // Get samples into array
-                    final List<VType> result = new ArrayList<>();
-                    while (value_iter.hasNext())
-                        result.add(value_iter.next());
-                    value_iter.close();
                     samples += result.size();
                     item.mergeArchivedSamples(archive.getName(), result);
                     if (cancelled)
@@ -188,6 +177,78 @@ public class ArchiveFetchJob implements JobRunnable
         }
     }
 
+    /** @return Number of bins for optimized requests */
+    private static int getBins()
+    {
+        // Negative values are scaling factor for display width
+        int bins = Preferences.plot_bins;
+        if (bins < 0)
+            bins = DataBrowserInstance.display_pixel_width * (-bins);
+        // Bins could be 0 when display_pixel_width has not been initialed
+        // (no DB instance had been opened)
+        if (bins <= 0)
+            bins = 800;
+        return bins;
+    }
+
+    /** Fetch optimized samples for several items in one request per archive
+     *
+     *  <p>Reserves the samples in the cache, then fetches them in the background
+     *  when the archive reader supports a parallel fetch of several channels.
+     *  Jobs for the individual items then wait for the prefetched samples
+     *  instead of each accessing the archive.
+     *
+     *  @param items Items for which jobs will be created
+     *  @param start Start time
+     *  @param end End time
+     */
+    public static void prefetch(final Collection<PVItem> items, final Instant start, final Instant end)
+    {
+        final Map<String, List<String>> names_by_url = new LinkedHashMap<>();
+        for (PVItem item : items)
+        {
+            final String name = item.getResolvedName();
+            if (item.getRequestType() != RequestType.OPTIMIZED  ||  MacroHandler.containsMacros(name))
+                continue;
+            for (ArchiveDataSource archive : item.getArchiveDataSources())
+            {
+                final List<String> names = names_by_url.computeIfAbsent(archive.getUrl(), url -> new ArrayList<>());
+                if (! names.contains(name))
+                    names.add(name);
+            }
+        }
+
+        final int bins = getBins();
+        names_by_url.forEach((url, names) ->
+        {
+            if (names.size() < 2)
+                return;
+            final ArchiveSampleCache.Batch batch = cache.reserve(url, names, start, end, bins);
+            if (batch == null)
+                return;
+            // Separate job, not the thread_pool, since item jobs wait for it
+            JobManager.schedule("Prefetch " + names.size() + " channels from " + url, monitor ->
+            {
+                try
+                (
+                    final ArchiveReader reader = ArchiveReaders.createReader(url);
+                )
+                {
+                    if (reader.isParallelFetch())
+                        batch.fetch(reader, monitor::isCanceled);
+                }
+                catch (Exception ex)
+                {   // Item jobs fetch the data on their own and report errors
+                    logger.log(Level.FINE, "Cannot prefetch " + names + " from " + url, ex);
+                }
+                finally
+                {
+                    batch.release();
+                }
+            });
+        });
+    }
+
     /** Schedule a new job.
      *
      *  @param item the item for which the data are fetched
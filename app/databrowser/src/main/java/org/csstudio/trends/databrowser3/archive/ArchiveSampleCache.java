@@ -0,0 +1,550 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser3.archive;
+
+import static org.csstudio.trends.databrowser3.Activator.logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+import org.csstudio.trends.databrowser3.model.PlotSample;
+import org.csstudio.trends.databrowser3.model.PlotSampleMerger;
+import org.csstudio.trends.databrowser3.model.RequestType;
+import org.epics.vtype.VNumberArray;
+import org.epics.vtype.VType;
+import org.phoebus.archive.reader.ArchiveReader;
+import org.phoebus.archive.reader.UnknownChannelException;
+import org.phoebus.archive.reader.ValueIterator;
+
+/** Cache for archived samples
+ *
+ *  <p>Samples are kept per archive, channel and resolution,
+ *  together with the time ranges that have been fetched.
+ *  When panning, a request that overlaps cached data
+ *  only fetches the missing time ranges from the archive.
+ *  Zooming changes the resolution of 'optimized' requests
+ *  and thus uses a different cache entry.
+ *
+ *  <p>Least recently used entries are removed
+ *  when the estimated memory exceeds the limit.
+ *
+ *  <p>A {@link Batch} fetches optimized samples for several channels
+ *  in one request. Requests for those channels wait for the batch.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ArchiveSampleCache
+{
+    /** Recent data may still be added to the archive,
+     *  so time ranges closer than this to 'now'
+     *  are not considered complete
+     */
+    private static final Duration RECENT = Duration.ofMinutes(1);
+
+    /** Estimated memory for one sample, not counting array elements */
+    private static final long SAMPLE_BYTES = 150;
+
+    /** Cached samples for one channel */
+    private static class Entry
+    {
+        /** Samples, ordered by time */
+        PlotSample[] samples = new PlotSample[0];
+
+        /** Time ranges that have been fetched, ordered and not overlapping */
+        final List<Instant[]> ranges = new ArrayList<>();
+
+        /** Estimated memory */
+        long bytes = 0;
+
+        /** Completes when a {@link Batch} that fetches this entry is done.
+         *  Set and cleared while SYNC on entries
+         */
+        volatile CompletableFuture<Void> pending = null;
+
+        /** @param start Start time
+         *  @param end End time
+         *  @return Time ranges within start .. end that have not been fetched
+         */
+        List<Instant[]> getGaps(final Instant start, final Instant end)
+        {
+            final List<Instant[]> gaps = new ArrayList<>();
+            Instant time = start;
+            for (Instant[] range : ranges)
+            {
+                if (! range[1].isAfter(time))
+                    continue;
+                if (! range[0].isBefore(end))
+                    break;
+                if (range[0].isAfter(time))
+                    gaps.add(new Instant[] { time, range[0] });
+                time = range[1];
+            }
+            if (time.isBefore(end))
+                gaps.add(new Instant[] { time, end });
+            return gaps;
+        }
+
+        /** @param start Start of fetched time range
+         *  @param end End of fetched time range
+         *  @param fetched Samples for that time range
+         */
+        void add(final Instant start, final Instant end, final PlotSample[] fetched)
+        {
+            samples = PlotSampleMerger.merge(samples, fetched);
+            bytes = estimateBytes(samples);
+            if (! start.isBefore(end))
+                return;
+            // Add range, combining it with overlapping or adjacent ranges
+            Instant new_start = start, new_end = end;
+            final Iterator<Instant[]> iter = ranges.iterator();
+            int index = 0;
+            while (iter.hasNext())
+            {
+                final Instant[] range = iter.next();
+                if (range[1].isBefore(new_start))
+                    ++index;
+                else if (! range[0].isAfter(new_end))
+                {
+                    if (range[0].isBefore(new_start))
+                        new_start = range[0];
+                    if (range[1].isAfter(new_end))
+                        new_end = range[1];
+                    iter.remove();
+                }
+                else
+                    break;
+            }
+            ranges.add(index, new Instant[] { new_start, new_end });
+        }
+
+        /** @param start Start time
+         *  @param end End time
+         *  @return Last sample at or before start, then samples up to end
+         */
+        List<VType> get(final Instant start, final Instant end)
+        {
+            int first = findLastAtOrBefore(start);
+            if (first < 0)
+                first = 0;
+            final int last = findLastAtOrBefore(end);
+            final List<VType> result = new ArrayList<>(Math.max(0, last - first + 1));
+            for (int i=first; i<=last; ++i)
+                result.add(samples[i].getVType());
+            return result;
+        }
+
+        /** @param time Time
+         *  @return Index of last sample at or before time, -1 if none
+         */
+        private int findLastAtOrBefore(final Instant time)
+        {
+            int low = 0, high = samples.length - 1, found = -1;
+            while (low <= high)
+            {
+                final int mid = (low + high) >>> 1;
+                if (samples[mid].getPosition().isAfter(time))
+                    high = mid - 1;
+                else
+                {
+                    found = mid;
+                    low = mid + 1;
+                }
+            }
+            return found;
+        }
+    }
+
+    /** Maximum memory for all entries */
+    private final long max_bytes;
+
+    /** Entries by key, in access order for LRU */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Estimated memory for all entries.
+     *  SYNC on entries
+     */
+    private long total_bytes = 0;
+
+    /** @param max_bytes Maximum memory to use, 0 to disable the cache */
+    public ArchiveSampleCache(final long max_bytes)
+    {
+        this.max_bytes = max_bytes;
+    }
+
+    /** @param samples Samples
+     *  @return Estimated memory used by the samples
+     */
+    private static long estimateBytes(final PlotSample[] samples)
+    {
+        long bytes = 0;
+        for (PlotSample sample : samples)
+        {
+            bytes += SAMPLE_BYTES;
+            final VType value = sample.getVType();
+            if (value instanceof VNumberArray)
+                bytes += 8L * ((VNumberArray) value).getData().size();
+        }
+        return bytes;
+    }
+
+    /** Get samples, fetching them from the archive as needed
+     *
+     *  @param reader {@link ArchiveReader} for the archive
+     *  @param url URL of the archive
+     *  @param name Channel name
+     *  @param request_type Raw or optimized request
+     *  @param start Start time
+     *  @param end End time
+     *  @param bins Number of bins for optimized request
+     *  @param cancelled Has the request been cancelled? Samples fetched after cancellation are not cached.
+     *  @return Samples
+     *  @throws UnknownChannelException when channel is not known
+     *  @throws Exception on error
+     */
+    public List<VType> getSamples(final ArchiveReader reader, final String url, final String name,
+                                  final RequestType request_type,
+                                  final Instant start, final Instant end, final int bins,
+                                  final BooleanSupplier cancelled) throws UnknownChannelException, Exception
+    {
+        if (max_bytes <= 0)
+            return fetch(reader, name, request_type, start, end, bins);
+
+        // Raw data has the same 'resolution' for all time ranges,
+        // optimized data depends on the bin size
+        final String key = getKey(url, name, request_type, start, end, bins);
+        final Entry entry;
+        synchronized (entries)
+        {
+            entry = getEntry(key);
+        }
+
+        // Wait for a batch that fetches this entry
+        final CompletableFuture<Void> pending = entry.pending;
+        if (pending != null)
+            while (! pending.isDone()  &&  ! cancelled.getAsBoolean())
+            {
+                try
+                {
+                    pending.get(100, TimeUnit.MILLISECONDS);
+                }
+                catch (TimeoutException ex)
+                {
+                    // Check cancellation, then wait again
+                }
+            }
+
+        final List<VType> result;
+        final long old_bytes, new_bytes;
+        // Concurrent requests for the same entry wait for each other's fetches
+        synchronized (entry)
+        {
+            old_bytes = entry.bytes;
+            final double seconds = Duration.between(start, end).toMillis() / 1000.0;
+            for (Instant[] gap : entry.getGaps(start, end))
+            {
+                // Fetch gap with the same bin size as the complete range
+                final double gap_seconds = Duration.between(gap[0], gap[1]).toMillis() / 1000.0;
+                final int gap_bins = Math.max(2, (int) Math.round(bins * gap_seconds / seconds));
+                final List<VType> fetched = fetch(reader, name, request_type, gap[0], gap[1], gap_bins);
+                // Cancelled reader may have returned incomplete data
+                if (cancelled.getAsBoolean())
+                    break;
+                add(entry, url, name, gap[0], gap[1], fetched);
+            }
+            result = entry.get(start, end);
+            new_bytes = entry.bytes;
+        }
+
+        account(key, entry, new_bytes - old_bytes);
+        return result;
+    }
+
+    /** @param url URL of the archive
+     *  @param name Channel name
+     *  @param request_type Raw or optimized request
+     *  @param start Start time
+     *  @param end End time
+     *  @param bins Number of bins for optimized request
+     *  @return Key for the cache entry
+     */
+    private static String getKey(final String url, final String name,
+                                 final RequestType request_type,
+                                 final Instant start, final Instant end, final int bins)
+    {
+        // Raw data has the same 'resolution' for all time ranges,
+        // optimized data depends on the bin size
+        final long resolution = request_type == RequestType.RAW
+                              ? 0
+                              : Math.max(1, Duration.between(start, end).toMillis() / bins);
+        return url + "\n" + name + "\n" + resolution;
+    }
+
+    /** @param key Key
+     *  @return Existing or new entry for the key. Caller must SYNC on entries
+     */
+    private Entry getEntry(final String key)
+    {
+        Entry entry = entries.get(key);
+        if (entry == null)
+        {
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /** Add fetched samples to entry. Caller must SYNC on entry
+     *  @param entry Entry
+     *  @param url URL of the archive
+     *  @param name Channel name
+     *  @param start Start of fetched time range
+     *  @param end End of fetched time range
+     *  @param fetched Samples for that time range
+     */
+    private static void add(final Entry entry, final String url, final String name,
+                            final Instant start, final Instant end, final List<VType> fetched)
+    {
+        final PlotSample[] samples = new PlotSample[fetched.size()];
+        for (int i=0; i<samples.length; ++i)
+            samples[i] = new PlotSample(url, fetched.get(i));
+        // Data for recent times may still change
+        final Instant complete = Instant.now().minus(RECENT);
+        entry.add(start, end.isBefore(complete) ? end : complete, samples);
+        logger.log(Level.FINE, () -> "Cache fetched " + samples.length + " samples for " + name + " " + start + " - " + end);
+    }
+
+    /** Update memory used by an entry, remove entries beyond the limit
+     *  @param key Key of the entry
+     *  @param entry Entry
+     *  @param delta Change in the estimated memory of the entry
+     */
+    private void account(final String key, final Entry entry, final long delta)
+    {
+        synchronized (entries)
+        {
+            // Only account for entries that are still in the cache
+            if (entries.get(key) == entry)
+                total_bytes += delta;
+            // Remove least recently used entries, but keep the current one
+            final Iterator<Map.Entry<String, Entry>> iter = entries.entrySet().iterator();
+            while (total_bytes > max_bytes  &&  iter.hasNext())
+            {
+                final Map.Entry<String, Entry> oldest = iter.next();
+                if (oldest.getValue() == entry)
+                    continue;
+                total_bytes -= oldest.getValue().bytes;
+                iter.remove();
+            }
+        }
+    }
+
+    /** Reserve a batch fetch of optimized samples for several channels
+     *
+     *  <p>Until the batch is done, {@link #getSamples} waits for it
+     *  instead of fetching the reserved channels.
+     *  Caller must then either {@link Batch#fetch} or {@link Batch#release} the batch.
+     *
+     *  @param url URL of the archive
+     *  @param names Channel names
+     *  @param start Start time
+     *  @param end End time
+     *  @param bins Number of bins
+     *  @return {@link Batch}, or <code>null</code> when cache is disabled or all channels are already reserved
+     */
+    public Batch reserve(final String url, final List<String> names,
+                         final Instant start, final Instant end, final int bins)
+    {
+        if (max_bytes <= 0)
+            return null;
+        final Batch batch = new Batch(url, start, end, bins);
+        synchronized (entries)
+        {
+            for (String name : names)
+            {
+                final String key = getKey(url, name, RequestType.OPTIMIZED, start, end, bins);
+                final Entry entry = getEntry(key);
+                // Skip channels that another batch is fetching
+                if (entry.pending != null)
+                    continue;
+                entry.pending = new CompletableFuture<>();
+                batch.pending.add(entry.pending);
+                batch.names.add(name);
+                batch.keys.add(key);
+                batch.entries.add(entry);
+            }
+        }
+        return batch.names.isEmpty() ? null : batch;
+    }
+
+    /** Fetch of optimized samples for several channels in one request */
+    public class Batch
+    {
+        private final String url;
+        private final Instant start, end;
+        private final int bins;
+        private final List<String> names = new ArrayList<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<Entry> entries = new ArrayList<>();
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        private Batch(final String url, final Instant start, final Instant end, final int bins)
+        {
+            this.url = url;
+            this.start = start;
+            this.end = end;
+            this.bins = bins;
+        }
+
+        /** Fetch samples, then release the batch
+         *
+         *  <p>Channels that already have samples for part of the time range
+         *  are left to {@link #getSamples}, which only fetches the missing time ranges.
+         *  Unknown channels are also left to {@link #getSamples}, which reports them.
+         *
+         *  @param reader {@link ArchiveReader} for the archive
+         *  @param cancelled Has the request been cancelled? Samples fetched after cancellation are not cached.
+         *  @throws Exception on error
+         */
+        public void fetch(final ArchiveReader reader, final BooleanSupplier cancelled) throws Exception
+        {
+            try
+            {
+                // Only fetch channels that have no samples for the time range
+                final List<String> fetch_names = new ArrayList<>();
+                final List<Integer> fetch_index = new ArrayList<>();
+                for (int i=0; i<entries.size(); ++i)
+                {
+                    final List<Instant[]> gaps;
+                    synchronized (entries.get(i))
+                    {
+                        gaps = entries.get(i).getGaps(start, end);
+                    }
+                    if (gaps.size() == 1  &&  gaps.get(0)[0].equals(start)  &&  gaps.get(0)[1].equals(end))
+                    {
+                        fetch_names.add(names.get(i));
+                        fetch_index.add(i);
+                    }
+                    else
+                        release(i);
+                }
+                if (fetch_names.isEmpty())
+                    return;
+
+                final List<ValueIterator> iters = reader.getOptimizedValues(fetch_names, start, end, bins);
+                int f = 0;
+                try
+                {
+                    for (/**/; f<iters.size(); ++f)
+                    {
+                        final ValueIterator iter = iters.get(f);
+                        final int i = fetch_index.get(f);
+                        if (iter != null)
+                        {
+                            final List<VType> fetched = new ArrayList<>();
+                            while (iter.hasNext())
+                                fetched.add(iter.next());
+                            iter.close();
+                            // Cancelled reader may have returned incomplete data
+                            if (! cancelled.getAsBoolean())
+                            {
+                                final Entry entry = entries.get(i);
+                                final long delta;
+                                synchronized (entry)
+                                {
+                                    final long old_bytes = entry.bytes;
+                                    add(entry, url, names.get(i), start, end, fetched);
+                                    delta = entry.bytes - old_bytes;
+                                }
+                                account(keys.get(i), entry, delta);
+                            }
+                        }
+                        release(i);
+                    }
+                }
+                finally
+                {
+                    for (/**/; f<iters.size(); ++f)
+                        if (iters.get(f) != null)
+                            iters.get(f).close();
+                }
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        /** Release all channels that have not been fetched */
+        public void release()
+        {
+            for (int i=0; i<entries.size(); ++i)
+                release(i);
+        }
+
+        /** @param i Index of channel to release, allowing {@link #getSamples} to continue */
+        private void release(final int i)
+        {
+            final Entry entry = entries.get(i);
+            synchronized (ArchiveSampleCache.this.entries)
+            {
+                if (entry.pending == pending.get(i))
+                    entry.pending = null;
+            }
+            pending.get(i).complete(null);
+        }
+    }
+
+    /** Fetch samples from archive
+     *  @param reader {@link ArchiveReader} for the archive
+     *  @param name Channel name
+     *  @param request_type Raw or optimized request
+     *  @param start Start time
+     *  @param end End time
+     *  @param bins Number of bins for optimized request
+     *  @return Samples
+     *  @throws UnknownChannelException when channel is not known
+     *  @throws Exception on error
+     */
+    private static List<VType> fetch(final ArchiveReader reader, final String name,
+                                     final RequestType request_type,
+                                     final Instant start, final Instant end, final int bins) throws UnknownChannelException, Exception
+    {
+        final ValueIterator value_iter;
+        if (request_type == RequestType.RAW)
+            value_iter = reader.getRawValues(name, start, end);
+        else
+            value_iter = reader.getOptimizedValues(name, start, end, bins);
+        // Get samples into array
+        final List<VType> result = new ArrayList<>();
+        while (value_iter.hasNext())
+            result.add(value_iter.next());
+        value_iter.close();
+        return result;
+    }
+
+    /** Remove all entries */
+    public void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+            total_bytes = 0;
+        }
+    }
+}
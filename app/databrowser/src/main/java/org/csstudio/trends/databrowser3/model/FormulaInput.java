@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.trends.databrowser3.model;
 
+import java.time.Instant;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -28,6 +29,9 @@ public class FormulaInput
     /** Index of the sample that next() will return or -1 when 'done' */
     private int index = -1;
 
+    /** Rewrite count of the item's samples when last checked */
+    private long rewrite_count = -1;
+
     /** Constructor
      *  @param item ModelItem that provides the input data
      *  @param variable_name Name used in formula for this input
@@ -74,6 +78,38 @@ public class FormulaInput
         }
     }
 
+    /** Position the sample iterator at the first sample at or after a time
+     *  @see #next()
+     *  @param time Time stamp
+     *  @return Last sample before that time or <code>null</code>
+     *  @throws Exception on error
+     */
+    public VType seek(final Instant time) throws Exception
+    {
+        final PlotSamples samples = item.getSamples();
+        if (! samples.getLock().tryLock(10, TimeUnit.SECONDS))
+            throw new TimeoutException("Cannot lock " + samples);
+        try
+        {
+            // Binary search for first sample >= time
+            int low = 0, high = samples.size();
+            while (low < high)
+            {
+                final int mid = (low + high) >>> 1;
+                if (samples.get(mid).getPosition().compareTo(time) < 0)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            index = low;
+            return low > 0 ? samples.get(low - 1).getVType() : null;
+        }
+        finally
+        {
+            samples.getLock().unlock();
+        }
+    }
+
     /** Iterate over the samples of the input's ModelItem
      *  @return Next value or <code>null</code>
      *  @throws Exception
@@ -103,6 +139,65 @@ public class FormulaInput
         return result;
     }
 
+    /** @return Number of samples
+     *  @throws Exception on error
+     */
+    public int size() throws Exception
+    {
+        final PlotSamples samples = item.getSamples();
+        if (! samples.getLock().tryLock(10, TimeUnit.SECONDS))
+            throw new TimeoutException("Cannot lock " + samples);
+        try
+        {
+            return samples.size();
+        }
+        finally
+        {
+            samples.getLock().unlock();
+        }
+    }
+
+    /** Get time before which samples will not change
+     *  <p>
+     *  New samples are added at the end.
+     *  The last sample, however, may be replaced,
+     *  for example the continuation of a PV's value to 'now'.
+     *  Samples before the second-to-last one are thus final.
+     *
+     *  @return Time stamp before which samples are final or <code>null</code>
+     *  @throws Exception on error
+     */
+    public Instant getFinalTime() throws Exception
+    {
+        if (item instanceof FormulaItem)
+            return ((FormulaItem) item).getFinalTime();
+
+        final PlotSamples samples = item.getSamples();
+        if (! samples.getLock().tryLock(10, TimeUnit.SECONDS))
+            throw new TimeoutException("Cannot lock " + samples);
+        try
+        {
+            final int size = samples.size();
+            return size >= 2 ? samples.get(size - 2).getPosition() : null;
+        }
+        finally
+        {
+            samples.getLock().unlock();
+        }
+    }
+
+    /** Check if samples were modified other than by adding newer samples
+     *  since the last call, for example because archived data was merged.
+     *  @return <code>true</code> if samples were re-written
+     */
+    public boolean checkRewritten()
+    {
+        final long count = item.getSamples().getRewriteCount();
+        final boolean rewritten = count != rewrite_count;
+        rewrite_count = count;
+        return rewritten;
+    }
+
     /** Check for new samples.
      *  Note that this will not reset the new-sample flag,
      *  so its use has to be coordinated with the overall mechanism
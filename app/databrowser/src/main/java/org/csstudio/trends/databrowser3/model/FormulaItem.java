@@ -11,9 +11,8 @@ import static org.csstudio.trends.databrowser3.Activator.logger;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import javax.xml.stream.XMLStreamWriter;
@@ -22,6 +21,7 @@ import org.csstudio.apputil.formula.Formula;
 import org.csstudio.apputil.formula.VariableNode;
 import org.csstudio.trends.databrowser3.Messages;
 import org.csstudio.trends.databrowser3.persistence.XMLPersistence;
+import org.csstudio.trends.databrowser3.preferences.Preferences;
 import org.epics.vtype.Alarm;
 import org.epics.vtype.AlarmSeverity;
 import org.epics.vtype.AlarmStatus;
@@ -75,7 +75,13 @@ public class FormulaItem extends ModelItem
     /** Samples of the formula, computed from inputs.
      *  Access must lock samples
      */
-    private final PlotSampleArray samples = new PlotSampleArray();
+    private final PlotSampleColumns samples = new PlotSampleColumns(new AtomicInteger(0), Preferences.buffer_size);
+
+    /** Time stamp before which computed samples are final,
+     *  <code>null</code> to compute all samples
+     *  @see #formula for locking
+     */
+    private volatile Instant final_time = null;
 
     /** Initialize formula
      *  @param name Name of the Formula item
@@ -144,6 +150,7 @@ public class FormulaItem extends ModelItem
             for (int i=0; i<variables.length; ++i)
                 variables[i] = new VariableNode(inputs[i].getVariableName());
             this.formula = new Formula(expression, variables);
+            final_time = null;
         }
         finally
         {
@@ -152,22 +159,82 @@ public class FormulaItem extends ModelItem
         fireItemLookChanged();
     }
 
+    /** @return Time stamp before which computed samples will not change, or <code>null</code> */
+    Instant getFinalTime()
+    {
+        return final_time;
+    }
+
+    /** @param value Input sample
+     *  @param i Index of input
+     *  @param min Minimum of inputs, updated
+     *  @param val Value of inputs, updated
+     *  @param max Maximum of inputs, updated
+     *  @return <code>true</code> if sample provided min/max
+     */
+    private static boolean setInput(final VType value, final int i,
+                                    final double[] min, final double[] val, final double[] max)
+    {
+        if (value instanceof VStatistics)
+        {
+            final VStatistics mmv = (VStatistics)value;
+            min[i] = mmv.getMin();
+            val[i] = mmv.getAverage();
+            max[i] = mmv.getMax();
+            return true;
+        }
+        min[i] = max[i] = Double.NaN;
+        val[i] = VTypeHelper.toDouble(value);
+        // Use NaN for any non-number
+        if (Double.isInfinite(val[i]))
+            val[i] = Double.NaN;
+        return false;
+    }
+
     /** Evaluate formula for each input sample
      *  <p>
      *  Iterates over the input samples in a manner of spreadsheet or
      *  staircase-interpolation: An input with a time stamp is valid
      *  until there's a sample with a greater time stamp.
+     *  <p>
+     *  Samples computed before the <code>final_time</code>
+     *  are kept, only newer samples are computed.
+     *  Everything is re-computed when the formula changed
+     *  or inputs were re-written, for example by merging archived data.
      */
     private void compute()
     {
         if (! samples.lock.isWriteLockedByCurrentThread())
             logger.log(Level.WARNING, "Samples for " + getName() + " are not locked! " + samples.lock, new Exception("Stack detail"));
 
-        final List<PlotSample> result = new ArrayList<>();
         final Display display = Display.none();
 
         try
         {
+            // Check all inputs to note their current rewrite count
+            boolean rewritten = final_time == null;
+            for (FormulaInput input : inputs)
+                if (input.checkRewritten())
+                    rewritten = true;
+
+            // Results before the oldest 'final' time of all inputs will not change.
+            // Determine that time before reading any samples,
+            // since inputs may receive new samples while computing.
+            Instant next_final_time = null;
+            int input_samples = 0;
+            for (int i = 0; i < inputs.length; i++)
+            {
+                input_samples += inputs[i].size();
+                final Instant time = inputs[i].getFinalTime();
+                if (time == null)
+                {
+                    next_final_time = null;
+                    break;
+                }
+                if (i == 0  ||  time.compareTo(next_final_time) < 0)
+                    next_final_time = time;
+            }
+
             // 'Current' value for each input or null when no more
             // In computation loop, values is actually moved to the _next_
             // value
@@ -180,15 +247,44 @@ public class FormulaItem extends ModelItem
 
             // Determine first sample for each input
             boolean more_input = false;
-            for (int i = 0; i < values.length; i++)
+            if (rewritten)
+            {
+                samples.clear();
+                samples.markRewritten();
+                final int capacity = Math.max(Preferences.buffer_size, input_samples);
+                if (capacity != samples.getCapacity())
+                    samples.setCapacity(capacity);
+                for (int i = 0; i < values.length; i++)
+                {
+                    // Initially, none have any data
+                    min[i] = val[i] = max[i] = Double.NaN;
+                    // Is there an initial value for any input?
+                    values[i] = inputs[i].first();
+                    if (values[i] != null)
+                        more_input = true;
+                }
+            }
+            else
             {
-                // Initially, none have any data
-                min[i] = val[i] = max[i] = Double.NaN;
-                // Is there an initial value for any input?
-                values[i] = inputs[i].first();
-                if (values[i] != null)
-                    more_input = true;
+                // Remove results that were based on non-final input
+                samples.truncate(samples.findSampleLessThan(final_time) + 1);
+                if (input_samples > samples.getCapacity())
+                    samples.setCapacity(input_samples);
+                for (int i = 0; i < values.length; i++)
+                {
+                    // Continue with the input sample that was valid at final_time
+                    final VType previous = inputs[i].seek(final_time);
+                    if (previous == null)
+                        min[i] = val[i] = max[i] = Double.NaN;
+                    else
+                        setInput(previous, i, min, val, max);
+                    values[i] = inputs[i].next();
+                    if (values[i] != null)
+                        more_input = true;
+                }
             }
+            // In case of error, re-compute everything
+            final_time = null;
 
             // Compute result for each 'line in the spreadsheet'
             Instant time;
@@ -223,22 +319,8 @@ public class FormulaItem extends ModelItem
                     }
                     else if (VTypeHelper.getTimestamp(values[i]).compareTo(time) <= 0)
                     {   // Input is valid before-and-up-to 'time'
-                        if (values[i] instanceof VStatistics)
-                        {
-                            final VStatistics mmv = (VStatistics)values[i];
-                            min[i] = mmv.getMin();
-                            val[i] = mmv.getAverage();
-                            max[i] = mmv.getMax();
-                        }
-                        else
-                        {
-                            min[i] = max[i] = Double.NaN;
-                            val[i] = VTypeHelper.toDouble(values[i]);
-                            // Use NaN for any non-number
-                            if (Double.isInfinite(val[i]))
-                                val[i] = Double.NaN;
+                        if (! setInput(values[i], i, min, val, max))
                             have_min_max = false;
-                        }
                         // Move to next input sample
                         values[i] = inputs[i].next();
                     }
@@ -278,15 +360,14 @@ public class FormulaItem extends ModelItem
                     else
                         value = VDouble.of(res_val, OK_FORMULA, timestamp, display);
                 }
-                result.add(new PlotSample(Messages.Formula, value));
+                samples.add(Messages.Formula, value);
             }
+            final_time = next_final_time;
         }
         catch (Exception ex)
         {
             logger.log(Level.WARNING, "Error computing " + this, ex);
         }
-        // Update PlotSamples
-        samples.set(result);
     }
 
     /** Re-evaluate the formula in case some of the input samples changed.
@@ -389,6 +470,7 @@ public class FormulaItem extends ModelItem
         this.model = Optional.empty();
         this.inputs = null;
         this.variables = null;
-        this.samples.set(Collections.emptyList());
+        this.samples.clear();
+        this.final_time = null;
     }
 }
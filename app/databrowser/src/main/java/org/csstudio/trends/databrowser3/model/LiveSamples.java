@@ -10,7 +10,6 @@ package org.csstudio.trends.databrowser3.model;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.csstudio.trends.databrowser3.preferences.Preferences;
-import org.phoebus.framework.util.RingBuffer;
 
 /** Ring buffer for 'live' samples.
  *  <p>
@@ -19,25 +18,13 @@ import org.phoebus.framework.util.RingBuffer;
  *  @author Kay Kasemir
  *  @author Takashi Nakamoto changed LiveSamples to handle waveform index.
  */
-public class LiveSamples extends PlotSamples
+public class LiveSamples extends PlotSampleColumns
 {
     // No locking in here, all access is via PVSamples
 
-    private RingBuffer<PlotSample> samples =
-        new RingBuffer<PlotSample>(Preferences.buffer_size);
-
-    /** Waveform index */
-    final private AtomicInteger waveform_index;
-
     LiveSamples(final AtomicInteger waveform_index)
     {
-        this.waveform_index = waveform_index;
-    }
-
-    /** @return Maximum number of samples in ring buffer */
-    public int getCapacity()
-    {
-        return samples.getCapacity();
+        super(waveform_index, Preferences.buffer_size);
     }
 
     /** Set new capacity.
@@ -46,37 +33,27 @@ public class LiveSamples extends PlotSamples
      *  @param new_capacity New sample count capacity
      *  @throws Exception on out-of-memory error
      */
+    @Override
     public void setCapacity(int new_capacity) throws Exception
     {
         if (new_capacity < 10)
             new_capacity = 10;
-        samples.setCapacity(new_capacity);
+        super.setCapacity(new_capacity);
     }
 
     /** @param sample Sample to add to ring buffer */
+    @Override
     void add(final PlotSample sample)
     {
-        sample.setWaveformIndex(waveform_index);
-        samples.add(sample);
+        super.add(sample);
         have_new_samples.set(true);
     }
 
-    @Override
-    public int size()
-    {
-        return samples.size();
-    }
-
-    @Override
-    public PlotSample get(final int i)
-    {
-        return samples.get(i);
-    }
-
     /** Delete all samples */
+    @Override
     public void clear()
     {
-        samples.clear();
+        super.clear();
         have_new_samples.set(true);
     }
 }
@@ -17,6 +17,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
+import org.csstudio.javafx.rtplot.data.PlotDataColumns;
 import org.csstudio.trends.databrowser3.Messages;
 import org.epics.vtype.AlarmSeverity;
 import org.epics.vtype.Time;
@@ -39,7 +40,7 @@ import org.phoebus.util.time.TimeRelativeInterval;
  *  @author Takashi Nakamoto changed PVSamples to handle waveform index.
  */
 @SuppressWarnings("nls")
-public class PVSamples extends PlotSamples
+public class PVSamples extends PlotSamples implements PlotDataColumns<Instant>
 {
     /* history and live are each PlotSamples, i.e. they
      * have a read/write lock, but those are never used.
@@ -90,8 +91,7 @@ public class PVSamples extends PlotSamples
         final int raw = getRawSize();
         if (raw <= 0)
             return raw;
-        final PlotSample last = get(raw-1);
-        if (VTypeHelper.getSeverity(last.getVType()) == AlarmSeverity.UNDEFINED)
+        if (getRawSeverity(raw-1) == AlarmSeverity.UNDEFINED)
             return raw;
         // Last sample is valid, so it should still apply 'now'
         return raw+1;
@@ -138,6 +138,79 @@ public class PVSamples extends PlotSamples
         return live.get(index - num_old);
     }
 
+    /** @param index 0... getRawSize()-1
+     *  @return Severity of sample from historic or live sample subsection
+     */
+    private AlarmSeverity getRawSeverity(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getSeverity(index);
+        return live.getSeverity(index - num_old);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getPositionAsDouble(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getPositionAsDouble(index);
+        if (index < num_old + live.size())
+            return live.getPositionAsDouble(index - num_old);
+        // Continuation to 'now'
+        final Instant time = get(index).getPosition();
+        return time.getEpochSecond() + 1e-9*time.getNano();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getValue(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getValue(index);
+        if (index < num_old + live.size())
+            return live.getValue(index - num_old);
+        return get(index).getValue();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getStdDev(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getStdDev(index);
+        if (index < num_old + live.size())
+            return live.getStdDev(index - num_old);
+        return get(index).getStdDev();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getMin(index);
+        if (index < num_old + live.size())
+            return live.getMin(index - num_old);
+        return get(index).getMin();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax(final int index)
+    {
+        final int num_old = history.size();
+        if (index < num_old)
+            return history.getMax(index);
+        if (index < num_old + live.size())
+            return live.getMax(index - num_old);
+        return get(index).getMax();
+    }
+
     /** Test if samples changed since the last time
      *  <code>testAndClearNewSamplesFlag</code> was called.
      *  @return <code>true</code> if there were new samples
@@ -179,6 +252,7 @@ public class PVSamples extends PlotSamples
                 history.clear();
             }
             history.mergeArchivedData(source, result);
+            markRewritten();
         }
         finally
         {
@@ -213,7 +287,7 @@ public class PVSamples extends PlotSamples
             // History ends before the start of 'live' samples.
             // Adding a live sample might have moved the ring buffer,
             // so need to update whenever live data is extended.
-            history.setBorderTime(Optional.of(live.get(0).getPosition()));
+            history.setBorderTime(Optional.of(live.getTime(0)));
         }
         finally
         {
@@ -231,6 +305,7 @@ public class PVSamples extends PlotSamples
         {
             history.clear();
             live.clear();
+            markRewritten();
         }
         finally
         {
@@ -274,17 +349,17 @@ public class PVSamples extends PlotSamples
             if (live.size() < live.getCapacity() || live.size() == 0) return false;
             //if there is no history data, there is nothing to refresh anyway
             if (history.getRawSize() == 0) return false;
-            PlotSample first = live.get(0);
+            final Instant first = live.getTime(0);
             //if the first time in the live data is smaller than the visible start time,
             //the buffer is large enough to contain all the "currently" visible data
-            if (first.getPosition().compareTo(abs.getStart()) <= 0) return false;
-            PlotSample last = live.get(live.size()-1);
+            if (first.compareTo(abs.getStart()) <= 0) return false;
+            final Instant last = live.getTime(live.size()-1);
             //if the las sample is greater than the current end time than we are not
             //looking at the live data
-            if (last.getPosition().compareTo(abs.getEnd()) > 0) return false;
-            PlotSample historyLast = history.getRawSample(history.getRawSize()-1);
+            if (last.compareTo(abs.getEnd()) > 0) return false;
+            final Instant historyLast = history.getRawTime(history.getRawSize()-1);
             //if the last raw history data is smaller than the first live sample, do refresh
-            if (historyLast.getPosition().compareTo(first.getPosition()) < 0) {
+            if (historyLast.compareTo(first) < 0) {
                 samplesAddedSinceLastRefresh = 0;
                 emptyHistoryOnAdd = true;
                 return true;
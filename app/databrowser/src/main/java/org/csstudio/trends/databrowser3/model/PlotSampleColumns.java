@@ -0,0 +1,632 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser3.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.javafx.rtplot.data.PlotDataColumns;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.AlarmStatus;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VStatistics;
+import org.epics.vtype.VType;
+import org.phoebus.archive.vtype.VTypeHelper;
+
+/** Plot samples held in primitive arrays
+ *
+ *  <p>Scalar {@link VDouble} and {@link VStatistics} samples,
+ *  which is what most PVs and archive requests provide,
+ *  are kept as epoch-nanosecond time stamp, value, severity
+ *  and, only for statistics, std. deviation, min, max and count.
+ *  Source, alarm status and message, display info etc.
+ *  rarely change from one sample to the next
+ *  and are shared via a small table of 'contexts'.
+ *  A {@link PlotSample} is only created when {@link #get(int)} is called,
+ *  for example for a tool tip or export,
+ *  while plotting reads the arrays via {@link PlotDataColumns}.
+ *
+ *  <p>Other samples (strings, enums, arrays, ...) are kept as {@link PlotSample}.
+ *
+ *  <p>Samples are held in a ring buffer:
+ *  When the capacity is reached, adding a sample
+ *  drops the oldest one.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PlotSampleColumns extends PlotSamples implements PlotDataColumns<Instant>
+{
+    // No locking in here, all access is via PVSamples
+
+    /** Maximum number of contexts.
+     *  When exceeded, unused contexts are removed.
+     *  If all are still used, samples are kept as {@link PlotSample}
+     */
+    private static final int MAX_CONTEXTS = 1000;
+
+    /** Marker for a sample that's kept as {@link PlotSample} */
+    private static final int OBJECT = -1;
+
+    private static final AlarmSeverity[] SEVERITIES = AlarmSeverity.values();
+
+    /** Sample info that's shared by many samples */
+    private static class Context
+    {
+        final String source;
+        final AlarmStatus status;
+        final String message;
+        final Display display;
+        final Integer user_tag;
+        final boolean valid;
+        final boolean statistics;
+
+        Context(final String source, final Alarm alarm, final Time time, final Display display, final boolean statistics)
+        {
+            this.source = source;
+            this.status = alarm.getStatus();
+            this.message = alarm.getName();
+            this.display = display;
+            this.user_tag = time.getUserTag();
+            this.valid = time.isValid();
+            this.statistics = statistics;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(source, status, message, display, user_tag, valid, statistics);
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (! (obj instanceof Context))
+                return false;
+            final Context other = (Context) obj;
+            return valid == other.valid  &&  statistics == other.statistics  &&
+                   status == other.status  &&
+                   Objects.equals(source, other.source)  &&
+                   Objects.equals(message, other.message)  &&
+                   Objects.equals(display, other.display)  &&
+                   Objects.equals(user_tag, other.user_tag);
+        }
+    }
+
+    private final List<Context> contexts = new ArrayList<>();
+    private final Map<Context, Integer> context_index = new HashMap<>();
+
+    /** Number of samples added since contexts were last pruned */
+    private int added_since_prune = 0;
+
+    /** Waveform index */
+    private final AtomicInteger waveform_index;
+
+    //  Ring buffer as in RingBuffer:
+    //  Indices of valid entries are
+    //  [start], [start+1], ..., [start+size-1]
+    //  with wrap-around at [capacity-1].
+    private int start = 0, size = 0, capacity;
+
+    /** Time stamp as epoch nanoseconds */
+    private long[] nanos;
+    private double[] value;
+    /** {@link AlarmSeverity} ordinal */
+    private byte[] severity;
+    /** Index into contexts or OBJECT */
+    private int[] context;
+
+    /** Columns for {@link VStatistics}, allocated when needed */
+    private double[] stddev, min, max;
+    private int[] count;
+
+    /** Samples that are not held in columns, allocated when needed */
+    private PlotSample[] objects;
+
+    /** @param waveform_index Waveform index
+     *  @param capacity Initial capacity
+     */
+    PlotSampleColumns(final AtomicInteger waveform_index, final int capacity)
+    {
+        this.waveform_index = waveform_index;
+        this.capacity = capacity;
+        nanos = new long[capacity];
+        value = new double[capacity];
+        severity = new byte[capacity];
+        context = new int[capacity];
+    }
+
+    /** @return Waveform index */
+    AtomicInteger getWaveformIndex()
+    {
+        return waveform_index;
+    }
+
+    /** @return Maximum number of samples */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /** Set new capacity.
+     *  <p>
+     *  Tries to preserve the newest samples.
+     *  @param new_capacity New sample count capacity
+     *  @throws Exception on out-of-memory error
+     */
+    public void setCapacity(final int new_capacity) throws Exception
+    {
+        try
+        {
+            final int copy_size = Math.min(size, new_capacity);
+            final int copy_start = size - copy_size;
+            nanos = resize(nanos, new long[new_capacity], copy_start, copy_size);
+            value = resize(value, new double[new_capacity], copy_start, copy_size);
+            severity = resize(severity, new byte[new_capacity], copy_start, copy_size);
+            context = resize(context, new int[new_capacity], copy_start, copy_size);
+            if (stddev != null)
+            {
+                stddev = resize(stddev, new double[new_capacity], copy_start, copy_size);
+                min = resize(min, new double[new_capacity], copy_start, copy_size);
+                max = resize(max, new double[new_capacity], copy_start, copy_size);
+                count = resize(count, new int[new_capacity], copy_start, copy_size);
+            }
+            if (objects != null)
+                objects = resize(objects, new PlotSample[new_capacity], copy_start, copy_size);
+            start = 0;
+            size = copy_size;
+            capacity = new_capacity;
+        }
+        catch (OutOfMemoryError err)
+        {
+            throw new Exception("Out of memory: " + err.getMessage());
+        }
+    }
+
+    /** Copy section of ring into start of new array
+     *  @param old Old ring array
+     *  @param array New array
+     *  @param first Index of first sample to copy, 0 .. size-1
+     *  @param count Number of samples to copy
+     *  @return New array
+     */
+    private <A> A resize(final A old, final A array, final int first, final int count)
+    {
+        final int r = ring(first);
+        final int head = Math.min(count, capacity - r);
+        System.arraycopy(old, r, array, 0, head);
+        System.arraycopy(old, 0, array, head, count - head);
+        return array;
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Index into column arrays
+     */
+    private int ring(final int i)
+    {
+        final int r = start + i;
+        return r >= capacity ? r - capacity : r;
+    }
+
+    /** @return Index into column arrays for the next sample */
+    private int next()
+    {
+        ++added_since_prune;
+        if (size >= capacity)
+        {   // Overwrite oldest element
+            final int r = start;
+            if (++start >= capacity)
+                start = 0;
+            if (objects != null)
+                objects[r] = null;
+            return r;
+        }
+        return ring(size++);
+    }
+
+    /** @param source Info about the source of the sample
+     *  @param value Value to add
+     */
+    void add(final String source, final VType value)
+    {
+        final int c = getContext(source, value);
+        if (c == OBJECT)
+            addObject(new PlotSample(waveform_index, source, value));
+        else
+            addColumns(c, value);
+    }
+
+    /** @param sample Sample to add */
+    void add(final PlotSample sample)
+    {
+        final int c = getContext(sample.getSource(), sample.getVType());
+        if (c == OBJECT  ||  ! isDefaultInfo(sample))
+            addObject(sample);
+        else
+            addColumns(c, sample.getVType());
+    }
+
+    /** @param sample Sample
+     *  @return <code>true</code> if the sample info can be re-created from its value
+     */
+    private static boolean isDefaultInfo(final PlotSample sample)
+    {
+        final Alarm alarm = Alarm.alarmOf(sample.getVType());
+        if (alarm.getSeverity() == AlarmSeverity.NONE)
+            return sample.getInfo().isEmpty();
+        return sample.getInfo().equals(alarm.getSeverity() + " / " + alarm.getName());
+    }
+
+    /** @param source Source of the sample
+     *  @param value Value of the sample
+     *  @return Index of context or OBJECT if value can't be held in columns
+     */
+    private int getContext(final String source, final VType value)
+    {
+        final boolean statistics;
+        final Display display;
+        if (value instanceof VDouble)
+        {
+            statistics = false;
+            display = ((VDouble) value).getDisplay();
+        }
+        else if (value instanceof VStatistics)
+        {
+            statistics = true;
+            display = ((VStatistics) value).getDisplay();
+        }
+        else
+            return OBJECT;
+
+        final Time time = Time.timeOf(value);
+        if (time == null  ||  toNanos(time.getTimestamp()) == null)
+            return OBJECT;
+
+        return getContext(new Context(source, Alarm.alarmOf(value), time, display, statistics));
+    }
+
+    /** @param key Context
+     *  @return Index of context or OBJECT if there are too many contexts
+     */
+    private int getContext(final Context key)
+    {
+        final Integer index = context_index.get(key);
+        if (index != null)
+            return index;
+        if (contexts.size() >= MAX_CONTEXTS  &&  ! pruneContexts())
+            return OBJECT;
+        final int c = contexts.size();
+        contexts.add(key);
+        context_index.put(key, c);
+        return c;
+    }
+
+    /** Remove contexts that are no longer used by any sample
+     *
+     *  <p>Scans all samples, so only attempted after about
+     *  half of the samples have been replaced since the last attempt.
+     *
+     *  @return <code>true</code> if contexts were removed
+     */
+    private boolean pruneContexts()
+    {
+        if (added_since_prune < size / 2)
+            return false;
+        added_since_prune = 0;
+
+        final int[] remap = new int[contexts.size()];
+        Arrays.fill(remap, OBJECT);
+        final List<Context> used = new ArrayList<>();
+        for (int i=0; i<size; ++i)
+        {
+            final int c = context[ring(i)];
+            if (c != OBJECT  &&  remap[c] == OBJECT)
+            {
+                remap[c] = used.size();
+                used.add(contexts.get(c));
+            }
+        }
+        if (used.size() >= contexts.size())
+            return false;
+
+        for (int i=0; i<size; ++i)
+        {
+            final int r = ring(i);
+            if (context[r] != OBJECT)
+                context[r] = remap[context[r]];
+        }
+        contexts.clear();
+        contexts.addAll(used);
+        context_index.clear();
+        for (int c=0; c<contexts.size(); ++c)
+            context_index.put(contexts.get(c), c);
+        return true;
+    }
+
+    /** @param time Time stamp
+     *  @return Epoch nanoseconds or <code>null</code> when out of range
+     */
+    private static Long toNanos(final Instant time)
+    {
+        try
+        {
+            return Math.addExact(Math.multiplyExact(time.getEpochSecond(), 1000000000L), time.getNano());
+        }
+        catch (ArithmeticException ex)
+        {
+            return null;
+        }
+    }
+
+    private void addColumns(final int c, final VType sample)
+    {
+        final int r = next();
+        nanos[r] = toNanos(Time.timeOf(sample).getTimestamp());
+        severity[r] = (byte) Alarm.alarmOf(sample).getSeverity().ordinal();
+        context[r] = c;
+        if (sample instanceof VStatistics)
+        {
+            final VStatistics stats = (VStatistics) sample;
+            allocateStats();
+            value[r] = stats.getAverage();
+            stddev[r] = stats.getStdDev();
+            min[r] = stats.getMin();
+            max[r] = stats.getMax();
+            count[r] = stats.getNSamples();
+        }
+        else
+            value[r] = ((VDouble) sample).getValue();
+    }
+
+    private void allocateStats()
+    {
+        if (stddev != null)
+            return;
+        stddev = new double[capacity];
+        min = new double[capacity];
+        max = new double[capacity];
+        count = new int[capacity];
+    }
+
+    private void addObject(final PlotSample sample)
+    {
+        sample.setWaveformIndex(waveform_index);
+        if (objects == null)
+            objects = new PlotSample[capacity];
+        final int r = next();
+        // Keep time stamp for search, clamped when out of range
+        final Long stamp = toNanos(sample.getPosition());
+        if (stamp != null)
+            nanos[r] = stamp;
+        else
+            nanos[r] = sample.getPosition().getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        severity[r] = (byte) VTypeHelper.getSeverity(sample.getVType()).ordinal();
+        context[r] = OBJECT;
+        objects[r] = sample;
+    }
+
+    /** Append samples from other columns
+     *  @param other Source of samples
+     *  @param first Index of first sample to copy
+     *  @param count Number of samples to copy
+     */
+    void add(final PlotSampleColumns other, final int first, final int count)
+    {
+        for (int i=first; i<first+count; ++i)
+        {
+            final int o = other.ring(i);
+            final int c = other.context[o] == OBJECT
+                        ? OBJECT
+                        : getContext(other.contexts.get(other.context[o]));
+            if (c == OBJECT)
+            {
+                addObject(other.get(i));
+                continue;
+            }
+            final int r = next();
+            nanos[r] = other.nanos[o];
+            value[r] = other.value[o];
+            severity[r] = other.severity[o];
+            context[r] = c;
+            if (contexts.get(c).statistics)
+            {
+                allocateStats();
+                stddev[r] = other.stddev[o];
+                min[r] = other.min[o];
+                max[r] = other.max[o];
+                this.count[r] = other.count[o];
+            }
+        }
+    }
+
+    /** Remove the newest samples
+     *  @param new_size Number of samples to keep
+     */
+    void truncate(final int new_size)
+    {
+        if (new_size >= size)
+            return;
+        if (objects != null)
+            for (int i=Math.max(0, new_size); i<size; ++i)
+                objects[ring(i)] = null;
+        size = Math.max(0, new_size);
+    }
+
+    /** Delete all samples */
+    public void clear()
+    {
+        start = size = 0;
+        objects = null;
+        stddev = min = max = null;
+        count = null;
+        contexts.clear();
+        context_index.clear();
+        added_since_prune = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PlotSample get(final int i)
+    {
+        if (i < 0  ||  i >= size)
+            throw new ArrayIndexOutOfBoundsException(i);
+        final int r = ring(i);
+        final int c = context[r];
+        if (c == OBJECT)
+            return objects[r];
+
+        final Context ctx = contexts.get(c);
+        final Alarm alarm = Alarm.of(SEVERITIES[severity[r]], ctx.status, ctx.message);
+        final Time time = Time.of(Instant.ofEpochSecond(0, nanos[r]), ctx.user_tag, ctx.valid);
+        final VType sample = ctx.statistics
+            ? VStatistics.of(value[r], stddev[r], min[r], max[r], count[r], alarm, time, ctx.display)
+            : VDouble.of(value[r], alarm, time, ctx.display);
+        return new PlotSample(waveform_index, ctx.source, sample);
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Time stamp of sample
+     */
+    public Instant getTime(final int i)
+    {
+        final int r = ring(i);
+        if (context[r] == OBJECT)
+            return objects[r].getPosition();
+        return Instant.ofEpochSecond(0, nanos[r]);
+    }
+
+    /** @param i Sample index 0 .. size()-1
+     *  @return Alarm severity of sample
+     */
+    public AlarmSeverity getSeverity(final int i)
+    {
+        return SEVERITIES[severity[ring(i)]];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getPositionAsDouble(final int i)
+    {
+        final int r = ring(i);
+        if (context[r] == OBJECT)
+        {
+            final Instant time = objects[r].getPosition();
+            return time.getEpochSecond() + 1e-9*time.getNano();
+        }
+        final long stamp = nanos[r];
+        return (stamp / 1000000000L) + 1e-9*(stamp % 1000000000L);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getValue(final int i)
+    {
+        final int r = ring(i);
+        if (context[r] == OBJECT)
+            return objects[r].getValue();
+        // Scalar: Only index 0 has a value
+        return waveform_index.get() == 0 ? value[r] : Double.NaN;
+    }
+
+    /** @param r Index into column arrays
+     *  @return <code>true</code> if sample has statistics that should be plotted
+     */
+    private boolean haveStats(final int r)
+    {
+        // Like PlotSample#getStats, only plot statistics for index 0
+        return contexts.get(context[r]).statistics  &&  waveform_index.get() == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getStdDev(final int i)
+    {
+        final int r = ring(i);
+        if (context[r] == OBJECT)
+            return objects[r].getStdDev();
+        return haveStats(r) ? stddev[r] : Double.NaN;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMin(final int i)
+    {
+        final int r = ring(i);
+        if (context[r] == OBJECT)
+            return objects[r].getMin();
+        return haveStats(r) ? min[r] : Double.NaN;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMax(final int i)
+    {
+        final int r = ring(i);
+        if (context[r] == OBJECT)
+            return objects[r].getMax();
+        return haveStats(r) ? max[r] : Double.NaN;
+    }
+
+    /** Find the last sample that's before the given time
+     *  @param time Time to look for
+     *  @return Index of last sample before time, or -1
+     */
+    int findSampleLessThan(final Instant time)
+    {
+        final Long stamp = toNanos(time);
+        final long goal = stamp != null ? stamp : (time.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE);
+        // Binary search for first sample >= goal
+        int low = 0, high = size;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (nanos[ring(mid)] < goal)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low - 1;
+    }
+
+    /** Find the first sample that's after the given time
+     *  @param time Time to look for
+     *  @return Index of first sample after time, or -1
+     */
+    int findSampleGreaterThan(final Instant time)
+    {
+        final Long stamp = toNanos(time);
+        final long goal = stamp != null ? stamp : (time.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE);
+        // Binary search for first sample > goal
+        int low = 0, high = size;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (nanos[ring(mid)] <= goal)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low < size ? low : -1;
+    }
+}
@@ -109,4 +109,54 @@ public class PlotSampleMerger
 
         throw new Error("Cannot handle this case");  //$NON-NLS-1$
     }
+
+    /** Add newly received samples to existing columns of samples.
+     *  @param old Existing data
+     *  @param add Newly received data
+     *  @return Columns that combine new and old data
+     */
+    static PlotSampleColumns merge(final PlotSampleColumns old, final PlotSampleColumns add)
+    {
+        // If one is empty, return the other as is:
+        if (old.size() <= 0)
+            return add;
+        if (add.size() <= 0)
+            return old;
+        final int No = old.size();
+        final int Na = add.size();
+        // Same cases as in merge(PlotSample[], PlotSample[])
+        final Instant old_start = old.getTime(0);
+        final Instant add_start = add.getTime(0);
+        final Instant add_end = add.getTime(Na-1);
+
+        // All new samples are before old samples
+        if (add_end.compareTo(old_start) < 0)
+            return combine(old, 0, 0, add, old, 0, No);
+        // before, maybe overlap
+        if (add_start.compareTo(old_start) <= 0)
+        {
+            final int x = old.findSampleGreaterThan(add_end);
+            if (x < 0)
+                return add;
+            return combine(old, 0, 0, add, old, x, No - x);
+        }
+        // New samples start within old time sample range
+        final int l = old.findSampleLessThan(add_start);
+        final int r = old.findSampleGreaterThan(add_end);
+        final int Nl = (l < 0) ? 0 : l + 1;
+        final int Nr = (r < 0) ? 0 : No-r;
+        return combine(old, 0, Nl, add, old, r, Nr);
+    }
+
+    /** @return Columns with left[l_first .. l_first+Nl-1], middle, right[r_first .. r_first+Nr-1] */
+    private static PlotSampleColumns combine(final PlotSampleColumns left, final int l_first, final int Nl,
+                                             final PlotSampleColumns middle,
+                                             final PlotSampleColumns right, final int r_first, final int Nr)
+    {
+        final PlotSampleColumns result = new PlotSampleColumns(middle.getWaveformIndex(), Nl + middle.size() + Nr);
+        result.add(left, l_first, Nl);
+        result.add(middle, 0, middle.size());
+        result.add(right, r_first, Nr);
+        return result;
+    }
 }
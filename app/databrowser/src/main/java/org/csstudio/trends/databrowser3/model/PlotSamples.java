@@ -13,6 +13,7 @@ import java.time.Instant;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
@@ -35,6 +36,17 @@ abstract public class PlotSamples implements PlotDataProvider<Instant>
      */
     final protected AtomicBoolean have_new_samples = new AtomicBoolean();
 
+    /** Incremented when samples change after {@link #lockForWriting()}
+     *  or {@link #markChanged()}
+     */
+    final private AtomicLong change_count = new AtomicLong();
+
+    /** Incremented when samples change other than by
+     *  adding newer samples
+     *  @see #markRewritten()
+     */
+    final private AtomicLong rewrite_count = new AtomicLong();
+
     /** Lock for writing */
     public boolean lockForWriting()
     {
@@ -55,9 +67,43 @@ abstract public class PlotSamples implements PlotDataProvider<Instant>
     public void unlockForWriting()
     {
         lock.writeLock().unlock();
+        change_count.incrementAndGet();
+        have_new_samples.set(true);
+    }
+
+    /** Mark samples as changed without writing them,
+     *  for example because the waveform index changed
+     */
+    void markChanged()
+    {
+        rewrite_count.incrementAndGet();
+        change_count.incrementAndGet();
         have_new_samples.set(true);
     }
 
+    /** Mark samples as modified beyond adding newer samples,
+     *  for example by merging archived data.
+     *  To be called while locked for writing.
+     */
+    void markRewritten()
+    {
+        rewrite_count.incrementAndGet();
+    }
+
+    /** @return Counter that changes whenever samples change
+     *          other than by adding newer samples
+     */
+    public long getRewriteCount()
+    {
+        return rewrite_count.get();
+    }
+
+    /** @return Counter that changes whenever samples change */
+    public long getChangeCount()
+    {
+        return change_count.get();
+    }
+
     /** {@inheritDoc} */
     @Override
     public Lock getLock()
@@ -33,6 +33,7 @@ public class Preferences
     final public static String
         ARCHIVE_FETCH_DELAY = "archive_fetch_delay",
         CONCURRENT_REQUESTS = "concurrent_requests",
+        ARCHIVE_CACHE_MB = "archive_cache_mb",
         ARCHIVE_RESCALE = "archive_rescale",
         ARCHIVES = "archives",
         URLS = "urls",
@@ -71,6 +72,7 @@ public class Preferences
 
     public static int archive_fetch_delay;
     public static int concurrent_requests;
+    public static int archive_cache_mb;
     public static ArchiveRescale archive_rescale = ArchiveRescale.STAGGER;
     public static List<ArchiveDataSource> archive_urls;
     public static List<ArchiveDataSource> archives;
@@ -100,6 +102,8 @@ public class Preferences
         // Allow at least one at a time
         concurrent_requests = Math.max(1, prefs.getInt(CONCURRENT_REQUESTS));
 
+        archive_cache_mb = Math.max(0, prefs.getInt(ARCHIVE_CACHE_MB));
+
         String enum_name = prefs.get(ARCHIVE_RESCALE);
         try
         {
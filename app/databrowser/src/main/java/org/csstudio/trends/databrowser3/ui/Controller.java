@@ -653,6 +653,15 @@ public class Controller
     private void getArchivedData()
     {
         final TimeInterval interval = model.getTimerange().toAbsoluteInterval();
+        // Fetch items of the same archive in one request, if supported
+        if (isRunning())
+        {
+            final List<PVItem> items = new ArrayList<>();
+            for (ModelItem item : model.getItems())
+                if (item instanceof PVItem)
+                    items.add((PVItem) item);
+            ArchiveFetchJob.prefetch(items, interval.getStart(), interval.getEnd());
+        }
         for (ModelItem item : model.getItems())
             getArchivedData(item, interval.getStart(), interval.getEnd());
     }
@@ -9,7 +9,9 @@ package org.phoebus.archive.reader;
 
 import java.io.Closeable;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /** Interface to archive data retrieval.
  *
@@ -107,6 +109,57 @@ public interface ArchiveReader extends Closeable
         return getRawValues(name, start, end);
     }
 
+    /** Read optimized samples for several channels.
+     *  <p>
+     *  Default implementation fetches one channel after the other.
+     *  Implementations may fetch the channels in parallel.
+     *
+     *  @param names Channel names
+     *  @param start Start time
+     *  @param end End time
+     *  @param count Hint for number of values per channel
+     *  @return {@link ValueIterator} for each channel, in the order of the names,
+     *          <code>null</code> for channels that are not known
+     *  @throws Exception on error
+     *  @see #getOptimizedValues(String, Instant, Instant, int)
+     */
+    public default List<ValueIterator> getOptimizedValues(List<String> names,
+        Instant start, Instant end, int count) throws Exception
+    {
+        final List<ValueIterator> result = new ArrayList<>(names.size());
+        try
+        {
+            for (String name : names)
+            {
+                try
+                {
+                    result.add(getOptimizedValues(name, start, end, count));
+                }
+                catch (UnknownChannelException ex)
+                {
+                    result.add(null);
+                }
+            }
+        }
+        catch (Exception ex)
+        {
+            for (ValueIterator iter : result)
+                if (iter != null)
+                    iter.close();
+            throw ex;
+        }
+        return result;
+    }
+
+    /** @return <code>true</code> if {@link #getOptimizedValues(List, Instant, Instant, int)}
+     *          fetches the channels in parallel, so one call for several channels
+     *          is preferable over separate calls for each channel
+     */
+    public default boolean isParallelFetch()
+    {
+        return false;
+    }
+
     /** Cancel an ongoing get*() call. */
     public default void cancel()
     {
@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.phoebus.archive.reader.columnar;
+
+import static org.phoebus.framework.columnar.ColumnarFormat.DOUBLE;
+import static org.phoebus.framework.columnar.ColumnarFormat.DOUBLE_ARRAY;
+import static org.phoebus.framework.columnar.ColumnarFormat.ENUM;
+import static org.phoebus.framework.columnar.ColumnarFormat.HEADER_SIZE;
+import static org.phoebus.framework.columnar.ColumnarFormat.INFO_SIZE;
+import static org.phoebus.framework.columnar.ColumnarFormat.LONG;
+import static org.phoebus.framework.columnar.ColumnarFormat.MAGIC;
+import static org.phoebus.framework.columnar.ColumnarFormat.STRING;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.stats.Range;
+import org.epics.util.text.NumberFormats;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.AlarmStatus;
+import org.epics.vtype.Display;
+import org.epics.vtype.EnumDisplay;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VDoubleArray;
+import org.epics.vtype.VEnum;
+import org.epics.vtype.VLong;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+import org.phoebus.framework.columnar.ColumnarFormat;
+
+/** Decoder for one block of a columnar archive file
+ *
+ *  <p>See {@link ColumnarFormat} for the block layout.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class BlockDecoder
+{
+    /** Information about a block in a file */
+    static class Block
+    {
+        /** Position of the block in the file */
+        final long position;
+
+        /** Length of block data */
+        final int length;
+
+        /** Number of samples */
+        final int count;
+
+        /** Time of first and last sample, epoch nanoseconds */
+        final long first, last;
+
+        Block(final long position, final int length, final int count, final long first, final long last)
+        {
+            this.position = position;
+            this.length = length;
+            this.count = count;
+            this.first = first;
+            this.last = last;
+        }
+
+        /** @return Position of the following block */
+        long getNext()
+        {
+            return position + HEADER_SIZE + length;
+        }
+    }
+
+    private final byte[] data;
+    private int position;
+
+    /** Bits of the current byte that have not been read */
+    private int bits, bit_count;
+
+    /** Gorilla state */
+    private long previous_value;
+    private int previous_leading, previous_significant;
+
+    /** Read block information
+     *  @param file File
+     *  @param size Size of the file
+     *  @param position Position of block in file
+     *  @return {@link Block} or <code>null</code> when there is no complete block
+     *  @throws IOException on error
+     */
+    static Block readBlock(final RandomAccessFile file, final long size, final long position) throws IOException
+    {
+        if (position + HEADER_SIZE + INFO_SIZE > size)
+            return null;
+        file.seek(position);
+        final int magic = file.readInt();
+        final int length = file.readInt();
+        // Ignore incomplete block left by an interrupted write
+        if (magic != MAGIC  ||  length < INFO_SIZE  ||  position + HEADER_SIZE + length > size)
+            return null;
+        file.readByte();
+        final int count = file.readInt();
+        final long first = file.readLong();
+        final long last = file.readLong();
+        return new Block(position, length, count, first, last);
+    }
+
+    /** Read and decode the samples of a block
+     *  @param file File
+     *  @param block Block in file
+     *  @param times Receives the time stamps of the samples, epoch nanoseconds
+     *  @return Samples
+     *  @throws IOException on error
+     */
+    static List<VType> decode(final RandomAccessFile file, final Block block, final long[] times) throws IOException
+    {
+        final byte[] data = new byte[block.length];
+        file.seek(block.position + HEADER_SIZE);
+        file.readFully(data);
+        return new BlockDecoder(data).decode(times);
+    }
+
+    private BlockDecoder(final byte[] data)
+    {
+        this.data = data;
+        position = 0;
+    }
+
+    private List<VType> decode(final long[] times) throws IOException
+    {
+        final byte type = getByte();
+        final int N = getInt();
+        final long first = getLong();
+        getLong(); // last
+
+        // Meta data
+        Display display = null;
+        EnumDisplay labels = null;
+        if (type == ENUM)
+        {
+            final String[] choices = new String[(int) getVarLong()];
+            for (int i=0; i<choices.length; ++i)
+                choices[i] = getString();
+            labels = EnumDisplay.of(choices);
+        }
+        else if (type != STRING)
+            display = getDisplay();
+
+        // Alarms
+        final Alarm[] dictionary = new Alarm[(int) getVarLong()];
+        for (int i=0; i<dictionary.length; ++i)
+        {
+            final AlarmSeverity severity = AlarmSeverity.values()[getByte()];
+            final AlarmStatus status = AlarmStatus.values()[getByte()];
+            dictionary[i] = Alarm.of(severity, status, getString());
+        }
+        final Alarm[] alarms = new Alarm[N];
+        for (int i=0; i<N; ++i)
+            alarms[i] = dictionary[(int) getVarLong()];
+
+        // Times
+        long time = first, delta = 0;
+        times[0] = first;
+        for (int i=1; i<N; ++i)
+        {
+            delta += getZigZag();
+            time += delta;
+            times[i] = time;
+        }
+
+        // Values
+        final List<VType> samples = new ArrayList<>(N);
+        switch (type)
+        {
+        case DOUBLE:
+            startDoubles();
+            for (int i=0; i<N; ++i)
+                samples.add(VDouble.of(getDouble(i == 0), alarms[i], getTime(times[i]), display));
+            break;
+        case LONG:
+        {
+            long value = 0;
+            for (int i=0; i<N; ++i)
+            {
+                value += getZigZag();
+                samples.add(VLong.of(value, alarms[i], getTime(times[i]), display));
+            }
+            break;
+        }
+        case ENUM:
+        {
+            long value = 0;
+            for (int i=0; i<N; ++i)
+            {
+                value += getZigZag();
+                samples.add(VEnum.of((int) value, labels, alarms[i], getTime(times[i])));
+            }
+            break;
+        }
+        case DOUBLE_ARRAY:
+        {
+            final int[] sizes = new int[N];
+            for (int i=0; i<N; ++i)
+                sizes[i] = (int) getVarLong();
+            startDoubles();
+            boolean first_element = true;
+            for (int i=0; i<N; ++i)
+            {
+                final double[] array = new double[sizes[i]];
+                for (int e=0; e<array.length; ++e)
+                {
+                    array[e] = getDouble(first_element);
+                    first_element = false;
+                }
+                samples.add(VDoubleArray.of(ArrayDouble.of(array), alarms[i], getTime(times[i]), display));
+            }
+            break;
+        }
+        case STRING:
+            for (int i=0; i<N; ++i)
+                samples.add(VString.of(getString(), alarms[i], getTime(times[i])));
+            break;
+        default:
+            throw new IOException("Unknown block type " + type);
+        }
+        return samples;
+    }
+
+    private static Time getTime(final long nanos)
+    {
+        return Time.of(Instant.ofEpochSecond(Math.floorDiv(nanos, 1000000000L), Math.floorMod(nanos, 1000000000L)));
+    }
+
+    private Display getDisplay() throws IOException
+    {
+        if (getByte() == 0)
+            return Display.none();
+        final String units = getString();
+        final int precision = getInt();
+        final Range display = getRange(), alarm = getRange(), warning = getRange(), control = getRange();
+        return Display.of(display, alarm, warning, control, units,
+                          precision < 0 ? NumberFormats.toStringFormat() : NumberFormats.precisionFormat(precision));
+    }
+
+    private Range getRange() throws IOException
+    {
+        final double low = Double.longBitsToDouble(getLong());
+        final double high = Double.longBitsToDouble(getLong());
+        if (Double.isNaN(low)  &&  Double.isNaN(high))
+            return Range.undefined();
+        return Range.of(low, high);
+    }
+
+    private byte getByte() throws IOException
+    {
+        if (position >= data.length)
+            throw new IOException("Block data ends at " + position);
+        return data[position++];
+    }
+
+    private int getInt() throws IOException
+    {
+        return ((getByte() & 0xFF) << 24) |
+               ((getByte() & 0xFF) << 16) |
+               ((getByte() & 0xFF) << 8)  |
+                (getByte() & 0xFF);
+    }
+
+    private long getLong() throws IOException
+    {
+        return ((long) getInt() << 32) | (getInt() & 0xFFFFFFFFL);
+    }
+
+    private long getVarLong() throws IOException
+    {
+        long value = 0;
+        for (int shift = 0;  shift < 64;  shift += 7)
+        {
+            final byte b = getByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Invalid varint at " + position);
+    }
+
+    private long getZigZag() throws IOException
+    {
+        final long value = getVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private String getString() throws IOException
+    {
+        final int length = (int) getVarLong();
+        if (length < 0  ||  position + length > data.length)
+            throw new IOException("Invalid string length " + length + " at " + position);
+        final String text = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return text;
+    }
+
+    private long getBits(final int count) throws IOException
+    {
+        long value = 0;
+        for (int i=0; i<count; ++i)
+        {
+            if (bit_count == 0)
+            {
+                bits = getByte() & 0xFF;
+                bit_count = 8;
+            }
+            --bit_count;
+            value = (value << 1) | ((bits >>> bit_count) & 1);
+        }
+        return value;
+    }
+
+    private void startDoubles()
+    {
+        bit_count = 0;
+        previous_leading = -1;
+    }
+
+    /** Decode Gorilla-compressed value
+     *  @param first Is this the first value of the stream?
+     *  @return Value
+     *  @throws IOException on error
+     */
+    private double getDouble(final boolean first) throws IOException
+    {
+        if (first)
+            previous_value = getBits(64);
+        else if (getBits(1) != 0)
+        {
+            if (getBits(1) != 0)
+            {   // New window
+                previous_leading = (int) getBits(5);
+                previous_significant = (int) getBits(6);
+                if (previous_significant == 0)
+                    previous_significant = 64;
+            }
+            else if (previous_leading < 0)
+                throw new IOException("Invalid double encoding at " + position);
+            final int trailing = 64 - previous_leading - previous_significant;
+            previous_value ^= getBits(previous_significant) << trailing;
+        }
+        // else: Same value
+        return Double.longBitsToDouble(previous_value);
+    }
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.phoebus.archive.reader.columnar;
+
+import static org.phoebus.framework.columnar.ColumnarFormat.SUFFIX;
+import static org.phoebus.framework.columnar.ColumnarFormat.encodeName;
+import static org.phoebus.framework.columnar.ColumnarFormat.getPartitionName;
+import static org.phoebus.framework.columnar.ColumnarFormat.toNanos;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.phoebus.archive.reader.ArchiveReader;
+import org.phoebus.archive.reader.AveragedValueIterator;
+import org.phoebus.archive.reader.UnknownChannelException;
+import org.phoebus.archive.reader.ValueIterator;
+import org.phoebus.archive.reader.columnar.BlockDecoder.Block;
+import org.phoebus.util.time.TimeDuration;
+
+/** Archive reader for columnar files written by the archive engine
+ *
+ *  <p>Each channel has a directory below the root directory,
+ *  named after the URL-encoded channel name,
+ *  with one partition file 'yyyyMMdd.col' per UTC day.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ColumnarArchiveReader implements ArchiveReader
+{
+    private final File root;
+
+    /** @param root Root directory of the archive
+     *  @throws Exception on error
+     */
+    public ColumnarArchiveReader(final File root) throws Exception
+    {
+        if (! root.isDirectory())
+            throw new Exception("Cannot find columnar archive directory " + root);
+        this.root = root;
+    }
+
+    @Override
+    public String getDescription()
+    {
+        return "Columnar archive files in " + root;
+    }
+
+    @Override
+    public List<String> getNamesByPattern(final String glob_pattern) throws Exception
+    {
+        final List<String> result = new ArrayList<>();
+        if (glob_pattern.isEmpty())
+            return result;
+        final String reg_exp = glob_pattern.replace("\\", "\\\\")
+                                           .replace(".", "\\.")
+                                           .replace("*", ".*")
+                                           .replace("?", ".");
+        final Pattern pattern = Pattern.compile(reg_exp, Pattern.CASE_INSENSITIVE);
+        final File[] directories = root.listFiles(File::isDirectory);
+        if (directories != null)
+            for (File directory : directories)
+            {
+                final String name = URLDecoder.decode(directory.getName(), StandardCharsets.UTF_8);
+                if (pattern.matcher(name).matches())
+                    result.add(name);
+            }
+        result.sort(String::compareTo);
+        return result;
+    }
+
+    /** @param name Channel name
+     *  @param start Start time
+     *  @param end End time
+     *  @return Partition files that may hold samples for the time range,
+     *          starting with the partition that holds the last sample before 'start'
+     *  @throws UnknownChannelException when channel is not known
+     */
+    private List<File> getPartitions(final String name, final Instant start, final Instant end) throws UnknownChannelException
+    {
+        final File directory = new File(root, encodeName(name));
+        final String[] names = directory.list((dir, file) -> file.endsWith(SUFFIX));
+        if (names == null)
+            throw new UnknownChannelException(name);
+        Arrays.sort(names);
+        final String first = getPartitionName(start), last = getPartitionName(end);
+        final List<File> files = new ArrayList<>();
+        for (int i=0; i<names.length; ++i)
+        {
+            if (names[i].compareTo(last) > 0)
+                break;
+            // Include the partition before the start
+            if (names[i].compareTo(first) >= 0  ||
+                (i+1 < names.length  &&  names[i+1].compareTo(first) >= 0)  ||
+                i == names.length-1)
+                files.add(new File(directory, names[i]));
+        }
+        return files;
+    }
+
+    @Override
+    public ValueIterator getRawValues(final String name, final Instant start, final Instant end) throws UnknownChannelException, Exception
+    {
+        return new ColumnarValueIterator(getPartitions(name, start, end), toNanos(start), toNanos(end));
+    }
+
+    @Override
+    public ValueIterator getOptimizedValues(final String name, final Instant start, final Instant end, final int count) throws UnknownChannelException, Exception
+    {
+        // Count samples via the block headers
+        final List<File> files = getPartitions(name, start, end);
+        final long start_nanos = toNanos(start), end_nanos = toNanos(end);
+        long counted = 0;
+        for (File file : files)
+            try
+            (
+                final RandomAccessFile access = new RandomAccessFile(file, "r");
+            )
+            {
+                final long size = access.length();
+                Block block = BlockDecoder.readBlock(access, size, 0);
+                while (block != null  &&  block.first <= end_nanos)
+                {
+                    if (block.last >= start_nanos)
+                        counted += block.count;
+                    block = BlockDecoder.readBlock(access, size, block.getNext());
+                }
+            }
+
+        final ValueIterator raw_data = new ColumnarValueIterator(files, start_nanos, end_nanos);
+        // If there weren't that many, that's it
+        if (counted < count)
+            return raw_data;
+
+        // Else: Perform averaging to reduce sample count
+        final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / count;
+        return new AveragedValueIterator(raw_data, seconds);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getDescription();
+    }
+}
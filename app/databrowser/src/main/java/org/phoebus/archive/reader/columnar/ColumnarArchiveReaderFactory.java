@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.phoebus.archive.reader.columnar;
+
+import java.io.File;
+
+import org.phoebus.archive.reader.ArchiveReader;
+import org.phoebus.archive.reader.spi.ArchiveReaderFactory;
+import org.phoebus.framework.columnar.ColumnarFormat;
+
+/** SPI for "columnar:" archive URLs
+ *
+ *  <p>URL is "columnar:" followed by the root directory
+ *  of files written by the archive engine.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ColumnarArchiveReaderFactory implements ArchiveReaderFactory
+{
+    @Override
+    public String getPrefix()
+    {
+        return ColumnarFormat.PREFIX;
+    }
+
+    @Override
+    public ArchiveReader createReader(final String url) throws Exception
+    {
+        return new ColumnarArchiveReader(new File(url.substring(ColumnarFormat.PREFIX.length())));
+    }
+}
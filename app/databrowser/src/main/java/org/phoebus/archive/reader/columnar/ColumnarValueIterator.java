@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.phoebus.archive.reader.columnar;
+
+import static org.phoebus.archive.reader.ArchiveReaders.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+
+import org.epics.vtype.VType;
+import org.phoebus.archive.reader.ValueIterator;
+import org.phoebus.archive.reader.columnar.BlockDecoder.Block;
+
+/** Iterator over the raw samples in columnar partition files
+ *
+ *  <p>Blocks are located via their headers,
+ *  and only blocks within the requested time range are decoded,
+ *  one block at a time.
+ *  Like other archive readers, the iterator starts with
+ *  the last sample at or before the start time,
+ *  followed by the samples up to the end time.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class ColumnarValueIterator implements ValueIterator
+{
+    private final List<File> files;
+    private final long start, end;
+
+    private int file_index = 0;
+    private RandomAccessFile file = null;
+    private long file_size, position;
+
+    /** Last block that ends before 'start' */
+    private RandomAccessFile before_file = null;
+    private Block before = null;
+
+    /** Has the start of the time range been located? */
+    private boolean started = false;
+
+    /** Samples of current block and their time stamps */
+    private List<VType> samples = null;
+    private long[] times = new long[0];
+
+    /** Index of next sample to return, index after last sample to return */
+    private int index = 0, limit = 0;
+
+    private volatile boolean closed = false;
+
+    /** @param files Partition files, in time order
+     *  @param start Start time, epoch nanoseconds
+     *  @param end End time, epoch nanoseconds
+     *  @throws Exception on error
+     */
+    ColumnarValueIterator(final List<File> files, final long start, final long end) throws Exception
+    {
+        this.files = files;
+        this.start = start;
+        this.end = end;
+        fetch();
+    }
+
+    /** Fetch next block of samples into 'samples', 'index', 'limit'
+     *  @throws IOException on error
+     */
+    private void fetch() throws IOException
+    {
+        while (! closed)
+        {
+            if (file == null)
+            {
+                if (file_index >= files.size())
+                    break;
+                file = new RandomAccessFile(files.get(file_index++), "r");
+                file_size = file.length();
+                position = 0;
+            }
+            final Block block = BlockDecoder.readBlock(file, file_size, position);
+            if (block == null)
+            {   // Keep file open while it holds the 'before' block
+                if (file != before_file)
+                    file.close();
+                file = null;
+                continue;
+            }
+            position = block.getNext();
+
+            if (block.first > end)
+            {   // Skip remaining blocks and files
+                position = file_size;
+                file_index = files.size();
+                continue;
+            }
+            if (! started  &&  block.last < start)
+            {   // Remember block, it may hold the last sample before 'start'
+                setBefore(block);
+                continue;
+            }
+
+            if (! started)
+            {
+                started = true;
+                if (block.first > start  &&  before != null)
+                {   // Return last sample of preceding block, then revisit this block
+                    decode(before_file, before);
+                    index = limit - 1;
+                    position = block.position;
+                    setBefore(null);
+                    return;
+                }
+                setBefore(null);
+                decode(file, block);
+                // Skip to last sample at or before start
+                while (index < limit - 1  &&  times[index + 1] <= start)
+                    ++index;
+            }
+            else
+                decode(file, block);
+            // Stop at end time
+            while (limit > index  &&  times[limit - 1] > end)
+                --limit;
+            if (index < limit)
+                return;
+        }
+        if (! started  &&  before != null  &&  ! closed)
+        {   // Only the last sample before 'start'
+            started = true;
+            decode(before_file, before);
+            index = limit - 1;
+            setBefore(null);
+            return;
+        }
+        // No more samples
+        samples = null;
+        index = limit = 0;
+        close();
+    }
+
+    private void setBefore(final Block block) throws IOException
+    {
+        if (before_file != null  &&  before_file != file)
+            before_file.close();
+        before_file = block == null ? null : file;
+        before = block;
+    }
+
+    private void decode(final RandomAccessFile source, final Block block) throws IOException
+    {
+        if (times.length < block.count)
+            times = new long[block.count];
+        samples = BlockDecoder.decode(source, block, times);
+        index = 0;
+        limit = samples.size();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return index < limit;
+    }
+
+    @Override
+    public VType next()
+    {
+        if (index >= limit)
+            throw new NoSuchElementException();
+        final VType sample = samples.get(index++);
+        if (index >= limit)
+        {
+            try
+            {
+                fetch();
+            }
+            catch (IOException ex)
+            {
+                logger.log(Level.WARNING, "Cannot read columnar archive data", ex);
+                samples = null;
+                index = limit = 0;
+                close();
+            }
+        }
+        return sample;
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        try
+        {
+            if (before_file != null  &&  before_file != file)
+                before_file.close();
+            if (file != null)
+                file.close();
+        }
+        catch (IOException ex)
+        {
+            // Ignore
+        }
+        before_file = file = null;
+    }
+}
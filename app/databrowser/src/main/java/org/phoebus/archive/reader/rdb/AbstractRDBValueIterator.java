@@ -12,7 +12,9 @@ import java.io.DataInputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Timestamp;
 import java.text.NumberFormat;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -246,6 +248,46 @@ abstract class AbstractRDBValueIterator implements ValueIterator
         return severity;
     }
 
+    /** Determine the time of the last sample at or before the start time
+     *  @param start Start time
+     *  @param end End time
+     *  @return Time of the initial sample, or the start time if there is none
+     *  @throws Exception on error, including cancellation
+     */
+    protected Timestamp getInitialTime(final Instant start, final Instant end) throws Exception
+    {
+        Timestamp start_stamp = Timestamp.from(start);
+        final PreparedStatement statement =
+                connection.prepareStatement(reader.getSQL().sample_sel_initial_time);
+        reader.addForCancellation(statement);
+        try
+        {
+            statement.setInt(1, channel_id);
+            statement.setTimestamp(2, start_stamp);
+            if (statement.getParameterMetaData().getParameterCount() == 3)
+                statement.setTimestamp(3, Timestamp.from(end));
+            final ResultSet result = statement.executeQuery();
+            if (result.next())
+            {
+                final Timestamp actual_start = result.getTimestamp(1);
+                if (actual_start != null)
+                {
+                    start_stamp = actual_start;
+                    // Oracle has nanoseconds in TIMESTAMP, MySQL in separate column
+                    if (reader.getPool().getDialect() == Dialect.MySQL || reader.getPool().getDialect() == Dialect.PostgreSQL)
+                        start_stamp.setNanos(result.getInt(2));
+                }
+            }
+            result.close();
+        }
+        finally
+        {
+            reader.removeFromCancellation(statement);
+            statement.close();
+        }
+        return start_stamp;
+    }
+
     /** Given the time and first element of the  sample, see if there
      *  are more array elements.
      *  @param stamp Time stamp of the sample
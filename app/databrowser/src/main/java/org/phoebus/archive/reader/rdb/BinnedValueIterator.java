@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.phoebus.archive.reader.rdb;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.AlarmStatus;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VStatistics;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+import org.phoebus.pv.TimeHelper;
+import org.phoebus.util.time.TimeDuration;
+
+/** Value Iterator that provides 'optimized' data by
+ *  binning the samples in the RDB server.
+ *
+ *  <p>Similar to the {@link StoredProcedureValueIterator},
+ *  but uses plain SQL which works with each supported dialect
+ *  without installing a stored procedure.
+ *  Only the min/max/average/standard deviation/count per bin are transferred
+ *  instead of all raw samples.
+ *  Text samples like "Archive_Off" are merged in by time.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class BinnedValueIterator extends AbstractRDBValueIterator
+{
+    /** Binned and text samples */
+    private List<VType> values = new ArrayList<>();
+
+    /** Iteration index into <code>values</code>, points to what
+     *  <code>next()</code> will return
+     */
+    private int index = 0;
+
+    /** Initialize
+     *  @param reader RDBArchiveReader
+     *  @param channel_id ID of channel
+     *  @param start Start time
+     *  @param end End time
+     *  @param count Desired value count
+     *  @throws Exception on error
+     */
+    public BinnedValueIterator(final RDBArchiveReader reader,
+                               final int channel_id, final Instant start, final Instant end,
+                               final int count) throws Exception
+    {
+        super(reader, channel_id);
+        // Enumerated channels are not binned
+        if (labels != null)
+            return;
+        try
+        {
+            final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / count;
+            // Like the raw samples, include the last sample before the start time.
+            // Bins are still aligned to the start time,
+            // so that sample falls into a bin of its own.
+            final Timestamp initial = getInitialTime(start, end);
+            final List<VType> bins = readBins(start, initial, end, seconds);
+            final List<VType> texts = readTexts(initial, end);
+            values = merge(bins, texts);
+        }
+        catch (Exception ex)
+        {
+            if (! RDBArchiveReader.isCancellation(ex))
+            {
+                close();
+                throw ex;
+            }
+            // Else: Not a real error; return empty iterator
+            values.clear();
+        }
+    }
+
+    /** @return <code>true</code> if the channel's samples can be binned,
+     *          <code>false</code> for enumerated channels
+     */
+    boolean isSupported()
+    {
+        return labels == null;
+    }
+
+    /** @param start Start time, origin of the bins
+     *  @param initial Time of the first sample to include
+     *  @param end End time
+     *  @param seconds Bin size in seconds
+     *  @return Min/max/average/standard deviation for each bin that has numeric samples
+     *  @throws Exception on error, including cancellation
+     */
+    private List<VType> readBins(final Instant start, final Timestamp initial, final Instant end, final double seconds) throws Exception
+    {
+        final List<VType> bins = new ArrayList<>();
+        final PreparedStatement statement = connection.prepareStatement(reader.getSQL().sample_sel_binned_by_id_start_end);
+        reader.addForCancellation(statement);
+        try
+        {
+            if (RDBPreferences.timeout > 0)
+                statement.setQueryTimeout(RDBPreferences.timeout);
+            statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+            statement.setFetchSize(RDBPreferences.fetch_size);
+            statement.setTimestamp(1, Timestamp.from(start));
+            statement.setDouble(2, seconds);
+            statement.setInt(3, channel_id);
+            statement.setTimestamp(4, initial);
+            statement.setTimestamp(5, Timestamp.from(end));
+            // Columns 1 bin, 2 time of first sample, 3 min, 4 max, 5 average, 6 standard deviation, 7 count
+            final ResultSet result = statement.executeQuery();
+            while (result.next())
+            {
+                final int cnt = result.getInt(7);
+                if (cnt <= 0)
+                    continue;
+                final Time time = TimeHelper.fromInstant(result.getTimestamp(2).toInstant());
+                final double avg = result.getDouble(5);
+                if (cnt == 1)
+                    bins.add(VDouble.of(avg, Alarm.none(), time, display));
+                else
+                {
+                    final double min = result.getDouble(3);
+                    final double max = result.getDouble(4);
+                    final double stddev = result.getDouble(6);
+                    bins.add(VStatistics.of(avg, stddev, min, max, cnt, Alarm.none(), time, display));
+                }
+            }
+            result.close();
+        }
+        finally
+        {
+            reader.removeFromCancellation(statement);
+            statement.close();
+        }
+        return bins;
+    }
+
+    /** @param initial Time of the first sample to include
+     *  @param end End time
+     *  @return Samples that only have a text value
+     *  @throws Exception on error, including cancellation
+     */
+    private List<VType> readTexts(final Timestamp initial, final Instant end) throws Exception
+    {
+        final List<VType> texts = new ArrayList<>();
+        final PreparedStatement statement = connection.prepareStatement(reader.getSQL().sample_sel_text_by_id_start_end);
+        reader.addForCancellation(statement);
+        try
+        {
+            if (RDBPreferences.timeout > 0)
+                statement.setQueryTimeout(RDBPreferences.timeout);
+            statement.setInt(1, channel_id);
+            statement.setTimestamp(2, initial);
+            statement.setTimestamp(3, Timestamp.from(end));
+            // Columns 1 time, 2 severity, 3 status, 4 text
+            final ResultSet result = statement.executeQuery();
+            while (result.next())
+            {
+                final Time time = TimeHelper.fromInstant(result.getTimestamp(1).toInstant());
+                final String status = reader.getStatus(result.getInt(3));
+                final AlarmSeverity severity = filterSeverity(reader.getSeverity(result.getInt(2)), status);
+                texts.add(VString.of(result.getString(4), Alarm.of(severity, AlarmStatus.CLIENT, status), time));
+            }
+            result.close();
+        }
+        finally
+        {
+            reader.removeFromCancellation(statement);
+            statement.close();
+        }
+        return texts;
+    }
+
+    /** @param bins Binned samples, ordered by time
+     *  @param texts Text samples, ordered by time
+     *  @return All samples, ordered by time
+     */
+    private static List<VType> merge(final List<VType> bins, final List<VType> texts)
+    {
+        if (texts.isEmpty())
+            return bins;
+        final List<VType> merged = new ArrayList<>(bins.size() + texts.size());
+        int b = 0, t = 0;
+        while (b < bins.size()  &&  t < texts.size())
+        {
+            final Instant bin_time = Time.timeOf(bins.get(b)).getTimestamp();
+            final Instant text_time = Time.timeOf(texts.get(t)).getTimestamp();
+            if (text_time.compareTo(bin_time) < 0)
+                merged.add(texts.get(t++));
+            else
+                merged.add(bins.get(b++));
+        }
+        while (b < bins.size())
+            merged.add(bins.get(b++));
+        while (t < texts.size())
+            merged.add(texts.get(t++));
+        return merged;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return index < values.size();
+    }
+
+    @Override
+    public VType next()
+    {
+        return values.get(index++);
+    }
+
+    @Override
+    public void close()
+    {
+        index = 0;
+        values = new ArrayList<>();
+        super.close();
+    }
+}
@@ -20,6 +20,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 import org.epics.vtype.AlarmSeverity;
@@ -44,6 +50,20 @@ public class RDBArchiveReader implements ArchiveReader
     /** Oracle error code "error occurred at recursive SQL level ...: */
     final private static String ORACLE_RECURSIVE_ERROR = "ORA-00604"; //$NON-NLS-1$
 
+    /** Thread pool for fetching several channels in parallel */
+    private static final ExecutorService fetch_pool;
+
+    static
+    {
+        final AtomicInteger instance = new AtomicInteger();
+        fetch_pool = Executors.newFixedThreadPool(Math.max(1, RDBPreferences.parallel_fetch), runnable ->
+        {
+            final Thread thread = new Thread(runnable, "RDBArchiveFetch" + instance.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     /** Connection pool */
     private final RDBConnectionPool pool;
 
@@ -56,6 +76,15 @@ public class RDBArchiveReader implements ArchiveReader
     /** Map of severity IDs to Severities */
     private final Map<Integer, AlarmSeverity> severities;
 
+    /** Map of channel names to channel IDs */
+    private final Map<String, Integer> channel_ids;
+
+    /** Is the connection pool shared with other readers? */
+    private final boolean shared_pool;
+
+    /** Called once when a reader with shared pool is closed */
+    private final AtomicReference<Runnable> release;
+
     /** Active statements to cancel in cancel() */
     private final List<Statement> cancellable_statements = new ArrayList<>();
 
@@ -65,6 +94,30 @@ public class RDBArchiveReader implements ArchiveReader
         sql = new SQL(pool.getDialect(), RDBPreferences.prefix);
         stati = getStatusValues();
         severities = getSeverityValues();
+        channel_ids = new ConcurrentHashMap<>();
+        shared_pool = false;
+        release = new AtomicReference<>();
+    }
+
+    /** Create reader that shares connections and lookup tables
+     *
+     *  <p>The shared connection pool is not cleared
+     *  when this reader is closed.
+     *  It releases its connections when they remain unused
+     *  for the pool's timeout.
+     *
+     *  @param shared Reader for the same URL
+     *  @param release Called when this reader is closed
+     */
+    RDBArchiveReader(final RDBArchiveReader shared, final Runnable release)
+    {
+        pool = shared.pool;
+        sql = shared.sql;
+        stati = shared.stati;
+        severities = shared.severities;
+        channel_ids = shared.channel_ids;
+        shared_pool = true;
+        this.release = new AtomicReference<>(release);
     }
 
     /** @return Connection pool */
@@ -138,7 +191,7 @@ public class RDBArchiveReader implements ArchiveReader
      */
     private Map<Integer, AlarmSeverity> getSeverityValues() throws Exception
     {
-        final Map<Integer, AlarmSeverity> severities = new HashMap<>();
+        final Map<Integer, AlarmSeverity> severities = new ConcurrentHashMap<>();
         final Connection connection = pool.getConnection();
         try
         {
@@ -268,8 +321,107 @@ public class RDBArchiveReader implements ArchiveReader
             return new StoredProcedureValueIterator(this, RDBPreferences.stored_procedure, channel_id, start, end, count);
 
         // Else: Determine how many samples there are
+        final int counted = countSamples(channel_id, start, end);
+
+        // If there weren't that many, that's it
+        if (counted < count)
+            return getRawValues(channel_id, start, end);
+
+        // Compute min/max/average in RDB server?
+        if (RDBPreferences.server_side_binning)
+        {
+            try
+            {
+                final BinnedValueIterator binned = new BinnedValueIterator(this, channel_id, start, end, count);
+                if (binned.isSupported())
+                    return binned;
+                binned.close();
+            }
+            catch (Exception ex)
+            {
+                if (isCancellation(ex))
+                    throw ex;
+                logger.log(Level.WARNING, "Cannot bin samples in RDB, averaging raw samples", ex);
+            }
+        }
+
+        // Else: Perform averaging of raw data to reduce sample count
+        final ValueIterator raw_data = getRawValues(channel_id, start, end);
+        final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / count;
+        return new AveragedValueIterator(raw_data, seconds);
+    }
+
+    /** Fetch optimized samples for several channels in parallel
+     *
+     *  <p>Channels are fetched by a bounded pool of threads,
+     *  see 'parallel_fetch' preference,
+     *  which also limits the number of concurrent RDB connections.
+     *
+     *  {@inheritDoc}
+     */
+    @Override
+    public List<ValueIterator> getOptimizedValues(final List<String> names,
+                                                  final Instant start, final Instant end, final int count) throws Exception
+    {
+        final List<Future<ValueIterator>> fetches = new ArrayList<>(names.size());
+        for (String name : names)
+            fetches.add(fetch_pool.submit(() ->
+            {
+                try
+                {
+                    return getOptimizedValues(name, start, end, count);
+                }
+                catch (UnknownChannelException ex)
+                {
+                    return null;
+                }
+            }));
+
+        final List<ValueIterator> result = new ArrayList<>(names.size());
+        Exception error = null;
+        for (Future<ValueIterator> fetch : fetches)
+        {
+            try
+            {
+                result.add(fetch.get());
+            }
+            catch (Exception ex)
+            {
+                if (error == null)
+                {   // Stop the remaining fetches
+                    error = ex;
+                    cancel();
+                }
+                result.add(null);
+            }
+        }
+        if (error != null)
+        {
+            for (ValueIterator iter : result)
+                if (iter != null)
+                    iter.close();
+            if (error.getCause() instanceof Exception)
+                throw (Exception) error.getCause();
+            throw error;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isParallelFetch()
+    {
+        return true;
+    }
+
+    /** @param channel_id Channel ID in RDB
+     *  @param start Start time
+     *  @param end End time
+     *  @return Number of samples in time range
+     *  @throws Exception on error
+     */
+    private int countSamples(final int channel_id, final Instant start, final Instant end) throws Exception
+    {
         final Connection connection = pool.getConnection();
-        final int counted;
         try
         (
             final PreparedStatement count_samples = connection.prepareStatement(sql.sample_count_by_id_start_end);
@@ -281,23 +433,14 @@ public class RDBArchiveReader implements ArchiveReader
             final ResultSet result = count_samples.executeQuery();
             if (! result.next())
                 throw new Exception("Cannot count samples");
-            counted = result.getInt(1);
+            final int counted = result.getInt(1);
             result.close();
+            return counted;
         }
         finally
         {
             pool.releaseConnection(connection);
         }
-        // Fetch raw data and perform averaging
-        final ValueIterator raw_data = getRawValues(channel_id, start, end);
-
-        // If there weren't that many, that's it
-        if (counted < count)
-            return raw_data;
-
-        // Else: Perform averaging to reduce sample count
-        final double seconds = TimeDuration.toSecondsDouble(Duration.between(start, end)) / count;
-        return new AveragedValueIterator(raw_data, seconds);
     }
 
     /** @param name Channel name
@@ -308,6 +451,9 @@ public class RDBArchiveReader implements ArchiveReader
     // Allow access from 'package' for tests
     int getChannelID(final String name) throws UnknownChannelException, Exception
     {
+        final Integer cached = channel_ids.get(name);
+        if (cached != null)
+            return cached;
         final Connection connection = pool.getConnection();
         try
         (
@@ -322,6 +468,7 @@ public class RDBArchiveReader implements ArchiveReader
                 throw new UnknownChannelException(name);
             final int channel_id = result.getInt(1);
             result.close();
+            channel_ids.put(name, channel_id);
             return channel_id;
         }
         finally
@@ -403,6 +550,13 @@ public class RDBArchiveReader implements ArchiveReader
     public void close()
     {
         cancel();
-        pool.clear();
+        if (shared_pool)
+        {
+            final Runnable on_close = release.getAndSet(null);
+            if (on_close != null)
+                on_close.run();
+        }
+        else
+            pool.clear();
     }
 }
@@ -7,6 +7,13 @@
  ******************************************************************************/
 package org.phoebus.archive.reader.rdb;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import org.phoebus.archive.reader.ArchiveReader;
 import org.phoebus.archive.reader.spi.ArchiveReaderFactory;
 
@@ -16,6 +23,34 @@ import org.phoebus.archive.reader.spi.ArchiveReaderFactory;
 @SuppressWarnings("nls")
 public class RDBArchiveReaderFactory implements ArchiveReaderFactory
 {
+    /** Reader that provides the connection pool and lookup tables for new readers */
+    private static class Shared
+    {
+        final RDBArchiveReader reader;
+
+        /** Number of open readers that use this one. SYNC on 'shared' */
+        int users = 0;
+
+        /** Scheduled removal when no longer used. SYNC on 'shared' */
+        Future<?> removal = null;
+
+        Shared(final RDBArchiveReader reader)
+        {
+            this.reader = reader;
+        }
+    }
+
+    /** Shared readers by URL */
+    private static final Map<String, Shared> shared = new HashMap<>();
+
+    /** Timer for removing unused shared readers */
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(target ->
+    {
+        final Thread thread = new Thread(target, "RDBArchiveReaderFactory");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     @Override
     public String getPrefix()
     {
@@ -25,6 +60,76 @@ public class RDBArchiveReaderFactory implements ArchiveReaderFactory
     @Override
     public ArchiveReader createReader(final String url) throws Exception
     {
-        return new RDBArchiveReader(url);
+        // Each Data Browser fetch job creates a reader.
+        // Share connections and the status, severity and channel lookups
+        // instead of reading them again for each job.
+        Shared entry;
+        synchronized (shared)
+        {
+            entry = shared.get(url);
+            if (entry != null)
+                use(entry);
+        }
+        if (entry == null)
+        {   // Connect outside of lock
+            final RDBArchiveReader new_reader = new RDBArchiveReader(url);
+            boolean added = false;
+            synchronized (shared)
+            {
+                entry = shared.get(url);
+                if (entry == null)
+                {
+                    entry = new Shared(new_reader);
+                    shared.put(url, entry);
+                    added = true;
+                }
+                use(entry);
+            }
+            if (! added)
+                new_reader.close();
+        }
+        final Shared used = entry;
+        return new RDBArchiveReader(used.reader, () -> release(url, used));
+    }
+
+    /** @param entry Shared reader that's used by one more reader */
+    private static void use(final Shared entry)
+    {
+        ++entry.users;
+        if (entry.removal != null)
+        {
+            entry.removal.cancel(false);
+            entry.removal = null;
+        }
+    }
+
+    /** @param url URL
+     *  @param entry Shared reader that's used by one less reader
+     */
+    private static void release(final String url, final Shared entry)
+    {
+        synchronized (shared)
+        {
+            if (--entry.users > 0)
+                return;
+            // Keep unused reader for the timeout of its connection pool,
+            // then close it
+            entry.removal = timer.schedule(() -> remove(url, entry),
+                                           entry.reader.getPool().getTimeoutSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    /** @param url URL
+     *  @param entry Shared reader to remove and close unless it's used again
+     */
+    private static void remove(final String url, final Shared entry)
+    {
+        synchronized (shared)
+        {
+            if (entry.users > 0  ||  shared.get(url) != entry)
+                return;
+            shared.remove(url);
+        }
+        entry.reader.close();
     }
 }
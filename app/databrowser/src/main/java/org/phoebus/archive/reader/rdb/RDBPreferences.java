@@ -23,12 +23,16 @@ public class RDBPreferences
     static final String STORED_PROCEDURE = "stored_procedure";
     static final String STARTTIME_FUNCTION = "starttime_function";
     static final String FETCH_SIZE = "fetch_size";
+    static final String SERVER_SIDE_BINNING = "server_side_binning";
+    static final String PARALLEL_FETCH = "parallel_fetch";
 
     static String user, password, prefix;
     static int timeout;
     static boolean use_array_blob;
     static String stored_procedure, starttime_function;
     static int fetch_size;
+    static boolean server_side_binning;
+    static int parallel_fetch;
 
     static
     {
@@ -41,5 +45,7 @@ public class RDBPreferences
         stored_procedure   = prefs.get(STORED_PROCEDURE);
         starttime_function = prefs.get(STARTTIME_FUNCTION);
         fetch_size         = prefs.getInt(FETCH_SIZE);
+        server_side_binning = prefs.getBoolean(SERVER_SIDE_BINNING);
+        parallel_fetch     = prefs.getInt(PARALLEL_FETCH);
     }
 }
@@ -36,6 +36,8 @@ class SQL
     final public String sample_sel_by_id_start_end_with_blob;
     final public String sample_sel_array_vals;
     final public String sample_count_by_id_start_end;
+    final public String sample_sel_binned_by_id_start_end;
+    final public String sample_sel_text_by_id_start_end;
 
 
     SQL(final Dialect dialect, String prefix)
@@ -119,5 +121,28 @@ class SQL
         // Rough count, ignoring nanosecs for the non-Oracle dialects
         sample_count_by_id_start_end = "SELECT COUNT(*) FROM " + prefix + "sample" +
           "   WHERE channel_id=? AND smpl_time BETWEEN ? AND ?";
+
+        // Seconds from start time (parameter) to sample time
+        final String seconds;
+        if (dialect == Dialect.Oracle)
+            seconds = "(CAST(smpl_time AS DATE) - CAST(? AS DATE)) * 86400";
+        else if (dialect == Dialect.PostgreSQL)
+            seconds = "EXTRACT(EPOCH FROM (smpl_time - ?))";
+        else
+            seconds = "TIMESTAMPDIFF(MICROSECOND, ?, smpl_time) / 1000000.0";
+        // Bin numeric samples: bin, time of first sample, min, max, average, standard deviation, count.
+        // Parameters: start, bin size in seconds, channel_id, start, end
+        sample_sel_binned_by_id_start_end =
+            "SELECT bin, MIN(smpl_time), MIN(val), MAX(val), AVG(val), STDDEV_POP(val), COUNT(val) FROM" +
+            " (SELECT FLOOR(" + seconds + " / ?) AS bin, smpl_time, COALESCE(float_val, num_val) AS val" +
+            "   FROM " + prefix + "sample" +
+            "   WHERE channel_id=? AND smpl_time BETWEEN ? AND ?) b" +
+            " GROUP BY bin ORDER BY bin";
+        // Text samples, for example "Archive_Off", that are not included in bins
+        sample_sel_text_by_id_start_end =
+            "SELECT smpl_time, severity_id, status_id, str_val FROM " + prefix + "sample" +
+            "   WHERE channel_id=? AND smpl_time BETWEEN ? AND ?" +
+            "     AND float_val IS NULL AND num_val IS NULL" +
+            "   ORDER BY smpl_time";
     }
 }
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser3.archive;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.csstudio.trends.databrowser3.model.RequestType;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VType;
+import org.junit.Test;
+import org.phoebus.archive.reader.ArchiveReader;
+import org.phoebus.archive.reader.ValueIterator;
+
+/** JUnit test for the ArchiveSampleCache
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ArchiveSampleCacheUnitTest
+{
+    /** Archive with one sample per second, value = epoch seconds */
+    private static class DemoReader implements ArchiveReader
+    {
+        final List<String> requests = new ArrayList<>();
+
+        @Override
+        public String getDescription()
+        {
+            return "Demo";
+        }
+
+        @Override
+        public Collection<String> getNamesByPattern(final String glob_pattern) throws Exception
+        {
+            return List.of("demo");
+        }
+
+        @Override
+        public ValueIterator getRawValues(final String name, final Instant start, final Instant end) throws Exception
+        {
+            requests.add(start.getEpochSecond() + " - " + end.getEpochSecond());
+            // Last sample at or before start, then samples up to end
+            final List<VType> samples = new ArrayList<>();
+            for (long secs = start.getEpochSecond(); secs <= end.getEpochSecond(); ++secs)
+                samples.add(VDouble.of(secs, Alarm.none(), Time.of(Instant.ofEpochSecond(secs)), Display.none()));
+            final Iterator<VType> iter = samples.iterator();
+            return new ValueIterator()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return iter.hasNext();
+                }
+
+                @Override
+                public VType next()
+                {
+                    return iter.next();
+                }
+            };
+        }
+    }
+
+    private static List<Long> getSeconds(final List<VType> samples)
+    {
+        final List<Long> seconds = new ArrayList<>();
+        for (VType sample : samples)
+            seconds.add(Time.timeOf(sample).getTimestamp().getEpochSecond());
+        return seconds;
+    }
+
+    @Test
+    public void testGaps() throws Exception
+    {
+        final ArchiveSampleCache cache = new ArchiveSampleCache(1024 * 1024);
+        final DemoReader reader = new DemoReader();
+
+        List<VType> samples = cache.getSamples(reader, "demo://", "demo", RequestType.RAW,
+                                               Instant.ofEpochSecond(100), Instant.ofEpochSecond(110), 800, () -> false);
+        assertThat(getSeconds(samples), equalTo(List.of(100L, 101L, 102L, 103L, 104L, 105L, 106L, 107L, 108L, 109L, 110L)));
+        assertThat(reader.requests, equalTo(List.of("100 - 110")));
+
+        // Pan right: Only fetch the new part
+        samples = cache.getSamples(reader, "demo://", "demo", RequestType.RAW,
+                                   Instant.ofEpochSecond(105), Instant.ofEpochSecond(115), 800, () -> false);
+        assertThat(getSeconds(samples), equalTo(List.of(105L, 106L, 107L, 108L, 109L, 110L, 111L, 112L, 113L, 114L, 115L)));
+        assertThat(reader.requests, equalTo(List.of("100 - 110", "110 - 115")));
+
+        // Fully cached
+        samples = cache.getSamples(reader, "demo://", "demo", RequestType.RAW,
+                                   Instant.ofEpochSecond(102), Instant.ofEpochSecond(112), 800, () -> false);
+        assertThat(samples.size(), equalTo(11));
+        assertThat(reader.requests.size(), equalTo(2));
+
+        // Gaps on both ends
+        samples = cache.getSamples(reader, "demo://", "demo", RequestType.RAW,
+                                   Instant.ofEpochSecond(95), Instant.ofEpochSecond(120), 800, () -> false);
+        assertThat(samples.size(), equalTo(26));
+        assertThat(reader.requests, equalTo(List.of("100 - 110", "110 - 115", "95 - 100", "115 - 120")));
+
+        // Different resolution uses a different entry
+        cache.getSamples(reader, "demo://", "demo", RequestType.OPTIMIZED,
+                         Instant.ofEpochSecond(100), Instant.ofEpochSecond(110), 5, () -> false);
+        assertThat(reader.requests.size(), equalTo(5));
+    }
+
+    @Test
+    public void testCancellation() throws Exception
+    {
+        final ArchiveSampleCache cache = new ArchiveSampleCache(1024 * 1024);
+        final DemoReader reader = new DemoReader();
+        cache.getSamples(reader, "demo://", "demo", RequestType.RAW,
+                         Instant.ofEpochSecond(100), Instant.ofEpochSecond(110), 800, () -> true);
+        // Cancelled request is not cached
+        cache.getSamples(reader, "demo://", "demo", RequestType.RAW,
+                         Instant.ofEpochSecond(100), Instant.ofEpochSecond(110), 800, () -> false);
+        assertThat(reader.requests, equalTo(List.of("100 - 110", "100 - 110")));
+    }
+
+    @Test
+    public void testMemoryLimit() throws Exception
+    {
+        // Room for a few hundred samples
+        final ArchiveSampleCache cache = new ArchiveSampleCache(50000);
+        final DemoReader reader = new DemoReader();
+        for (String name : List.of("a", "b", "c"))
+            cache.getSamples(reader, "demo://", name, RequestType.RAW,
+                             Instant.ofEpochSecond(0), Instant.ofEpochSecond(200), 800, () -> false);
+        // "c" is still cached, "a" was removed
+        cache.getSamples(reader, "demo://", "c", RequestType.RAW,
+                         Instant.ofEpochSecond(0), Instant.ofEpochSecond(200), 800, () -> false);
+        assertThat(reader.requests.size(), equalTo(3));
+        cache.getSamples(reader, "demo://", "a", RequestType.RAW,
+                         Instant.ofEpochSecond(0), Instant.ofEpochSecond(200), 800, () -> false);
+        assertThat(reader.requests.size(), equalTo(4));
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser3.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.epics.vtype.VType;
+import org.junit.Test;
+
+/** JUnit test for incremental FormulaItem evaluation
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class FormulaItemUnitTest
+{
+    private static final String EXPRESSION = "a + 2*b";
+
+    /** @param samples Samples
+     *  @return Text for the samples, excluding those based on the continuation of inputs to 'now'
+     */
+    private List<String> getTestSamples(final PlotSamples samples)
+    {
+        final List<String> result = new ArrayList<>();
+        samples.getLock().lock();
+        try
+        {
+            for (int i=0; i<samples.size(); ++i)
+            {
+                final PlotSample sample = samples.get(i);
+                if (sample.getPosition().isBefore(Instant.ofEpochSecond(1)))
+                    result.add(sample.getPosition() + " " + sample.getValue());
+            }
+        }
+        finally
+        {
+            samples.getLock().unlock();
+        }
+        return result;
+    }
+
+    /** Check that formula has the same result as a new formula that computes everything */
+    private void check(final PVItem a, final PVItem b, final FormulaItem formula) throws Exception
+    {
+        final FormulaItem full = new FormulaItem("full", EXPRESSION, new FormulaInput[]
+        {
+            new FormulaInput(a, "a"),
+            new FormulaInput(b, "b")
+        });
+        final List<String> expected = getTestSamples(full.getSamples());
+        final List<String> samples = getTestSamples(formula.getSamples());
+        assertEquals(expected, samples);
+    }
+
+    @Test
+    public void testIncrementalUpdates() throws Exception
+    {
+        final PVItem a = new PVItem("a", 0.0);
+        final PVItem b = new PVItem("b", 0.0);
+        final FormulaItem formula = new FormulaItem("formula", EXPRESSION, new FormulaInput[]
+        {
+            new FormulaInput(a, "a"),
+            new FormulaInput(b, "b")
+        });
+        check(a, b, formula);
+
+        // Add interleaved 'live' samples
+        for (int i=0; i<20; ++i)
+        {
+            if (i % 3 == 0)
+                b.getSamples().addLiveSample(TestHelper.makeValue(10*i + 5));
+            else
+                a.getSamples().addLiveSample(TestHelper.makeValue(10*i));
+            assertTrue(formula.reevaluate());
+            check(a, b, formula);
+        }
+
+        // Merge 'historic' samples, which requires a full re-computation
+        final List<VType> history = new ArrayList<>();
+        for (int i=1; i<5; ++i)
+            history.add(TestHelper.makeValue(-i));
+        a.getSamples().mergeArchivedData("Test", history);
+        assertTrue(formula.reevaluate());
+        check(a, b, formula);
+
+        // Change of formula also requires full re-computation
+        formula.updateFormula("a - b", formula.getInputs());
+        formula.updateFormula(EXPRESSION, formula.getInputs());
+        formula.reevaluate();
+        check(a, b, formula);
+    }
+}
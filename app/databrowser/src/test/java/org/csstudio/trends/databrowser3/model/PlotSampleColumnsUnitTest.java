@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser3.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VStatistics;
+import org.epics.vtype.VString;
+import org.junit.Test;
+
+/** JUnit test for PlotSampleColumns
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PlotSampleColumnsUnitTest
+{
+    @Test
+    public void testRing() throws Exception
+    {
+        final PlotSampleColumns samples = new PlotSampleColumns(new AtomicInteger(0), 5);
+        for (int i=0; i<8; ++i)
+            samples.add("Test", TestHelper.makeValue(i));
+        // Ring buffer keeps the newest 5 samples
+        assertEquals(5, samples.size());
+        for (int i=0; i<5; ++i)
+        {
+            assertEquals(3.0 + i, samples.getValue(i), 0.0);
+            assertEquals(3.0 + i, samples.get(i).getValue(), 0.0);
+            assertEquals(Instant.ofEpochMilli(3 + i), samples.get(i).getPosition());
+            assertEquals(0.001*(3 + i), samples.getPositionAsDouble(i), 1e-9);
+            assertEquals("Test", samples.get(i).getSource());
+        }
+
+        // Shrink, keeping newest samples
+        samples.setCapacity(2);
+        assertEquals(2, samples.size());
+        assertEquals(6.0, samples.getValue(0), 0.0);
+        assertEquals(7.0, samples.getValue(1), 0.0);
+    }
+
+    @Test
+    public void testMixedSamples()
+    {
+        final AtomicInteger waveform_index = new AtomicInteger(0);
+        final PlotSampleColumns samples = new PlotSampleColumns(waveform_index, 10);
+        samples.add("Test", TestHelper.makeValue(1));
+        samples.add("Test", VStatistics.of(2.0, 0.1, 1.0, 3.0, 10, Alarm.none(), Time.of(Instant.ofEpochMilli(2)), Display.none()));
+        samples.add("Test", TestHelper.makeError(3, "Disconnected"));
+        samples.add(new PlotSample("Test", "Some text"));
+
+        assertEquals(4, samples.size());
+        assertEquals(1.0, samples.getValue(0), 0.0);
+        assertTrue(Double.isNaN(samples.getMin(0)));
+
+        assertEquals(2.0, samples.getValue(1), 0.0);
+        assertEquals(0.1, samples.getStdDev(1), 0.0);
+        assertEquals(1.0, samples.getMin(1), 0.0);
+        assertEquals(3.0, samples.getMax(1), 0.0);
+        assertTrue(samples.get(1).getVType() instanceof VStatistics);
+
+        assertEquals(AlarmSeverity.UNDEFINED, samples.getSeverity(2));
+        assertEquals("UNDEFINED / Disconnected", samples.get(2).getInfo());
+
+        assertTrue(samples.get(3).getVType() instanceof VString);
+        assertEquals("Some text", samples.get(3).getInfo());
+
+        // Scalars have no value for other waveform elements
+        waveform_index.set(1);
+        assertTrue(Double.isNaN(samples.getValue(0)));
+        assertTrue(Double.isNaN(samples.getMin(1)));
+    }
+
+    @Test
+    public void testMerge()
+    {
+        final AtomicInteger waveform_index = new AtomicInteger(0);
+        final PlotSampleColumns old = new PlotSampleColumns(waveform_index, 10);
+        for (int i=0; i<10; ++i)
+            old.add("Old", TestHelper.makeValue(i*10));
+        final PlotSampleColumns add = new PlotSampleColumns(waveform_index, 3);
+        for (int i=0; i<3; ++i)
+            add.add("New", TestHelper.makeValue(31 + i));
+
+        // 0, 10, 20, 30 from 'old', 31, 32, 33 from 'add', 40 ... 90 from 'old'
+        final PlotSampleColumns merged = PlotSampleMerger.merge(old, add);
+        assertEquals(4 + 3 + 6, merged.size());
+        assertEquals(30.0, merged.getValue(3), 0.0);
+        assertEquals("New", merged.get(4).getSource());
+        assertEquals(33.0, merged.getValue(6), 0.0);
+        assertEquals(40.0, merged.getValue(7), 0.0);
+        assertEquals("Old", merged.get(7).getSource());
+
+        assertEquals(3, merged.findSampleLessThan(Instant.ofEpochMilli(31)));
+        assertEquals(7, merged.findSampleGreaterThan(Instant.ofEpochMilli(33)));
+        assertEquals(-1, merged.findSampleGreaterThan(Instant.ofEpochMilli(90)));
+    }
+
+    @Test
+    public void testManyContexts()
+    {
+        final PlotSampleColumns samples = new PlotSampleColumns(new AtomicInteger(0), 10);
+        // Each source is a new context, more than can be kept
+        for (int i=0; i<5000; ++i)
+            samples.add("Source " + i, TestHelper.makeValue(i));
+        assertEquals(10, samples.size());
+        for (int i=0; i<10; ++i)
+        {
+            assertEquals(4990.0 + i, samples.getValue(i), 0.0);
+            assertEquals("Source " + (4990 + i), samples.get(i).getSource());
+        }
+
+        // Samples are still held in columns, creating a new PlotSample for each get().
+        // A sample kept as PlotSample would be returned as the same instance.
+        for (int i=0; i<10; ++i)
+            assertNotSame(samples.get(i), samples.get(i));
+        samples.add(new PlotSample("Test", "Some text"));
+        assertSame(samples.get(9), samples.get(9));
+    }
+}
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.phoebus.archive.reader.columnar;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListNumber;
+import org.epics.util.stats.Range;
+import org.epics.util.text.NumberFormats;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.AlarmStatus;
+import org.epics.vtype.Display;
+import org.epics.vtype.EnumDisplay;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VDoubleArray;
+import org.epics.vtype.VEnum;
+import org.epics.vtype.VInt;
+import org.epics.vtype.VLong;
+import org.epics.vtype.VNumber;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+import org.junit.Test;
+import org.phoebus.archive.reader.ValueIterator;
+
+/** JUnit test of the columnar archive files
+ *
+ *  <p>Reads files via the {@link ColumnarArchiveReader}
+ *  and compares values, alarms and time stamps with the original samples.
+ *
+ *  <p>The files in src/test/resources/columnar were written
+ *  by the archive engine's columnar archive writer
+ *  from the samples created in each test.
+ *  The 'days' channel was written in two runs
+ *  to check appending to an existing day file.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ColumnarArchiveUnitTest
+{
+    private static final Display display = Display.of(Range.of(0, 10), Range.of(1, 9), Range.of(2, 8), Range.of(0, 10), "V", NumberFormats.precisionFormat(3));
+
+    private static final Alarm minor = Alarm.of(AlarmSeverity.MINOR, AlarmStatus.RECORD, "HIGH"),
+                               major = Alarm.of(AlarmSeverity.MAJOR, AlarmStatus.DEVICE, "HIHI");
+
+    /** 2018-01-01 23:59:50 UTC, 10 seconds before the next day file */
+    private static final Instant start = Instant.ofEpochSecond(1514851190L, 123456789);
+
+    /** Root directory of the test files */
+    private final File root = new File(ColumnarArchiveUnitTest.class.getResource("/columnar").getFile());
+
+    /** @param i Sample index
+     *  @return Irregular time stamp for sample, nanosecond resolution
+     */
+    private static Time getTime(final int i)
+    {
+        return Time.of(start.plusNanos(i * 250000000L + (i % 3) * 1234567L));
+    }
+
+    /** Read all samples */
+    private List<VType> read(final String name, final Instant from, final Instant to) throws Exception
+    {
+        final List<VType> result = new ArrayList<>();
+        final ColumnarArchiveReader reader = new ColumnarArchiveReader(root);
+        final ValueIterator values = reader.getRawValues(name, from, to);
+        while (values.hasNext())
+            result.add(values.next());
+        values.close();
+        reader.close();
+        return result;
+    }
+
+    private List<VType> readAll(final String name) throws Exception
+    {
+        return read(name, start.minusSeconds(60), start.plusSeconds(3600));
+    }
+
+    /** Compare time stamp and alarm */
+    private static void checkMeta(final VType expected, final VType actual)
+    {
+        assertThat(Time.timeOf(actual).getTimestamp(), equalTo(Time.timeOf(expected).getTimestamp()));
+        assertThat(Alarm.alarmOf(actual), equalTo(Alarm.alarmOf(expected)));
+    }
+
+    @Test
+    public void testDoubles() throws Exception
+    {
+        final double[] values = { 3.14, 3.14, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                                  -0.0, 0.0, Double.MIN_VALUE, -Double.MAX_VALUE, 1e-300, 42.0, 42.5, Double.NaN, 7.0 };
+        final Alarm[] alarms = { Alarm.none(), Alarm.none(), Alarm.of(AlarmSeverity.INVALID, AlarmStatus.UNDEFINED, "NaN"),
+                                 major, major, minor, Alarm.none() };
+        final List<VType> samples = new ArrayList<>();
+        for (int i=0; i<values.length; ++i)
+            samples.add(VDouble.of(values[i], alarms[i % alarms.length], getTime(i), display));
+
+        final List<VType> result = readAll("double");
+        assertThat(result.size(), equalTo(samples.size()));
+        for (int i=0; i<values.length; ++i)
+        {
+            final VType sample = result.get(i);
+            assertThat(sample, instanceOf(VDouble.class));
+            // Compare bits to distinguish -0.0 from 0.0 and check NaN
+            assertThat(Double.doubleToLongBits(((VDouble) sample).getValue()), equalTo(Double.doubleToLongBits(values[i])));
+            checkMeta(samples.get(i), sample);
+            final Display meta = ((VDouble) sample).getDisplay();
+            assertThat(meta.getUnit(), equalTo("V"));
+            assertThat(meta.getFormat().getMinimumFractionDigits(), equalTo(3));
+            assertThat(meta.getWarningRange().getMinimum(), equalTo(2.0));
+            assertThat(meta.getWarningRange().getMaximum(), equalTo(8.0));
+        }
+    }
+
+    @Test
+    public void testLongs() throws Exception
+    {
+        final long[] values = { 0, 1, -1, 1000000, Long.MAX_VALUE, Long.MIN_VALUE, 42, 42, -7 };
+        final List<VType> samples = new ArrayList<>();
+        for (int i=0; i<values.length; ++i)
+            samples.add(VLong.of(values[i], i == 4 ? major : Alarm.none(), getTime(i), display));
+        // Integers are stored like longs.
+        // Each sample was flushed into a separate block
+        samples.add(VInt.of(17, minor, getTime(values.length), display));
+
+        final List<VType> result = readAll("long");
+        assertThat(result.size(), equalTo(samples.size()));
+        for (int i=0; i<samples.size(); ++i)
+        {
+            assertThat(result.get(i), instanceOf(VLong.class));
+            assertThat(((VNumber) result.get(i)).getValue().longValue(),
+                       equalTo(((VNumber) samples.get(i)).getValue().longValue()));
+            checkMeta(samples.get(i), result.get(i));
+        }
+    }
+
+    @Test
+    public void testEnums() throws Exception
+    {
+        final EnumDisplay labels = EnumDisplay.of("Off", "On", "Fault");
+        final EnumDisplay other = EnumDisplay.of("Closed", "Open");
+        final List<VType> samples = new ArrayList<>();
+        samples.add(VEnum.of(0, labels, Alarm.none(), getTime(0)));
+        samples.add(VEnum.of(1, labels, Alarm.none(), getTime(1)));
+        samples.add(VEnum.of(2, labels, major, getTime(2)));
+        samples.add(VEnum.of(0, labels, Alarm.none(), getTime(3)));
+        // Change of labels starts a new block
+        samples.add(VEnum.of(1, other, minor, getTime(4)));
+        samples.add(VEnum.of(0, other, Alarm.none(), getTime(5)));
+
+        final List<VType> result = readAll("enum");
+        assertThat(result.size(), equalTo(samples.size()));
+        for (int i=0; i<samples.size(); ++i)
+        {
+            final VEnum expected = (VEnum) samples.get(i);
+            final VEnum actual = (VEnum) result.get(i);
+            assertThat(actual.getIndex(), equalTo(expected.getIndex()));
+            assertThat(actual.getDisplay().getChoices(), equalTo(expected.getDisplay().getChoices()));
+            checkMeta(expected, actual);
+        }
+    }
+
+    @Test
+    public void testStrings() throws Exception
+    {
+        final String[] values = { "Hello", "", "Hello", "Temperature 20 \u00B0C", "Line 1\nLine 2" };
+        final List<VType> samples = new ArrayList<>();
+        for (int i=0; i<values.length; ++i)
+            samples.add(VString.of(values[i], i == 2 ? minor : Alarm.none(), getTime(i)));
+
+        final List<VType> result = readAll("string");
+        assertThat(result.size(), equalTo(samples.size()));
+        for (int i=0; i<values.length; ++i)
+        {
+            assertThat(((VString) result.get(i)).getValue(), equalTo(values[i]));
+            checkMeta(samples.get(i), result.get(i));
+        }
+    }
+
+    @Test
+    public void testArrays() throws Exception
+    {
+        final double[][] values =
+        {
+            { 1.0, 2.0, 3.0 },
+            { },
+            { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0 },
+            { 1.0, 2.0, 3.0 },
+            { 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7 },
+        };
+        final List<VType> samples = new ArrayList<>();
+        for (int i=0; i<values.length; ++i)
+            samples.add(VDoubleArray.of(ArrayDouble.of(values[i]), i == 2 ? major : Alarm.none(), getTime(i), display));
+
+        final List<VType> result = readAll("array");
+        assertThat(result.size(), equalTo(samples.size()));
+        for (int i=0; i<values.length; ++i)
+        {
+            final ListNumber data = ((VDoubleArray) result.get(i)).getData();
+            assertThat(data.size(), equalTo(values[i].length));
+            for (int e=0; e<values[i].length; ++e)
+                assertThat(Double.doubleToLongBits(data.getDouble(e)), equalTo(Double.doubleToLongBits(values[i][e])));
+            checkMeta(samples.get(i), result.get(i));
+        }
+    }
+
+    @Test
+    public void testMixedTypes() throws Exception
+    {
+        // Type changes start a new block within the same file
+        final List<VType> samples = Arrays.asList(
+            VDouble.of(1.5, Alarm.none(), getTime(0), display),
+            VLong.of(2L, minor, getTime(1), display),
+            VString.of("Three", Alarm.none(), getTime(2)),
+            VDouble.of(4.5, major, getTime(3), display));
+
+        final List<VType> result = readAll("mixed");
+        assertThat(result.size(), equalTo(samples.size()));
+        assertThat(((VDouble) result.get(0)).getValue(), equalTo(1.5));
+        assertThat(((VLong) result.get(1)).getValue(), equalTo(2L));
+        assertThat(((VString) result.get(2)).getValue(), equalTo("Three"));
+        assertThat(((VDouble) result.get(3)).getValue(), equalTo(4.5));
+        for (int i=0; i<samples.size(); ++i)
+            checkMeta(samples.get(i), result.get(i));
+    }
+
+    @Test
+    public void testDayFiles() throws Exception
+    {
+        // One sample per second, crossing midnight after 10 samples
+        final List<VType> samples = new ArrayList<>();
+        for (int i=0; i<20; ++i)
+            samples.add(VDouble.of((double) i, Alarm.none(), Time.of(start.plusSeconds(i)), display));
+
+        final File channel = new File(root, "days");
+        final String[] files = channel.list();
+        Arrays.sort(files);
+        assertThat(files, equalTo(new String[] { "20180101.col", "20180102.col" }));
+
+        // All samples in order, across both files,
+        // plus one more that was appended to the existing day file
+        List<VType> result = readAll("days");
+        assertThat(result.size(), equalTo(samples.size() + 1));
+        for (int i=0; i<samples.size(); ++i)
+        {
+            assertThat(((VDouble) result.get(i)).getValue(), equalTo((double) i));
+            checkMeta(samples.get(i), result.get(i));
+        }
+        assertThat(((VDouble) result.get(samples.size())).getValue(), equalTo(20.0));
+        assertThat(Alarm.alarmOf(result.get(samples.size())), equalTo(minor));
+
+        // Start in second file: Begins with last sample of first file
+        final Instant midnight = Instant.ofEpochSecond(1514851200L);
+        result = read("days", midnight, midnight.plusSeconds(2));
+        assertTrue(result.size() >= 3);
+        assertThat(((VDouble) result.get(0)).getValue(), equalTo(9.0));
+        assertThat(((VDouble) result.get(1)).getValue(), equalTo(10.0));
+        assertThat(((VDouble) result.get(result.size()-1)).getValue(), equalTo(11.0));
+    }
+}
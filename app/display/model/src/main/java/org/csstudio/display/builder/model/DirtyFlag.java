@@ -32,6 +32,12 @@ public class DirtyFlag
         is_dirty.set(true);
     }
 
+    /** @return <code>true</code> if marked, without clearing the flag */
+    public boolean isMarked()
+    {
+        return is_dirty.get();
+    }
+
     public boolean checkAndClear()
     {
         return is_dirty.getAndSet(false);
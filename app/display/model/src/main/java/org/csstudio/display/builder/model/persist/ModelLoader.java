@@ -14,6 +14,7 @@ import java.util.ServiceLoader;
 import java.util.logging.Level;
 
 import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.Version;
 import org.csstudio.display.builder.model.WidgetClassSupport;
 import org.csstudio.display.builder.model.spi.DisplayAutoConverter;
 import org.csstudio.display.builder.model.util.ModelResourceUtil;
@@ -22,6 +23,7 @@ import org.csstudio.display.builder.model.util.ModelResourceUtil;
  *
  *  <p>Resolves display path relative to parent display,
  *  then loads the model,
+ *  using the {@link ModelTemplateCache} for local files,
  *  updates the model's input file information
  *  and applies the class definitions (except for *.bcf files).
  *
@@ -74,7 +76,12 @@ public class ModelLoader
      */
     public static DisplayModel loadModel(final String display_file) throws Exception
     {
-        return loadModel(ModelResourceUtil.openResourceStream(display_file), display_file);
+        // Local files that have already been parsed are copied from the template cache
+        final DisplayModel model = ModelTemplateCache.loadModel(display_file);
+        if (model == null)
+            return loadModel(ModelResourceUtil.openResourceStream(display_file), display_file);
+        applyClasses(model, model.getUserData(DisplayModel.USER_DATA_INPUT_VERSION), display_file);
+        return model;
     }
 
 
@@ -87,16 +94,24 @@ public class ModelLoader
      */
     public static DisplayModel loadModel(final InputStream stream, final String display_file) throws Exception
     {
-        final ModelReader reader = new ModelReader(stream, display_file);
+        final ModelReader reader = ModelReader.create(stream, display_file);
         final DisplayModel model = reader.readModel();
         model.setUserData(DisplayModel.USER_DATA_INPUT_FILE, display_file);
+        applyClasses(model, reader.getVersion(), display_file);
+        return model;
+    }
 
+    /** @param model Model where classes are applied (except for *.bcf itself)
+     *  @param version File version of the model
+     *  @param display_file Model file
+     */
+    private static void applyClasses(final DisplayModel model, final Version version, final String display_file)
+    {
         // Models from version 2 on support classes
-        if (reader.getVersion().getMajor() >= 2  &&
+        if (version.getMajor() >= 2  &&
             !display_file.endsWith(WidgetClassSupport.FILE_EXTENSION))
         {
             WidgetClassesService.getWidgetClasses().apply(model);
         }
-        return model;
-  }
+    }
 }
@@ -17,6 +17,11 @@ import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
 import org.csstudio.display.builder.model.ChildrenProperty;
 import org.csstudio.display.builder.model.DisplayModel;
 import org.csstudio.display.builder.model.Preferences;
@@ -28,6 +33,7 @@ import org.csstudio.display.builder.model.WidgetFactory;
 import org.csstudio.display.builder.model.WidgetFactory.WidgetTypeException;
 import org.csstudio.display.builder.model.widgets.PlaceholderWidget;
 import org.phoebus.framework.persistence.XMLUtil;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 /** Read model from XML.
@@ -69,6 +75,17 @@ import org.w3c.dom.Element;
  *  .. but widget can provide a custom WidgetConfigurator
  *  and handle legacy properties in a different way.
  *
+ *  Streaming
+ *  =========
+ *  For large files, the DOM of the complete file takes time and memory.
+ *  When created via {@link #create(InputStream, String, boolean)},
+ *  files of version 2 and higher are read via StAX.
+ *  Only the properties of one widget at a time are read into a DOM
+ *  for the widget's configurator,
+ *  while child widgets are created as they are found in the stream.
+ *  Legacy content can require changes to the XML of sibling widgets
+ *  (see {@link ParseAgainException}), which falls back to the DOM.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -78,6 +95,10 @@ public class ModelReader
     private final Element root;
     private final Version version;
     private final String xml_file;
+
+    /** Complete XML and its stream reader when streaming, otherwise <code>null</code> */
+    private final byte[] xml;
+    private final XMLStreamReader xml_stream;
     private int widget_errors_during_parse;
 
     /** Parse display from XML
@@ -111,9 +132,76 @@ public class ModelReader
         root = XMLUtil.openXMLDocument(stream, XMLTags.DISPLAY);
         version = readVersion(root);
         this.xml_file = xml_file;
+        xml = null;
+        xml_stream = null;
+    }
+
+    /** Create streaming reader
+     *  @param xml Complete XML
+     *  @param xml_stream Stream reader for that XML, positioned on the root element
+     *  @param version Version of the file
+     *  @param xml_file Name of input file. Can be null if not applicable
+     */
+    private ModelReader(final byte[] xml, final XMLStreamReader xml_stream, final Version version, final String xml_file)
+    {
+        root = null;
+        this.version = version;
+        this.xml_file = xml_file;
+        this.xml = xml;
+        this.xml_stream = xml_stream;
+    }
+
+    /** Create reader, streaming if enabled by preferences.
+     *  @param stream Input stream to read, will be closed
+     *  @param xml_file Name of input file. Can be null if not applicable
+     *  @return {@link ModelReader}
+     *  @throws Exception on error
+     */
+    public static ModelReader create(final InputStream stream, final String xml_file) throws Exception
+    {
+        return create(stream, xml_file, Preferences.streaming_reader);
     }
 
-    /** @return XML root element for custom access */
+    /** Create reader.
+     *  @param stream Input stream to read, will be closed
+     *  @param xml_file Name of input file. Can be null if not applicable
+     *  @param streaming Stream files of version 2 and higher instead of reading the DOM?
+     *  @return {@link ModelReader}
+     *  @throws Exception on error
+     */
+    public static ModelReader create(final InputStream stream, final String xml_file, final boolean streaming) throws Exception
+    {
+        if (! streaming)
+            return new ModelReader(stream, xml_file);
+
+        // Keep XML in case legacy content requires falling back to the DOM
+        final byte[] xml;
+        try (stream)
+        {
+            xml = stream.readAllBytes();
+        }
+
+        final XMLStreamReader xml_stream = XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(xml));
+        xml_stream.nextTag();
+        final String root_name = xml_stream.getLocalName();
+        if (! XMLTags.DISPLAY.equals(root_name))
+        {
+            xml_stream.close();
+            throw new Exception("Wrong document type. Expected <" + XMLTags.DISPLAY + "> but found <" + root_name + ">");
+        }
+        final String text = xml_stream.getAttributeValue(null, XMLTags.VERSION);
+        final Version version = (text == null  ||  text.isEmpty())
+                              ? Widget.BASE_WIDGET_VERSION
+                              : Version.parse(text);
+        if (version.getMajor() < 2)
+        {
+            xml_stream.close();
+            return new ModelReader(new ByteArrayInputStream(xml), xml_file);
+        }
+        return new ModelReader(xml, xml_stream, version, xml_file);
+    }
+
+    /** @return XML root element for custom access, <code>null</code> when streaming */
     public Element getRoot()
     {
         return root;
@@ -139,6 +227,9 @@ public class ModelReader
      */
     public DisplayModel readModel() throws Exception
     {
+        if (xml_stream != null)
+            return streamModel();
+
         final DisplayModel model = new DisplayModel();
 
         model.setUserData(DisplayModel.USER_DATA_INPUT_VERSION, version);
@@ -192,7 +283,6 @@ public class ModelReader
         // don't add them as children, yet,
         // because ParseAgainException could rearrange the XML on this level.
         final List<Widget> widgets = new ArrayList<>();
-        final String source = xml_file == null ? "line" : xml_file;
         widget_errors_during_parse = 0;
         for (final Element widget_xml : XMLUtil.getChildElements(parent_xml, XMLTags.WIDGET))
         {
@@ -208,22 +298,9 @@ public class ModelReader
                 ex.printStackTrace();
                 return null;
             }
-            catch (WidgetTypeException ex)
-            {
-                ++widget_errors_during_parse;
-                // Mention missing widget only once per reader
-                if (! unknown_widget_type.contains(ex.getType()))
-                {
-                    logger.log(Level.SEVERE, ex.getMessage() + ", " + source + ":" + XMLUtil.getLineInfo(widget_xml) + "\tnote: each unknown widget type is reported only once for each model it appears in");
-                    unknown_widget_type.add(ex.getType());
-                }
-                // Continue with next widget
-            }
             catch (final Throwable ex)
             {
-                ++widget_errors_during_parse;
-                logger.log(Level.SEVERE,
-                           "Widget configuration file error, " + source + ":" + XMLUtil.getLineInfo(widget_xml), ex);
+                reportWidgetError(ex, widget_xml);
                 // Continue with next widget
             }
 
@@ -240,6 +317,199 @@ public class ModelReader
         return widgets;
     }
 
+    /** @param ex Error while reading a widget
+     *  @param widget_xml Widget's XML element
+     */
+    private void reportWidgetError(final Throwable ex, final Element widget_xml)
+    {
+        ++widget_errors_during_parse;
+        final String source = xml_file == null ? "line" : xml_file;
+        if (ex instanceof WidgetTypeException)
+        {
+            final WidgetTypeException type_ex = (WidgetTypeException) ex;
+            // Mention missing widget only once per reader
+            if (! unknown_widget_type.contains(type_ex.getType()))
+            {
+                logger.log(Level.SEVERE, ex.getMessage() + ", " + source + ":" + XMLUtil.getLineInfo(widget_xml) + "\tnote: each unknown widget type is reported only once for each model it appears in");
+                unknown_widget_type.add(type_ex.getType());
+            }
+        }
+        else
+            logger.log(Level.SEVERE,
+                       "Widget configuration file error, " + source + ":" + XMLUtil.getLineInfo(widget_xml), ex);
+    }
+
+    /** Read model by streaming the XML
+     *  @return Model
+     *  @throws Exception on error
+     */
+    private DisplayModel streamModel() throws Exception
+    {
+        try
+        {
+            final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            final List<Widget> widgets = new ArrayList<>();
+            final Element display_xml = streamElement(doc, widgets);
+
+            final DisplayModel model = new DisplayModel();
+            model.setUserData(DisplayModel.USER_DATA_INPUT_VERSION, version);
+            model.getConfigurator(version).configureFromXML(this, model, display_xml);
+            for (Widget widget : widgets)
+                model.runtimeChildren().addChild(widget);
+            if (widget_errors_during_parse > 0)
+                logger.log(Level.SEVERE, "There were " + widget_errors_during_parse + " error(s) during loading display from " + (xml_file != null ? xml_file : "stream"));
+            model.setReaderResult(this);
+            return model;
+        }
+        catch (ParseAgainException ex)
+        {
+            logger.log(Level.FINE, "Legacy content in " + (xml_file != null ? xml_file : "stream") + ", reading DOM");
+            final ModelReader dom_reader = new ModelReader(new ByteArrayInputStream(xml), xml_file);
+            final DisplayModel model = dom_reader.readModel();
+            widget_errors_during_parse = dom_reader.widget_errors_during_parse;
+            return model;
+        }
+        finally
+        {
+            xml_stream.close();
+        }
+    }
+
+    /** Read display or widget from stream
+     *
+     *  <p>Stream must be positioned on the start of the element,
+     *  and will be positioned on its end.
+     *
+     *  @param doc Document for creating elements
+     *  @param widgets Child widgets are added to this list
+     *  @return Element with all properties, but without the child widgets
+     *  @throws ParseAgainException when a widget requires reading the DOM
+     *  @throws Exception on error
+     */
+    private Element streamElement(final Document doc, final List<Widget> widgets) throws ParseAgainException, Exception
+    {
+        final Element element = createStreamedElement(doc);
+        while (xml_stream.hasNext())
+        {
+            final int event = xml_stream.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                if (XMLTags.WIDGET.equals(xml_stream.getLocalName()))
+                    streamWidget(doc, widgets);
+                else
+                    element.appendChild(streamProperty(doc));
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT)
+                break;
+        }
+        return element;
+    }
+
+    /** Read property from stream
+     *
+     *  <p>Stream must be positioned on the start of the element,
+     *  and will be positioned on its end.
+     *
+     *  @param doc Document for creating elements
+     *  @return Element for the property, including all its content
+     *  @throws Exception on error
+     */
+    private Element streamProperty(final Document doc) throws Exception
+    {
+        final Element element = createStreamedElement(doc);
+        final StringBuilder text = new StringBuilder();
+        while (xml_stream.hasNext())
+        {
+            final int event = xml_stream.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                addText(doc, element, text);
+                element.appendChild(streamProperty(doc));
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT)
+                break;
+            else if (event == XMLStreamConstants.CHARACTERS  ||
+                     event == XMLStreamConstants.CDATA  ||
+                     event == XMLStreamConstants.SPACE)
+                text.append(xml_stream.getTextCharacters(), xml_stream.getTextStart(), xml_stream.getTextLength());
+        }
+        addText(doc, element, text);
+        return element;
+    }
+
+    /** @param doc Document for creating elements
+     *  @return Element for the current start element of the stream, with attributes and line number
+     */
+    private Element createStreamedElement(final Document doc)
+    {
+        final Element element = doc.createElement(xml_stream.getLocalName());
+        for (int i=0; i<xml_stream.getAttributeCount(); ++i)
+            element.setAttribute(xml_stream.getAttributeLocalName(i), xml_stream.getAttributeValue(i));
+        element.setUserData(PositionalXMLReader.LINE_NUMBER, xml_stream.getLocation().getLineNumber(), null);
+        return element;
+    }
+
+    /** Add text, same as the DOM reader: One text node for text between elements
+     *  @param doc Document for creating elements
+     *  @param element Element where text is added
+     *  @param text Text to add, will be cleared
+     */
+    private static void addText(final Document doc, final Element element, final StringBuilder text)
+    {
+        if (text.length() <= 0)
+            return;
+        element.appendChild(doc.createTextNode(text.toString()));
+        text.setLength(0);
+    }
+
+    /** Read widget from stream
+     *
+     *  <p>Stream must be positioned on the start of the widget,
+     *  and will be positioned on its end.
+     *
+     *  @param doc Document for creating elements
+     *  @param widgets List where widget (or placeholder) is added
+     *  @throws ParseAgainException when a widget requires reading the DOM
+     *  @throws Exception on error
+     */
+    private void streamWidget(final Document doc, final List<Widget> widgets) throws ParseAgainException, Exception
+    {
+        final List<Widget> children = new ArrayList<>();
+        final Element widget_xml = streamElement(doc, children);
+        // Configurators for legacy content may update the XML
+        // of sibling widgets, which requires the DOM.
+        // Detect added siblings via a temporary parent.
+        final Element parent = doc.createElement(XMLTags.DISPLAY);
+        parent.appendChild(widget_xml);
+        try
+        {
+            if (readVersion(widget_xml).getMajor() < 2)
+                throw new ParseAgainException();
+
+            final Widget widget = createWidget(getWidgetType(widget_xml), widget_xml);
+            if (parent.getFirstChild() != widget_xml  ||  parent.getLastChild() != widget_xml)
+                throw new ParseAgainException();
+            final ChildrenProperty child_prop = ChildrenProperty.getChildren(widget);
+            if (child_prop != null)
+                for (Widget child : children)
+                    child_prop.addChild(child);
+            widgets.add(widget);
+            return;
+        }
+        catch (ParseAgainException ex)
+        {
+            throw ex;
+        }
+        catch (final Throwable ex)
+        {
+            reportWidgetError(ex, widget_xml);
+        }
+
+        final Widget widget = createPlaceholderWidget(widget_xml);
+        if (widget != null)
+            widgets.add(widget);
+    }
+
     /** @param widget_xml Widget's XML element
      *  @return Widget type name
      *  @throws Exception on error
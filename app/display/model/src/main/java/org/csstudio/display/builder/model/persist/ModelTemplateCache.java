@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.model.persist;
+
+import static org.csstudio.display.builder.model.ModelPlugin.logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.csstudio.display.builder.model.ArrayWidgetProperty;
+import org.csstudio.display.builder.model.ChildrenProperty;
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.MacroizedWidgetProperty;
+import org.csstudio.display.builder.model.Preferences;
+import org.csstudio.display.builder.model.RuntimeWidgetProperty;
+import org.csstudio.display.builder.model.StructuredWidgetProperty;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.WidgetDescriptor;
+import org.csstudio.display.builder.model.WidgetFactory;
+import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.properties.Points;
+import org.phoebus.framework.macros.Macros;
+
+/** Cache of parsed display models
+ *
+ *  <p>Displays that are loaded over and over,
+ *  for example as the content of many embedded displays,
+ *  are parsed once.
+ *  The parsed model is kept as a template,
+ *  and each load returns a copy of that template.
+ *  Macros are not expanded in the template,
+ *  so each copy can still be used with different macros.
+ *
+ *  <p>Templates are identified by the file name,
+ *  its modification time and length.
+ *  Only local files are cached.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ModelTemplateCache
+{
+    /** Cached template */
+    private static class Template
+    {
+        final long modified, length;
+        final DisplayModel model;
+
+        Template(final long modified, final long length, final DisplayModel model)
+        {
+            this.modified = modified;
+            this.length = length;
+            this.model = model;
+        }
+    }
+
+    /** Templates by file name, least recently used first. SYNC on access */
+    private static final Map<String, Template> templates = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Template> eldest)
+        {
+            return size() > Preferences.template_cache_size;
+        }
+    };
+
+    private static final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+
+    /** @return Number of models that were copied from a template */
+    public static long getHits()
+    {
+        return hits.get();
+    }
+
+    /** @return Number of models that had to be parsed */
+    public static long getMisses()
+    {
+        return misses.get();
+    }
+
+    /** Remove all templates */
+    public static void clear()
+    {
+        synchronized (templates)
+        {
+            templates.clear();
+        }
+    }
+
+    /** @param display_file Display file
+     *  @return Local file or <code>null</code>
+     */
+    private static File getLocalFile(final String display_file)
+    {
+        if (display_file.startsWith("http")  ||
+            display_file.startsWith("platform:")  ||
+            display_file.startsWith("examples:"))
+            return null;
+        final File file = new File(display_file);
+        return file.isFile() ? file : null;
+    }
+
+    /** Load model from template or by parsing the file
+     *
+     *  <p>Returns model with {@link DisplayModel#USER_DATA_INPUT_VERSION}
+     *  and {@link DisplayModel#USER_DATA_INPUT_FILE},
+     *  but widget classes have not been applied.
+     *
+     *  @param display_file Display file
+     *  @return {@link DisplayModel} or <code>null</code> if file cannot be cached
+     *  @throws Exception on error
+     */
+    static DisplayModel loadModel(final String display_file) throws Exception
+    {
+        if (Preferences.template_cache_size <= 0)
+            return null;
+        final File file = getLocalFile(display_file);
+        if (file == null)
+            return null;
+        final long modified = file.lastModified(), length = file.length();
+
+        final Template template;
+        synchronized (templates)
+        {
+            template = templates.get(display_file);
+        }
+        if (template != null  &&  template.modified == modified  &&  template.length == length)
+        {
+            hits.incrementAndGet();
+            return copy(template.model);
+        }
+
+        misses.incrementAndGet();
+        final ModelReader reader = ModelReader.create(new FileInputStream(file), display_file);
+        final DisplayModel model = reader.readModel();
+        model.setUserData(DisplayModel.USER_DATA_INPUT_FILE, display_file);
+        // Don't keep displays with errors, those need to be reported each time
+        if (! model.isClean())
+            return model;
+
+        // Creating the first copy checks that the model can be copied
+        final DisplayModel copy;
+        try
+        {
+            copy = copy(model);
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot use " + display_file + " as template", ex);
+            return model;
+        }
+        synchronized (templates)
+        {
+            templates.put(display_file, new Template(modified, length, model));
+        }
+        return copy;
+    }
+
+    /** @param template Model to copy
+     *  @return Copy of the model
+     *  @throws Exception on error
+     */
+    static DisplayModel copy(final DisplayModel template) throws Exception
+    {
+        final DisplayModel model = new DisplayModel();
+        model.setUserData(DisplayModel.USER_DATA_INPUT_VERSION, template.getUserData(DisplayModel.USER_DATA_INPUT_VERSION));
+        model.setUserData(DisplayModel.USER_DATA_INPUT_FILE, template.getUserData(DisplayModel.USER_DATA_INPUT_FILE));
+        copyProperties(template, model);
+        return model;
+    }
+
+    /** @param template Widget to copy
+     *  @return Copy of the widget
+     *  @throws Exception on error
+     */
+    private static Widget copy(final Widget template) throws Exception
+    {
+        // Type might have several descriptors, find the one for this widget class
+        for (WidgetDescriptor desc : WidgetFactory.getInstance().getAllWidgetDescriptors(template.getType()))
+        {
+            final Widget widget = desc.createWidget();
+            if (widget.getClass() == template.getClass())
+            {
+                copyProperties(template, widget);
+                return widget;
+            }
+        }
+        throw new Exception("Cannot create copy of " + template);
+    }
+
+    private static void copyProperties(final Widget template, final Widget widget) throws Exception
+    {
+        for (WidgetProperty<?> property : template.getProperties())
+        {
+            final Optional<WidgetProperty<Object>> copy = widget.checkProperty(property.getName());
+            if (! copy.isPresent())
+                throw new Exception("Cannot copy " + property + " of " + template);
+            copyProperty(property, copy.get());
+        }
+    }
+
+    private static void copyProperty(final WidgetProperty<?> template, final WidgetProperty<?> property) throws Exception
+    {
+        if (template instanceof ChildrenProperty)
+        {
+            final ChildrenProperty children = (ChildrenProperty) property;
+            for (Widget child : ((ChildrenProperty) template).getValue())
+                children.addChild(copy(child));
+            return;
+        }
+        if (template instanceof RuntimeWidgetProperty)
+            return;
+
+        property.useWidgetClass(template.isUsingWidgetClass());
+        if (template instanceof MacroizedWidgetProperty)
+            ((MacroizedWidgetProperty<?>) property).setSpecification(((MacroizedWidgetProperty<?>) template).getSpecification());
+        else if (template instanceof StructuredWidgetProperty)
+        {
+            final StructuredWidgetProperty orig = (StructuredWidgetProperty) template;
+            final StructuredWidgetProperty copy = (StructuredWidgetProperty) property;
+            for (int i=0; i<orig.size(); ++i)
+                copyProperty(orig.getElement(i), copy.getElement(i));
+        }
+        else if (template instanceof ArrayWidgetProperty)
+        {
+            final ArrayWidgetProperty<?> orig = (ArrayWidgetProperty<?>) template;
+            final ArrayWidgetProperty<?> copy = (ArrayWidgetProperty<?>) property;
+            while (copy.size() > orig.size())
+                copy.removeElement();
+            while (copy.size() < orig.size())
+                copy.addElement();
+            for (int i=0; i<orig.size(); ++i)
+                copyProperty(orig.getElement(i), copy.getElement(i));
+        }
+        else
+        {
+            // Most values are immutable and can be shared
+            Object value = template.getValue();
+            if (value instanceof Macros)
+                value = new Macros((Macros) value);
+            else if (value instanceof Points)
+                value = ((Points) value).clone();
+            property.setValueFromObject(value);
+        }
+    }
+}
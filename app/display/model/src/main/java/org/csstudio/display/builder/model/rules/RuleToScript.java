@@ -205,6 +205,23 @@ public class RuleToScript
         return script;
     }
 
+    /** @param macros Macros
+     *  @param expression Boolean expression of a rule
+     *  @return Expression with macros expanded, or original expression on error
+     */
+    public static String expandMacros(final Macros macros, final String expression)
+    {
+        try
+        {
+            return MacroHandler.replace(macros, expression);
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot expand macro in " + expression, ex);
+            return expression;
+        }
+    }
+
     public static String generatePy(final Widget attached_widget, final RuleInfo rule)
     {
         final WidgetProperty<?> prop = attached_widget.getProperty(rule.getPropID());
@@ -340,17 +357,7 @@ public class RuleToScript
         {
             script.append((idx == 0) ? "if" : "elif");
 
-            String expanded_expression;
-            try
-            {
-                expanded_expression = MacroHandler.replace(macros, expr.getBoolExp());
-            }
-            catch (Exception ex)
-            {
-                expanded_expression = expr.getBoolExp();
-                logger.log(Level.WARNING, "Cannot expand macro in " + expanded_expression, ex);
-            }
-
+            final String expanded_expression = expandMacros(macros, expr.getBoolExp());
             script.append(" ").append(javascriptToPythonLogic(expanded_expression)).append(":\n");
             script.append(indent).append(setPropStr);
             if (rule.getPropAsExprFlag())
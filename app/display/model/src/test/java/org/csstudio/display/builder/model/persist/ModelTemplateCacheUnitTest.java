@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.model.persist;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.MacroizedWidgetProperty;
+import org.csstudio.display.builder.model.WidgetFactoryUnitTest;
+import org.csstudio.display.builder.model.properties.CommonWidgetProperties;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.phoebus.framework.macros.Macros;
+
+/** JUnit test of the {@link ModelTemplateCache}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ModelTemplateCacheUnitTest
+{
+    @BeforeClass
+    public static void setup()
+    {
+        WidgetFactoryUnitTest.initializeFactory();
+    }
+
+    private static DisplayModel createModel(final String text)
+    {
+        final DisplayModel model = new DisplayModel();
+        final Macros macros = new Macros();
+        macros.add("S", "Test");
+        model.propMacros().setValue(macros);
+
+        final GroupWidget group = new GroupWidget();
+        group.setPropertyValue(CommonWidgetProperties.propName, "Group");
+        final LabelWidget label = new LabelWidget();
+        label.propText().setValue(text);
+        label.propX().setValue(42);
+        group.runtimeChildren().addChild(label);
+        model.runtimeChildren().addChild(group);
+        return model;
+    }
+
+    private static void write(final DisplayModel model, final File file) throws Exception
+    {
+        try
+        (
+            final ModelWriter writer = new ModelWriter(new FileOutputStream(file));
+        )
+        {
+            writer.writeModel(model);
+        }
+    }
+
+    private static String toXML(final DisplayModel model) throws Exception
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try
+        (
+            final ModelWriter writer = new ModelWriter(out);
+        )
+        {
+            writer.writeModel(model);
+        }
+        return out.toString();
+    }
+
+    @Test
+    public void testCache() throws Exception
+    {
+        final File file = File.createTempFile("template", ".bob");
+        file.deleteOnExit();
+        write(createModel("$(S)"), file);
+
+        final long hits = ModelTemplateCache.getHits(), misses = ModelTemplateCache.getMisses();
+
+        // First load parses the file
+        final DisplayModel first = ModelTemplateCache.loadModel(file.getPath());
+        assertThat(ModelTemplateCache.getMisses(), equalTo(misses + 1));
+
+        // Second load copies the template
+        final DisplayModel second = ModelTemplateCache.loadModel(file.getPath());
+        assertThat(ModelTemplateCache.getHits(), equalTo(hits + 1));
+        assertThat(second, not(sameInstance(first)));
+        assertThat(toXML(second), equalTo(toXML(first)));
+        assertThat(second.getUserData(DisplayModel.USER_DATA_INPUT_FILE), equalTo(file.getPath()));
+
+        // Copies are independent, macros are not expanded in the template
+        final LabelWidget label = (LabelWidget) ((GroupWidget) second.getChildren().get(0)).runtimeChildren().getValue().get(0);
+        assertThat(((MacroizedWidgetProperty<String>) label.propText()).getSpecification(), equalTo("$(S)"));
+        assertThat(label.propX().getValue(), equalTo(42));
+        label.propX().setValue(10);
+        second.propMacros().getValue().add("S", "Other");
+        final DisplayModel third = ModelTemplateCache.loadModel(file.getPath());
+        assertThat(toXML(third), equalTo(toXML(first)));
+
+        // Modified file is parsed again
+        write(createModel("Changed"), file);
+        file.setLastModified(file.lastModified() + 2000);
+        final DisplayModel changed = ModelTemplateCache.loadModel(file.getPath());
+        assertThat(ModelTemplateCache.getMisses(), equalTo(misses + 2));
+        assertThat(toXML(changed), not(equalTo(toXML(first))));
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.model.persist;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.widgets.GroupWidget;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.model.widgets.TextUpdateWidget;
+
+/** Parse time and peak heap of DOM vs. streaming {@link ModelReader}
+ *  for large synthetic displays
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class StreamingModelReaderDemo
+{
+    private static final int RUNS = 5;
+
+    /** @param groups Number of groups
+     *  @param widgets Widgets per group
+     *  @return Temporary display file
+     */
+    private static File createDisplay(final int groups, final int widgets) throws Exception
+    {
+        final DisplayModel model = new DisplayModel();
+        for (int g=0; g<groups; ++g)
+        {
+            final GroupWidget group = new GroupWidget();
+            group.propName().setValue("Group " + g);
+            group.propX().setValue(10 * g);
+            for (int w=0; w<widgets; ++w)
+            {
+                final LabelWidget label = new LabelWidget();
+                label.propText().setValue("Label " + w + " in $(G)");
+                label.propY().setValue(20 * w);
+                group.runtimeChildren().addChild(label);
+
+                final TextUpdateWidget text = new TextUpdateWidget();
+                text.propPVName().setValue("sim://ramp(" + g + ", " + w + ", 1)");
+                text.propX().setValue(100);
+                text.propY().setValue(20 * w);
+                group.runtimeChildren().addChild(text);
+            }
+            model.runtimeChildren().addChild(group);
+        }
+
+        final File file = File.createTempFile("large", ".bob");
+        file.deleteOnExit();
+        try
+        (
+            final ModelWriter writer = new ModelWriter(new FileOutputStream(file));
+        )
+        {
+            writer.writeModel(model);
+        }
+        return file;
+    }
+
+    private static long getHeapUsage(final boolean peak)
+    {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                used += peak ? pool.getPeakUsage().getUsed() : pool.getUsage().getUsed();
+        return used;
+    }
+
+    private static void time(final File file, final boolean streaming) throws Exception
+    {
+        // Warm up
+        ModelReader.create(new FileInputStream(file), file.getPath(), streaming).readModel();
+
+        double secs = 0, peak = 0;
+        for (int run=0; run<RUNS; ++run)
+        {
+            System.gc();
+            final long baseline = getHeapUsage(false);
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+                pool.resetPeakUsage();
+
+            final long start = System.nanoTime();
+            final DisplayModel model = ModelReader.create(new FileInputStream(file), file.getPath(), streaming).readModel();
+            secs += (System.nanoTime() - start) / 1e9;
+            peak = Math.max(peak, (getHeapUsage(true) - baseline) / 1024.0 / 1024.0);
+            if (model.getChildren().isEmpty())
+                throw new Exception("Empty model");
+        }
+        System.out.format("%-10s %8.3f s  peak heap %7.1f MB\n",
+                          streaming ? "Streaming" : "DOM", secs / RUNS, peak);
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        for (int groups : new int[] { 100, 1000, 5000 })
+        {
+            final File file = createDisplay(groups, 10);
+            System.out.format("%d widgets, %.1f MB:\n", groups * 21, file.length() / 1024.0 / 1024.0);
+            time(file, false);
+            time(file, true);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.model.persist;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.display.builder.model.ChildrenProperty;
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.WidgetFactoryUnitTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.phoebus.framework.persistence.XMLUtil;
+
+/** JUnit test of the streaming {@link ModelReader}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class StreamingModelReaderUnitTest
+{
+    @BeforeClass
+    public static void setup()
+    {
+        WidgetFactoryUnitTest.initializeFactory();
+    }
+
+    private static String toXML(final DisplayModel model) throws Exception
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try
+        (
+            final ModelWriter writer = new ModelWriter(out);
+        )
+        {
+            writer.writeModel(model);
+        }
+        return out.toString();
+    }
+
+    private static void findDisplays(final File dir, final List<File> displays)
+    {
+        for (File file : dir.listFiles())
+            if (file.isDirectory())
+                findDisplays(file, displays);
+            else if (file.getName().endsWith(".bob")  ||  file.getName().endsWith(".opi"))
+                displays.add(file);
+    }
+
+    /** Streaming reader must result in the same model as the DOM reader */
+    @Test
+    public void testExamples() throws Exception
+    {
+        final List<File> displays = new ArrayList<>();
+        findDisplays(new File("src/main/resources/examples"), displays);
+        assertTrue(displays.size() > 0);
+        for (File display : displays)
+        {
+            final String dom = toXML(ModelReader.create(new FileInputStream(display), display.getPath(), false).readModel());
+            final String streamed = toXML(ModelReader.create(new FileInputStream(display), display.getPath(), true).readModel());
+            assertThat(display.getPath(), streamed, equalTo(dom));
+        }
+    }
+
+    /** Legacy widget in newer file falls back to DOM */
+    @Test
+    public void testLegacyWidget() throws Exception
+    {
+        final String xml =
+            "<display version=\"2.0.0\">\n" +
+            "  <name>Test</name>\n" +
+            "  <widget type=\"group\" version=\"2.0.0\">\n" +
+            "    <name>Group</name>\n" +
+            "    <widget type=\"label\" version=\"2.0.0\">\n" +
+            "      <text><![CDATA[Inside <group>]]></text>\n" +
+            "    </widget>\n" +
+            "  </widget>\n" +
+            "  <widget typeId=\"org.csstudio.opibuilder.widgets.TextInput\" version=\"1.0.0\">\n" +
+            "    <name>Legacy</name>\n" +
+            "    <text>Label</text>\n" +
+            "  </widget>\n" +
+            "</display>\n";
+        final ModelReader streaming = ModelReader.create(new ByteArrayInputStream(xml.getBytes(XMLUtil.ENCODING)), null, true);
+        assertThat(streaming.getRoot(), nullValue());
+        final DisplayModel model = streaming.readModel();
+        final DisplayModel dom = new ModelReader(new ByteArrayInputStream(xml.getBytes(XMLUtil.ENCODING))).readModel();
+        assertThat(toXML(model), equalTo(toXML(dom)));
+        assertThat(model.getChildren().size(), equalTo(2));
+        assertThat(ChildrenProperty.getChildren(model.getChildren().get(0)).getValue().get(0).getPropertyValue("text"),
+                   equalTo("Inside <group>"));
+    }
+
+    /** Legacy files are read via DOM */
+    @Test
+    public void testLegacyFile() throws Exception
+    {
+        final String xml = "<display typeId=\"org.csstudio.opibuilder.Display\" version=\"1.0.0\"><name>Legacy</name></display>";
+        final InputStream stream = new ByteArrayInputStream(xml.getBytes(XMLUtil.ENCODING));
+        final ModelReader reader = ModelReader.create(stream, null, true);
+        assertThat(reader.getRoot().getNodeName(), equalTo(XMLTags.DISPLAY));
+        assertThat(reader.readModel().getName(), equalTo("Legacy"));
+    }
+}
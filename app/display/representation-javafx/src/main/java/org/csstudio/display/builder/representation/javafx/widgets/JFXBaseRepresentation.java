@@ -9,6 +9,7 @@ package org.csstudio.display.builder.representation.javafx.widgets;
 
 import static org.csstudio.display.builder.representation.ToolkitRepresentation.logger;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -27,10 +28,14 @@ import org.csstudio.display.builder.model.widgets.TabsWidget.TabItemProperty;
 import org.csstudio.display.builder.representation.WidgetRepresentation;
 import org.csstudio.display.builder.representation.javafx.JFXRepresentation;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.input.Dragboard;
 import javafx.scene.input.MouseEvent;
@@ -54,6 +59,16 @@ abstract public class JFXBaseRepresentation<JFX extends Node, MW extends Widget>
     private final DirtyFlag dirty_position = new DirtyFlag();
     private final UntypedWidgetPropertyListener positionChangedListener = this::positionChanged;
 
+    /** Callback registered via whenShowing, or <code>null</code>
+     *  <p>Only accessed on the JFX thread
+     */
+    private Runnable on_show = null;
+
+    /** Removes the listeners that trigger on_show
+     *  <p>Only accessed on the JFX thread
+     */
+    private Runnable remove_show_listeners = null;
+
     /** {@inheritDoc} */
     @Override
     public Parent createComponents(final Parent parent) throws Exception
@@ -246,6 +261,7 @@ abstract public class JFXBaseRepresentation<JFX extends Node, MW extends Widget>
             logger.log(Level.WARNING, "Missing JFX parent for " + model_widget);
         else
             JFXRepresentation.getChildren(parent).remove(jfx_node);
+        removeShowListeners();
         jfx_node = null;
     }
 
@@ -320,6 +336,113 @@ abstract public class JFXBaseRepresentation<JFX extends Node, MW extends Widget>
         TooltipSupport.detach(jfx_node);
     }
 
+    /** {@inheritDoc}
+     *
+     *  <p>Not showing if the window is hidden,
+     *  a parent is invisible, for example a hidden tab,
+     *  or the node is outside of the clipped area of its parents,
+     *  for example scrolled off.
+     *  Pending changes to position or visibility of the node itself
+     *  are always applied.
+     */
+    @Override
+    public boolean isShowing()
+    {
+        final Node node = jfx_node;
+        if (node == null  ||  dirty_position.isMarked())
+            return true;
+        final Scene scene = node.getScene();
+        if (scene == null)
+            return true;
+        if (scene.getWindow() != null  &&  ! scene.getWindow().isShowing())
+            return false;
+        // Bounds of node in coordinates of 'parent'
+        Bounds bounds = node.getBoundsInParent();
+        if (bounds.isEmpty())
+            return true;
+        for (Parent parent = node.getParent();  parent != null;  parent = parent.getParent())
+        {
+            if (! parent.isVisible())
+                return false;
+            final Node clip = parent.getClip();
+            if (clip != null  &&  ! clip.getBoundsInParent().intersects(bounds))
+                return false;
+            bounds = parent.localToParent(bounds);
+        }
+        return bounds.intersects(0, 0, scene.getWidth(), scene.getHeight());
+    }
+
+    /** {@inheritDoc}
+     *
+     *  <p>Listens to the visibility, bounds and clip of the node's parents,
+     *  the size and window of the scene, which all affect {@link #isShowing()}.
+     *  Selecting a tab for example makes its content visible,
+     *  scrolling changes the bounds of the scrolled content.
+     */
+    @Override
+    public void whenShowing(final Runnable on_show)
+    {
+        final Node node = jfx_node;
+        if (node == null)
+        {
+            on_show.run();
+            return;
+        }
+        this.on_show = on_show;
+        // Already listening?
+        if (remove_show_listeners != null)
+            return;
+
+        final List<ObservableValue<?>> observed = new ArrayList<>();
+        observed.add(node.sceneProperty());
+        observed.add(node.boundsInParentProperty());
+        for (Parent parent = node.getParent();  parent != null;  parent = parent.getParent())
+        {
+            observed.add(parent.visibleProperty());
+            observed.add(parent.boundsInParentProperty());
+            observed.add(parent.clipProperty());
+            if (parent.getClip() != null)
+                observed.add(parent.getClip().boundsInParentProperty());
+        }
+        final Scene scene = node.getScene();
+        if (scene != null)
+        {
+            observed.add(scene.widthProperty());
+            observed.add(scene.heightProperty());
+            observed.add(scene.windowProperty());
+            if (scene.getWindow() != null)
+                observed.add(scene.getWindow().showingProperty());
+        }
+
+        // Change listener, not invalidation listener,
+        // to be notified even if nobody reads the changed value
+        final ChangeListener<Object> listener = (prop, old, value) ->
+        {
+            final Runnable callback = this.on_show;
+            removeShowListeners();
+            if (callback != null)
+                callback.run();
+        };
+        for (ObservableValue<?> value : observed)
+            value.addListener(listener);
+        remove_show_listeners = () ->
+        {
+            for (ObservableValue<?> value : observed)
+                value.removeListener(listener);
+        };
+    }
+
+    /** Remove listeners added by {@link #whenShowing(Runnable)} */
+    private void removeShowListeners()
+    {
+        on_show = null;
+        if (remove_show_listeners != null)
+        {
+            remove_show_listeners.run();
+            remove_show_listeners = null;
+        }
+    }
+
     private void positionChanged(final WidgetProperty<?> property, final Object old_value, final Object new_value)
     {
         dirty_position.mark();
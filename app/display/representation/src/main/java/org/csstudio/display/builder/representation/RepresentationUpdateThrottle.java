@@ -30,6 +30,14 @@ import java.util.logging.Level;
  *  After the delay, if more updates are found to be scheduled, they are
  *  handled, again followed by a delay.
  *
+ *  <p>Each such 'frame' of updates on the UI thread is limited
+ *  to a time budget.
+ *  Representations that could not be updated within the budget
+ *  are postponed to the start of the next frame.
+ *  Representations that are not showing, for example because
+ *  they are in a hidden tab, are not updated.
+ *  Instead, they register to be scheduled again once they may be showing.
+ *
  *  <p>Once there are no more updates, the thread waits until
  *  woken up again by the next requested update.
  *
@@ -53,6 +61,9 @@ public class RepresentationUpdateThrottle
     /** Pause between updates to prevent flooding the UI thread */
     private static final long update_delay = Preferences.update_delay;
 
+    /** Time budget for updates in one frame on the UI thread */
+    private static final long update_frame_budget_ns = TimeUnit.MILLISECONDS.toNanos(Preferences.update_frame_budget);
+
     /** Executor for UI thread */
     private final Executor gui_executor;
 
@@ -73,6 +84,19 @@ public class RepresentationUpdateThrottle
      */
     private final Set<WidgetRepresentation<?, ?, ?>> updateable = new LinkedHashSet<>();
 
+    /** Representations that were not updated in the last frame
+     *  because the frame budget was exhausted.
+     *
+     *  <p>Only accessed by the throttle_thread and by the UI thread
+     *  while the throttle_thread waits for the frame to complete
+     */
+    private final Set<WidgetRepresentation<?, ?, ?>> postponed = new LinkedHashSet<>();
+
+    /** Number of representations that were not updated in the last frame
+     *  because they were not showing
+     */
+    private volatile int hidden = 0;
+
     /** @param gui_executor Executor for UI thread */
     public RepresentationUpdateThrottle(final Executor gui_executor)
     {
@@ -112,8 +136,10 @@ public class RepresentationUpdateThrottle
 
     private void doRun()
     {
-        // Running average of update duration, i.e. time spend in UI thread
+        // Running average of frame duration, i.e. time spend in UI thread
         long update_ms = -1;
+        // Longest frame duration since last log
+        long max_update_ms = 0;
 
         // Next time we log the update duration
         Instant next_update_log = Instant.now().plusSeconds(6);
@@ -121,28 +147,45 @@ public class RepresentationUpdateThrottle
         {
             while (run)
             {
-                // Wait for requested updates
-                synchronized (updateable)
+                // Wait for requested updates.
+                // Postponed updates are handled right away.
+                if (postponed.isEmpty())
                 {
-                    while (run  &&  updateable.isEmpty())
-                        updateable.wait();
+                    synchronized (updateable)
+                    {
+                        while (run  &&  updateable.isEmpty())
+                            updateable.wait();
+                    }
                 }
                 if (! run)
                     return;
-                // Wait a little longer to allow more updates to accumulate
-                Thread.sleep(update_accumulation_time);
+                // Wait a little longer to allow more updates to accumulate,
+                // unless this frame continues postponed updates
+                if (postponed.isEmpty()  ||  ! enabled)
+                    Thread.sleep(update_accumulation_time);
                 if (! enabled)
                     continue;
-                // Obtain safe copy, clear what had been accumulated
+
+                // Obtain safe copy, clear what had been accumulated.
+                // Postponed updates are handled first.
                 final WidgetRepresentation<?, ?, ?>[] representations;
                 synchronized (updateable)
                 {
-                    // Creating a direct copy, i.e. another new LinkedHashSet<>(updateable),
-                    // would be expensive, since we only need a _list_ of what's to update.
-                    // Could use type-safe
-                    //    new ArrayList<WidgetRepresentation<Pane, Node>>(updateable)
-                    // but that calls toArray() internally, so doing that directly
-                    representations = updateable.toArray(new WidgetRepresentation[updateable.size()]);
+                    if (postponed.isEmpty())
+                    {
+                        // Creating a direct copy, i.e. another new LinkedHashSet<>(updateable),
+                        // would be expensive, since we only need a _list_ of what's to update.
+                        // Could use type-safe
+                        //    new ArrayList<WidgetRepresentation<Pane, Node>>(updateable)
+                        // but that calls toArray() internally, so doing that directly
+                        representations = updateable.toArray(new WidgetRepresentation[updateable.size()]);
+                    }
+                    else
+                    {
+                        postponed.addAll(updateable);
+                        representations = postponed.toArray(new WidgetRepresentation[postponed.size()]);
+                        postponed.clear();
+                    }
                     updateable.clear();
                 }
 
@@ -164,6 +207,7 @@ public class RepresentationUpdateThrottle
                     update_ms = ms;
                 else
                     update_ms = (9*update_ms + ms)/10;
+                max_update_ms = Math.max(max_update_ms, ms);
 
                 // Wait a little to throttle updates
                 Thread.sleep(update_delay);
@@ -171,8 +215,10 @@ public class RepresentationUpdateThrottle
                 final Instant now = Instant.now();
                 if (now.isAfter(next_update_log))
                 {
-                    if (update_ms > performance_log_threshold_ms)
-                        logger.log(Level.FINE, "Averange update duration: {0} ms", update_ms);
+                    if (update_ms > performance_log_threshold_ms  ||  ! postponed.isEmpty())
+                        logger.log(Level.FINE, "{0}: Average frame duration {1} ms, longest {2} ms, {3} postponed, {4} hidden",
+                                   new Object[] { throttle_thread.getName(), update_ms, max_update_ms, postponed.size(), hidden });
+                    max_update_ms = 0;
                     next_update_log = now.plusSeconds(performance_log_period_secs);
                 }
             }
@@ -188,6 +234,11 @@ public class RepresentationUpdateThrottle
     }
 
     /** Perform updates in UI thread.
+     *
+     *  <p>Updates representations until the frame budget is exhausted,
+     *  adding the remaining ones to <code>postponed</code>.
+     *  Representations that are not showing are scheduled again once they may be showing.
+     *
      *  @param representations Representations that need to be updated
      *  @param done Must be signaled when representations have been updated
      */
@@ -196,21 +247,39 @@ public class RepresentationUpdateThrottle
     {
         gui_executor.execute(() ->
         {
-            for (final WidgetRepresentation<?, ?, ?> representation : representations)
+            final long deadline = System.nanoTime() + update_frame_budget_ns;
+            int not_showing = 0;
+            int i = 0;
+            for (/**/; i < representations.length; ++i)
             {
                 if (! run)
                     break;
+                // Update at least one representation per frame
+                if (i > 0  &&  System.nanoTime() > deadline)
+                    break;
+                final WidgetRepresentation<?, ?, ?> representation = representations[i];
                 try
                 {
                     // Skip updates when representation has been disposed
-                    if (representation.model_widget != null)
+                    if (representation.model_widget == null)
+                        continue;
+                    if (representation.isShowing())
                         representation.updateChanges();
+                    else
+                    {
+                        representation.whenShowing(() -> scheduleUpdate(representation));
+                        ++not_showing;
+                    }
                 }
                 catch (final Throwable ex)
                 {
                     logger.log(Level.SEVERE, "Representation update failed", ex);
                 }
             }
+            // Keep what's left for the next frame
+            for (/**/; i < representations.length; ++i)
+                postponed.add(representations[i]);
+            hidden = not_showing;
             done.countDown();
         });
     }
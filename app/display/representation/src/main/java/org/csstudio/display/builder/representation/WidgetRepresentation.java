@@ -69,6 +69,34 @@ abstract public class WidgetRepresentation<TWP, TW, MW extends Widget>
      */
     abstract public void updateChanges();
 
+    /** Check if the toolkit item is showing.
+     *
+     *  <p>Called on the UI thread by the toolkit's update throttle,
+     *  which postpones <code>updateChanges()</code>
+     *  while the representation is not showing,
+     *  for example because it's on a hidden tab.
+     *
+     *  @return <code>true</code> if toolkit item may be visible to the user
+     */
+    public boolean isShowing()
+    {
+        return true;
+    }
+
+    /** Request notification when the toolkit item may be showing.
+     *
+     *  <p>Called on the UI thread by the toolkit's update throttle
+     *  for a representation that is not showing,
+     *  so that it can be updated once it's showing.
+     *  A previously registered callback is replaced.
+     *
+     *  @param on_show Called once on the UI thread when the toolkit item may be showing
+     */
+    public void whenShowing(final Runnable on_show)
+    {
+        on_show.run();
+    }
+
     /** Remove toolkit items.
      *
      *  <p>Called when model widget has been removed.
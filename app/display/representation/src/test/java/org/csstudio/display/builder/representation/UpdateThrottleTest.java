@@ -35,6 +35,8 @@ public class UpdateThrottleTest
         private final String name;
         private final AtomicInteger updates;
         public volatile boolean trigger_on_update = false;
+        public volatile boolean showing = true;
+        public volatile Runnable on_show = null;
 
         public TestWidgetRepresentation(final String name, final AtomicInteger updates)
         {
@@ -65,6 +67,18 @@ public class UpdateThrottleTest
             }
         }
 
+        @Override
+        public boolean isShowing()
+        {
+            return showing;
+        }
+
+        @Override
+        public void whenShowing(final Runnable on_show)
+        {
+            this.on_show = on_show;
+        }
+
         @Override
         public void dispose()
         {
@@ -119,4 +133,26 @@ public class UpdateThrottleTest
 
         throttle.shutdown();
     }
+
+    @Test
+    public void testHiddenRepresentation() throws Throwable
+    {
+        final AtomicInteger updates = new AtomicInteger();
+        final TestWidgetRepresentation widget = new TestWidgetRepresentation("Hidden", updates);
+        widget.showing = false;
+
+        // Hidden widget is not updated, but asks to be notified when showing
+        throttle.scheduleUpdate(widget);
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates.get(), equalTo(0));
+        assertThat(widget.on_show == null, equalTo(false));
+
+        // Once showing, the widget is updated
+        widget.showing = true;
+        widget.on_show.run();
+        TimeUnit.SECONDS.sleep(1);
+        assertThat(updates.get(), equalTo(1));
+
+        throttle.shutdown();
+    }
 }
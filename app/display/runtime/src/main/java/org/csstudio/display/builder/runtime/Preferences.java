@@ -27,6 +27,7 @@ public class Preferences
     public static List<TextPatch> pv_name_patches;
     public static int update_throttle_ms;
     public static String probe_display;
+    public static boolean compile_rules;
 
     static
     {
@@ -64,5 +65,6 @@ public class Preferences
 
         update_throttle_ms = prefs.getInt("update_throttle");
         probe_display = prefs.get("probe_display");
+        compile_rules = prefs.getBoolean("compile_rules");
     }
 }
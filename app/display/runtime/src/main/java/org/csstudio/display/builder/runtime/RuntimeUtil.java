@@ -112,7 +112,7 @@ public class RuntimeUtil
             ScriptSupport scripting = model.getUserData(Widget.USER_DATA_SCRIPT_SUPPORT);
             if (scripting == null)
             {
-                // This takes about 3 seconds
+                // Interpreters are created when the first script is compiled
                 final long start = System.currentTimeMillis();
                 scripting = new ScriptSupport();
                 final long elapsed = System.currentTimeMillis() - start;
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.pv;
+
+import static org.csstudio.display.builder.runtime.WidgetRuntime.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+import org.csstudio.display.builder.runtime.Preferences;
+import org.phoebus.framework.jobs.NamedThreadFactory;
+
+/** Throttle for value updates of all {@link RuntimePV}s
+ *
+ *  <p>Each {@link RuntimePV} holds its latest value.
+ *  When a PV receives a new value while it had none pending,
+ *  it is queued for the next 'tick'.
+ *  Each tick dispatches the latest value of all queued PVs
+ *  in one pass.
+ *
+ *  <p>Ticks are only scheduled while there are updates,
+ *  at most one per update period.
+ *  The load thus depends on the number of PVs that change,
+ *  not on the total number of PVs.
+ *  Similar to a 'throttleLatest' per PV, the first update
+ *  after a quiet period is dispatched right away.
+ *
+ *  <p>Only the tick timer is shared.
+ *  Listeners are called on a small pool of dispatch threads.
+ *  Each PV is always dispatched by the same thread,
+ *  so its updates stay in order,
+ *  while a slow listener only delays the PVs that share its thread.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class PVUpdateThrottle
+{
+    /** Shared instance */
+    static final PVUpdateThrottle instance = new PVUpdateThrottle(Preferences.update_throttle_ms);
+
+    /** Number of dispatch threads */
+    private static final int DISPATCH_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    /** Minimum period between ticks */
+    private final long period_ns;
+
+    /** Timer for ticks */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("RuntimePVThrottle"));
+
+    /** Dispatch threads */
+    private final ExecutorService[] dispatchers = new ExecutorService[DISPATCH_THREADS];
+
+    /** PVs that have a pending value */
+    private final Queue<RuntimePV> updates = new ConcurrentLinkedQueue<>();
+
+    /** Is a tick scheduled? */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Time of last tick */
+    private volatile long last_tick = System.nanoTime();
+
+    /** @param period_ms Minimum period between ticks */
+    private PVUpdateThrottle(final long period_ms)
+    {
+        period_ns = TimeUnit.MILLISECONDS.toNanos(period_ms);
+        for (int i=0; i<dispatchers.length; ++i)
+            dispatchers[i] = Executors.newSingleThreadExecutor(new NamedThreadFactory("RuntimePVDispatch" + (i+1)));
+    }
+
+    /** Called by PV that received a value while it had no pending value
+     *  @param pv PV to dispatch on next tick
+     */
+    void schedule(final RuntimePV pv)
+    {
+        updates.add(pv);
+        if (scheduled.compareAndSet(false, true))
+        {
+            final long delay = Math.max(0, last_tick + period_ns - System.nanoTime());
+            timer.schedule(this::tick, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void tick()
+    {
+        last_tick = System.nanoTime();
+        // PVs queued from now on schedule the next tick
+        scheduled.set(false);
+        // Dispatch what's queued right now, sorted by dispatch thread.
+        // PVs that receive another value while being dispatched
+        // are queued again for the next tick.
+        @SuppressWarnings("unchecked")
+        final List<RuntimePV>[] batches = new List[dispatchers.length];
+        for (int count = updates.size();  count > 0;  --count)
+        {
+            final RuntimePV pv = updates.poll();
+            if (pv == null)
+                break;
+            final int i = Math.floorMod(System.identityHashCode(pv), dispatchers.length);
+            if (batches[i] == null)
+                batches[i] = new ArrayList<>();
+            batches[i].add(pv);
+        }
+        for (int i=0; i<batches.length; ++i)
+        {
+            final List<RuntimePV> batch = batches[i];
+            if (batch != null)
+                dispatchers[i].execute(() -> dispatch(batch));
+        }
+    }
+
+    /** @param batch PVs to dispatch */
+    private static void dispatch(final List<RuntimePV> batch)
+    {
+        for (RuntimePV pv : batch)
+        {
+            try
+            {
+                pv.dispatch();
+            }
+            catch (Throwable ex)
+            {
+                logger.log(Level.WARNING, "Error dispatching update of PV " + pv, ex);
+            }
+        }
+    }
+}
@@ -11,10 +11,9 @@ import static org.csstudio.display.builder.runtime.WidgetRuntime.logger;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
-import org.csstudio.display.builder.runtime.Preferences;
 import org.epics.vtype.VType;
 import org.phoebus.pv.PV;
 import org.phoebus.pv.PVPool;
@@ -29,6 +28,8 @@ import io.reactivex.disposables.Disposable;
  *  <p>The name of the PV is the name by which it was created.
  *  The underlying implementation might use a slightly different name.
  *
+ *  <p>Value updates are throttled via the shared {@link PVUpdateThrottle}.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -38,13 +39,15 @@ public class RuntimePV // TODO (Almost) remove. Use vtype.pv, only add setValue
     private final Disposable value_flow, writable_flow;
     private final List<RuntimePVListener> listeners = new CopyOnWriteArrayList<>();
 
+    /** Latest value that has not been dispatched to listeners, or <code>null</code> */
+    private final AtomicReference<VType> pending = new AtomicReference<>();
+
     /** @param pv PV to wrap */
     RuntimePV(final PV pv)
     {
         this.pv = pv;
         value_flow = pv.onValueEvent()
-                .throttleLatest(Preferences.update_throttle_ms, TimeUnit.MILLISECONDS)
-                .subscribe(this::valueChanged);
+                       .subscribe(this::valueReceived);
         writable_flow = pv.onAccessRightsEvent()
                           .subscribe(this::writableChanged);
     }
@@ -115,8 +118,19 @@ public class RuntimePV // TODO (Almost) remove. Use vtype.pv, only add setValue
         }
     }
 
-    private void valueChanged(final VType value)
+    private void valueReceived(final VType value)
+    {
+        // Queue for dispatch unless already pending
+        if (pending.getAndSet(value) == null)
+            PVUpdateThrottle.instance.schedule(this);
+    }
+
+    /** Called by {@link PVUpdateThrottle} to dispatch the latest value */
+    void dispatch()
     {
+        final VType value = pending.getAndSet(null);
+        if (value == null)
+            return;
         if (PV.isDisconnected(value))
             for (RuntimePVListener listener : listeners)
                 listener.disconnected(this);
@@ -164,6 +178,7 @@ public class RuntimePV // TODO (Almost) remove. Use vtype.pv, only add setValue
     {
         writable_flow.dispose();
         value_flow.dispose();
+        pending.set(null);
         PVPool.releasePV(pv);
     }
 
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.script.internal;
+
+import static org.csstudio.display.builder.runtime.WidgetRuntime.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+import org.csstudio.apputil.formula.Formula;
+import org.csstudio.apputil.formula.VTypeHelper;
+import org.csstudio.apputil.formula.VariableNode;
+import org.csstudio.display.builder.model.Widget;
+import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.rules.RuleInfo;
+import org.csstudio.display.builder.model.rules.RuleInfo.ExpressionInfo;
+import org.csstudio.display.builder.model.rules.RuleToScript;
+import org.csstudio.display.builder.runtime.RuntimeUtil;
+import org.csstudio.display.builder.runtime.pv.RuntimePV;
+import org.csstudio.display.builder.runtime.script.PVUtil;
+import org.phoebus.framework.macros.Macros;
+
+/** Rule compiled into formulas
+ *
+ *  <p>Most rules compare PV values or severities with constants,
+ *  for example <code>pv0 > 10 && pvSev1 == 0</code>.
+ *  Such expressions are parsed by the {@link Formula} parser
+ *  and evaluated without generating a script and invoking an interpreter.
+ *  Evaluation is still queued on the script thread of the display,
+ *  so rules and scripts update widgets in the order they were triggered.
+ *
+ *  <p>Rules that the formula parser cannot handle,
+ *  for example string comparisons via <code>pvStr0</code>
+ *  or python syntax, still use the script generated by {@link RuleToScript}.
+ *  So do expressions where the formula would differ from the script
+ *  because of operator precedence,
+ *  and value expressions for properties that are not numeric.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class CompiledRule implements Script
+{
+    /** Variables per PV, see {@link RuleToScript}. 'pvStr' is not supported */
+    private static final String[] PV_VARIABLES = { "pv", "pvInt", "pvSev", "pvLegacySev" };
+
+    private final String name, prop_id;
+
+    /** Variables for each PV, PV_VARIABLES.length per PV */
+    private final VariableNode[] variables;
+
+    /** Indices of variables that are actually used */
+    private final int[] used;
+
+    /** Condition for each expression */
+    private final Formula[] conditions;
+
+    /** Value to set for each expression, either Object or Formula */
+    private final Object[] values;
+
+    /** Value to set when no condition matches */
+    private final Object default_value;
+
+    /** Target property is boolean? */
+    private final boolean is_boolean;
+
+    /** Is an evaluation queued on the script thread? */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Compile rule
+     *  @param widget Widget on which the rule is invoked
+     *  @param rule Rule to compile
+     *  @return {@link CompiledRule} or <code>null</code> if rule requires a script
+     */
+    public static CompiledRule compile(final Widget widget, final RuleInfo rule)
+    {
+        final WidgetProperty<?> prop = widget.getProperty(rule.getPropID());
+        final Object default_value = prop.getDefaultValue();
+        // Formula always computes a double,
+        // while for example a string property would show the script's integer result as "20"
+        if (rule.getPropAsExprFlag()  &&
+            ! (default_value instanceof Number  ||  default_value instanceof Boolean))
+            return null;
+
+        final int pv_count = rule.getPVs().size();
+        final VariableNode[] variables = new VariableNode[pv_count * PV_VARIABLES.length + 4];
+        for (int i=0; i<pv_count; ++i)
+            for (int v=0; v<PV_VARIABLES.length; ++v)
+                variables[i * PV_VARIABLES.length + v] = new VariableNode(PV_VARIABLES[v] + i, Double.NaN);
+        // Constants understood by both the javascript-type and python syntax
+        int c = pv_count * PV_VARIABLES.length;
+        variables[c++] = new VariableNode("true", 1.0);
+        variables[c++] = new VariableNode("True", 1.0);
+        variables[c++] = new VariableNode("false", 0.0);
+        variables[c++] = new VariableNode("False", 0.0);
+
+        final List<ExpressionInfo<?>> expressions = rule.getExpressions();
+        final Formula[] conditions = new Formula[expressions.size()];
+        final Object[] values = new Object[expressions.size()];
+        final Macros macros = widget.getEffectiveMacros();
+        try
+        {
+            for (int i=0; i<conditions.length; ++i)
+            {
+                final ExpressionInfo<?> expr = expressions.get(i);
+                conditions[i] = parse(RuleToScript.expandMacros(macros, expr.getBoolExp()), variables);
+                if (conditions[i] == null)
+                    return null;
+                if (rule.getPropAsExprFlag())
+                {
+                    values[i] = parse(expr.getPropVal().toString(), variables);
+                    if (values[i] == null)
+                        return null;
+                }
+                else
+                    values[i] = ((WidgetProperty<?>) expr.getPropVal()).getValue();
+            }
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.FINE, () -> "Rule " + rule.getName() + " of " + widget + " requires script: " + ex.getMessage());
+            return null;
+        }
+
+        // Determine which PV variables are used
+        final List<Integer> used = new ArrayList<>();
+        for (int v=0; v<pv_count * PV_VARIABLES.length; ++v)
+            for (int i=0; i<conditions.length; ++i)
+                if (conditions[i].hasSubnode(variables[v])  ||
+                    (values[i] instanceof Formula  &&  ((Formula) values[i]).hasSubnode(variables[v])))
+                {
+                    used.add(v);
+                    break;
+                }
+
+        return new CompiledRule(widget + " " + rule.getName(), rule.getPropID(), variables,
+                                used.stream().mapToInt(Integer::intValue).toArray(),
+                                conditions, values, prop.getValue(),
+                                default_value instanceof Boolean);
+    }
+
+    /** @param expression Expression of a rule
+     *  @param variables Variables
+     *  @return {@link Formula} or <code>null</code> if expression requires a script
+     *  @throws Exception on parse error
+     */
+    private static Formula parse(final String expression, final VariableNode[] variables) throws Exception
+    {
+        // Quoted text is used with string comparisons,
+        // '^' is XOR in the script but 'power' in the formula,
+        // and python would use integer division for 'pvInt0/2'
+        if (expression.indexOf('"') >= 0  ||  expression.indexOf('\'') >= 0  ||
+            expression.indexOf('^') >= 0  ||
+            (expression.indexOf('/') >= 0  &&  expression.contains("pvInt"))  ||
+            hasAmbiguousOperators(expression))
+            return null;
+        return new Formula(expression, variables);
+    }
+
+    /** Check for operators that the formula evaluates differently
+     *
+     *  <p>The formula evaluates '&&' and '||' from left to right,
+     *  while the script gives '&&' precedence.
+     *  Python evaluates 'a < b < c' as 'a < b and b < c',
+     *  the formula as '(a < b) < c'.
+     *
+     *  @param expression Expression of a rule
+     *  @return Does expression mix '&&' and '||' or chain comparisons without parentheses?
+     */
+    private static boolean hasAmbiguousOperators(final String expression)
+    {
+        final int len = expression.length();
+        // Per nesting level: Boolean operators used (1 = '&', 2 = '|'), comparisons since last boolean operator
+        final int[] bools = new int[len + 1], compares = new int[len + 1];
+        int level = 0;
+        for (int i=0; i<len; ++i)
+        {
+            final char c = expression.charAt(i);
+            final char next = i+1 < len ? expression.charAt(i+1) : 0;
+            if (c == '(')
+            {
+                ++level;
+                bools[level] = compares[level] = 0;
+            }
+            else if (c == ')')
+                level = Math.max(0, level-1);
+            else if (c == '&'  ||  c == '|')
+            {
+                bools[level] |= c == '&' ? 1 : 2;
+                compares[level] = 0;
+                if (next == c)
+                    ++i;
+            }
+            else if (c == ','  ||  c == '?'  ||  c == ':')
+                bools[level] = compares[level] = 0;
+            else if (c == '<'  ||  c == '>'  ||  ((c == '='  ||  c == '!')  &&  next == '='))
+            {
+                ++compares[level];
+                if (next == '=')
+                    ++i;
+            }
+            if (bools[level] == 3  ||  compares[level] > 1)
+                return true;
+        }
+        return false;
+    }
+
+    private CompiledRule(final String name, final String prop_id,
+                         final VariableNode[] variables, final int[] used,
+                         final Formula[] conditions, final Object[] values,
+                         final Object default_value, final boolean is_boolean)
+    {
+        this.name = name;
+        this.prop_id = prop_id;
+        this.variables = variables;
+        this.used = used;
+        this.conditions = conditions;
+        this.values = values;
+        this.default_value = default_value;
+        this.is_boolean = is_boolean;
+    }
+
+    /** @param pvs PVs of the rule
+     *  @return Value for the rule's property
+     */
+    @SuppressWarnings("deprecation")
+    synchronized Object evaluate(final RuntimePV... pvs)
+    {
+        for (int v : used)
+        {
+            final RuntimePV pv = pvs[v / PV_VARIABLES.length];
+            switch (v % PV_VARIABLES.length)
+            {
+            case 0:
+                variables[v].setValue(PVUtil.getDouble(pv));
+                break;
+            case 1:
+                variables[v].setValue(PVUtil.getLong(pv));
+                break;
+            case 2:
+                variables[v].setValue(PVUtil.getSeverity(pv));
+                break;
+            default:
+                variables[v].setValue(PVUtil.getLegacySeverity(pv));
+            }
+        }
+
+        for (int i=0; i<conditions.length; ++i)
+            if (VTypeHelper.getDouble(conditions[i].eval()) != 0.0)
+            {
+                if (! (values[i] instanceof Formula))
+                    return values[i];
+                final double value = VTypeHelper.getDouble(((Formula) values[i]).eval());
+                if (is_boolean)
+                    return value != 0.0;
+                return value;
+            }
+        return default_value;
+    }
+
+    /** Evaluate rule and update the widget property
+     *
+     *  <p>Queues the evaluation on the script thread of the widget's display.
+     *  Like scripts, the rule is skipped when it's already queued,
+     *  since the queued evaluation will use the latest PV values.
+     *
+     *  @return Future for the queued evaluation, <code>null</code> when skipped
+     */
+    @Override
+    public Future<Object> submit(final Widget widget, final RuntimePV... pvs)
+    {
+        final ScriptSupport support;
+        try
+        {
+            support = RuntimeUtil.getScriptSupport(widget);
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Rule " + name + " cannot be executed", ex);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (! scheduled.compareAndSet(false, true))
+            return null;
+        return support.submit(() ->
+        {
+            // Rule may be queued again
+            scheduled.set(false);
+            try
+            {
+                widget.setPropertyValue(prop_id, evaluate(pvs));
+            }
+            catch (final Throwable ex)
+            {
+                logger.log(Level.WARNING, "Rule " + name + " failed", ex);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Compiled rule " + name;
+    }
+}
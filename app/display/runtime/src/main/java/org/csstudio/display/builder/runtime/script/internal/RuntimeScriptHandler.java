@@ -22,6 +22,7 @@ import org.csstudio.display.builder.model.properties.ScriptPV;
 import org.csstudio.display.builder.model.rules.RuleInfo;
 import org.csstudio.display.builder.model.rules.RuleToScript;
 import org.csstudio.display.builder.model.util.ModelResourceUtil;
+import org.csstudio.display.builder.runtime.Preferences;
 import org.csstudio.display.builder.runtime.RuntimeUtil;
 import org.csstudio.display.builder.runtime.WidgetRuntime;
 import org.csstudio.display.builder.runtime.pv.PVFactory;
@@ -94,7 +95,9 @@ public class RuntimeScriptHandler implements RuntimePVListener
 
     /** Helper to compile rules script
      *
-     *  <p>Gets text of script from rules utility
+     *  <p>Rules that can be handled by the formula parser
+     *  are compiled into a {@link CompiledRule}.
+     *  Otherwise gets text of script from rules utility
      *
      *  @param widget Widget on which the rule is invoked
      *  @param rule_info Rule to compile
@@ -104,6 +107,13 @@ public class RuntimeScriptHandler implements RuntimePVListener
     public static Script compileScript(final Widget widget,
             final RuleInfo rule_info) throws Exception
     {
+        if (Preferences.compile_rules)
+        {
+            final Script rule = CompiledRule.compile(widget, rule_info);
+            if (rule != null)
+                return rule;
+        }
+
         // Compile script
         final ScriptSupport scripting = RuntimeUtil.getScriptSupport(widget);
 
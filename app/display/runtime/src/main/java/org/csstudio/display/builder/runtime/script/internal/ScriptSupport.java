@@ -49,15 +49,41 @@ public class ScriptSupport
     // Could provide two executors, one for jython and one for javascript,
     // but each one needs to be single-threaded because there's only one interpreter
     // with only one global variable for 'window' etc.
-    private final PythonScriptSupport python;
-    private final JythonScriptSupport jython;
-    private final JavaScriptSupport javascript;
+    // Created when first needed, since starting an interpreter is slow
+    // and displays with only compiled rules don't need any.
+    // SYNC on this
+    private PythonScriptSupport python = null;
+    private JythonScriptSupport jython = null;
+    private JavaScriptSupport javascript = null;
 
-    public ScriptSupport() throws Exception
+    /** @return Python support
+     *  @throws Exception on error
+     */
+    private synchronized PythonScriptSupport getPython() throws Exception
+    {
+        if (python == null)
+            python = new PythonScriptSupport(this);
+        return python;
+    }
+
+    /** @return Jython support
+     *  @throws Exception on error
+     */
+    private synchronized JythonScriptSupport getJython() throws Exception
+    {
+        if (jython == null)
+            jython = new JythonScriptSupport(this);
+        return jython;
+    }
+
+    /** @return JavaScript support
+     *  @throws Exception on error
+     */
+    private synchronized JavaScriptSupport getJavaScript() throws Exception
     {
-        python = new PythonScriptSupport(this);
-        jython = new JythonScriptSupport(this);
-        javascript = new JavaScriptSupport(this);
+        if (javascript == null)
+            javascript = new JavaScriptSupport(this);
+        return javascript;
     }
 
     /** Prepare script file for submission
@@ -75,12 +101,12 @@ public class ScriptSupport
     public Script compile(final String path, final String name, final InputStream stream) throws Exception
     {
         if (ScriptInfo.isPython(path, name))
-            return python.compile(path, name);
+            return getPython().compile(path, name);
         final InputStream script_stream = patchScript(name, stream);
         if (ScriptInfo.isJython(name))
-            return jython.compile(path, name, script_stream);
+            return getJython().compile(path, name, script_stream);
         else if (ScriptInfo.isJavaScript(name))
-            return javascript.compile(name, script_stream);
+            return getJavaScript().compile(name, script_stream);
         throw new Exception("Cannot compile '" + name + "'");
     }
 
@@ -129,6 +155,10 @@ public class ScriptSupport
     }
 
     /** Request that a script gets executed
+     *
+     *  <p>Also used by {@link CompiledRule}s,
+     *  so they execute in order with scripts of the display.
+     *
      *  @param callable {@link Callable} for executing the script
      *  @return Future for script that was just submitted
      */
@@ -161,6 +191,10 @@ public class ScriptSupport
         for (Future<Object> running : active_scripts)
             running.cancel(true);
 
-        jython.close();
+        synchronized (this)
+        {
+            if (jython != null)
+                jython.close();
+        }
     }
 }
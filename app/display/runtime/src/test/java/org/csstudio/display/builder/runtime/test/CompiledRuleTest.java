@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.csstudio.display.builder.runtime.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.csstudio.display.builder.model.DisplayModel;
+import org.csstudio.display.builder.model.WidgetProperty;
+import org.csstudio.display.builder.model.properties.ScriptPV;
+import org.csstudio.display.builder.model.properties.WidgetColor;
+import org.csstudio.display.builder.model.rules.RuleInfo;
+import org.csstudio.display.builder.model.widgets.LabelWidget;
+import org.csstudio.display.builder.runtime.pv.PVFactory;
+import org.csstudio.display.builder.runtime.pv.RuntimePV;
+import org.csstudio.display.builder.runtime.script.internal.CompiledRule;
+import org.junit.Test;
+
+/** JUnit test of the {@link CompiledRule}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class CompiledRuleTest
+{
+    /** @return Widget in a display, which provides the script thread for rules */
+    private static LabelWidget createWidget()
+    {
+        final DisplayModel display = new DisplayModel();
+        final LabelWidget widget = new LabelWidget();
+        display.runtimeChildren().addChild(widget);
+        return widget;
+    }
+
+    @Test
+    public void testValueRule() throws Exception
+    {
+        final LabelWidget widget = createWidget();
+        final WidgetColor orig = widget.propForegroundColor().getValue();
+        final WidgetProperty<WidgetColor> red = widget.propForegroundColor().clone();
+        red.setValue(new WidgetColor(255, 0, 0));
+        final RuleInfo rule = new RuleInfo("Color", "foreground_color", false,
+                Arrays.asList(new RuleInfo.ExprInfoValue<WidgetColor>("pv0 > 10 && pvSev1 == 0", red)),
+                Arrays.asList(new ScriptPV("loc://compiled_a(0)"), new ScriptPV("loc://compiled_b(0)")));
+        final CompiledRule compiled = CompiledRule.compile(widget, rule);
+        assertThat(compiled, notNullValue());
+
+        final RuntimePV a = PVFactory.getPV("loc://compiled_a(0)");
+        final RuntimePV b = PVFactory.getPV("loc://compiled_b(0)");
+        try
+        {
+            compiled.submit(widget, a, b).get();
+            assertThat(widget.propForegroundColor().getValue(), equalTo(orig));
+
+            a.write(42);
+            compiled.submit(widget, a, b).get();
+            assertThat(widget.propForegroundColor().getValue(), equalTo(red.getValue()));
+        }
+        finally
+        {
+            PVFactory.releasePV(b);
+            PVFactory.releasePV(a);
+        }
+    }
+
+    @Test
+    public void testExpressionRule() throws Exception
+    {
+        final LabelWidget widget = createWidget();
+        final RuleInfo rule = new RuleInfo("Width", "width", true,
+                Arrays.asList(new RuleInfo.ExprInfoString("pv0 >= 0", "2*pv0 + 10")),
+                Arrays.asList(new ScriptPV("loc://compiled_width(0)")));
+        final CompiledRule compiled = CompiledRule.compile(widget, rule);
+        assertThat(compiled, notNullValue());
+
+        final RuntimePV pv = PVFactory.getPV("loc://compiled_width(0)");
+        try
+        {
+            pv.write(20);
+            compiled.submit(widget, pv).get();
+            assertThat(widget.propWidth().getValue(), equalTo(50));
+        }
+        finally
+        {
+            PVFactory.releasePV(pv);
+        }
+    }
+
+    @Test
+    public void testScriptRules() throws Exception
+    {
+        final LabelWidget widget = createWidget();
+        final WidgetProperty<String> text = widget.propText().clone();
+        text.setValue("Match");
+
+        // String comparisons require a script
+        RuleInfo rule = new RuleInfo("Text", "text", false,
+                Arrays.asList(new RuleInfo.ExprInfoValue<String>("pvStr0 == \"OK\"", text)),
+                Arrays.asList(new ScriptPV("loc://compiled_text(\"OK\")")));
+        assertThat(CompiledRule.compile(widget, rule), nullValue());
+
+        // .. so does python syntax
+        rule = new RuleInfo("Text", "text", false,
+                Arrays.asList(new RuleInfo.ExprInfoValue<String>("pv0 > 1 and pv0 < 5", text)),
+                Arrays.asList(new ScriptPV("loc://compiled_text(\"OK\")")));
+        assertThat(CompiledRule.compile(widget, rule), nullValue());
+
+        // Script gives '&&' precedence over '||', formula evaluates left to right
+        rule = new RuleInfo("Text", "text", false,
+                Arrays.asList(new RuleInfo.ExprInfoValue<String>("pv0 > 1 || pv0 < -1 && pv0 != 0", text)),
+                Arrays.asList(new ScriptPV("loc://compiled_text(0)")));
+        assertThat(CompiledRule.compile(widget, rule), nullValue());
+
+        // .. which is fine with parentheses
+        rule = new RuleInfo("Text", "text", false,
+                Arrays.asList(new RuleInfo.ExprInfoValue<String>("pv0 > 1 || (pv0 < -1 && pv0 != 0)", text)),
+                Arrays.asList(new ScriptPV("loc://compiled_text(0)")));
+        assertThat(CompiledRule.compile(widget, rule), notNullValue());
+
+        // Python chains comparisons
+        rule = new RuleInfo("Text", "text", false,
+                Arrays.asList(new RuleInfo.ExprInfoValue<String>("1 < pv0 < 5", text)),
+                Arrays.asList(new ScriptPV("loc://compiled_text(0)")));
+        assertThat(CompiledRule.compile(widget, rule), nullValue());
+
+        // Script would set text to "20", not "20.0"
+        rule = new RuleInfo("Text", "text", true,
+                Arrays.asList(new RuleInfo.ExprInfoString("pv0 >= 0", "2*pvInt0")),
+                Arrays.asList(new ScriptPV("loc://compiled_text(0)")));
+        assertThat(CompiledRule.compile(widget, rule), nullValue());
+    }
+}
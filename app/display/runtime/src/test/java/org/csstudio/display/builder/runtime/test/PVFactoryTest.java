@@ -9,8 +9,11 @@ package org.csstudio.display.builder.runtime.test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.csstudio.display.builder.model.util.VTypeUtil;
@@ -55,4 +58,38 @@ public class PVFactoryTest
             PVFactory.releasePV(pv);
         }
     }
+
+    @Test
+    public void testThrottle() throws Exception
+    {
+        final RuntimePV pv = PVFactory.getPV("loc://throttled(0)");
+        try
+        {
+            final AtomicInteger updates = new AtomicInteger();
+            final AtomicReference<Number> number = new AtomicReference<>();
+            pv.addListener(new RuntimePVListener()
+            {
+                @Override
+                public void valueChanged(RuntimePV pv, VType value)
+                {
+                    updates.incrementAndGet();
+                    number.set(VTypeUtil.getValueNumber(value));
+                }
+            });
+            TimeUnit.SECONDS.sleep(1);
+            updates.set(0);
+
+            // Burst of updates is throttled, but last value is received
+            for (int i=1; i<=100; ++i)
+                pv.write(i);
+            TimeUnit.SECONDS.sleep(1);
+            final int received = updates.get();
+            assertTrue("Received " + received + " updates for 100 values", received > 0  &&  received < 10);
+            assertThat(number.get().intValue(), equalTo(100));
+        }
+        finally
+        {
+            PVFactory.releasePV(pv);
+        }
+    }
 }
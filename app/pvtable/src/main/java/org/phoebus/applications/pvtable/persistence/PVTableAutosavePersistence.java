@@ -26,6 +26,7 @@ import org.phoebus.applications.pvtable.model.SavedArrayValue;
 import org.phoebus.applications.pvtable.model.SavedScalarValue;
 import org.phoebus.applications.pvtable.model.SavedValue;
 import org.phoebus.applications.pvtable.model.TimestampHelper;
+import org.phoebus.pv.PV;
 
 /** Persist PVTableModel as EPICS Autosave file
  *
@@ -60,6 +61,9 @@ public class PVTableAutosavePersistence extends PVTablePersistence
     {
         final BufferedReader input = new BufferedReader(new InputStreamReader(stream));
 
+        // Read all PVs, then connect them as a batch before adding the items
+        final List<String> names = new ArrayList<>();
+        final List<SavedValue> values = new ArrayList<>();
         int line_no = 0;
         for (String line = input.readLine(); line != null; line = input.readLine())
         {
@@ -91,9 +95,21 @@ public class PVTableAutosavePersistence extends PVTablePersistence
                 logger.log(Level.WARNING, "Error parsing value in line " + line_no, ex);
                 continue;
             }
-            model.addItem(pv_name, Settings.tolerance, value, "");
+            names.add(pv_name);
+            values.add(value);
         }
         input.close();
+
+        final List<PV> batch = connectPVs(names);
+        try
+        {
+            for (int i=0; i<names.size(); ++i)
+                model.addItem(names.get(i), Settings.tolerance, values.get(i), "");
+        }
+        finally
+        {
+            releasePVs(batch);
+        }
     }
 
     /** Parse a channel's value from the file
@@ -7,14 +7,23 @@
  ******************************************************************************/
 package org.phoebus.applications.pvtable.persistence;
 
+import static org.phoebus.applications.pvtable.PVTableApplication.logger;
+
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
 
 import org.epics.vtype.VDouble;
 import org.epics.vtype.VLong;
 import org.epics.vtype.VString;
 import org.epics.vtype.VType;
 import org.phoebus.applications.pvtable.model.PVTableModel;
+import org.phoebus.pv.PV;
+import org.phoebus.pv.PVPool;
 
 /** Base for persisting PVTableModel to/from file
  *  @author Kay Kasemir
@@ -67,6 +76,40 @@ abstract public class PVTablePersistence
      */
     abstract public void write(final PVTableModel model, final OutputStream stream) throws Exception;
 
+    /** Connect the PVs of a file as one batch
+     *
+     *  <p>Items that are then added for these names
+     *  obtain the already created PVs from the {@link PVPool}
+     *  instead of connecting one item at a time.
+     *
+     *  @param names PV names, may include empty names and comments
+     *  @return PVs to release via {@link #releasePVs(List)} once the items have been added
+     */
+    protected static List<PV> connectPVs(final Collection<String> names)
+    {
+        final List<String> pv_names = new ArrayList<>(names.size());
+        for (String name : names)
+            if (! (name.isEmpty()  ||  name.startsWith("#")))
+                pv_names.add(name);
+        try
+        {
+            return PVPool.getPVs(pv_names);
+        }
+        catch (Exception ex)
+        {
+            // Items will connect one at a time and report errors
+            logger.log(Level.FINE, "Cannot connect " + pv_names.size() + " PVs as batch", ex);
+            return Collections.emptyList();
+        }
+    }
+
+    /** @param pvs PVs obtained via {@link #connectPVs(Collection)} */
+    protected static void releasePVs(final List<PV> pvs)
+    {
+        for (PV pv : pvs)
+            PVPool.releasePV(pv);
+    }
+
     /** Format the value (without alarm, timestamp) as a string
      *
      *  @param value VType returned by <code>createValue</code>
@@ -90,7 +90,18 @@ public class PVTableXMLPersistence extends PVTablePersistence
         // Get the <pvlist> entry
         final Element pvlist = XMLUtil.getChildElement(root_node, PVLIST);
 
-        if (pvlist != null)
+        if (pvlist == null)
+            return;
+
+        final List<String> names = new ArrayList<>();
+        for (Element pv : XMLUtil.getChildElements(pvlist, PV))
+        {
+            names.add(XMLUtil.getChildString(pv, NAME).orElse(""));
+            XMLUtil.getChildString(pv, READBACK_NAME).ifPresent(names::add);
+        }
+        final List<org.phoebus.pv.PV> batch = connectPVs(names);
+        try
+        {
             for (Element pv : XMLUtil.getChildElements(pvlist, PV))
             {
                 String pv_name = XMLUtil.getChildString(pv, NAME).orElse("");
@@ -118,6 +129,11 @@ public class PVTableXMLPersistence extends PVTablePersistence
                          .setSelected(false);
                 });
             }
+        }
+        finally
+        {
+            releasePVs(batch);
+        }
     }
 
     /** @param pv PV element that might contain saved value, scalar or array
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.data;
+
+import java.time.Instant;
+
+/** Optional interface for a {@link PlotDataProvider}
+ *  that can access samples without creating a {@link PlotDataItem}
+ *
+ *  <p>A provider that keeps its samples in primitive arrays
+ *  can implement this interface.
+ *  Painting and autoscaling then read positions and values
+ *  directly instead of calling {@link PlotDataProvider#get(int)}
+ *  for every sample.
+ *
+ *  <p>Samples must be sorted by position.
+ *
+ *  <p>As with {@link PlotDataProvider#get(int)},
+ *  callers must hold the {@link PlotDataProvider#getLock()}.
+ *
+ *  @param <XTYPE> Data type used for the position of a sample,
+ *                 {@link Double} or {@link Instant}
+ *  @author agent
+ */
+public interface PlotDataColumns<XTYPE extends Comparable<XTYPE>> extends PlotDataProvider<XTYPE>
+{
+    /** @return Counter that changes whenever samples are added, removed or modified.
+     *          Allows caching information that's derived from the samples.
+     */
+    public long getChangeCount();
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Position of the sample as double:
+     *          Seconds since epoch for {@link Instant}, otherwise the {@link Double} position
+     */
+    public double getPositionAsDouble(int index);
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Value
+     *  @see PlotDataItem#getValue()
+     */
+    public double getValue(int index);
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Standard deviation, or {@link Double#NaN}
+     */
+    public double getStdDev(int index);
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Minimum in case main value is an 'average', or {@link Double#NaN}
+     */
+    public double getMin(int index);
+
+    /** @param index Sample index, 0 .. size()-1
+     *  @return Maximum in case main value is an 'average', or {@link Double#NaN}
+     */
+    public double getMax(int index);
+}
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot.internal;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.csstudio.javafx.rtplot.ColorMappingFunction;
+import org.csstudio.javafx.rtplot.internal.util.Log10;
+import org.epics.util.array.ArrayByte;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ArrayFloat;
+import org.epics.util.array.ArrayInteger;
+import org.epics.util.array.ArrayLong;
+import org.epics.util.array.ArrayShort;
+import org.epics.util.array.CollectionNumbers;
+import org.epics.util.array.ListNumber;
+
+/** Maps image data to ARGB pixels
+ *
+ *  <p>Reads the arrays that back the {@link ListNumber} where possible.
+ *  8 and 16 bit data is mapped via a table indexed by the raw sample.
+ *  The 16 bit table is kept until the color mapping or value range changes.
+ *  Other data is scaled and then mapped via a lookup table of
+ *  {@link #LUT_SIZE} colors, computed once per {@link ColorMappingFunction}.
+ *  NaN is mapped to the color that the {@link ColorMappingFunction} provides for NaN.
+ *  Rows of larger images are mapped in parallel
+ *  on the common fork-join pool.
+ *
+ *  <p>Not thread-safe, meant to be called by one image update thread.
+ *
+ *  @author agent
+ */
+public class ImageColorMapper
+{
+    /** Size of color lookup table */
+    public static final int LUT_SIZE = 65536;
+
+    /** Images with at least this many pixels are mapped in parallel */
+    private static final int PARALLEL_THRESHOLD = 100000;
+
+    /** Color mapping for which the lut has been computed */
+    private ColorMappingFunction lut_mapping = null;
+
+    /** Color lookup table for 'scaled' 0..1 values */
+    private final int[] lut = new int[LUT_SIZE];
+
+    /** Color for NaN in lut_mapping */
+    private int lut_nan;
+
+    /** Color mapping, value range and signedness for which short_colors has been computed */
+    private ColorMappingFunction short_mapping = null;
+    private double short_min, short_max;
+    private boolean short_log, short_unsigned;
+
+    /** Colors for 16 bit data, indexed by unsigned value or signed value + 32768 */
+    private final int[] short_colors = new int[65536];
+
+    /** Map image data to pixels
+     *
+     *  @param numbers Image data, at least width * height samples
+     *  @param unsigned Treat data as unsigned?
+     *  @param width Image width
+     *  @param height Image height
+     *  @param min Value range ..
+     *  @param max .. to map, <code>min &lt; max</code>
+     *  @param log Use log scale?
+     *  @param color_mapping Color mapping
+     *  @param pixels ARGB pixels to update
+     */
+    public void map(final ListNumber numbers, final boolean unsigned,
+                    final int width, final int height,
+                    final double min, final double max, final boolean log,
+                    final ColorMappingFunction color_mapping, final int[] pixels)
+    {
+        final Scaling scaling = new Scaling(min, max, log);
+        final Object array = CollectionNumbers.wrappedArray(numbers);
+        final IntConsumer row;
+        if (numbers instanceof ArrayByte)
+            row = mapBytes(numbers, (array instanceof byte[]) ? (byte[]) array : null, unsigned, width, scaling, color_mapping, pixels);
+        else if (numbers instanceof ArrayShort)
+            row = mapShorts(numbers, (array instanceof short[]) ? (short[]) array : null, unsigned, width,
+                            getShortColors(min, max, log, unsigned, scaling, color_mapping), pixels);
+        else
+            row = mapDoubles(numbers, array, unsigned, width, scaling, getLUT(color_mapping), lut_nan, pixels);
+
+        if (width * height >= PARALLEL_THRESHOLD)
+            IntStream.range(0, height).parallel().forEach(row);
+        else
+            for (int y=0; y<height; ++y)
+                row.accept(y);
+    }
+
+    /** Scale value into 0..1 range */
+    private static class Scaling
+    {
+        private final boolean log;
+        private final double low, span;
+
+        Scaling(final double min, final double max, final boolean log)
+        {
+            this.log = log;
+            if (log)
+            {
+                low = Log10.log10(min);
+                span = Log10.log10(max) - low;
+            }
+            else
+            {
+                low = min;
+                span = max - min;
+            }
+        }
+
+        double scale(final double sample)
+        {
+            final double scaled = ((log ? Log10.log10(sample) : sample) - low) / span;
+            if (scaled < 0.0)
+                return 0.0;
+            else if (scaled > 1.0)
+                return 1.0;
+            return scaled;
+        }
+    }
+
+    /** @param color_mapping Color mapping
+     *  @return Lookup table for that color mapping
+     */
+    private int[] getLUT(final ColorMappingFunction color_mapping)
+    {
+        if (lut_mapping != color_mapping)
+        {
+            for (int i=0; i<LUT_SIZE; ++i)
+                lut[i] = color_mapping.getRGB(i / (double) (LUT_SIZE-1));
+            lut_nan = color_mapping.getRGB(Double.NaN);
+            lut_mapping = color_mapping;
+        }
+        return lut;
+    }
+
+    /** @param min Value range ..
+     *  @param max .. to map
+     *  @param log Use log scale?
+     *  @param unsigned Treat data as unsigned?
+     *  @param scaling Scaling for that range
+     *  @param color_mapping Color mapping
+     *  @return Colors for 16 bit data
+     */
+    private int[] getShortColors(final double min, final double max, final boolean log, final boolean unsigned,
+                                 final Scaling scaling, final ColorMappingFunction color_mapping)
+    {
+        if (short_mapping != color_mapping  ||  short_min != min  ||  short_max != max  ||
+            short_log != log  ||  short_unsigned != unsigned)
+        {
+            for (int i=0; i<short_colors.length; ++i)
+                short_colors[i] = color_mapping.getRGB(scaling.scale(unsigned ? i : i + Short.MIN_VALUE));
+            short_mapping = color_mapping;
+            short_min = min;
+            short_max = max;
+            short_log = log;
+            short_unsigned = unsigned;
+        }
+        return short_colors;
+    }
+
+    private static IntConsumer mapBytes(final ListNumber numbers, final byte[] bytes, final boolean unsigned,
+                                        final int width, final Scaling scaling,
+                                        final ColorMappingFunction color_mapping, final int[] pixels)
+    {
+        // Table indexed by unsigned value, or signed value + 128
+        final int[] colors = new int[256];
+        for (int i=0; i<colors.length; ++i)
+            colors[i] = color_mapping.getRGB(scaling.scale(unsigned ? i : i + Byte.MIN_VALUE));
+        final int offset = unsigned ? 0 : -Byte.MIN_VALUE;
+        return y ->
+        {
+            final int start = y * width, end = start + width;
+            for (int i=start; i<end; ++i)
+            {
+                final byte sample = bytes != null ? bytes[i] : numbers.getByte(i);
+                pixels[i] = colors[unsigned ? Byte.toUnsignedInt(sample) : sample + offset];
+            }
+        };
+    }
+
+    private static IntConsumer mapShorts(final ListNumber numbers, final short[] shorts, final boolean unsigned,
+                                         final int width, final int[] colors, final int[] pixels)
+    {
+        final int offset = unsigned ? 0 : -Short.MIN_VALUE;
+        return y ->
+        {
+            final int start = y * width, end = start + width;
+            for (int i=start; i<end; ++i)
+            {
+                final short sample = shorts != null ? shorts[i] : numbers.getShort(i);
+                pixels[i] = colors[unsigned ? Short.toUnsignedInt(sample) : sample + offset];
+            }
+        };
+    }
+
+    private static IntConsumer mapDoubles(final ListNumber numbers, final Object array, final boolean unsigned,
+                                          final int width, final Scaling scaling,
+                                          final int[] lut, final int nan, final int[] pixels)
+    {
+        // Only use arrays of signed types, others are read via ListNumber
+        final double[] doubles = (numbers instanceof ArrayDouble  &&  array instanceof double[]) ? (double[]) array : null;
+        final float[] floats = (numbers instanceof ArrayFloat  &&  array instanceof float[]) ? (float[]) array : null;
+        final int[] ints = (numbers instanceof ArrayInteger  &&  array instanceof int[]) ? (int[]) array : null;
+        final long[] longs = (numbers instanceof ArrayLong  &&  array instanceof long[]) ? (long[]) array : null;
+        final boolean unsigned_ints = unsigned  &&  numbers instanceof ArrayInteger;
+        final int top = LUT_SIZE - 1;
+        return y ->
+        {
+            final int start = y * width, end = start + width;
+            for (int i=start; i<end; ++i)
+            {
+                final double sample;
+                if (doubles != null)
+                    sample = doubles[i];
+                else if (floats != null)
+                    sample = floats[i];
+                else if (ints != null)
+                    sample = unsigned ? Integer.toUnsignedLong(ints[i]) : ints[i];
+                else if (longs != null)
+                    sample = longs[i];
+                else if (unsigned_ints)
+                    sample = Integer.toUnsignedLong(numbers.getInt(i));
+                else
+                    sample = numbers.getDouble(i);
+                final double scaled = scaling.scale(sample);
+                pixels[i] = Double.isNaN(scaled) ? nan : lut[(int) (scaled * top + 0.5)];
+            }
+        };
+    }
+}
@@ -34,7 +34,6 @@ import org.csstudio.javafx.rtplot.data.ValueRange;
 import org.csstudio.javafx.rtplot.internal.undo.ChangeImageZoom;
 import org.csstudio.javafx.rtplot.internal.util.GraphicsUtils;
 import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
-import org.csstudio.javafx.rtplot.internal.util.Log10;
 import org.epics.util.array.ArrayByte;
 import org.epics.util.array.ArrayInteger;
 import org.epics.util.array.ArrayShort;
@@ -627,7 +626,7 @@ public class ImagePlot extends PlotCanvasBase
             // Paint the image
             gc.setClip(image_area.x, image_area.y, image_area.width, image_area.height);
             final Object image_or_error =  !isRGB ?
-            		drawData(data_width, data_height, numbers, next_sample_func, min, max, color_mapping) :
+            		drawData(data_width, data_height, numbers, unsigned, min, max, color_mapping) :
         			drawDataRGB(data_width, data_height, numbers, next_rgb, type);
             if (image_or_error instanceof BufferedImage)
             {
@@ -796,17 +795,20 @@ public class ImagePlot extends PlotCanvasBase
     /** Buffers used for the data (to be merged/scaled into the complete image) */
     private final DoubleBuffer data_buffers = new DoubleBuffer();
 
+    /** Maps data to pixels */
+    private final ImageColorMapper color_mapper = new ImageColorMapper();
+
     /** @param data_width
      *  @param data_height
      *  @param numbers
-     *  @param next_sample_func
+     *  @param unsigned
      *  @param min
      *  @param max
      *  @param color_mapping
      *  @return {@link BufferedImage}, sized to match data or String with error message
      */
     private Object drawData(final int data_width, final int data_height, final ListNumber numbers,
-                                   final ToDoubleFunction<IteratorNumber> next_sample_func,
+                                   final boolean unsigned,
                                    double min, double max, final ColorMappingFunction color_mapping)
     {
         // final long start = System.nanoTime();
@@ -839,41 +841,8 @@ public class ImagePlot extends PlotCanvasBase
         // but only 8 bits per pixel instead of 8 bits each for R, G and B isn't enough resolution.
         // Rounding of values into 8 bits creates artifacts.
         final int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
-        final IteratorNumber iter = numbers.iterator();
-        int idx = 0;
-
-        if (colorbar_axis.isLogarithmic())
-        {
-            final double lmin = Log10.log10(min),
-                         lmax = Log10.log10(max),
-                         span = lmax - lmin;
-            for (int y=0; y<data_height; ++y)
-                for (int x=0; x<data_width; ++x)
-                {
-                    final double sample = Log10.log10(next_sample_func.applyAsDouble(iter));
-                    double scaled = (sample - lmin) / span;
-                    if (scaled < 0.0)
-                        scaled = 0;
-                    else if (scaled > 1.0)
-                        scaled = 1.0;
-                    data[idx++] = color_mapping.getRGB(scaled);
-                }
-        }
-        else
-        {
-            final double span = max - min;
-            for (int y=0; y<data_height; ++y)
-                for (int x=0; x<data_width; ++x)
-                {
-                    final double sample = next_sample_func.applyAsDouble(iter);
-                    double scaled = (sample - min) / span;
-                    if (scaled < 0.0)
-                        scaled = 0;
-                    else if (scaled > 1.0)
-                        scaled = 1.0;
-                    data[idx++] = color_mapping.getRGB(scaled);
-                }
-        }
+        color_mapper.map(numbers, unsigned, data_width, data_height, min, max,
+                         colorbar_axis.isLogarithmic(), color_mapping, data);
         // final long nano = System.nanoTime() - start;
         // avg_nano = (avg_nano*3 + nano)/4;
         // if (++runs > 100)
@@ -26,6 +26,7 @@ import org.csstudio.javafx.rtplot.Messages;
 import org.csstudio.javafx.rtplot.PointType;
 import org.csstudio.javafx.rtplot.Trace;
 import org.csstudio.javafx.rtplot.TraceType;
+import org.csstudio.javafx.rtplot.data.PlotDataColumns;
 import org.csstudio.javafx.rtplot.data.PlotDataItem;
 import org.csstudio.javafx.rtplot.data.PlotDataProvider;
 import org.csstudio.javafx.rtplot.data.PlotDataSearch;
@@ -160,22 +161,42 @@ public class PlotProcessor<XTYPE extends Comparable<XTYPE>>
                         // If data is completely outside the position_range,
                         // we end up using just data[0]
                         // Check [start .. stop], including stop
-                        for (int idx = start; idx <= stop; idx++)
-                        {
-                            final PlotDataItem<XTYPE> item = data.get(idx);
-                            final double value = item.getValue();
-                            if (!Double.isFinite(value))
-                                continue;
-                            if (value < low)
-                                low = value;
-                            if (value > high)
-                                high = value;
-                            // Implies Double.isFinite(min), ..(max)
-                            if (item.getMin() < low)
-                                low = item.getMin();
-                            if (item.getMax() > high)
-                                high = item.getMax();
+                        if (data instanceof PlotDataColumns)
+                        {   // Read values without creating PlotDataItems
+                            final PlotDataColumns<XTYPE> columns = (PlotDataColumns<XTYPE>) data;
+                            for (int idx = start; idx <= stop; idx++)
+                            {
+                                final double value = columns.getValue(idx);
+                                if (!Double.isFinite(value))
+                                    continue;
+                                if (value < low)
+                                    low = value;
+                                if (value > high)
+                                    high = value;
+                                final double min = columns.getMin(idx), max = columns.getMax(idx);
+                                if (min < low)
+                                    low = min;
+                                if (max > high)
+                                    high = max;
+                            }
                         }
+                        else
+                            for (int idx = start; idx <= stop; idx++)
+                            {
+                                final PlotDataItem<XTYPE> item = data.get(idx);
+                                final double value = item.getValue();
+                                if (!Double.isFinite(value))
+                                    continue;
+                                if (value < low)
+                                    low = value;
+                                if (value > high)
+                                    high = value;
+                                // Implies Double.isFinite(min), ..(max)
+                                if (item.getMin() < low)
+                                    low = item.getMin();
+                                if (item.getMax() > high)
+                                    high = item.getMax();
+                            }
                     }
                 }
                 finally
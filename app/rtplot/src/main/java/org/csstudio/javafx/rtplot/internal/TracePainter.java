@@ -14,6 +14,9 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.Stroke;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
@@ -22,8 +25,10 @@ import org.csstudio.javafx.rtplot.LineStyle;
 import org.csstudio.javafx.rtplot.PointType;
 import org.csstudio.javafx.rtplot.Trace;
 import org.csstudio.javafx.rtplot.TraceType;
+import org.csstudio.javafx.rtplot.data.PlotDataColumns;
 import org.csstudio.javafx.rtplot.data.PlotDataItem;
 import org.csstudio.javafx.rtplot.data.PlotDataProvider;
+import org.csstudio.javafx.rtplot.data.PlotDataSearch;
 import org.csstudio.javafx.rtplot.internal.util.GraphicsUtils;
 import org.csstudio.javafx.rtplot.internal.util.IntList;
 import org.csstudio.javafx.rtplot.internal.util.ScreenTransform;
@@ -56,6 +61,14 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
     final private static int OUTSIDE = 1000;
     private int x_min, x_max, y_min, y_max;
 
+    /** Decimate value lines when there are more than this many samples per pixel column */
+    final private static int DECIMATE_THRESHOLD = 4;
+
+    /** Decimated samples of {@link PlotDataColumns} traces,
+     *  re-used until the data or the horizontal transform changes
+     */
+    final private Map<Trace<XTYPE>, Decimation<XTYPE>> decimations = new WeakHashMap<>();
+
     final private int clipX(final double x)
     {
         if (x < x_min)
@@ -101,13 +114,10 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
         // TODO Optimize drawing
         //
-        // Determine first sample to draw via PlotDataSearch.findSampleLessOrEqual(),
-        // then end drawing when reaching right end of area.
+        // Value lines are decimated to first/min/max/last per pixel column,
+        // but min/max, std.dev, error bars etc. still loop over all samples.
         //
         // Loop only once, performing drawMinMax, drawStdDev, drawValueStaircase in one loop
-        //
-        // For now, main point is that this happens in non-UI thread,
-        // so the slower the better to test UI responsiveness.
         final PlotDataProvider<XTYPE> data = trace.getData();
         try
         {
@@ -121,73 +131,78 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
         }
         try
         {
+            final SampleAccess samples = (data instanceof PlotDataColumns)
+                                       ? new ColumnAccess((PlotDataColumns<XTYPE>) data, x_transform)
+                                       : new ItemAccess(data, x_transform);
             final TraceType type = trace.getType();
             logger.log(Level.ALL, "Painting trace type " + type.toString());
 
+            // Value lines and staircase only need first/min/max/last per pixel,
+            // so they use decimated samples
             switch (type)
             {
             case NONE:
                 break;
             case AREA:
                 gc.setPaint(tpcolor);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, y_axis, samples);
                 gc.setPaint(color);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
+                drawValueStaircase(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
                 break;
             case AREA_DIRECT:
                 gc.setPaint(tpcolor);
-                drawMinMaxArea(gc, x_transform, y_axis, data);
+                drawMinMaxArea(gc, y_axis, samples);
                 gc.setPaint(color);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
+                drawValueLines(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
                 break;
             case LINES:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, y_axis, samples, trace.getWidth());
                 gc.setPaint(tpcolor);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
                 gc.setPaint(color);
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueStaircase(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
                 break;
             case LINES_DIRECT:
-                drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawMinMaxLines(gc, y_axis, samples, trace.getWidth());
                 gc.setPaint(tpcolor);
-                drawStdDevLines(gc, x_transform, y_axis, data, trace.getWidth());
+                drawStdDevLines(gc, y_axis, samples, trace.getWidth());
                 gc.setPaint(color);
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueLines(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
                 break;
             case SINGLE_LINE:
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueStaircase(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
                 break;
             case SINGLE_LINE_DIRECT:
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueLines(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
                 break;
             case LINES_ERROR_BARS:
-                drawErrorBars(gc, x_transform, y_axis, data, trace.getPointSize());
-                drawValueLines(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawErrorBars(gc, y_axis, samples, trace.getPointSize());
+                drawValueLines(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
                 break;
             case ERROR_BARS:
                 // Compare error bars to area and min/max lines
                 // gc.setPaint(tpcolor);
-                // drawMinMaxArea(gc, x_transform, y_axis, data);
+                // drawMinMaxArea(gc, y_axis, samples);
                 // gc.setPaint(color);
-                // drawMinMaxLines(gc, x_transform, y_axis, data, trace.getWidth());
-                drawErrorBars(gc, x_transform, y_axis, data, trace.getPointSize());
+                // drawMinMaxLines(gc, y_axis, samples, trace.getWidth());
+                drawErrorBars(gc, y_axis, samples, trace.getPointSize());
                 break;
             case BARS:
                 final int width = trace.getWidth();
                 if (width > 0)
-                    drawBars(gc, x_transform, y_axis, data, width);
+                    drawBars(gc, y_axis, samples, width);
                 else
-                    drawHistogram(gc, x_transform, y_axis, data);
+                    drawHistogram(gc, y_axis, samples);
                 break;
             default:
-                drawValueStaircase(gc, x_transform, y_axis, data, trace.getWidth(), trace.getLineStyle());
+                drawValueStaircase(gc, y_axis, decimate(trace, bounds, x_transform, samples), trace.getWidth(), trace.getLineStyle());
             }
 
             final PointType point_type = trace.getPointType();
             if (point_type != PointType.NONE)
-                drawPoints(gc, x_transform, y_axis, data, point_type, trace.getPointSize());
+                drawPoints(gc, y_axis, samples, point_type, trace.getPointSize());
         }
         finally
         {
@@ -198,6 +213,343 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
         gc.setColor(old_color);
     }
 
+    /** Access to the samples of a trace */
+    private abstract static class SampleAccess
+    {
+        /** @return Number of samples */
+        abstract int size();
+
+        /** @param i Sample index
+         *  @return Horizontal screen position
+         */
+        abstract double getX(int i);
+
+        abstract double getValue(int i);
+
+        abstract double getStdDev(int i);
+
+        abstract double getMin(int i);
+
+        abstract double getMax(int i);
+    }
+
+    /** Access via {@link PlotDataItem}s */
+    private class ItemAccess extends SampleAccess
+    {
+        private final PlotDataProvider<XTYPE> data;
+        private final ScreenTransform<XTYPE> x_transform;
+
+        /** Most recently fetched item and its index */
+        private PlotDataItem<XTYPE> item;
+        private int index = -1;
+
+        ItemAccess(final PlotDataProvider<XTYPE> data, final ScreenTransform<XTYPE> x_transform)
+        {
+            this.data = data;
+            this.x_transform = x_transform;
+        }
+
+        private PlotDataItem<XTYPE> get(final int i)
+        {
+            if (i != index)
+            {
+                item = data.get(i);
+                index = i;
+            }
+            return item;
+        }
+
+        @Override
+        int size()
+        {
+            return data.size();
+        }
+
+        @Override
+        double getX(final int i)
+        {
+            return x_transform.transform(get(i).getPosition());
+        }
+
+        @Override
+        double getValue(final int i)
+        {
+            return get(i).getValue();
+        }
+
+        @Override
+        double getStdDev(final int i)
+        {
+            return get(i).getStdDev();
+        }
+
+        @Override
+        double getMin(final int i)
+        {
+            return get(i).getMin();
+        }
+
+        @Override
+        double getMax(final int i)
+        {
+            return get(i).getMax();
+        }
+    }
+
+    /** Access to {@link PlotDataColumns} without creating {@link PlotDataItem}s */
+    private class ColumnAccess extends SampleAccess
+    {
+        private final PlotDataColumns<XTYPE> data;
+        private final ScreenTransform<XTYPE> x_transform;
+
+        ColumnAccess(final PlotDataColumns<XTYPE> data, final ScreenTransform<XTYPE> x_transform)
+        {
+            this.data = data;
+            this.x_transform = x_transform;
+        }
+
+        @Override
+        int size()
+        {
+            return data.size();
+        }
+
+        @Override
+        double getX(final int i)
+        {
+            return x_transform.transformDouble(data.getPositionAsDouble(i));
+        }
+
+        @Override
+        double getValue(final int i)
+        {
+            return data.getValue(i);
+        }
+
+        @Override
+        double getStdDev(final int i)
+        {
+            return data.getStdDev(i);
+        }
+
+        @Override
+        double getMin(final int i)
+        {
+            return data.getMin(i);
+        }
+
+        @Override
+        double getMax(final int i)
+        {
+            return data.getMax(i);
+        }
+    }
+
+    /** Cached decimation of a trace
+     *  @param <XTYPE> Data type of horizontal {@link Axis}
+     */
+    private static class Decimation<XTYPE>
+    {
+        /** Data and horizontal axis for which the decimation was computed */
+        final PlotDataProvider<XTYPE> data;
+        final long change_count;
+        final Rectangle bounds;
+        final XTYPE start, end;
+
+        /** Indices of samples to draw */
+        final IntList indices;
+
+        Decimation(final PlotDataProvider<XTYPE> data, final long change_count,
+                   final Rectangle bounds, final XTYPE start, final XTYPE end,
+                   final IntList indices)
+        {
+            this.data = data;
+            this.change_count = change_count;
+            this.bounds = bounds;
+            this.start = start;
+            this.end = end;
+            this.indices = indices;
+        }
+
+        boolean isValid(final PlotDataProvider<XTYPE> data, final long change_count,
+                        final Rectangle bounds, final XTYPE start, final XTYPE end)
+        {
+            return this.data == data  &&  this.change_count == change_count  &&
+                   this.bounds.equals(bounds)  &&
+                   Objects.equals(this.start, start)  &&  Objects.equals(this.end, end);
+        }
+    }
+
+    /** Access to a subset of samples */
+    private static class DecimatedAccess extends SampleAccess
+    {
+        private final SampleAccess samples;
+        private final IntList indices;
+
+        DecimatedAccess(final SampleAccess samples, final IntList indices)
+        {
+            this.samples = samples;
+            this.indices = indices;
+        }
+
+        @Override
+        int size()
+        {
+            return indices.size();
+        }
+
+        @Override
+        double getX(final int i)
+        {
+            return samples.getX(indices.get(i));
+        }
+
+        @Override
+        double getValue(final int i)
+        {
+            return samples.getValue(indices.get(i));
+        }
+
+        @Override
+        double getStdDev(final int i)
+        {
+            return samples.getStdDev(indices.get(i));
+        }
+
+        @Override
+        double getMin(final int i)
+        {
+            return samples.getMin(indices.get(i));
+        }
+
+        @Override
+        double getMax(final int i)
+        {
+            return samples.getMax(indices.get(i));
+        }
+    }
+
+    /** Decimate samples for drawing value lines
+     *
+     *  <p>For {@link PlotDataColumns}, which are sorted by position,
+     *  samples outside of the visible range are skipped
+     *  and the result is cached until the data or the horizontal axis change.
+     *
+     *  @param trace Trace
+     *  @param bounds Clipping bounds
+     *  @param x_transform Horizontal axis
+     *  @param samples All samples
+     *  @return Samples to use for drawing value lines
+     */
+    private SampleAccess decimate(final Trace<XTYPE> trace, final Rectangle bounds,
+                                  final ScreenTransform<XTYPE> x_transform, final SampleAccess samples)
+    {
+        final int N = samples.size();
+        if (N <= DECIMATE_THRESHOLD * (bounds.width + 2*OUTSIDE))
+            return samples;
+
+        final PlotDataProvider<XTYPE> data = trace.getData();
+        if (! (data instanceof PlotDataColumns))
+            return new DecimatedAccess(samples, decimate(samples, 0, N-1));
+
+        final long change_count = ((PlotDataColumns<XTYPE>) data).getChangeCount();
+        final XTYPE start = x_transform.inverse(bounds.x);
+        final XTYPE end = x_transform.inverse(bounds.x + bounds.width);
+        Decimation<XTYPE> decimation = decimations.get(trace);
+        if (decimation == null  ||  ! decimation.isValid(data, change_count, bounds, start, end))
+        {
+            // Include one sample beyond the visible range on each end
+            // to draw lines into the visible range
+            final PlotDataSearch<XTYPE> search = new PlotDataSearch<>();
+            final int first = Math.max(0, search.findSampleLessOrEqual(data, start));
+            int last = search.findSampleGreaterOrEqual(data, end);
+            if (last < 0)
+                last = N-1;
+            decimation = new Decimation<>(data, change_count, new Rectangle(bounds), start, end,
+                                          decimate(samples, first, last));
+            decimations.put(trace, decimation);
+        }
+        return new DecimatedAccess(samples, decimation.indices);
+    }
+
+    /** Reduce samples to first, min, max and last sample for each pixel column
+     *
+     *  <p>All samples of a run that falls into the same pixel column
+     *  are drawn as vertical lines on that column,
+     *  so the first, min, max and last sample of the run
+     *  result in the same pixels as the complete run.
+     *  Since only consecutive samples are combined,
+     *  this also holds for data that's not sorted by position.
+     *  'NaN' samples are kept to break lines.
+     *
+     *  @param samples Samples
+     *  @param first Index of first sample to use
+     *  @param last Index of last sample to use
+     *  @return Indices of samples to draw
+     */
+    private IntList decimate(final SampleAccess samples, final int first, final int last)
+    {
+        final IntList indices = new IntList(INITIAL_ARRAY_SIZE);
+        // Current run of samples
+        int column = 0, run_first = -1, run_min = -1, run_max = -1, run_last = -1;
+        double min = 0, max = 0;
+        boolean in_gap = false;
+        for (int i=first; i<=last; ++i)
+        {
+            final double value = samples.getValue(i);
+            if (Double.isNaN(value))
+            {
+                addRun(indices, run_first, run_min, run_max, run_last);
+                run_first = -1;
+                // One 'NaN' is enough to break the line
+                if (! in_gap)
+                    indices.add(i);
+                in_gap = true;
+                continue;
+            }
+            in_gap = false;
+            final int x = clipX(Math.round(samples.getX(i)));
+            if (run_first >= 0  &&  x == column)
+            {
+                if (value < min)
+                {
+                    min = value;
+                    run_min = i;
+                }
+                if (value > max)
+                {
+                    max = value;
+                    run_max = i;
+                }
+                run_last = i;
+            }
+            else
+            {
+                addRun(indices, run_first, run_min, run_max, run_last);
+                column = x;
+                run_first = run_min = run_max = run_last = i;
+                min = max = value;
+            }
+        }
+        addRun(indices, run_first, run_min, run_max, run_last);
+        return indices;
+    }
+
+    /** Add first, min, max, last of a run, in order and without duplicates */
+    private static void addRun(final IntList indices, final int first, final int min, final int max, final int last)
+    {
+        if (first < 0)
+            return;
+        indices.add(first);
+        final int low = Math.min(min, max), high = Math.max(min, max);
+        if (low > first)
+            indices.add(low);
+        if (high > low  &&  high > first)
+            indices.add(high);
+        if (last > high  &&  last > first)
+            indices.add(last);
+    }
+
     // Basic dash patterns
     private static final float DASH[]       = { 10f,  5f };
     private static final float DOT[]        = {  2f, 10f };
@@ -234,26 +586,23 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw values of data as staircase line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      *  @param line_width
      *  @param line_style
      */
     final private void drawValueStaircase(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width, final LineStyle line_style)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples, final int line_width, final LineStyle line_style)
     {
         final IntList poly_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList poly_y = new IntList(INITIAL_ARRAY_SIZE);
-        final int N = data.size();
+        final int N = samples.size();
         int last_x = -1, last_y = -1;
         gc.setStroke(createStroke(line_width, line_style));
         for (int i=0; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = clipX(Math.round(samples.getX(i)));
+            final double value = samples.getValue(i);
             if (poly_x.size() > 0  && x != last_x)
             {   // Staircase from last 'y'..
                 poly_x.add(x);
@@ -280,27 +629,24 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw values of data as direct line
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      *  @param line_width
      *  @param line_style
      */
     final private void drawValueLines(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width, final LineStyle line_style)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples, final int line_width, final LineStyle line_style)
     {
         final IntList value_poly_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList value_poly_y = new IntList(INITIAL_ARRAY_SIZE);
-        final int N = data.size();
+        final int N = samples.size();
 
         gc.setStroke(createStroke(line_width, line_style));
         int last_x = -1, last_y = -1;
         for (int i=0; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
-            final double value = item.getValue();
+            final int x = clipX(Math.round(samples.getX(i)));
+            final double value = samples.getValue(i);
             if (Double.isNaN(value))
                 flushPolyLine(gc, value_poly_x, value_poly_y, line_width);
             else
@@ -319,15 +665,13 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw min/max outline
      *  @param graphics2D GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      */
     final private void drawMinMaxArea(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples)
     {
-        final int N = data.size();
+        final int N = samples.size();
         // Assume N, might use less because end up with sections
         // separated by Double.NaN
         final IntList pos = new IntList(N);
@@ -336,14 +680,13 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
         for (int i = 0;  i < N;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
+            double ymin = samples.getMin(i);
+            double ymax = samples.getMax(i);
             if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
                 flushPolyFill(gc, pos, min, max);
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
+                final int x1 = clipX(samples.getX(i));
                 final int y1min = clipY(y_axis.getScreenCoord(ymin));
                 final int y1max = clipY(y_axis.getScreenCoord(ymax));
                 pos.add(x1);
@@ -356,25 +699,22 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw min/max outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      */
     final private void drawMinMaxLines(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples, final int line_width)
     {
         final IntList min_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList min_y = new IntList(INITIAL_ARRAY_SIZE);
         final IntList max_y = new IntList(INITIAL_ARRAY_SIZE);
 
-        final int N = data.size();
+        final int N = samples.size();
         for (int i = 0;  i < N;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double ymin = item.getMin();
-            double ymax = item.getMax();
+            double ymin = samples.getMin(i);
+            double ymax = samples.getMax(i);
             if (Double.isNaN(ymin)  ||  Double.isNaN(ymax))
             {
                 flushPolyLine(gc, min_x, min_y, line_width);
@@ -382,7 +722,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
             }
             else
             {
-                final int x1 = clipX(x_transform.transform(item.getPosition()));
+                final int x1 = clipX(samples.getX(i));
                 final int y1min = clipY(y_axis.getScreenCoord(ymin));
                 final int y1max = clipY(y_axis.getScreenCoord(ymax));
                 min_x.add(x1);   min_y.add(y1min);
@@ -395,25 +735,23 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw std. deviation outline
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      *  @param line_width
      */
-    final private void drawStdDevLines(final Graphics2D gc, final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int line_width)
+    final private void drawStdDevLines(final Graphics2D gc, final YAxisImpl<XTYPE> y_axis,
+            final SampleAccess samples, final int line_width)
     {
         final IntList lower_poly_y = new IntList(INITIAL_ARRAY_SIZE);
         final IntList upper_poly_y = new IntList(INITIAL_ARRAY_SIZE);
         final IntList lower_poly_x = new IntList(INITIAL_ARRAY_SIZE);
         final IntList upper_poly_x = new IntList(INITIAL_ARRAY_SIZE);
 
-        final int N = data.size();
+        final int N = samples.size();
         for (int i = 0;  i < N;  ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            double value = item.getValue();
-            double dev = item.getStdDev();
+            double value = samples.getValue(i);
+            double dev = samples.getStdDev(i);
             if (Double.isNaN(value) ||  ! (dev > 0))
             {
                 flushPolyLine(gc, lower_poly_x, lower_poly_y, line_width);
@@ -421,7 +759,7 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
             }
             else
             {
-                final int x = clipX(x_transform.transform(item.getPosition()));
+                final int x = clipX(samples.getX(i));
                 final int low_y = clipY(y_axis.getScreenCoord(value - dev));
                 final int upp_y = clipY(y_axis.getScreenCoord(value + dev));
                 lower_poly_x.add(x);  lower_poly_y.add(low_y);
@@ -449,32 +787,29 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw error bar for each value
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      *  @param size
      */
     final private void drawErrorBars(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, final int size)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples, final int size)
     {
-        final int N = data.size();
+        final int N = samples.size();
         for (int i=0; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
+            final double value = samples.getValue(i);
             if (!Double.isNaN(value))
             {
-                final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
+                final int x = clipX(Math.round(samples.getX(i)));
                 final int y = clipY(y_axis.getScreenCoord(value));
-                final double min = item.getMin();
+                final double min = samples.getMin(i);
                 if (!Double.isNaN(min))
                 {
                     final int ym = clipY(y_axis.getScreenCoord(min));
                     gc.drawLine(x, y, x, ym);
                     gc.drawLine(x-size/2, ym, x+size/2, ym);
                 }
-                final double max = item.getMax();
+                final double max = samples.getMax(i);
                 if (!Double.isNaN(max))
                 {
                     final int ym = clipY(y_axis.getScreenCoord(max));
@@ -487,25 +822,22 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
 
     /** Draw point for each value
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      *  @param point_type
      *  @param size
      */
     final private void drawPoints(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, PointType point_type, final int size)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples, PointType point_type, final int size)
     {
-        final int N = data.size();
+        final int N = samples.size();
         int last_x = -1, last_y = -1;
         for (int i=0; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
+            final double value = samples.getValue(i);
             if (!Double.isNaN(value))
             {
-                final int x = clipX(Math.round(x_transform.transform(item.getPosition())));
+                final int x = clipX(Math.round(samples.getX(i)));
                 final int y = clipY(y_axis.getScreenCoord(value));
                 if (x == last_x  &&  y == last_y)
                     continue;
@@ -584,24 +916,21 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
      *  <p>Bars are centered on each sample.
      *
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      *  @param width Width of each bar
      */
     final private void drawBars(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data, int width)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples, int width)
     {
-        final int N = data.size();
+        final int N = samples.size();
         final int y0 = clipY(y_axis.getScreenCoord(0.0));
         for (int i=0; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
+            final double value = samples.getValue(i);
             if (Double.isNaN(value))
                 continue;
-            final int x = (int) Math.round(x_transform.transform(item.getPosition()));
+            final int x = (int) Math.round(samples.getX(i));
             final int y = clipY(y_axis.getScreenCoord(value));
             if (y0 > y)
                 gc.fillRect(x-width/2, y, width, y0-y);
@@ -615,26 +944,23 @@ public class TracePainter<XTYPE extends Comparable<XTYPE>>
      *  <p>Adjacent bars which start/end at the midpoints between samples.
      *
      *  @param gc GC
-     *  @param x_transform Horizontal axis
      *  @param y_axis Value axis
-     *  @param data Data
+     *  @param samples Samples
      */
     final private void drawHistogram(final Graphics2D gc,
-            final ScreenTransform<XTYPE> x_transform, final YAxisImpl<XTYPE> y_axis,
-            final PlotDataProvider<XTYPE> data)
+            final YAxisImpl<XTYPE> y_axis, final SampleAccess samples)
     {
         // Bars need the x0, x1 center points between samples.
         // Each bar is drawn for the (last_x,last_y) while on sample (x,y):
         // Samples      :       (last_x,y)        (x,y)
         // Bar start/end:   x0              x1
-        final int N = data.size();
+        final int N = samples.size();
         final int y0 = clipY(y_axis.getScreenCoord(0.0));
         int last_x1 = -1, last_x = -1, last_y = -1;
         for (int i=0; i<N; ++i)
         {
-            final PlotDataItem<XTYPE> item = data.get(i);
-            final double value = item.getValue();
-            final int x = (int) Math.round(x_transform.transform(item.getPosition()));
+            final double value = samples.getValue(i);
+            final int x = (int) Math.round(samples.getX(i));
             final int y = Double.isNaN(value) ?  -1  :  clipY(y_axis.getScreenCoord(value));
             if (last_x >= 0)
             {
@@ -38,6 +38,13 @@ public class LinearScreenTransform implements ScreenTransform<Double>
         return a*x + b;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public synchronized double transformDouble(final double x)
+    {
+        return a*x + b;
+    }
+
     /** {@inheritDoc} */
     @Override
     public synchronized Double inverse(final double y)
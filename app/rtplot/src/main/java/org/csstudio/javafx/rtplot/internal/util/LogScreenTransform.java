@@ -42,6 +42,15 @@ public class LogScreenTransform implements ScreenTransform<Double>
         return linear.transform(Log10.log10(x));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public double transformDouble(final double x)
+    {
+        if (x <= 0)
+            return base;
+        return linear.transformDouble(Log10.log10(x));
+    }
+
     /** {@inheritDoc} */
     @Override
     public Double inverse(final double y)
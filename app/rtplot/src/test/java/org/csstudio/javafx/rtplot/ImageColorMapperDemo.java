@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot;
+
+import org.csstudio.javafx.rtplot.internal.ImageColorMapper;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ArrayShort;
+import org.epics.util.array.ListNumber;
+
+/** Frames per second of {@link ImageColorMapper} for common detector sizes
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ImageColorMapperDemo
+{
+    private static final int FRAMES = 50;
+
+    private static void time(final String title, final ListNumber data, final int size, final boolean log)
+    {
+        final ImageColorMapper mapper = new ImageColorMapper();
+        final ColorMappingFunction mapping = NamedColorMappings.getMappings().iterator().next();
+        final int[] pixels = new int[size * size];
+        // Warm up
+        mapper.map(data, true, size, size, 1.0, 65535.0, log, mapping, pixels);
+
+        final long start = System.nanoTime();
+        for (int i=0; i<FRAMES; ++i)
+            mapper.map(data, true, size, size, 1.0, 65535.0, log, mapping, pixels);
+        final double secs = (System.nanoTime() - start) / 1e9;
+        System.out.format("%-25s %4d x %4d%s: %6.1f frames/sec\n",
+                          title, size, size, log ? " (log)" : "", FRAMES / secs);
+    }
+
+    public static void main(String[] args)
+    {
+        for (int size : new int[] { 512, 1024, 2048 })
+        {
+            final short[] shorts = new short[size * size];
+            final double[] doubles = new double[size * size];
+            for (int i=0; i<shorts.length; ++i)
+            {
+                shorts[i] = (short) (Math.random() * 65535);
+                doubles[i] = Short.toUnsignedInt(shorts[i]);
+            }
+            time("16 bit unsigned", ArrayShort.of(shorts), size, false);
+            time("16 bit unsigned", ArrayShort.of(shorts), size, true);
+            time("double", ArrayDouble.of(doubles), size, false);
+            time("double", ArrayDouble.of(doubles), size, true);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.csstudio.javafx.rtplot.internal.ImageColorMapper;
+import org.epics.util.array.ArrayByte;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ArrayFloat;
+import org.epics.util.array.ArrayShort;
+import org.junit.Test;
+
+/** JUnit test of {@link ImageColorMapper}
+ *  @author agent
+ */
+public class ImageColorMapperTest
+{
+    /** 'Color' is percentage of the value range */
+    private static final ColorMappingFunction PERCENT = value -> (int) Math.round(value * 100);
+
+    @Test
+    public void testDouble()
+    {
+        final ImageColorMapper mapper = new ImageColorMapper();
+        final int[] pixels = new int[6];
+        mapper.map(ArrayDouble.of(-1.0, 0.0, 2.5, 5.0, 7.5, 20.0), false,
+                   3, 2, 0.0, 10.0, false, PERCENT, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 0, 25, 50, 75, 100 }));
+
+        mapper.map(ArrayDouble.of(1.0, 10.0, 100.0, 1000.0, 0.1, Double.NaN), false,
+                   3, 2, 1.0, 1000.0, true, PERCENT, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 33, 67, 100, 0, 0 }));
+    }
+
+    @Test
+    public void testShort()
+    {
+        final ImageColorMapper mapper = new ImageColorMapper();
+        final int[] pixels = new int[4];
+        mapper.map(ArrayShort.of((short)-100, (short)0, (short)50, (short)100), false,
+                   2, 2, 0.0, 100.0, false, PERCENT, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 0, 50, 100 }));
+
+        // 0xFFFF is 65535, not -1
+        mapper.map(ArrayShort.of((short)0, (short)0x8000, (short)0xFFFF, (short)0x4000), true,
+                   2, 2, 0.0, 65535.0, false, PERCENT, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 50, 100, 25 }));
+    }
+
+    @Test
+    public void testByte()
+    {
+        final ImageColorMapper mapper = new ImageColorMapper();
+        final int[] pixels = new int[4];
+        mapper.map(ArrayByte.of((byte)-10, (byte)0, (byte)5, (byte)10), false,
+                   4, 1, 0.0, 10.0, false, PERCENT, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 0, 50, 100 }));
+
+        mapper.map(ArrayByte.of((byte)0, (byte)0xFF, (byte)51, (byte)102), true,
+                   4, 1, 0.0, 255.0, false, PERCENT, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 100, 20, 40 }));
+    }
+
+    @Test
+    public void testNaN()
+    {
+        // Use -1 for NaN
+        final ColorMappingFunction mapping = value -> Double.isNaN(value) ? -1 : PERCENT.getRGB(value);
+        final ImageColorMapper mapper = new ImageColorMapper();
+        final int[] pixels = new int[4];
+        mapper.map(ArrayDouble.of(Double.NaN, 0.0, 5.0, 10.0), false,
+                   2, 2, 0.0, 10.0, false, mapping, pixels);
+        assertThat(pixels, equalTo(new int[] { -1, 0, 50, 100 }));
+
+        mapper.map(ArrayFloat.of(0.0f, Float.NaN, 50.0f, 100.0f), false,
+                   2, 2, 0.0, 100.0, false, mapping, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, -1, 50, 100 }));
+    }
+
+    @Test
+    public void testShortColorCache()
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        final ColorMappingFunction mapping = value ->
+        {
+            calls.incrementAndGet();
+            return PERCENT.getRGB(value);
+        };
+        final ImageColorMapper mapper = new ImageColorMapper();
+        final int[] pixels = new int[4];
+        final ArrayShort data = ArrayShort.of((short)0, (short)50, (short)100, (short)200);
+        mapper.map(data, false, 2, 2, 0.0, 100.0, false, mapping, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 50, 100, 100 }));
+        final int table_calls = calls.get();
+
+        // Same mapping and range re-uses the table
+        mapper.map(data, false, 2, 2, 0.0, 100.0, false, mapping, pixels);
+        assertThat(calls.get(), equalTo(table_calls));
+
+        // New range computes a new table
+        mapper.map(data, false, 2, 2, 0.0, 200.0, false, mapping, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 25, 50, 100 }));
+        assertThat(calls.get(), equalTo(2 * table_calls));
+
+        // So does a new mapping
+        mapper.map(data, false, 2, 2, 0.0, 200.0, false, PERCENT, pixels);
+        assertThat(pixels, equalTo(new int[] { 0, 25, 50, 100 }));
+        assertThat(calls.get(), equalTo(2 * table_calls));
+    }
+}
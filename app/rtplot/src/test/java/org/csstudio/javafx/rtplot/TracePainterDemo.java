@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.javafx.rtplot;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.csstudio.javafx.rtplot.data.PlotDataColumns;
+import org.csstudio.javafx.rtplot.data.PlotDataItem;
+import org.csstudio.javafx.rtplot.data.PlotDataProvider;
+import org.csstudio.javafx.rtplot.data.SimpleDataItem;
+import org.csstudio.javafx.rtplot.internal.PlotPart;
+import org.csstudio.javafx.rtplot.internal.PlotPartListener;
+import org.csstudio.javafx.rtplot.internal.TraceImpl;
+import org.csstudio.javafx.rtplot.internal.TracePainter;
+import org.csstudio.javafx.rtplot.internal.YAxisImpl;
+import org.csstudio.javafx.rtplot.internal.util.LinearScreenTransform;
+
+import javafx.scene.paint.Color;
+
+/** Timing of {@link TracePainter} for a trace with many samples
+ *
+ *  <p>Paint time should depend on the plot width,
+ *  not the number of samples.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class TracePainterDemo
+{
+    private static final int SAMPLES = 10000000, WIDTH = 1500, HEIGHT = 600, RUNS = 10;
+
+    /** Samples accessed only via {@link PlotDataItem} */
+    private static class ItemData implements PlotDataProvider<Double>
+    {
+        protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        protected final double[] x = new double[SAMPLES], y = new double[SAMPLES];
+
+        ItemData()
+        {
+            for (int i=0; i<SAMPLES; ++i)
+            {
+                x[i] = i;
+                y[i] = Math.sin(i * 0.001) + 0.1*Math.random();
+            }
+        }
+
+        @Override
+        public Lock getLock()
+        {
+            return lock.readLock();
+        }
+
+        @Override
+        public int size()
+        {
+            return SAMPLES;
+        }
+
+        @Override
+        public PlotDataItem<Double> get(final int index)
+        {
+            return new SimpleDataItem<>(x[index], y[index]);
+        }
+    }
+
+    /** Samples that also allow {@link PlotDataColumns} access */
+    private static class ColumnData extends ItemData implements PlotDataColumns<Double>
+    {
+        @Override
+        public long getChangeCount()
+        {
+            return 0;
+        }
+
+        @Override
+        public double getPositionAsDouble(final int index)
+        {
+            return x[index];
+        }
+
+        @Override
+        public double getValue(final int index)
+        {
+            return y[index];
+        }
+
+        @Override
+        public double getStdDev(final int index)
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        public double getMin(final int index)
+        {
+            return Double.NaN;
+        }
+
+        @Override
+        public double getMax(final int index)
+        {
+            return Double.NaN;
+        }
+    }
+
+    private static void time(final String title, final PlotDataProvider<Double> data)
+    {
+        final PlotPartListener listener = new PlotPartListener()
+        {
+            @Override
+            public void layoutPlotPart(final PlotPart plotPart)
+            {
+            }
+
+            @Override
+            public void refreshPlotPart(final PlotPart plotPart)
+            {
+            }
+        };
+        final YAxisImpl<Double> y_axis = new YAxisImpl<>("Y", listener);
+        y_axis.setBounds(0, 0, 50, HEIGHT);
+        y_axis.setValueRange(-1.5, 1.5);
+
+        final LinearScreenTransform x_transform = new LinearScreenTransform();
+        x_transform.config(0.0, (double) SAMPLES, 0, WIDTH);
+
+        final Trace<Double> trace = new TraceImpl<>("Demo", "", data, Color.BLUE,
+                                                    TraceType.SINGLE_LINE_DIRECT, 1, LineStyle.SOLID,
+                                                    PointType.NONE, 1, 0);
+        final TracePainter<Double> painter = new TracePainter<>();
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        final Rectangle bounds = new Rectangle(0, 0, WIDTH, HEIGHT);
+        for (int run=0; run<RUNS; ++run)
+        {
+            final Graphics2D gc = image.createGraphics();
+            final long start = System.nanoTime();
+            painter.paint(gc, bounds, 50, x_transform, y_axis, trace);
+            final long end = System.nanoTime();
+            gc.dispose();
+            System.out.format("%s, run %d: %.1f ms\n", title, run, (end - start) / 1e6);
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        time("PlotDataItem", new ItemData());
+        time("PlotDataColumns", new ColumnData());
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.phoebus.framework.columnar;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/** Format of columnar archive files
+ *
+ *  <p>Written by the archive engine, read by the Data Browser.
+ *
+ *  <p>Each channel has a directory below the root directory,
+ *  named after the encoded channel name,
+ *  with one partition file 'yyyyMMdd.col' per UTC day.
+ *  A partition file is a sequence of blocks.
+ *  Each block holds samples of one type,
+ *  stored column by column:
+ *
+ *  <pre>
+ *  int    MAGIC
+ *  int    Length of the following block data
+ *  byte   Type: DOUBLE, LONG, ENUM, STRING, DOUBLE_ARRAY
+ *  int    Sample count N
+ *  long   Time of first sample, epoch nanoseconds
+ *  long   Time of last sample, epoch nanoseconds
+ *  Meta data
+ *         DOUBLE, LONG, DOUBLE_ARRAY: byte 0 for none, or byte 1, units, int precision (-1 for none),
+ *                                     low and high of display, alarm, warning, control range
+ *         ENUM: varint label count, labels
+ *  Alarm dictionary
+ *         varint D, D x (byte severity, byte status, name)
+ *  Alarms
+ *         N x varint index into dictionary
+ *  Times
+ *         N-1 x zig-zag varint delta-of-delta in nanoseconds
+ *  Values
+ *         DOUBLE: Gorilla XOR-compressed bit stream of N values
+ *         LONG, ENUM: N x zig-zag varint delta to previous value
+ *         STRING: N x string
+ *         DOUBLE_ARRAY: N x varint element count, then Gorilla bit stream of all elements
+ *
+ *  Strings are written as varint byte count and UTF-8 bytes.
+ *  </pre>
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ColumnarFormat
+{
+    /** URL prefix, followed by the root directory */
+    public static final String PREFIX = "columnar:";
+
+    /** Suffix of partition files */
+    public static final String SUFFIX = ".col";
+
+    /** Start of each block, "COL1" */
+    public static final int MAGIC = 0x434F4C31;
+
+    /** Block types */
+    public static final byte DOUBLE = 0,
+                             LONG = 1,
+                             ENUM = 2,
+                             STRING = 3,
+                             DOUBLE_ARRAY = 4;
+
+    /** Size of MAGIC and length */
+    public static final int HEADER_SIZE = 8;
+
+    /** Size of type, count, first and last time */
+    public static final int INFO_SIZE = 1 + 4 + 8 + 8;
+
+    private ColumnarFormat()
+    {
+        // Static constants and helpers
+    }
+
+    /** @param name Channel name
+     *  @return Directory name for the channel
+     */
+    public static String encodeName(final String name)
+    {
+        String encoded = URLEncoder.encode(name, StandardCharsets.UTF_8).replace("*", "%2A");
+        // Avoid "." and ".."
+        if (encoded.startsWith("."))
+            encoded = "%2E" + encoded.substring(1);
+        return encoded;
+    }
+
+    /** @param stamp Time stamp
+     *  @return Name of the partition file for that time stamp
+     */
+    public static String getPartitionName(final Instant stamp)
+    {
+        return DateTimeFormatter.BASIC_ISO_DATE.format(stamp.atOffset(ZoneOffset.UTC).toLocalDate()) + SUFFIX;
+    }
+
+    /** @param stamp Time stamp
+     *  @return Epoch nanoseconds
+     */
+    public static long toNanos(final Instant stamp)
+    {
+        return stamp.getEpochSecond() * 1000000000L + stamp.getNano();
+    }
+}
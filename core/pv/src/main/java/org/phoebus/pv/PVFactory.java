@@ -7,6 +7,9 @@
  ******************************************************************************/
 package org.phoebus.pv;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /** Factory for creating {@link PV}s
  *
  *  <p>Code that needs to create a {@link PV}
@@ -54,4 +57,33 @@ public interface PVFactory
      *  @throws Exception on error
      */
     public PV createPV(final String name, final String base_name) throws Exception;
+
+    /** Create several PVs
+     *
+     *  <p>Default implementation calls {@link #createPV(String, String)}
+     *  for each PV.
+     *  Factories may override to for example connect all PVs
+     *  with fewer network requests.
+     *
+     *  @param names Full names of the PVs as provided by user
+     *  @param base_names Base names of the PVs, not including the prefix
+     *  @return PVs in the order of the names
+     *  @throws Exception on error, in which case no PV was created
+     */
+    public default List<PV> createPVs(final List<String> names, final List<String> base_names) throws Exception
+    {
+        final List<PV> pvs = new ArrayList<>(names.size());
+        try
+        {
+            for (int i=0; i<names.size(); ++i)
+                pvs.add(createPV(names.get(i), base_names.get(i)));
+        }
+        catch (Exception ex)
+        {
+            for (PV pv : pvs)
+                pv.close();
+            throw ex;
+        }
+        return pvs;
+    }
 }
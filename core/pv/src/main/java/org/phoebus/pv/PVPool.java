@@ -9,12 +9,21 @@ package org.phoebus.pv;
 
 import static org.phoebus.pv.PV.logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 
+import org.phoebus.framework.jobs.NamedThreadFactory;
 import org.phoebus.framework.preferences.PreferencesReader;
 import org.phoebus.pv.RefCountMap.ReferencedEntry;
 import org.phoebus.pv.formula.FormulaPVFactory;
@@ -31,17 +40,22 @@ import org.phoebus.pv.formula.FormulaPVFactory;
  *      with or without prefix.
  *      May also contain parameters: "loc://x(3.14)" or "loc://x(14)".
  *  <li>Name used by the type-dependent implementation: "fred"
- *  <li>
+ *  <li>Canonical name used as the key in the pool: "ca://fred",
+ *      always with prefix, based on the core name of the PV factory,
+ *      so "loc://x(3.14)" becomes "loc://x".
  *  </ul>
  *
- *  <p>The PV and the pool use the name provided by the user,
- *  because that way <code>PV.getName()</code> will always return
- *  the expected name.
- *  On the downside, this could create the same underlying PV twice,
- *  with and without the prefix.
+ *  <p>The pool is keyed on the canonical name,
+ *  so "fred" and "ca://fred" share the same underlying PV
+ *  when "ca" is the default type.
+ *  The PV is created with the name provided by the user
+ *  who first requested it, and <code>PV.getName()</code>
+ *  returns that name also to users who requested it
+ *  with or without the prefix.
  *
- *  <p>Note also that "loc://x(3.14)" and "loc://x(14)" will be treated
- *  as different PVs.
+ *  <p>The canonical name for each user-provided name is cached,
+ *  so that repeated lookups of the same name, for example
+ *  when opening a display again, avoid parsing the name.
  *
  *  @author Kay Kasemir
  */
@@ -87,12 +101,38 @@ public class PVPool
         }
     }
 
-    /** PV Pool
-     *  SYNC on 'pool':
-     *  Otherwise, two threads concurrently looking for a new PV would both add it.
-     */
+    /** PV Pool, keyed on canonical name */
     final private static RefCountMap<String, PV> pool = new RefCountMap<>();
 
+    /** Threads that create PVs of different factories in parallel, see {@link #getPVs(Collection)} */
+    final private static ExecutorService creation_threads = Executors.newCachedThreadPool(new NamedThreadFactory("PVCreation"));
+
+    /** Result of analyzing a user-provided PV name */
+    private static class CanonicalName
+    {
+        /** Factory for the PV type */
+        final PVFactory factory;
+
+        /** Canonical name, key in the pool */
+        final String key;
+
+        /** Base name of the PV, not including the prefix */
+        final String base_name;
+
+        CanonicalName(final PVFactory factory, final String key, final String base_name)
+        {
+            this.factory = factory;
+            this.key = key;
+            this.base_name = base_name;
+        }
+    }
+
+    /** Maximum number of entries in {@link #canonical_names} */
+    private static final int MAX_CANONICAL_NAMES = 100000;
+
+    /** Cache of user-provided PV name to canonical name */
+    final private static ConcurrentHashMap<String, CanonicalName> canonical_names = new ConcurrentHashMap<>();
+
     /** Singleton */
     private PVPool()
     {
@@ -116,6 +156,146 @@ public class PVPool
      */
     public static PV getPV(final String name) throws Exception
     {
+        return getPV(name, getCanonicalName(name));
+    }
+
+    /** Obtain several PVs
+     *
+     *  <p>Like calling {@link #getPV(String)} for each name,
+     *  but PVs of different types are created in parallel,
+     *  and each {@link PVFactory} creates its new PVs as one batch
+     *  via {@link PVFactory#createPVs(List, List)}.
+     *  Either all PVs are obtained, or none.
+     *
+     *  @param names PV names, where prefix might be used to determine the type
+     *  @return {@link PV}s in the order of the names
+     *  @throws Exception on error
+     *  @see #releasePV(PV)
+     */
+    public static List<PV> getPVs(final Collection<String> names) throws Exception
+    {
+        // Resolve all names before creating any PV
+        final List<String> all_names = new ArrayList<>(names);
+        final CanonicalName[] canonical = new CanonicalName[all_names.size()];
+        final Map<PVFactory, List<Integer>> by_factory = new LinkedHashMap<>();
+        for (int i=0; i<canonical.length; ++i)
+        {
+            canonical[i] = getCanonicalName(all_names.get(i));
+            by_factory.computeIfAbsent(canonical[i].factory, f -> new ArrayList<>()).add(i);
+        }
+
+        final PV[] pvs = new PV[canonical.length];
+        final List<CompletableFuture<Void>> creations = new ArrayList<>(by_factory.size());
+        for (Map.Entry<PVFactory, List<Integer>> group : by_factory.entrySet())
+            creations.add(CompletableFuture.runAsync(() ->
+            {
+                final Map<String, PV> created = createPVs(group.getKey(), group.getValue(), all_names, canonical);
+                for (int i : group.getValue())
+                    pvs[i] = getPV(all_names.get(i), canonical[i], created);
+                // Close PVs that were created in parallel by another caller
+                for (Map.Entry<String, PV> unused : created.entrySet())
+                    if (pool.get(unused.getKey()) != unused.getValue())
+                        unused.getValue().close();
+            }, creation_threads));
+
+        try
+        {
+            CompletableFuture.allOf(creations.toArray(new CompletableFuture[creations.size()])).join();
+        }
+        catch (Exception ex)
+        {
+            // Release what was obtained
+            for (PV pv : pvs)
+                if (pv != null)
+                    releasePV(pv);
+            throw new Exception("Cannot obtain PVs", ex.getCause() != null ? ex.getCause() : ex);
+        }
+
+        final List<PV> result = new ArrayList<>(pvs.length);
+        for (PV pv : pvs)
+            result.add(pv);
+        return result;
+    }
+
+    /** Create PVs of one factory that are not yet in the pool
+     *  @param factory {@link PVFactory}
+     *  @param indices Indices of names handled by that factory
+     *  @param names PV names as provided by user
+     *  @param canonical Canonical names for the PV names
+     *  @return Newly created PVs by key, empty if batch creation failed
+     */
+    private static Map<String, PV> createPVs(final PVFactory factory, final List<Integer> indices,
+                                             final List<String> names, final CanonicalName[] canonical)
+    {
+        final Map<String, Integer> missing = new LinkedHashMap<>();
+        for (int i : indices)
+            if (pool.get(canonical[i].key) == null)
+                missing.putIfAbsent(canonical[i].key, i);
+        final Map<String, PV> created = new HashMap<>();
+        if (missing.isEmpty())
+            return created;
+
+        final List<String> create_names = new ArrayList<>(missing.size());
+        final List<String> base_names = new ArrayList<>(missing.size());
+        for (int i : missing.values())
+        {
+            create_names.add(names.get(i));
+            base_names.add(canonical[i].base_name);
+        }
+        try
+        {
+            final List<PV> pvs = factory.createPVs(create_names, base_names);
+            int i = 0;
+            for (String key : missing.keySet())
+                created.put(key, pvs.get(i++));
+        }
+        catch (Exception ex)
+        {
+            // Fall back to creating one PV at a time, which logs each error
+            logger.log(Level.FINE, "Cannot create " + create_names.size() + " " + factory.getType() + " PVs as batch", ex);
+        }
+        return created;
+    }
+
+    /** Obtain a PV
+     *  @param name PV name as provided by user
+     *  @param canonical Canonical name for that PV name
+     *  @return {@link PV}
+     */
+    private static PV getPV(final String name, final CanonicalName canonical)
+    {
+        return getPV(name, canonical, Collections.emptyMap());
+    }
+
+    /** Obtain a PV
+     *  @param name PV name as provided by user
+     *  @param canonical Canonical name for that PV name
+     *  @param created PVs that have already been created, by key.
+     *                 Used PVs are removed from the map.
+     *  @return {@link PV}
+     */
+    private static PV getPV(final String name, final CanonicalName canonical, final Map<String, PV> created)
+    {
+        final ReferencedEntry<PV> ref = pool.createOrGet(canonical.key, () ->
+        {
+            final PV pv = created.isEmpty() ? null : created.remove(canonical.key);
+            return pv != null ? pv : createPV(canonical.factory, name, canonical.base_name);
+        });
+        logger.log(Level.CONFIG, () -> "PV '" + ref.getEntry().getName() + "' references: " + ref.getReferences());
+        return ref.getEntry();
+    }
+
+    /** Get canonical name, using cache
+     *  @param name PV name as provided by user
+     *  @return {@link CanonicalName}
+     *  @throws Exception on error
+     */
+    private static CanonicalName getCanonicalName(final String name) throws Exception
+    {
+        CanonicalName canonical = canonical_names.get(name);
+        if (canonical != null)
+            return canonical;
+
         if (name.isBlank())
             throw new Exception("Empty PV name");
         final String[] prefix_base = analyzeName(name);
@@ -123,10 +303,14 @@ public class PVPool
         if (factory == null)
             throw new Exception(name + " has unknown PV type '" + prefix_base[0] + "'");
 
-        final String core_name = factory.getCoreName(name);
-        final ReferencedEntry<PV> ref = pool.createOrGet(core_name, () -> createPV(factory, name, prefix_base[1]));
-        logger.log(Level.CONFIG, () -> "PV '" + ref.getEntry().getName() + "' references: " + ref.getReferences());
-        return ref.getEntry();
+        final String key = factory.getCoreName(prefix_base[0] + SEPARATOR + prefix_base[1]);
+        canonical = new CanonicalName(factory, key, prefix_base[1]);
+
+        // Limit cache size, simply starting over when full
+        if (canonical_names.size() >= MAX_CANONICAL_NAMES)
+            canonical_names.clear();
+        canonical_names.put(name, canonical);
+        return canonical;
     }
 
     private static PV createPV(PVFactory factory, final String name, final String base_name)
@@ -175,7 +359,17 @@ public class PVPool
     /** @param pv PV to be released */
     public static void releasePV(final PV pv)
     {
-        final int references = pool.release(pv.getName());
+        final String key;
+        try
+        {
+            key = getCanonicalName(pv.getName()).key;
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, "Cannot release PV '" + pv.getName() + "'", ex);
+            return;
+        }
+        final int references = pool.release(key);
         if (references <= 0)
         {
             pv.close();
@@ -188,9 +382,6 @@ public class PVPool
     /** @return PVs currently in the pool with reference count information */
     public static Collection<ReferencedEntry<PV>> getPVReferences()
     {
-        synchronized (pool)
-        {
-            return pool.getEntries();
-        }
+        return pool.getEntries();
     }
 }
@@ -81,9 +81,14 @@ public class RefCountMap<K, E>
     {
         try
         {
-            final ReferencedEntry<E> ref_entry = map.computeIfAbsent(key, k -> new ReferencedEntry<>(creator.get()));
-            ref_entry.addRef();
-            return ref_entry;
+            // Add reference within compute() to be atomic with release()
+            return map.compute(key, (k, ref_entry) ->
+            {
+                if (ref_entry == null)
+                    ref_entry = new ReferencedEntry<>(creator.get());
+                ref_entry.addRef();
+                return ref_entry;
+            });
         }
         catch (Throwable ex)
         {
@@ -92,6 +97,15 @@ public class RefCountMap<K, E>
         }
     }
 
+    /** @param key Item key
+     *  @return Item or <code>null</code> if not in map
+     */
+    public E get(final K key)
+    {
+        final ReferencedEntry<E> ref_entry = map.get(key);
+        return ref_entry == null ? null : ref_entry.getEntry();
+    }
+
     /** Release an item from the map
      *  @param key Key for item to release
      *  @return Remaining reference counts. 0 if item has been removed from map.
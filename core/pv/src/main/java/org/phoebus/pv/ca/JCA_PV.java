@@ -135,7 +135,19 @@ public class JCA_PV extends PV implements ConnectionListener, MonitorListener, A
      *  @param base_name Base name without optional prefix
      *  @throws Exception on error
      */
-    public JCA_PV(final String name, String base_name) throws Exception
+    public JCA_PV(final String name, final String base_name) throws Exception
+    {
+        this(name, base_name, true);
+    }
+
+    /** Initialize
+     *  @param name Full name, may include "ca://"
+     *  @param base_name Base name without optional prefix
+     *  @param flush Flush the channel creation request?
+     *               When creating many PVs, caller can flush once for all of them.
+     *  @throws Exception on error
+     */
+    JCA_PV(final String name, String base_name, final boolean flush) throws Exception
     {
         super(name);
         logger.fine("JCA PV " + base_name);
@@ -146,16 +158,17 @@ public class JCA_PV extends PV implements ConnectionListener, MonitorListener, A
             throw new Exception("Empty PV name '" + name + "'");
         // .RTYP does not provide meta data
         plain_dbr = base_name.endsWith(".RTYP");
-        createChannel(base_name);
+        createChannel(base_name, flush);
     }
 
-    private void createChannel(final String base_name) throws Exception
+    private void createChannel(final String base_name, final boolean flush) throws Exception
     {
         final short priority = is_large_array
                              ? base_priority
                              : (short) (base_priority + 1);
         channel = JCAContext.getInstance().getContext().createChannel(base_name, this, priority);
-        channel.getContext().flushIO();
+        if (flush)
+            channel.getContext().flushIO();
     }
 
     /** JCA connection listener */
@@ -177,7 +190,7 @@ public class JCA_PV extends PV implements ConnectionListener, MonitorListener, A
                 channel = null;
                 try
                 {
-                    createChannel(name);
+                    createChannel(name, true);
                 }
                 catch (Exception ex)
                 {
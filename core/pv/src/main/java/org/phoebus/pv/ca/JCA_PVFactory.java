@@ -7,6 +7,10 @@
  ******************************************************************************/
 package org.phoebus.pv.ca;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.phoebus.pv.PV;
 import org.phoebus.pv.PVFactory;
 
@@ -29,4 +33,24 @@ public class JCA_PVFactory implements PVFactory
     {
         return new JCA_PV(name, base_name);
     }
+
+    @Override
+    public List<PV> createPVs(final List<String> names, final List<String> base_names) throws Exception
+    {
+        // Create all channels, then send their search requests with one flush
+        final List<JCA_PV> pvs = new ArrayList<>(names.size());
+        try
+        {
+            for (int i=0; i<names.size(); ++i)
+                pvs.add(new JCA_PV(names.get(i), base_names.get(i), false));
+        }
+        catch (Exception ex)
+        {
+            for (JCA_PV pv : pvs)
+                pv.close();
+            throw ex;
+        }
+        JCAContext.getInstance().getContext().flushIO();
+        return Collections.unmodifiableList(pvs);
+    }
 }
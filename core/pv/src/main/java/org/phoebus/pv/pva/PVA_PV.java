@@ -14,6 +14,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
+import org.epics.pva.client.ClientChannelListener;
 import org.epics.pva.client.ClientChannelState;
 import org.epics.pva.client.PVAChannel;
 import org.epics.pva.data.PVAStructure;
@@ -26,17 +27,43 @@ import org.phoebus.pv.PV;
 @SuppressWarnings("nls")
 public class PVA_PV extends PV
 {
-    private final PVAChannel channel;
+    private volatile PVAChannel channel;
     final PVNameHelper name_helper;
 
     public PVA_PV(final String name, final String base_name) throws Exception
+    {
+        this(name, base_name, true);
+    }
+
+    /** @param name Full PV name
+     *  @param base_name Base name
+     *  @param connect Create channel? Otherwise caller must
+     *                 create it with {@link #getChannelStateListener()}
+     *                 and {@link #setChannel(PVAChannel)} before
+     *                 the PV is used
+     *  @throws Exception on error
+     */
+    PVA_PV(final String name, final String base_name, final boolean connect) throws Exception
     {
         super(name);
 
         // Analyze base_name, determine channel and request
         name_helper = PVNameHelper.forName(base_name);
         logger.log(Level.FINE, () -> "PVA '" + base_name + "' -> " + name_helper);
-        channel = PVA_Context.getInstance().getClient().getChannel(name_helper.getChannel(), this::channelStateChanged);
+        if (connect)
+            channel = PVA_Context.getInstance().getClient().getChannel(name_helper.getChannel(), this::channelStateChanged);
+    }
+
+    /** @return Listener to use when creating the channel for this PV */
+    ClientChannelListener getChannelStateListener()
+    {
+        return this::channelStateChanged;
+    }
+
+    /** @param channel Channel created for this PV */
+    void setChannel(final PVAChannel channel)
+    {
+        this.channel = channel;
     }
 
     private void channelStateChanged(final PVAChannel channel, final ClientChannelState state)
@@ -7,6 +7,11 @@
  ******************************************************************************/
 package org.phoebus.pv.pva;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.epics.pva.client.ClientChannelListener;
+import org.epics.pva.client.PVAChannel;
 import org.phoebus.pv.PV;
 import org.phoebus.pv.PVFactory;
 
@@ -29,4 +34,25 @@ public class PVA_PVFactory implements PVFactory
     {
         return new PVA_PV(name, base_name);
     }
+
+    @Override
+    public List<PV> createPVs(final List<String> names, final List<String> base_names) throws Exception
+    {
+        final List<PVA_PV> pvs = new ArrayList<>(names.size());
+        final List<String> channel_names = new ArrayList<>(names.size());
+        final List<ClientChannelListener> listeners = new ArrayList<>(names.size());
+        for (int i=0; i<names.size(); ++i)
+        {
+            final PVA_PV pv = new PVA_PV(names.get(i), base_names.get(i), false);
+            pvs.add(pv);
+            channel_names.add(pv.name_helper.getChannel());
+            listeners.add(pv.getChannelStateListener());
+        }
+
+        // Create all channels at once to pack their names into few search requests
+        final List<PVAChannel> channels = PVA_Context.getInstance().getClient().getChannels(channel_names, listeners);
+        for (int i=0; i<pvs.size(); ++i)
+            pvs.get(i).setChannel(channels.get(i));
+        return new ArrayList<>(pvs);
+    }
 }
@@ -7,10 +7,13 @@
  ******************************************************************************/
 package org.phoebus.pv;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.prefs.Preferences;
 
 import org.junit.Test;
@@ -29,6 +32,37 @@ public class PVPoolTest
         assertThat(prefs, hasItem("sim"));
     }
 
+    @Test
+    public void testCanonicalNames() throws Exception
+    {
+        // With the default "ca" type, both names refer to the same PV
+        final PV pv1 = PVPool.getPV("pool_test");
+        final PV pv2 = PVPool.getPV("ca://pool_test");
+        assertThat(pv2, sameInstance(pv1));
+        PVPool.releasePV(pv2);
+        PVPool.releasePV(pv1);
+
+        // Initializer is not part of the canonical name
+        final PV loc1 = PVPool.getPV("loc://pool_test(3.14)");
+        final PV loc2 = PVPool.getPV("loc://pool_test");
+        assertThat(loc2, sameInstance(loc1));
+        PVPool.releasePV(loc2);
+        PVPool.releasePV(loc1);
+    }
+
+    @Test
+    public void testBulk() throws Exception
+    {
+        final List<PV> pvs = PVPool.getPVs(List.of("loc://bulk_a(1)", "sim://ramp", "loc://bulk_b(2)", "loc://bulk_a"));
+        assertThat(pvs.size(), equalTo(4));
+        assertThat(pvs.get(0).getName(), equalTo("loc://bulk_a"));
+        assertThat(pvs.get(1).getName(), equalTo("sim://ramp"));
+        assertThat(pvs.get(2).getName(), equalTo("loc://bulk_b"));
+        assertThat(pvs.get(3), sameInstance(pvs.get(0)));
+        for (PV pv : pvs)
+            PVPool.releasePV(pv);
+    }
+
     @Test
     public void dumpPreferences() throws Exception
     {
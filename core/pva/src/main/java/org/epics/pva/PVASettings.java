@@ -48,6 +48,17 @@ public class PVASettings
     // double[8 million] plus some protocol overhead
     public static int EPICS_PVA_SEND_BUFFER_SIZE = 8001000;
 
+    /** TCP send batch watermark
+     *
+     *  <p>When several messages are queued up for sending,
+     *  they are combined into one write up to about this
+     *  number of bytes.
+     *  Setting this to 0 sends each message with a separate write.
+     *  Limited to the room that the pooled send buffer has
+     *  beyond {@link #EPICS_PVA_SEND_BUFFER_SIZE}.
+     */
+    public static int EPICS_PVA_SEND_BATCH_WATERMARK = 64 * 1024;
+
     /** Initial TCP buffer size for receiving data
      *
      *  <p>Buffer grows when larger packages are received.
@@ -77,6 +88,47 @@ public class PVASettings
      */
     public static int EPICS_CA_CONN_TMO = 30;
 
+    /** Number of TCP selector threads
+     *
+     *  <p>When 0, each TCP connection uses a dedicated receive and send thread.
+     *  When set to a positive number, all TCP connections are instead handled
+     *  by this number of event loop threads, which multiplex the sockets.
+     */
+    public static int EPICS_PVA_TCP_SELECTOR_THREADS = 0;
+
+    /** Send queue size
+     *
+     *  <p>Maximum number of messages queued for one TCP connection.
+     *  When a slow peer lets the queue fill up,
+     *  the {@link #EPICS_PVA_SEND_QUEUE_POLICY} determines
+     *  how to handle further monitor updates.
+     */
+    public static int EPICS_PVA_SEND_QUEUE_SIZE = 10000;
+
+    /** Send queue policy
+     *
+     *  <p>"COALESCE", "DROP_OLDEST" or "DISCONNECT",
+     *  see {@link org.epics.pva.common.SendQueuePolicy}.
+     */
+    public static String EPICS_PVA_SEND_QUEUE_POLICY = "COALESCE";
+
+    /** Decode numeric arrays into pooled buffers
+     *
+     *  <p>When enabled, received numeric arrays are copied into buffers
+     *  from the {@link org.epics.pva.data.BufferPool} instead of newly allocated Java arrays.
+     *  Clients can then access the data via for example
+     *  {@link org.epics.pva.data.PVADoubleArray#getBuffer()}
+     *  and {@link org.epics.pva.data.PVADoubleArray#retain()}
+     *  to reduce garbage collection for large arrays and images.
+     *
+     *  <p>Read once when the settings are loaded.
+     *  Arrays that are in use can thus rely on one mode.
+     */
+    public static final boolean EPICS_PVA_POOLED_ARRAYS = set("EPICS_PVA_POOLED_ARRAYS", false);
+
+    /** Maximum number of bytes kept in the {@link org.epics.pva.data.BufferPool} */
+    public static long EPICS_PVA_BUFFER_POOL_SIZE = 64 * 1024 * 1024;
+
     /** Maximum number of array elements shown when printing data */
     public static int EPICS_PVA_MAX_ARRAY_FORMATTING = 256;
 
@@ -89,6 +141,11 @@ public class PVASettings
         EPICS_CA_CONN_TMO = set("EPICS_CA_CONN_TMO", EPICS_CA_CONN_TMO);
         EPICS_PVA_MAX_ARRAY_FORMATTING = set("EPICS_PVA_MAX_ARRAY_FORMATTING", EPICS_PVA_MAX_ARRAY_FORMATTING);
         EPICS_PVA_SEND_BUFFER_SIZE = set("EPICS_PVA_SEND_BUFFER_SIZE", EPICS_PVA_SEND_BUFFER_SIZE);
+        EPICS_PVA_SEND_BATCH_WATERMARK = set("EPICS_PVA_SEND_BATCH_WATERMARK", EPICS_PVA_SEND_BATCH_WATERMARK);
+        EPICS_PVA_TCP_SELECTOR_THREADS = set("EPICS_PVA_TCP_SELECTOR_THREADS", EPICS_PVA_TCP_SELECTOR_THREADS);
+        EPICS_PVA_SEND_QUEUE_SIZE = set("EPICS_PVA_SEND_QUEUE_SIZE", EPICS_PVA_SEND_QUEUE_SIZE);
+        EPICS_PVA_SEND_QUEUE_POLICY = set("EPICS_PVA_SEND_QUEUE_POLICY", EPICS_PVA_SEND_QUEUE_POLICY);
+        EPICS_PVA_BUFFER_POOL_SIZE = set("EPICS_PVA_BUFFER_POOL_SIZE", EPICS_PVA_BUFFER_POOL_SIZE);
     }
 
     private static String set(final String name, final String default_value)
@@ -119,4 +176,9 @@ public class PVASettings
     {
         return Integer.parseInt(set(name, Integer.toString(default_value)));
     }
+
+    private static long set(final String name, final long default_value)
+    {
+        return Long.parseLong(set(name, Long.toString(default_value)));
+    }
 }
@@ -13,13 +13,17 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -45,15 +49,20 @@ class ChannelSearch
     /** Channel that's being searched */
     private class SearchedChannel
     {
-        final AtomicInteger search_counter;
         final PVAChannel channel;
 
+        /** Search periods between the next and the following search.
+         *  Guarded by 'buckets'
+         */
+        int interval = INITIAL_SEARCH_INTERVAL;
+
+        /** Index of bucket where channel is scheduled, -1 if none.
+         *  Guarded by 'buckets'
+         */
+        int bucket = -1;
+
         SearchedChannel(final PVAChannel channel)
         {
-            // Counter of 0 means the next regular search will increment
-            // to 1 (no search), then 2 (power of two -> search).
-            // So it'll "soon" perform a regular search.
-            this.search_counter = new AtomicInteger(0);
             this.channel = channel;
             // Not starting an _immediate_ search in here because
             // this needs to be added to searched_channels first.
@@ -75,33 +84,60 @@ class ChannelSearch
 
     /** Exponential search intervals
      *
-     *  <p>Search counter for a channel is incremented each SEARCH_PERIOD_MS.
-     *  When counter is a power of 2, search request is sent.
-     *  Counter starts at 1, and first search period increments to 2:
-     *     0 ms increments to 2 -> Search!
-     *   225 ms increments to 3 -> No search
-     *   450 ms increments to 4 -> Search (~0.5 sec after last)
-     *   675 ms increments to 5 -> No search
-     *   900 ms increments to 6 -> No search
-     *  1125 ms increments to 7 -> No search
-     *  1350 ms increments to 8 -> Search (~ 1 sec after last)
+     *  <p>Channels are kept in a ring of buckets, one per SEARCH_PERIOD_MS.
+     *  Each period, all channels in the current bucket are searched,
+     *  packed into as few search requests as possible,
+     *  and then moved to a later bucket, doubling their interval:
+     *
+     *  <pre>
+     *     0 ms Search (~0.5 sec after registration)
+     *   450 ms Search (~0.5 sec after last)
+     *   900 ms Search (~1 sec after last)
+     *  1800 ms Search (~2 sec after last)
      *  ...
+     *  </pre>
      *
      *  <p>So the time between searches is roughly 0.5 seconds,
      *  1 second, 2, 4, 8, 15, 30 seconds.
+     *  Once the interval reaches MAX_SEARCH_INTERVAL periods,
+     *  searches end up being issued roughly every 128*0.225 = 30 seconds.
      *
-     *  <p>Once the search count reaches 256, it's reset to 129.
-     *  This means it then takes 128 periods to again reach 256
-     *  for the next search, so searches end up being issued
-     *  roughly every 128*0.225 = 30 seconds.
+     *  <p>Each period only handles one bucket instead of checking
+     *  every channel, and channels that are searched
+     *  in the same period share search requests.
      */
-    private static final int BOOST_SEARCH_COUNT = 1,
-                             MAX_SEARCH_COUNT = 256,
-                             MAX_SEARCH_RESET = 129;
+    private static final int INITIAL_SEARCH_INTERVAL = 2,
+                             BOOST_SEARCH_DELAY = 1,
+                             MAX_SEARCH_INTERVAL = 128;
+
+    /** Maximum number of channels in one search request, limited by 'short' count */
+    private static final int MAX_CHANNELS_PER_SEARCH = 0xFFFF;
 
     /** Map of searched channels by channel ID */
     private ConcurrentHashMap<Integer, SearchedChannel> searched_channels = new ConcurrentHashMap<>();
 
+    /** Buckets of channels to search, one per search period.
+     *
+     *  <p>Channels that are unregistered or re-scheduled remain in their
+     *  previous bucket until that bucket is handled, where they are then skipped.
+     *
+     *  <p>Also used to synchronize access to current_bucket
+     *  and the schedule of each {@link SearchedChannel}
+     */
+    private final List<Set<SearchedChannel>> buckets = new ArrayList<>(MAX_SEARCH_INTERVAL+1);
+
+    /** Index of bucket handled in the most recent search period */
+    private int current_bucket = 0;
+
+    /** Number of search requests and searched channels sent so far */
+    private final AtomicLong search_requests = new AtomicLong(), channel_searches = new AtomicLong();
+
+    /** Search rates in requests resp. channels per second, updated about once per second */
+    private volatile double search_request_rate = 0.0, channel_search_rate = 0.0;
+
+    /** Time and counts of last search rate update */
+    private long rate_time = System.nanoTime(), rate_requests = 0, rate_channels = 0;
+
     /** Timer used to periodically check channels and issue search requests */
     private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(run ->
     {
@@ -119,6 +155,8 @@ class ChannelSearch
     public ChannelSearch(final ClientUDPHandler udp, final List<InetSocketAddress> search_addresses) throws Exception
     {
         this.udp = udp;
+        for (int i=0; i<=MAX_SEARCH_INTERVAL; ++i)
+            buckets.add(new LinkedHashSet<>());
 
         // Searches sent to broadcast addresses reach every PVA server on that subnet.
         // Searches sent to unicast addresses reach only the PVA server started _last_ on each host.
@@ -160,6 +198,37 @@ class ChannelSearch
         timer.scheduleAtFixedRate(this::runSearches, period, period, TimeUnit.MILLISECONDS);
     }
 
+    /** @return Search requests per second, averaged over about the last second */
+    public double getSearchRequestRate()
+    {
+        return search_request_rate;
+    }
+
+    /** @return Channel searches per second, averaged over about the last second */
+    public double getChannelSearchRate()
+    {
+        return channel_search_rate;
+    }
+
+    /** @return Number of channels that are currently searched */
+    public int getSearchedChannelCount()
+    {
+        return searched_channels.size();
+    }
+
+    /** Schedule search
+     *
+     *  <p>Caller must synchronize on buckets.
+     *
+     *  @param searched Channel to search
+     *  @param delay Number of search periods until the search, 1 to MAX_SEARCH_INTERVAL
+     */
+    private void schedule(final SearchedChannel searched, final int delay)
+    {
+        searched.bucket = (current_bucket + delay) % buckets.size();
+        buckets.get(searched.bucket).add(searched);
+    }
+
     /** @param channel Channel that should be searched
      *  @param now Start searching as soon as possible, or delay?
      */
@@ -167,12 +236,40 @@ class ChannelSearch
     {
         logger.log(Level.FINE, () -> "Register search for " + channel.getName() + " " + channel.getCID());
         channel.setState(ClientChannelState.SEARCHING);
-        searched_channels.computeIfAbsent(channel.getCID(), id -> new SearchedChannel(channel));
+        add(channel);
         // Issue immediate search request?
         if (now)
             search(channel);
     }
 
+    /** @param channels Channels that should be searched
+     *  @param now Start searching as soon as possible, or delay?
+     */
+    public void register(final Collection<PVAChannel> channels, final boolean now)
+    {
+        for (PVAChannel channel : channels)
+        {
+            logger.log(Level.FINE, () -> "Register search for " + channel.getName() + " " + channel.getCID());
+            channel.setState(ClientChannelState.SEARCHING);
+            add(channel);
+        }
+        if (now)
+            search(channels);
+    }
+
+    /** Add channel to searched channels and schedule a regular search "soon"
+     *  @param channel Channel that should be searched
+     */
+    private void add(final PVAChannel channel)
+    {
+        final SearchedChannel searched = new SearchedChannel(channel);
+        if (searched_channels.putIfAbsent(channel.getCID(), searched) == null)
+            synchronized (buckets)
+            {
+                schedule(searched, INITIAL_SEARCH_INTERVAL);
+            }
+    }
+
     /** Stop searching for channel
      *  @param channel_id
      *  @return {@link PVAChannel}, <code>null</code> when channel wasn't searched any more
@@ -194,36 +291,66 @@ class ChannelSearch
      */
     public void boost()
     {
-        for (SearchedChannel searched : searched_channels.values())
+        logger.log(Level.FINE, () -> "Restart search for " + searched_channels.size() + " channels");
+        synchronized (buckets)
         {
-            logger.log(Level.FINE, () -> "Restart search for " + searched.channel.getName());
-            searched.search_counter.set(BOOST_SEARCH_COUNT);
-            // Not sending search right now:
-            //   search(channel);
-            // Instead, scheduling it to be searched again real soon for a few times.
-            // We tend to receive multiple copies of the same beacon via various network
-            // interfaces, so by scheduling a search real soon it happens once,
-            // not for every duplicate of the same beacon
+            for (SearchedChannel searched : searched_channels.values())
+            {
+                // Not sending search right now:
+                //   search(channel);
+                // Instead, scheduling it to be searched again real soon for a few times.
+                // We tend to receive multiple copies of the same beacon via various network
+                // interfaces, so by scheduling a search real soon it happens once,
+                // not for every duplicate of the same beacon
+                searched.interval = INITIAL_SEARCH_INTERVAL;
+                schedule(searched, BOOST_SEARCH_DELAY);
+            }
         }
     }
 
-    private static boolean isPowerOfTwo(final int x)
-    {
-        return x > 0  &&  (x & (x - 1)) == 0;
-    }
-
-    /** Invoked by timer: Check searched channels for the next one to handle */
+    /** Invoked by timer: Search channels in the next bucket */
     private void runSearches()
     {
-        for (SearchedChannel searched : searched_channels.values())
+        final List<PVAChannel> to_search = new ArrayList<>();
+        synchronized (buckets)
         {
-            final int counter = searched.search_counter.updateAndGet(val -> val >= MAX_SEARCH_COUNT ? MAX_SEARCH_RESET : val+1);
-            if (isPowerOfTwo(counter))
+            current_bucket = (current_bucket + 1) % buckets.size();
+            final Set<SearchedChannel> bucket = buckets.get(current_bucket);
+            for (SearchedChannel searched : bucket)
             {
-                logger.log(Level.FINE, () -> "Searching... " + searched.channel);
-                search(searched.channel);
+                // Skip channels that have been re-scheduled or unregistered
+                if (searched.bucket != current_bucket  ||
+                    searched_channels.get(searched.channel.getCID()) != searched)
+                    continue;
+                to_search.add(searched.channel);
+                schedule(searched, searched.interval);
+                searched.interval = Math.min(2 * searched.interval, MAX_SEARCH_INTERVAL);
             }
+            bucket.clear();
         }
+
+        if (! to_search.isEmpty())
+        {
+            logger.log(Level.FINE, () -> "Searching " + to_search.size() + " channels");
+            search(to_search);
+        }
+
+        updateSearchRates();
+    }
+
+    /** Update search rates about once per second */
+    private void updateSearchRates()
+    {
+        final long now = System.nanoTime();
+        final double seconds = (now - rate_time) / 1e9;
+        if (seconds < 1.0)
+            return;
+        final long requests = search_requests.get(), channels = channel_searches.get();
+        search_request_rate = (requests - rate_requests) / seconds;
+        channel_search_rate = (channels - rate_channels) / seconds;
+        rate_time = now;
+        rate_requests = requests;
+        rate_channels = channels;
     }
 
     /** Issue a PVA server list request */
@@ -234,6 +361,7 @@ class ChannelSearch
         // Lock the send buffer to avoid concurrent use.
         synchronized (send_buffer)
         {
+            send_buffer.clear();
             final int payload_start = send_buffer.position() + PVAHeader.HEADER_SIZE;
             SearchRequest.encode(true, 0, -1, null, udp.getResponseAddress(), send_buffer);
             send_buffer.flip();
@@ -247,18 +375,64 @@ class ChannelSearch
      */
     private void search(final PVAChannel channel)
     {
+        search(List.of(channel));
+    }
+
+    /** Issue search for channels
+     *
+     *  <p>Packs as many channels as fit into each search request.
+     *
+     *  @param channels Channels to search
+     */
+    private void search(final Collection<PVAChannel> channels)
+    {
+        final List<PVAChannel> batch = new ArrayList<>();
+        int size = SearchRequest.EMPTY_SIZE;
+        for (PVAChannel channel : channels)
+        {
+            final int channel_size = SearchRequest.getChannelSize(channel.getName());
+            if (! batch.isEmpty()  &&
+                (size + channel_size > PVASettings.MAX_UDP_UNFRAGMENTED_SEND  ||  batch.size() >= MAX_CHANNELS_PER_SEARCH))
+            {
+                searchBatch(batch);
+                batch.clear();
+                size = SearchRequest.EMPTY_SIZE;
+            }
+            batch.add(channel);
+            size += channel_size;
+        }
+        if (! batch.isEmpty())
+            searchBatch(batch);
+    }
+
+    /** Issue one search request
+     *  @param batch Channels to search, must fit into one search request
+     */
+    private void searchBatch(final List<PVAChannel> batch)
+    {
+        final int[] cid = new int[batch.size()];
+        final String[] name = new String[cid.length];
+        for (int i=0; i<cid.length; ++i)
+        {
+            cid[i] = batch.get(i).getCID();
+            name[i] = batch.get(i).getName();
+        }
+
         // Search is invoked for new SearchedChannel(channel, now)
         // as well as by regular, timed search.
         // Lock the send buffer to avoid concurrent use.
         synchronized (send_buffer)
         {
+            send_buffer.clear();
             final int payload_start = send_buffer.position() + PVAHeader.HEADER_SIZE;
             final int seq = search_sequence.incrementAndGet();
-            SearchRequest.encode(true, seq, channel.getCID(), channel.getName(), udp.getResponseAddress(), send_buffer);
+            SearchRequest.encode(true, seq, cid, name, udp.getResponseAddress(), send_buffer);
             send_buffer.flip();
-            logger.log(Level.FINE, "Search Request #" + seq + " for " + channel);
+            logger.log(Level.FINE, () -> "Search Request #" + seq + " for " + (cid.length == 1 ? batch.get(0) : cid.length + " channels"));
             sendSearch(payload_start);
         }
+        search_requests.incrementAndGet();
+        channel_searches.addAndGet(cid.length);
     }
 
     /** Send a 'list' or channel search out via UDP */
@@ -299,6 +473,11 @@ class ChannelSearch
     public void close()
     {
         searched_channels.clear();
+        synchronized (buckets)
+        {
+            for (Set<SearchedChannel> bucket : buckets)
+                bucket.clear();
+        }
 
         timer.shutdown();
     }
@@ -113,6 +113,7 @@ class ClientTCPHandler extends TCPHandler
         last_life_sign = last_message_sent = System.currentTimeMillis();
         final long period = Math.max(1, PVASettings.EPICS_CA_CONN_TMO * 1000L / 30 * 3);
         alive_check = timer.scheduleWithFixedDelay(this::checkResponsiveness, period, period, TimeUnit.MILLISECONDS);
+        startReceiver();
         // Don't start the send thread, yet.
         // To prevent sending messages before the server is ready,
         // it's started when server confirms the connection.
@@ -187,11 +188,10 @@ class ClientTCPHandler extends TCPHandler
     }
 
     @Override
-    protected void send(ByteBuffer buffer) throws Exception
+    protected void onDataSent()
     {
         // Remember when we last sent a message to the server
         last_message_sent = System.currentTimeMillis();
-        super.send(buffer);
     }
 
     ResponseHandler getResponseHandler(final int request_id)
@@ -320,6 +320,7 @@ class ClientTCPHandler extends TCPHandler
         // Reply to Connection Validation request.
         logger.log(Level.FINE, () -> "Sending connection validation response, auth = " + auth);
         // Since send thread is not running, yet, send directly
+        send_buffer.clear();
         PVAHeader.encodeMessageHeader(send_buffer, PVAHeader.FLAG_NONE, PVAHeader.CMD_CONNECTION_VALIDATION, 4+2+2+1);
         final int start = send_buffer.position();
 
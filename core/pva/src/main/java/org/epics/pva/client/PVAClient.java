@@ -10,7 +10,9 @@ package org.epics.pva.client;
 import static org.epics.pva.PVASettings.logger;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +54,9 @@ public class PVAClient implements AutoCloseable
     /** Channels by client ID */
     private final ConcurrentHashMap<Integer, PVAChannel> channels_by_id = new ConcurrentHashMap<>();
 
+    /** GUID last seen in beacon or search reply from each server address */
+    private final ConcurrentHashMap<InetSocketAddress, Guid> server_guids = new ConcurrentHashMap<>();
+
     /** TCP handlers by server address */
     private final ConcurrentHashMap<InetSocketAddress, ClientTCPHandler> tcp_handlers = new ConcurrentHashMap<>();
 
@@ -84,6 +89,27 @@ public class PVAClient implements AutoCloseable
         search.start();
     }
 
+    /** @return Search requests per second, averaged over about the last second */
+    public double getSearchRequestRate()
+    {
+        return search.getSearchRequestRate();
+    }
+
+    /** @return Channel searches per second, averaged over about the last second.
+     *          Can be larger than the search request rate since
+     *          each request may search for several channels.
+     */
+    public double getChannelSearchRate()
+    {
+        return search.getChannelSearchRate();
+    }
+
+    /** @return Number of channels that are currently searched */
+    public int getSearchedChannelCount()
+    {
+        return search.getSearchedChannelCount();
+    }
+
     /** List PVA servers
      *  @param unit How long...
      *  @param duration ... to await replies
@@ -140,6 +166,54 @@ public class PVAClient implements AutoCloseable
         return channel;
     }
 
+    /** Create channels by name
+     *
+     *  <p>Starts search, packing many names into each search request.
+     *
+     *  @param channel_names PVA channel names
+     *  @return {@link PVAChannel}s in the order of the names
+     */
+    public List<PVAChannel> getChannels(final Collection<String> channel_names)
+    {
+        return getChannels(channel_names, DEFAULT_CHANNEL_LISTENER);
+    }
+
+    /** Create channels by name
+     *
+     *  <p>Starts search, packing many names into each search request.
+     *
+     *  @param channel_names PVA channel names
+     *  @param listener {@link ClientChannelListener} that will be invoked with connection state updates
+     *  @return {@link PVAChannel}s in the order of the names
+     */
+    public List<PVAChannel> getChannels(final Collection<String> channel_names, final ClientChannelListener listener)
+    {
+        return getChannels(new ArrayList<>(channel_names), Collections.nCopies(channel_names.size(), listener));
+    }
+
+    /** Create channels by name
+     *
+     *  <p>Starts search, packing many names into each search request.
+     *
+     *  @param channel_names PVA channel names
+     *  @param listeners {@link ClientChannelListener} for each channel
+     *  @return {@link PVAChannel}s in the order of the names
+     */
+    public List<PVAChannel> getChannels(final List<String> channel_names, final List<ClientChannelListener> listeners)
+    {
+        if (channel_names.size() != listeners.size())
+            throw new IllegalArgumentException("Got " + channel_names.size() + " names but " + listeners.size() + " listeners");
+        final List<PVAChannel> channels = new ArrayList<>(channel_names.size());
+        for (int i=0; i<channel_names.size(); ++i)
+        {
+            final PVAChannel channel = new PVAChannel(this, channel_names.get(i), listeners.get(i));
+            channels_by_id.putIfAbsent(channel.getCID(), channel);
+            channels.add(channel);
+        }
+        search.register(channels, true);
+        return channels;
+    }
+
     /** Get channel by client ID
      *  @param cid Channel ID, using client's ID
      *  @return {@link PVAChannel}, may be <code>null</code>
@@ -171,9 +245,16 @@ public class PVAClient implements AutoCloseable
 
     private void handleBeacon(final InetSocketAddress server, final Guid guid, final int changes)
     {
+        final Guid previous = server_guids.put(server, guid);
         final ClientTCPHandler tcp = tcp_handlers.get(server);
         if (tcp == null)
+        {
+            // Servers that we're not connected to keep sending beacons.
+            // Only a new or restarted server might have a missing channel
+            if (guid.equals(previous))
+                return;
             logger.log(Level.FINER, () -> "Beacon from new server " + server);
+        }
         else
         {
             if (tcp.checkBeaconChanges(changes))
@@ -239,6 +320,13 @@ public class PVAClient implements AutoCloseable
         // tcp will be null
         if (tcp != null)
             channel.registerWithServer(tcp);
+
+        // A new or restarted server might host more of the missing channels
+        if (! guid.equals(server_guids.put(server, guid)))
+        {
+            logger.log(Level.FINER, () -> "Search reply from new server " + server + " " + guid);
+            search.boost();
+        }
     }
 
     /** Called by {@link ClientTCPHandler} when connection is lost or closed because unused
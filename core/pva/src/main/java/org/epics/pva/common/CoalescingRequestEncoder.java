@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.common;
+
+/** Request that may be deferred or dropped when the send queue is full
+ *
+ *  <p>Implemented by value updates which merge later changes
+ *  into the pending request.
+ *  Deferring such a request thus coalesces updates,
+ *  and dropping it leaves the changes for the next update.
+ *
+ *  @see SendQueuePolicy
+ *  @author agent
+ */
+public interface CoalescingRequestEncoder extends RequestEncoder
+{
+    /** Called when the request was removed from the send queue without being sent */
+    public void dropped();
+}
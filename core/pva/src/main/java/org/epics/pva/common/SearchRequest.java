@@ -124,7 +124,45 @@ public class SearchRequest
         return search;
     }
 
+    /** Encode search request for one channel
+     *
+     *  @param unicast Is the request sent as unicast?
+     *  @param seq Search sequence
+     *  @param cid Channel ID, or -1 for 'list servers' request
+     *  @param name Channel name, ignored for 'list servers' request
+     *  @param address Address where client expects search replies
+     *  @param buffer Buffer into which to encode the request
+     */
     public static void encode(final boolean unicast, final int seq, final int cid, final String name, final InetSocketAddress address, final ByteBuffer buffer)
+    {
+        if (cid < 0)
+            encode(unicast, seq, null, null, address, buffer);
+        else
+            encode(unicast, seq, new int[] { cid }, new String[] { name }, address, buffer);
+    }
+
+    /** Size of a search request without channels */
+    public static final int EMPTY_SIZE = PVAHeader.HEADER_SIZE + 4 + 1 + 3 + 16 + 2 + 1 + PVAString.getEncodedSize("tcp") + 2;
+
+    /** @param name Channel name
+     *  @return Number of bytes that one channel adds to a search request
+     */
+    public static int getChannelSize(final String name)
+    {
+        return 4 + PVAString.getEncodedSize(name);
+    }
+
+    /** Encode search request for several channels
+     *
+     *  @param unicast Is the request sent as unicast?
+     *  @param seq Search sequence
+     *  @param cid Channel IDs, or <code>null</code> for 'list servers' request
+     *  @param name Channel names
+     *  @param address Address where client expects search replies
+     *  @param buffer Buffer into which to encode the request
+     *  @see #getChannelSize(String)
+     */
+    public static void encode(final boolean unicast, final int seq, final int[] cid, final String[] name, final InetSocketAddress address, final ByteBuffer buffer)
     {
         // Create with zero payload size, to be patched later
         PVAHeader.encodeMessageHeader(buffer, PVAHeader.FLAG_NONE, PVAHeader.CMD_SEARCH, 0);
@@ -139,7 +177,7 @@ public class SearchRequest
         // Mark search message as unicast so that receiver will forward
         // it via local broadcast to other local listeners.
         // 0-bit for replyRequired, 7-th bit for "sent as unicast" (1)/"sent as broadcast/multicast" (0)
-        buffer.put((byte) ((unicast ? 0x80 : 0x00) | (cid < 0 ? 0x01 : 0x00)));
+        buffer.put((byte) ((unicast ? 0x80 : 0x00) | (cid == null ? 0x01 : 0x00)));
 
         // reserved
         buffer.put((byte) 0);
@@ -154,7 +192,7 @@ public class SearchRequest
 
         // string[] protocols with count as byte since < 254
         // struct { int searchInstanceID, string channelName } channels[] with count as short?!
-        if (cid < 0)
+        if (cid == null)
         {
             buffer.put((byte)0);
             buffer.putShort((short)0);
@@ -164,9 +202,12 @@ public class SearchRequest
             buffer.put((byte)1);
             PVAString.encodeString("tcp", buffer);
 
-            buffer.putShort((short)1);
-            buffer.putInt(cid);
-            PVAString.encodeString(name, buffer);
+            buffer.putShort((short)cid.length);
+            for (int i=0; i<cid.length; ++i)
+            {
+                buffer.putInt(cid[i]);
+                PVAString.encodeString(name[i], buffer);
+            }
         }
 
         // Update payload size
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.common;
+
+import org.epics.pva.PVASettings;
+
+/** What to do when the send queue of a {@link TCPHandler} is full
+ *
+ *  <p>The send queue holds up to {@link PVASettings#EPICS_PVA_SEND_QUEUE_SIZE} items.
+ *  Policies only affect {@link CoalescingRequestEncoder}s like monitor updates.
+ *  Other requests are always queued, since dropping them would
+ *  break the protocol.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public enum SendQueuePolicy
+{
+    /** Hold monitor updates back until the queue has room again.
+     *  Meanwhile, further updates are merged into the held-back ones.
+     */
+    COALESCE,
+
+    /** Drop the oldest queued monitor update.
+     *  Its changes will be sent with the next update of that monitor.
+     */
+    DROP_OLDEST,
+
+    /** Disconnect the peer */
+    DISCONNECT;
+
+    /** @param name Policy name, case-insensitive
+     *  @return {@link SendQueuePolicy}, defaulting to {@link #COALESCE} for unknown names
+     */
+    public static SendQueuePolicy fromString(final String name)
+    {
+        for (SendQueuePolicy policy : values())
+            if (policy.name().equalsIgnoreCase(name.trim()))
+                return policy;
+        PVASettings.logger.warning("Unknown send queue policy '" + name + "', using " + COALESCE);
+        return COALESCE;
+    }
+}
@@ -12,16 +12,23 @@ import static org.epics.pva.PVASettings.logger;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.epics.pva.PVASettings;
+import org.epics.pva.data.BufferPool;
 import org.epics.pva.data.Hexdump;
 import org.epics.pva.data.PVAStatus;
 import org.epics.pva.data.PVAString;
@@ -34,6 +41,18 @@ import org.epics.pva.data.PVAString;
  *
  *  <p>Maintains send queue.
  *
+ *  <p>By default, each connection uses a receive and a send thread.
+ *  When {@link PVASettings#EPICS_PVA_TCP_SELECTOR_THREADS} is set,
+ *  connections are instead handled by the shared event loop threads
+ *  of the {@link TCPSelector}.
+ *  Received messages are then handled off the event loop,
+ *  one at a time and in order for each connection,
+ *  so that listeners invoked by message handlers may block.
+ *
+ *  <p>The send queue is bounded by {@link PVASettings#EPICS_PVA_SEND_QUEUE_SIZE}.
+ *  When it fills up, the {@link SendQueuePolicy} determines
+ *  what happens to further {@link CoalescingRequestEncoder}s.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -63,8 +82,12 @@ abstract public class TCPHandler
     /** Flag to indicate that 'close' was called to close the 'socket' */
     protected volatile boolean running = true;
 
-    /** Buffer used to receive data via {@link TCPHandler#receive_thread} */
-    protected ByteBuffer receive_buffer = ByteBuffer.allocate(PVASettings.EPICS_PVA_RECEIVE_BUFFER_SIZE);
+    /** Buffer used to receive data via {@link TCPHandler#receive_thread}
+     *
+     *  <p>Direct buffer from the {@link BufferPool},
+     *  so socket reads don't need an intermediate copy.
+     */
+    protected ByteBuffer receive_buffer = BufferPool.acquire(PVASettings.EPICS_PVA_RECEIVE_BUFFER_SIZE);
 
     /** Buffer for assembling parts of segmented message
      *
@@ -72,12 +95,53 @@ abstract public class TCPHandler
      */
     private ByteBuffer segments = null;
 
-    /** Buffer used to send data via {@link TCPHandler#send_thread} */
-    protected final ByteBuffer send_buffer = ByteBuffer.allocate(PVASettings.EPICS_PVA_SEND_BUFFER_SIZE);
+    /** Tasks to run off the event loop thread, see {@link #dispatch(Runnable)} */
+    private final ConcurrentLinkedQueue<Runnable> dispatch_tasks = new ConcurrentLinkedQueue<>();
+
+    /** Is a thread handling the {@link #dispatch_tasks}? */
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    /** Data to write before the sender is started, see {@link #send(ByteBuffer)} */
+    private final ConcurrentLinkedQueue<ByteBuffer> direct_sends = new ConcurrentLinkedQueue<>();
+
+    /** Buffer used to send data via {@link TCPHandler#send_thread}
+     *
+     *  <p>Direct buffer from the {@link BufferPool}
+     *  for {@link PVASettings#EPICS_PVA_SEND_BUFFER_SIZE}.
+     *  The pool rounds up to a power of two, and the extra room
+     *  is used for batching messages, see {@link #batch_watermark}.
+     */
+    protected final ByteBuffer send_buffer = BufferPool.acquire(PVASettings.EPICS_PVA_SEND_BUFFER_SIZE);
+
+    /** Send batch watermark
+     *
+     *  <p>{@link PVASettings#EPICS_PVA_SEND_BATCH_WATERMARK},
+     *  limited so that a maximum size message that is added to a batch
+     *  just below the watermark still fits into the send buffer.
+     */
+    private final int batch_watermark = Math.min(PVASettings.EPICS_PVA_SEND_BATCH_WATERMARK,
+                                                 send_buffer.capacity() - PVASettings.EPICS_PVA_SEND_BUFFER_SIZE);
+
+    /** Have buffers been returned to the {@link BufferPool}? */
+    private final AtomicBoolean buffers_released = new AtomicBoolean();
 
     /** Queue of items to send to peer */
     private final BlockingQueue<RequestEncoder> send_items = new LinkedBlockingQueue<>();
 
+    /** Policy for handling a full send queue */
+    private volatile SendQueuePolicy send_queue_policy = SendQueuePolicy.fromString(PVASettings.EPICS_PVA_SEND_QUEUE_POLICY);
+
+    /** Items held back while the send queue is full, see {@link SendQueuePolicy#COALESCE} */
+    private final ConcurrentLinkedQueue<RequestEncoder> deferred_items = new ConcurrentLinkedQueue<>();
+
+    /** Has connection been closed because the send queue was full? */
+    private final AtomicBoolean overflow_disconnect = new AtomicBoolean();
+
+    /** Send queue statistics */
+    private final AtomicInteger max_queue_depth = new AtomicInteger();
+    private final AtomicLong deferred_count = new AtomicLong(),
+                             dropped_count = new AtomicLong();
+
     /** Magic `send_items` value that asks send thread to exit */
     private static final RequestEncoder END_REQUEST = new RequestEncoder()
     {
@@ -88,6 +152,17 @@ abstract public class TCPHandler
         }
     };
 
+    /** Has sender reached the {@link #END_REQUEST}?
+     *
+     *  <p>Only accessed by the sender
+     */
+    private boolean end_of_queue = false;
+
+    /** Send statistics */
+    private final AtomicLong send_flushes = new AtomicLong(),
+                             sent_messages = new AtomicLong(),
+                             sent_bytes = new AtomicLong();
+
     /** Pool for sender and receiver threads */
     private static final ExecutorService thread_pool = Executors.newCachedThreadPool(runnable ->
     {
@@ -96,29 +171,71 @@ abstract public class TCPHandler
         return thread;
     });
 
-    /** Thread that runs {@link TCPHandler#receiver()} */
-    private final Future<Void> receive_thread;
+    /** Thread that runs {@link TCPHandler#receiver()}
+     *
+     *  <p>When using the selector, completed when
+     *  the socket is no longer read.
+     */
+    private volatile Future<Void> receive_thread;
 
-    /** Thread that runs {@link TCPHandler#sender()} */
+    /** Thread that runs {@link TCPHandler#sender()}
+     *
+     *  <p>When using the selector, completed when
+     *  the send queue has been drained up to the {@link #END_REQUEST}.
+     */
     private volatile Future<Void> send_thread;
 
-    /** Start receiving messages
+    /** Event loop that handles this connection, <code>null</code> when using threads */
+    private final TCPSelector.EventLoop event_loop;
+
+    /** Selection key of the socket, set once registered with the event loop */
+    private volatile SelectionKey selection_key = null;
+
+    /** Has event loop been asked to write queued items? */
+    private final AtomicBoolean send_scheduled = new AtomicBoolean();
+
+    /** Create TCP handler
      *
      *  <p>Will accept messages to be sent,
      *  but will only start sending them when the
-     *  send thread is running
+     *  send thread is running.
+     *  Derived class must start the receiver
+     *  once it is fully constructed.
      *
      *  @param socket Socket to read/write
      *  @param client_mode Is this the client, expecting to receive messages from server?
+     *  @throws Exception on error
+     *  @see #startReceiver()
      *  @see #startSender()
      */
-    public TCPHandler(final SocketChannel socket, final boolean client_mode)
+    public TCPHandler(final SocketChannel socket, final boolean client_mode) throws Exception
     {
         this.socket = socket;
         this.client_mode = client_mode;
+        if (PVASettings.EPICS_PVA_TCP_SELECTOR_THREADS > 0)
+            event_loop = TCPSelector.getInstance().nextLoop();
+        else
+            event_loop = null;
+    }
 
-        // Start receiving data
-        receive_thread = thread_pool.submit(this::receiver);
+    /** Start receiving messages
+     *
+     *  <p>Must be called once the derived class is fully constructed,
+     *  since received messages are then dispatched to it.
+     *
+     *  @throws Exception on error
+     */
+    protected void startReceiver() throws Exception
+    {
+        if (receive_thread != null)
+            throw new Exception("Receiver already running");
+        if (event_loop != null)
+        {
+            receive_thread = new CompletableFuture<>();
+            event_loop.register(this, socket);
+        }
+        else
+            receive_thread = thread_pool.submit(this::receiver);
     }
 
     /** Start send thread
@@ -130,10 +247,17 @@ abstract public class TCPHandler
      */
     protected void startSender() throws Exception
     {
-        if (send_thread == null)
+        if (send_thread != null)
+            throw new Exception("Send thread already running");
+        if (event_loop == null)
             send_thread = thread_pool.submit(this::sender);
         else
-            throw new Exception("Send thread already running");
+        {
+            // Event loop treats remaining bytes in send_buffer as pending data
+            send_buffer.clear().limit(0);
+            send_thread = new CompletableFuture<>();
+            scheduleSend();
+        }
     }
 
     /** @return Remote address of this end of the TCP socket */
@@ -148,17 +272,134 @@ abstract public class TCPHandler
         return send_items.isEmpty();
     }
 
+    /** @param policy Policy for handling a full send queue */
+    public void setSendQueuePolicy(final SendQueuePolicy policy)
+    {
+        send_queue_policy = policy;
+    }
+
+    /** @return Policy for handling a full send queue */
+    public SendQueuePolicy getSendQueuePolicy()
+    {
+        return send_queue_policy;
+    }
+
     /** Submit item to be sent to peer
+     *
+     *  <p>When the send queue is full, {@link CoalescingRequestEncoder}s
+     *  are handled according to the {@link SendQueuePolicy}.
+     *  Other items are always queued.
+     *
      *  @param item {@link RequestEncoder}
      *  @return <code>true</code> on success,
-     *          <code>false</code> if send queue is full
+     *          <code>false</code> if connection was closed because send queue is full
      */
     public boolean submit(final RequestEncoder item)
     {
-        if (send_items.offer(item))
-            return true;
-        logger.log(Level.WARNING, this + " send queue full");
-        return false;
+        if (item != END_REQUEST)
+        {
+            if (overflow_disconnect.get())
+                return false;
+            if (item instanceof CoalescingRequestEncoder)
+            {
+                if (isSendQueueFull())
+                {
+                    switch (send_queue_policy)
+                    {
+                    case DISCONNECT:
+                        disconnectSlowPeer();
+                        return false;
+                    case DROP_OLDEST:
+                        dropOldest();
+                        break;
+                    case COALESCE:
+                    default:
+                        defer(item);
+                        return true;
+                    }
+                }
+                else if (! deferred_items.isEmpty())
+                {   // Keep order of items already held back
+                    defer(item);
+                    return true;
+                }
+            }
+        }
+
+        send_items.offer(item);
+        max_queue_depth.accumulateAndGet(send_items.size(), Math::max);
+        if (event_loop != null  &&  send_thread != null)
+            scheduleSend();
+        return true;
+    }
+
+    /** @return Has send queue reached {@link PVASettings#EPICS_PVA_SEND_QUEUE_SIZE}? */
+    private boolean isSendQueueFull()
+    {
+        return send_items.size() >= Math.max(1, PVASettings.EPICS_PVA_SEND_QUEUE_SIZE);
+    }
+
+    /** Hold item back until send queue has room
+     *  @param item {@link CoalescingRequestEncoder}
+     */
+    private void defer(final RequestEncoder item)
+    {
+        deferred_items.add(item);
+        deferred_count.incrementAndGet();
+        // Sender might have emptied the queue meanwhile
+        moveDeferredItems();
+    }
+
+    /** Move deferred items into the send queue while it has room */
+    private void moveDeferredItems()
+    {
+        boolean moved = false;
+        while (! isSendQueueFull())
+        {
+            final RequestEncoder item = deferred_items.poll();
+            if (item == null)
+                break;
+            send_items.offer(item);
+            moved = true;
+        }
+        if (moved  &&  event_loop != null  &&  send_thread != null)
+            scheduleSend();
+    }
+
+    /** Remove the oldest {@link CoalescingRequestEncoder} from the send queue */
+    private void dropOldest()
+    {
+        for (RequestEncoder queued : send_items)
+            if (queued instanceof CoalescingRequestEncoder  &&  send_items.remove(queued))
+            {
+                dropped_count.incrementAndGet();
+                ((CoalescingRequestEncoder) queued).dropped();
+                return;
+            }
+    }
+
+    /** Close connection to peer that does not keep up with the send queue
+     *
+     *  <p>Closes the socket, which causes the receiver to exit
+     *  and {@link #onReceiverExited(boolean)} to clean up.
+     */
+    private void disconnectSlowPeer()
+    {
+        if (! overflow_disconnect.compareAndSet(false, true))
+            return;
+        logger.log(Level.WARNING, this + " send queue full, disconnecting");
+        send_items.clear();
+        deferred_items.clear();
+        try
+        {
+            socket.close();
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.WARNING, this + " cannot close socket", ex);
+        }
+        if (event_loop != null  &&  receive_thread != null)
+            receiverExited();
     }
 
     /** Send {@link RequestEncoder} entries off queue */
@@ -168,23 +409,10 @@ abstract public class TCPHandler
         {
             Thread.currentThread().setName("TCP sender " + socket.getRemoteAddress());
             logger.log(Level.FINER, Thread.currentThread().getName() + " started");
-            while (true)
+            while (! end_of_queue)
             {
-                send_buffer.clear();
-                final RequestEncoder to_send = send_items.take();
-                if (to_send == END_REQUEST)
-                    break;
-                try
-                {
-                    to_send.encodeRequest(server_version, send_buffer);
-                }
-                catch (Exception ex)
-                {
-                    logger.log(Level.WARNING, Thread.currentThread().getName() + " request encoding error", ex);
-                    continue;
-                }
-                send_buffer.flip();
-                send(send_buffer);
+                if (encodeQueuedItems(send_items.take()) > 0)
+                    send(send_buffer);
             }
         }
         catch (Exception ex)
@@ -195,11 +423,127 @@ abstract public class TCPHandler
         return null;
     }
 
+    /** Encode queued items into the send buffer
+     *
+     *  <p>Starts with the given item, then keeps adding
+     *  queued items until the send buffer reaches the
+     *  {@link #batch_watermark}
+     *  or the queue is empty, so that they can all be sent
+     *  out with a single write.
+     *
+     *  <p>Sets {@link #end_of_queue} when reaching the {@link #END_REQUEST}.
+     *
+     *  @param item First item to encode
+     *  @return Number of messages in send buffer, which is ready to be written
+     */
+    private int encodeQueuedItems(RequestEncoder item)
+    {
+        send_buffer.clear();
+        int messages = 0;
+        while (item != null)
+        {
+            if (item == END_REQUEST)
+            {
+                end_of_queue = true;
+                break;
+            }
+            final int start = send_buffer.position();
+            try
+            {
+                item.encodeRequest(server_version, send_buffer);
+                ++messages;
+            }
+            catch (Exception ex)
+            {
+                logger.log(Level.WARNING, this + " request encoding error", ex);
+                // Drop partially encoded message
+                send_buffer.position(start);
+            }
+            if (send_buffer.position() >= batch_watermark)
+                break;
+            item = send_items.poll();
+        }
+        send_buffer.flip();
+
+        if (! deferred_items.isEmpty())
+            moveDeferredItems();
+
+        if (messages > 0)
+        {
+            send_flushes.incrementAndGet();
+            sent_messages.addAndGet(messages);
+            sent_bytes.addAndGet(send_buffer.remaining());
+        }
+        return messages;
+    }
+
+    /** @return Number of times the send buffer was written with one or more messages */
+    public long getSendFlushes()
+    {
+        return send_flushes.get();
+    }
+
+    /** @return Number of messages sent via the send queue */
+    public long getSentMessages()
+    {
+        return sent_messages.get();
+    }
+
+    /** @return Number of bytes sent via the send queue */
+    public long getSentBytes()
+    {
+        return sent_bytes.get();
+    }
+
+    /** @return Number of items in send queue */
+    public int getSendQueueDepth()
+    {
+        return send_items.size();
+    }
+
+    /** @return Maximum number of items that were in the send queue */
+    public int getMaxSendQueueDepth()
+    {
+        return max_queue_depth.get();
+    }
+
+    /** @return Number of items held back because send queue was full */
+    public long getDeferredCount()
+    {
+        return deferred_count.get();
+    }
+
+    /** @return Number of items dropped from full send queue */
+    public long getDroppedCount()
+    {
+        return dropped_count.get();
+    }
+
+    /** @return Has connection been closed because send queue was full? */
+    public boolean isOverflowDisconnected()
+    {
+        return overflow_disconnect.get();
+    }
+
+    /** @return Summary of send statistics: Messages and bytes per flush */
+    public String getSendStatistics()
+    {
+        final long flushes = Math.max(1, send_flushes.get());
+        return String.format("%d flushes, %.1f messages/flush, %.1f bytes/flush",
+                             send_flushes.get(),
+                             sent_messages.get() / (double) flushes,
+                             sent_bytes.get() / (double) flushes);
+    }
+
     /** Send message
      *
      *  <p>Must only be called by outside code before
      *  the sender has been started
      *
+     *  <p>When using the selector, the data is copied
+     *  and written by the event loop, which retries
+     *  once the socket is writable instead of blocking.
+     *
      *  @param buffer Buffer to send
      *  @throws Exception on error
      */
@@ -207,6 +551,16 @@ abstract public class TCPHandler
     {
         logger.log(Level.FINER, () -> Thread.currentThread().getName() + ":\n" + Hexdump.toHexdump(buffer));
 
+        if (event_loop != null)
+        {
+            final ByteBuffer data = BufferPool.acquire(buffer.remaining());
+            data.put(buffer);
+            data.flip();
+            direct_sends.add(data);
+            scheduleSend();
+            return;
+        }
+
         // Original AbstractCodec.send() mentions
         // Microsoft KB article KB823764:
         // Limiting buffer size increases performance.
@@ -242,6 +596,228 @@ abstract public class TCPHandler
                 buffer.limit(buffer.position() + batch);
             }
         }
+        onDataSent();
+    }
+
+    /** Invoked after data has been written to the socket
+     *
+     *  <p>Derived class may override to track activity
+     */
+    protected void onDataSent()
+    {
+        // NOP
+    }
+
+    /** Ask event loop to write queued items */
+    private void scheduleSend()
+    {
+        if (send_scheduled.compareAndSet(false, true))
+            event_loop.execute(this::handleWritable);
+    }
+
+    /** @param key Selection key of the socket, registered with the event loop */
+    void setSelectionKey(final SelectionKey key)
+    {
+        selection_key = key;
+    }
+
+    /** Called by event loop to write queued items
+     *
+     *  <p>Writes as much as the socket accepts.
+     *  If the socket cannot take all the data,
+     *  the event loop will call again once the socket is writable.
+     */
+    void handleWritable()
+    {
+        send_scheduled.set(false);
+        // Once registered, the event loop will call again
+        final SelectionKey key = selection_key;
+        if (key == null  ||  ! key.isValid()  ||  (send_thread != null  &&  send_thread.isDone()))
+            return;
+        try
+        {
+            // Data sent before the sender was started
+            ByteBuffer direct;
+            while ((direct = direct_sends.peek()) != null)
+            {
+                final int sent = socket.write(direct);
+                if (sent < 0)
+                    throw new Exception("Connection closed");
+                if (sent > 0)
+                    onDataSent();
+                if (direct.hasRemaining())
+                {   // Socket buffer full, wait until writable
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                direct_sends.poll();
+                BufferPool.release(direct);
+            }
+            // Queued items are only sent once the sender has been started
+            while (send_thread != null)
+            {
+                if (! send_buffer.hasRemaining())
+                {
+                    if (end_of_queue)
+                    {
+                        ((CompletableFuture<Void>) send_thread).complete(null);
+                        break;
+                    }
+                    final RequestEncoder to_send = send_items.poll();
+                    if (to_send == null)
+                        break;
+                    if (encodeQueuedItems(to_send) <= 0)
+                        continue;
+                    logger.log(Level.FINER, () -> this + " sends:\n" + Hexdump.toHexdump(send_buffer));
+                }
+                final int sent = socket.write(send_buffer);
+                if (sent < 0)
+                    throw new Exception("Connection closed");
+                if (sent > 0)
+                    onDataSent();
+                if (send_buffer.hasRemaining())
+                {   // Socket buffer full, wait until writable
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+        catch (Exception ex)
+        {
+            if (running)
+                logger.log(Level.WARNING, this + " send error", ex);
+            key.cancel();
+            receiverExited();
+        }
+    }
+
+    /** Called by event loop to read available data
+     *
+     *  <p>Handles all complete messages,
+     *  keeps partial message in receive buffer
+     *  until the event loop calls again with more data.
+     */
+    void handleReadable()
+    {
+        try
+        {
+            while (true)
+            {
+                final int message_size = PVAHeader.checkMessageAndGetSize(receive_buffer, client_mode);
+                if (receive_buffer.position() < message_size)
+                {
+                    receive_buffer = assertBufferSize(receive_buffer, message_size);
+                    final int read = socket.read(receive_buffer);
+                    if (read < 0)
+                    {
+                        logger.log(Level.FINER, () -> this + ": socket closed");
+                        selection_key.cancel();
+                        receiverExited();
+                        return;
+                    }
+                    if (read == 0)
+                        return;
+                    logger.log(Level.FINER, () -> this + ": " + read + " bytes");
+                }
+                else
+                    dispatchReceivedMessage(message_size);
+            }
+        }
+        catch (Exception ex)
+        {
+            if (running)
+                logger.log(Level.WARNING, this + " receive error", ex);
+            selection_key.cancel();
+            receiverExited();
+        }
+    }
+
+    /** Mark the selector-based receiver as done
+     *
+     *  <p>Invokes {@link #onReceiverExited(boolean)} once,
+     *  after all received messages have been handled
+     */
+    void receiverExited()
+    {
+        if (((CompletableFuture<Void>) receive_thread).complete(null))
+        {
+            final boolean was_running = running;
+            dispatch(() -> onReceiverExited(was_running));
+        }
+    }
+
+    /** Run task off the event loop thread
+     *
+     *  <p>Tasks of one connection run one at a time
+     *  and in order on a thread from the {@link #thread_pool}.
+     *
+     *  @param task Task to run
+     */
+    private void dispatch(final Runnable task)
+    {
+        dispatch_tasks.add(task);
+        if (dispatching.compareAndSet(false, true))
+            thread_pool.execute(this::runDispatchedTasks);
+    }
+
+    /** Run {@link #dispatch_tasks} until the queue is empty */
+    private void runDispatchedTasks()
+    {
+        Thread.currentThread().setName("TCP handler " + getRemoteAddress());
+        do
+        {
+            Runnable task;
+            while ((task = dispatch_tasks.poll()) != null)
+            {
+                try
+                {
+                    task.run();
+                }
+                catch (Throwable ex)
+                {
+                    logger.log(Level.WARNING, this + " error handling received data", ex);
+                }
+            }
+            dispatching.set(false);
+            // Another task may have been added after the last poll,
+            // before the flag was cleared, without starting a thread
+        }
+        while (! dispatch_tasks.isEmpty()  &&  dispatching.compareAndSet(false, true));
+    }
+
+    /** Copy one complete message at the start of the receive buffer
+     *  and dispatch it for decoding and handling
+     *
+     *  <p>Leaves the receive buffer ready to read more data,
+     *  with remaining bytes of the next message at the start.
+     *
+     *  @param message_size Size of the message
+     */
+    private void dispatchReceivedMessage(final int message_size)
+    {
+        receive_buffer.flip();
+        final int actual_limit = receive_buffer.limit();
+        receive_buffer.limit(message_size);
+        final ByteBuffer message = BufferPool.acquire(message_size);
+        message.order(receive_buffer.order());
+        message.put(receive_buffer);
+        message.flip();
+        receive_buffer.limit(actual_limit);
+        receive_buffer.compact();
+
+        dispatch(() ->
+        {
+            logger.log(Level.FINER, () -> this + ":\n" + Hexdump.toHexdump(message));
+            try
+            {
+                handleCompleteMessage(message);
+            }
+            finally
+            {
+                BufferPool.release(message);
+            }
+        });
     }
 
     /** Receiver */
@@ -274,35 +850,7 @@ abstract public class TCPHandler
                     message_size = PVAHeader.checkMessageAndGetSize(receive_buffer, client_mode);
                 }
                 // .. then decode
-                receive_buffer.flip();
-                logger.log(Level.FINER, () -> Thread.currentThread().getName() + ":\n" + Hexdump.toHexdump(receive_buffer));
-
-                // While buffer may contain more data,
-                // limit it to the end of this message to prevent
-                // message handler from reading beyond message boundary.
-                final int actual_limit = receive_buffer.limit();
-                receive_buffer.limit(message_size);
-                try
-                {
-                    handleMessage(receive_buffer);
-                }
-                catch (Exception ex)
-                {
-                    // Once we fail to decode and handle a message,
-                    // it is likely that the server/client protocol gets
-                    // out of step and never recovers.
-                    // Still, log error and keep reading in case
-                    // the issue is limited to just this one message.
-                    logger.log(Level.WARNING, Thread.currentThread().getName() + " message error. Protocol might be broken from here on.", ex);
-                }
-
-                receive_buffer.limit(actual_limit);
-                // No matter if message handler read the complete message,
-                // position at end of handled message
-                receive_buffer.position(message_size);
-
-                // Shift rest to start of buffer and handle next message
-                receive_buffer.compact();
+                handleReceivedMessage(message_size);
             }
         }
         catch (Exception ex)
@@ -318,6 +866,54 @@ abstract public class TCPHandler
         return null;
     }
 
+    /** Decode and handle one complete message at the start of the receive buffer
+     *
+     *  <p>Leaves the receive buffer ready to read more data,
+     *  with remaining bytes of the next message at the start.
+     *
+     *  @param message_size Size of the message
+     */
+    private void handleReceivedMessage(final int message_size)
+    {
+        receive_buffer.flip();
+        logger.log(Level.FINER, () -> Thread.currentThread().getName() + ":\n" + Hexdump.toHexdump(receive_buffer));
+
+        // While buffer may contain more data,
+        // limit it to the end of this message to prevent
+        // message handler from reading beyond message boundary.
+        final int actual_limit = receive_buffer.limit();
+        receive_buffer.limit(message_size);
+        handleCompleteMessage(receive_buffer);
+
+        receive_buffer.limit(actual_limit);
+        // No matter if message handler read the complete message,
+        // position at end of handled message
+        receive_buffer.position(message_size);
+
+        // Shift rest to start of buffer and handle next message
+        receive_buffer.compact();
+    }
+
+    /** Handle a complete message, logging errors
+     *  @param buffer Buffer limited to one message
+     */
+    private void handleCompleteMessage(final ByteBuffer buffer)
+    {
+        try
+        {
+            handleMessage(buffer);
+        }
+        catch (Exception ex)
+        {
+            // Once we fail to decode and handle a message,
+            // it is likely that the server/client protocol gets
+            // out of step and never recovers.
+            // Still, log error and keep reading in case
+            // the issue is limited to just this one message.
+            logger.log(Level.WARNING, Thread.currentThread().getName() + " message error. Protocol might be broken from here on.", ex);
+        }
+    }
+
     /** Invoked when the receiver thread exits because socket has been closed.
      *
      *  <p>Derived class may override to perform cleanup
@@ -332,8 +928,8 @@ abstract public class TCPHandler
 
     /** Check buffer size, grow if needed
      *
-     *  <p>When necessary, a new buffer is allocated,
-     *  existing data copied.
+     *  <p>When necessary, a new buffer is obtained from the {@link BufferPool},
+     *  existing data copied, and the original buffer returned to the pool.
      *
      *  @param buffer Original buffer
      *  @param message_size Required receive buffer size
@@ -344,10 +940,11 @@ abstract public class TCPHandler
         if (buffer.capacity() >= size)
             return buffer;
 
-        final ByteBuffer new_buffer = ByteBuffer.allocate(size);
+        final ByteBuffer new_buffer = BufferPool.acquire(size);
         new_buffer.order(buffer.order());
         buffer.flip();
         new_buffer.put(buffer);
+        BufferPool.release(buffer);
 
         logger.log(Level.INFO,
                    Thread.currentThread().getName() + " extends buffer from " +
@@ -405,7 +1002,7 @@ abstract public class TCPHandler
             {
                 logger.log(Level.INFO,
                            () -> Thread.currentThread().getName() + " allocates segmented message accumulator buffer for " + buffer.limit() + " bytes");
-                segments = ByteBuffer.allocate(buffer.limit());
+                segments = BufferPool.acquire(buffer.limit());
                 segments.order(buffer.order());
             }
             else if (segments.position() > 0)
@@ -531,11 +1128,14 @@ abstract public class TCPHandler
     {
         logger.log(Level.FINE, "Closing " + this);
 
+        // Event loop thread cannot wait for itself
+        final boolean can_wait = wait  &&  (event_loop == null  ||  !event_loop.isEventThread());
+
         // Wait until all requests are sent out
         submit(END_REQUEST);
         try
         {
-            if (send_thread != null  &&  wait)
+            if (send_thread != null  &&  can_wait)
                 send_thread.get(5, TimeUnit.SECONDS);
         }
         catch (Exception ex)
@@ -547,16 +1147,70 @@ abstract public class TCPHandler
         {
             running = false;
             socket.close();
-            if (wait)
+            // Event loop thread may be reading or writing right now.
+            // Stop handling the socket and release the buffers on that thread
+            if (event_loop != null)
+                event_loop.execute(this::closeOnEventLoop);
+            if (receive_thread != null  &&  can_wait)
                 receive_thread.get(5, TimeUnit.SECONDS);
         }
         catch (Exception ex)
         {
             logger.log(Level.WARNING, "Cannot stop receive thread", ex);
         }
+        if (event_loop == null)
+            releaseBuffers();
+        logger.log(Level.FINE, () -> this + " send statistics: " + getSendStatistics());
         logger.log(Level.FINE, () -> this + " closed  ============================");
     }
 
+    /** Stop handling the socket
+     *
+     *  <p>Runs on the event loop thread,
+     *  after any read or write of this connection that was in progress.
+     */
+    private void closeOnEventLoop()
+    {
+        final SelectionKey key = selection_key;
+        if (key != null)
+            key.cancel();
+        if (receive_thread != null)
+            receiverExited();
+        // Nothing is sent once the key has been cancelled
+        if (send_thread != null)
+            ((CompletableFuture<Void>) send_thread).complete(null);
+        releaseBuffers();
+        // Segments are assembled by the dispatched message handlers
+        dispatch(() ->
+        {
+            if (segments != null)
+                BufferPool.release(segments);
+            segments = null;
+        });
+    }
+
+    /** Return buffers to the {@link BufferPool}
+     *
+     *  <p>Only done once the sender and receiver have finished.
+     *  With the event loop, only called on the event loop thread.
+     *  When they did not stop in time, buffers are left to the garbage collector.
+     */
+    private void releaseBuffers()
+    {
+        if ((send_thread != null  &&  ! send_thread.isDone())  ||
+            (receive_thread != null  &&  ! receive_thread.isDone()))
+            return;
+        if (! buffers_released.compareAndSet(false, true))
+            return;
+        BufferPool.release(send_buffer);
+        BufferPool.release(receive_buffer);
+        ByteBuffer direct;
+        while ((direct = direct_sends.poll()) != null)
+            BufferPool.release(direct);
+        if (segments != null  &&  event_loop == null)
+            BufferPool.release(segments);
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.common;
+
+import static org.epics.pva.PVASettings.logger;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import org.epics.pva.PVASettings;
+
+/** Selector-based transport for {@link TCPHandler}
+ *
+ *  <p>Instead of a receive and a send thread for each TCP connection,
+ *  a small, fixed number of event loop threads multiplex all
+ *  TCP connections via non-blocking sockets and a {@link Selector}.
+ *
+ *  <p>The event loop threads only read and write.
+ *  Received messages are dispatched by the {@link TCPHandler}
+ *  to be handled on other threads.
+ *
+ *  @see PVASettings#EPICS_PVA_TCP_SELECTOR_THREADS
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class TCPSelector
+{
+    /** Singleton, created on first use */
+    private static TCPSelector instance = null;
+
+    /** Event loops */
+    private final EventLoop[] loops;
+
+    /** Index of next event loop to use */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** One event loop thread with its selector */
+    static class EventLoop
+    {
+        private final Selector selector;
+
+        private final Thread thread;
+
+        /** Tasks to run on the event loop thread */
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        EventLoop(final int index) throws Exception
+        {
+            selector = Selector.open();
+            thread = new Thread(this::run, "PVA TCP selector " + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /** @return Is the calling thread the event loop thread? */
+        boolean isEventThread()
+        {
+            return Thread.currentThread() == thread;
+        }
+
+        /** Run task on event loop thread
+         *  @param task Task to run
+         */
+        void execute(final Runnable task)
+        {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        /** Register TCP handler
+         *  @param handler {@link TCPHandler} to call when socket is readable or writable
+         *  @param socket Socket of that handler, will be configured as non-blocking
+         *  @throws Exception on error
+         */
+        void register(final TCPHandler handler, final SocketChannel socket) throws Exception
+        {
+            socket.configureBlocking(false);
+            execute(() ->
+            {
+                try
+                {
+                    handler.setSelectionKey(socket.register(selector, SelectionKey.OP_READ, handler));
+                    // Send items that might have been queued before registration
+                    handler.handleWritable();
+                }
+                catch (Exception ex)
+                {
+                    logger.log(Level.WARNING, "Cannot register " + handler, ex);
+                    handler.receiverExited();
+                }
+            });
+        }
+
+        private void run()
+        {
+            logger.log(Level.FINER, Thread.currentThread().getName() + " started");
+            while (true)
+            {
+                try
+                {
+                    selector.select();
+
+                    Runnable task;
+                    while ((task = tasks.poll()) != null)
+                        task.run();
+
+                    final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext())
+                    {
+                        final SelectionKey key = keys.next();
+                        keys.remove();
+                        final TCPHandler handler = (TCPHandler) key.attachment();
+                        if (key.isValid()  &&  key.isReadable())
+                            handler.handleReadable();
+                        if (key.isValid()  &&  key.isWritable())
+                            handler.handleWritable();
+                    }
+                }
+                catch (Throwable ex)
+                {
+                    logger.log(Level.WARNING, Thread.currentThread().getName() + " error", ex);
+                }
+            }
+        }
+    }
+
+    /** @return Selector, created on first call
+     *  @throws Exception on error
+     */
+    static synchronized TCPSelector getInstance() throws Exception
+    {
+        if (instance == null)
+            instance = new TCPSelector(PVASettings.EPICS_PVA_TCP_SELECTOR_THREADS);
+        return instance;
+    }
+
+    /** @param threads Number of event loop threads
+     *  @throws Exception on error
+     */
+    private TCPSelector(final int threads) throws Exception
+    {
+        logger.log(Level.CONFIG, "Using " + threads + " TCP selector threads");
+        loops = new EventLoop[Math.max(1, threads)];
+        for (int i=0; i<loops.length; ++i)
+            loops[i] = new EventLoop(i);
+    }
+
+    /** @return Next event loop, distributing connections across all loops */
+    EventLoop nextLoop()
+    {
+        return loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+    }
+}
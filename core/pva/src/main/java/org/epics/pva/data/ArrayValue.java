@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.data;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/** Value of a numeric array
+ *
+ *  <p>Holds a Java array or, for values decoded with
+ *  {@link org.epics.pva.PVASettings#EPICS_PVA_POOLED_ARRAYS},
+ *  a {@link PooledBuffer}.
+ *  Array and pooled buffer are published together via one reference.
+ *  The pooled buffer of a replaced value is released,
+ *  and only returns to the pool once readers that
+ *  copy its data or retained it are done.
+ *
+ *  @param <A> Java array type
+ *  @author agent
+ */
+class ArrayValue<A>
+{
+    /** Java array and pooled buffer of one value */
+    private static class Data<A>
+    {
+        /** Java array, <code>null</code> while only held in the pooled buffer */
+        final A array;
+
+        /** Pooled buffer or <code>null</code> */
+        final PooledBuffer pooled;
+
+        Data(final A array, final PooledBuffer pooled)
+        {
+            this.array = array;
+            this.pooled = pooled;
+        }
+    }
+
+    /** Current value, holding one reference to its pooled buffer */
+    private final AtomicReference<Data<A>> data;
+
+    /** Copies data from a pooled buffer into a Java array */
+    private final Function<ByteBuffer, A> to_array;
+
+    /** @param array Initial value
+     *  @param to_array Copies data from a pooled buffer into a Java array
+     */
+    ArrayValue(final A array, final Function<ByteBuffer, A> to_array)
+    {
+        data = new AtomicReference<>(new Data<>(array, null));
+        this.to_array = to_array;
+    }
+
+    /** @return Current value, copied from the pooled buffer when necessary */
+    A get()
+    {
+        while (true)
+        {
+            final Data<A> current = data.get();
+            if (current.array != null)
+                return current.array;
+            // Keep the pooled buffer from returning to the pool while copying.
+            // Fails when a new value has replaced the current one, then use that
+            if (! current.pooled.tryRetain())
+                continue;
+            final A copy;
+            try
+            {
+                copy = to_array.apply(current.pooled.getBuffer());
+            }
+            finally
+            {
+                current.pooled.release();
+            }
+            // Keep the copy unless a new value has been set meanwhile
+            data.compareAndSet(current, new Data<>(copy, current.pooled));
+            return copy;
+        }
+    }
+
+    /** @return Read-only view of the pooled buffer, <code>null</code> when the value is not pooled */
+    ByteBuffer getPooledBuffer()
+    {
+        final PooledBuffer pooled = data.get().pooled;
+        return pooled == null ? null : pooled.getBuffer();
+    }
+
+    /** @return Retained pooled buffer, <code>null</code> when the value is not pooled */
+    PooledBuffer retain()
+    {
+        while (true)
+        {
+            final PooledBuffer pooled = data.get().pooled;
+            if (pooled == null)
+                return null;
+            if (pooled.tryRetain())
+                return pooled;
+        }
+    }
+
+    /** @param array New value */
+    void set(final A array)
+    {
+        replace(new Data<>(array, null));
+    }
+
+    /** @param pooled New value, passing its one reference to this value */
+    void setPooled(final PooledBuffer pooled)
+    {
+        replace(new Data<>(null, pooled));
+    }
+
+    private void replace(final Data<A> new_data)
+    {
+        final Data<A> old = data.getAndSet(new_data);
+        if (old.pooled != null)
+            old.pooled.release();
+    }
+}
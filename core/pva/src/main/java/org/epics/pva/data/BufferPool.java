@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.epics.pva.PVASettings;
+
+/** Pool of direct byte buffers
+ *
+ *  <p>Buffers are allocated in power-of-two sizes.
+ *  Released buffers are kept for re-use
+ *  up to a total of {@link PVASettings#EPICS_PVA_BUFFER_POOL_SIZE} bytes,
+ *  so that for example receiving a large image
+ *  does not allocate new memory for each update.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class BufferPool
+{
+    /** Smallest buffer size, 2^MIN_SHIFT */
+    private static final int MIN_SHIFT = 10;
+
+    /** Largest pooled buffer size, 2^MAX_SHIFT */
+    private static final int MAX_SHIFT = 30;
+
+    /** Released buffers by size class */
+    private static final List<ConcurrentLinkedQueue<ByteBuffer>> pools = new ArrayList<>(MAX_SHIFT - MIN_SHIFT + 1);
+
+    /** Bytes held by released buffers */
+    private static final AtomicLong pooled_bytes = new AtomicLong();
+
+    /** Statistics */
+    private static final AtomicLong allocated_bytes = new AtomicLong(),
+                                    reused_bytes = new AtomicLong();
+
+    static
+    {
+        for (int shift=MIN_SHIFT; shift<=MAX_SHIFT; ++shift)
+            pools.add(new ConcurrentLinkedQueue<>());
+    }
+
+    /** @param size Required size
+     *  @return Index of pool for that size, or -1 if too large
+     */
+    private static int getPoolIndex(final int size)
+    {
+        final int shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(1, size) - 1));
+        return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+    }
+
+    /** Get a buffer
+     *
+     *  <p>Buffer is cleared, with big endian byte order,
+     *  and capacity of at least the requested size.
+     *
+     *  @param size Required size
+     *  @return Direct {@link ByteBuffer}
+     */
+    public static ByteBuffer acquire(final int size)
+    {
+        final int index = getPoolIndex(size);
+        if (index < 0)
+        {
+            allocated_bytes.addAndGet(size);
+            return ByteBuffer.allocateDirect(size);
+        }
+        final ByteBuffer buffer = pools.get(index).poll();
+        if (buffer == null)
+        {
+            final int capacity = 1 << (index + MIN_SHIFT);
+            allocated_bytes.addAndGet(capacity);
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        pooled_bytes.addAndGet(-buffer.capacity());
+        reused_bytes.addAndGet(buffer.capacity());
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        return buffer;
+    }
+
+    /** Return a buffer to the pool
+     *
+     *  <p>Caller must no longer use the buffer.
+     *  Buffers that were not obtained from the pool
+     *  or exceed the pool size are left to the garbage collector.
+     *
+     *  @param buffer Buffer obtained from {@link #acquire(int)}
+     */
+    public static void release(final ByteBuffer buffer)
+    {
+        final int capacity = buffer.capacity();
+        if (! buffer.isDirect()  ||  Integer.bitCount(capacity) != 1)
+            return;
+        final int index = getPoolIndex(capacity);
+        if (index < 0  ||  capacity != 1 << (index + MIN_SHIFT))
+            return;
+        if (pooled_bytes.addAndGet(capacity) > PVASettings.EPICS_PVA_BUFFER_POOL_SIZE)
+        {
+            pooled_bytes.addAndGet(-capacity);
+            return;
+        }
+        pools.get(index).add(buffer);
+    }
+
+    /** @return Number of bytes allocated because no suitable buffer was in the pool */
+    public static long getAllocatedBytes()
+    {
+        return allocated_bytes.get();
+    }
+
+    /** @return Number of bytes re-used from the pool */
+    public static long getReusedBytes()
+    {
+        return reused_bytes.get();
+    }
+
+    /** @return Number of bytes held in the pool */
+    public static long getPooledBytes()
+    {
+        return pooled_bytes.get();
+    }
+}
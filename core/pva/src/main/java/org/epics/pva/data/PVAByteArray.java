@@ -21,13 +21,14 @@ import org.epics.pva.PVASettings;
 public class PVAByteArray extends PVAData implements PVAArray
 {
     private final boolean unsigned;
-    private volatile byte[] value;
+    /** Value, may be pooled, see {@link PVASettings#EPICS_PVA_POOLED_ARRAYS} */
+    private final ArrayValue<byte[]> value;
 
     public PVAByteArray(final String name, final boolean unsigned, final byte[] value)
     {
         super(name);
         this.unsigned = unsigned;
-        this.value = value;
+        this.value = new ArrayValue<>(value, PVAByteArray::toArray);
     }
 
     public PVAByteArray(final String name, final boolean unsigned)
@@ -41,16 +42,57 @@ public class PVAByteArray extends PVAData implements PVAArray
         return unsigned;
     }
 
-    /** @return Current value */
+    /** Get current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  this copies the data into an array.
+     *
+     *  @return Current value
+     */
     public byte[] get()
     {
-        return value;
+        return value.get();
+    }
+
+    /** @param data Pooled data
+     *  @return Data copied into array
+     */
+    private static byte[] toArray(final ByteBuffer data)
+    {
+        final byte[] array = new byte[data.remaining()];
+        data.get(array);
+        return array;
+    }
+
+    /** Get read-only view of current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  the view is only valid until the next value is decoded,
+     *  unless the pooled buffer is retained.
+     *
+     *  @return Current value
+     *  @see #retain()
+     */
+    public ByteBuffer getBuffer()
+    {
+        final ByteBuffer pooled = value.getPooledBuffer();
+        if (pooled != null)
+            return pooled;
+        return ByteBuffer.wrap(value.get()).asReadOnlyBuffer();
+    }
+
+    /** Keep the pooled value valid beyond the next update
+     *  @return {@link PooledBuffer} that caller must release, or <code>null</code> when value is not pooled
+     */
+    public PooledBuffer retain()
+    {
+        return value.retain();
     }
 
     /** @param value Desired new value */
     public void set(final byte[] value)
     {
-        this.value = value;
+        this.value.set(value);
     }
 
     @Override
@@ -71,7 +113,7 @@ public class PVAByteArray extends PVAData implements PVAArray
                 else
                     throw new Exception("Cannot set " + formatType() + " to " + new_value);
             }
-            value = new_items;
+            set(new_items);
         }
         else
             throw new Exception("Cannot set " + formatType() + " to " + new_value);
@@ -86,7 +128,7 @@ public class PVAByteArray extends PVAData implements PVAArray
     @Override
     public PVAByteArray cloneData()
     {
-        return new PVAByteArray(name, unsigned, value.clone());
+        return new PVAByteArray(name, unsigned, get().clone());
     }
 
     @Override
@@ -100,17 +142,31 @@ public class PVAByteArray extends PVAData implements PVAArray
 
     @Override
     public void decode(final PVATypeRegistry types, final ByteBuffer buffer) throws Exception
+    {
+        decode(buffer, PVASettings.EPICS_PVA_POOLED_ARRAYS);
+    }
+
+    /** @param buffer Buffer positioned on encoded value
+     *  @param pooled Decode into a pooled buffer?
+     *  @throws Exception on error
+     */
+    void decode(final ByteBuffer buffer, final boolean pooled) throws Exception
     {
         final int size = PVASize.decodeSize(buffer);
+        if (pooled)
+        {
+            value.setPooled(PooledBuffer.copyOf(buffer, size * 1));
+            return;
+        }
         final byte[] new_value = new byte[size];
         buffer.get(new_value);
-        value = new_value;
+        value.set(new_value);
     }
 
     @Override
     public void encode(final ByteBuffer buffer) throws Exception
     {
-        final byte[] copy = value;
+        final byte[] copy = get();
         PVASize.encodeSize(copy.length, buffer);
         for (int i=0; i<copy.length; ++i)
             buffer.put(copy[i]);
@@ -122,9 +178,10 @@ public class PVAByteArray extends PVAData implements PVAArray
         if (new_value instanceof PVAByteArray)
         {
             final PVAByteArray other = (PVAByteArray) new_value;
-            if (! Arrays.equals(other.value, value))
+            final byte[] other_value = other.get();
+            if (! Arrays.equals(other_value, get()))
             {
-                value = other.value.clone();
+                set(other_value.clone());
                 changes.set(index);
             }
         }
@@ -145,7 +202,7 @@ public class PVAByteArray extends PVAData implements PVAArray
     {
         formatType(level, buffer);
         buffer.append(" [");
-        final byte[] safe = value;
+        final byte[] safe = get();
         if (safe == null)
             buffer.append("null");
         else
@@ -172,6 +229,6 @@ public class PVAByteArray extends PVAData implements PVAArray
         if (! (obj instanceof PVAByteArray))
             return false;
         final PVAByteArray other = (PVAByteArray) obj;
-        return Arrays.equals(other.value, value);
+        return Arrays.equals(other.get(), get());
     }
 }
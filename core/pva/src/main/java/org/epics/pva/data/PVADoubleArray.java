@@ -8,6 +8,7 @@
 package org.epics.pva.data;
 
 import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
@@ -20,12 +21,13 @@ import org.epics.pva.PVASettings;
 @SuppressWarnings("nls")
 public class PVADoubleArray extends PVAData implements PVAArray
 {
-    private volatile double[] value;
+    /** Value, may be pooled, see {@link PVASettings#EPICS_PVA_POOLED_ARRAYS} */
+    private final ArrayValue<double[]> value;
 
     public PVADoubleArray(final String name, final double[] value)
     {
         super(name);
-        this.value = value;
+        this.value = new ArrayValue<>(value, PVADoubleArray::toArray);
     }
 
     public PVADoubleArray(final String name)
@@ -33,16 +35,58 @@ public class PVADoubleArray extends PVAData implements PVAArray
         this(name, new double[0]);
     }
 
-    /** @return Current value */
+    /** Get current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  this copies the data into an array.
+     *
+     *  @return Current value
+     */
     public double[] get()
     {
-        return value;
+        return value.get();
+    }
+
+    /** @param data Pooled data
+     *  @return Data copied into array
+     */
+    private static double[] toArray(final ByteBuffer data)
+    {
+        final DoubleBuffer view = data.asDoubleBuffer();
+        final double[] array = new double[view.remaining()];
+        view.get(array);
+        return array;
+    }
+
+    /** Get read-only view of current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  the view is only valid until the next value is decoded,
+     *  unless the pooled buffer is retained.
+     *
+     *  @return Current value
+     *  @see #retain()
+     */
+    public DoubleBuffer getBuffer()
+    {
+        final ByteBuffer pooled = value.getPooledBuffer();
+        if (pooled != null)
+            return pooled.asDoubleBuffer();
+        return DoubleBuffer.wrap(value.get()).asReadOnlyBuffer();
+    }
+
+    /** Keep the pooled value valid beyond the next update
+     *  @return {@link PooledBuffer} that caller must release, or <code>null</code> when value is not pooled
+     */
+    public PooledBuffer retain()
+    {
+        return value.retain();
     }
 
     /** @param value Desired new value */
     public void set(final double[] value)
     {
-        this.value = value;
+        this.value.set(value);
     }
 
     @Override
@@ -63,7 +107,7 @@ public class PVADoubleArray extends PVAData implements PVAArray
                 else
                     throw new Exception("Cannot set " + formatType() + " to " + new_value);
             }
-            value = new_items;
+            set(new_items);
         }
         else
             throw new Exception("Cannot set " + formatType() + " to " + new_value);
@@ -78,7 +122,7 @@ public class PVADoubleArray extends PVAData implements PVAArray
     @Override
     public PVADoubleArray cloneData()
     {
-        return new PVADoubleArray(name, value.clone());
+        return new PVADoubleArray(name, get().clone());
     }
 
     @Override
@@ -89,18 +133,32 @@ public class PVADoubleArray extends PVAData implements PVAArray
 
     @Override
     public void decode(final PVATypeRegistry types, final ByteBuffer buffer) throws Exception
+    {
+        decode(buffer, PVASettings.EPICS_PVA_POOLED_ARRAYS);
+    }
+
+    /** @param buffer Buffer positioned on encoded value
+     *  @param pooled Decode into a pooled buffer?
+     *  @throws Exception on error
+     */
+    void decode(final ByteBuffer buffer, final boolean pooled) throws Exception
     {
         final int size = PVASize.decodeSize(buffer);
+        if (pooled)
+        {
+            value.setPooled(PooledBuffer.copyOf(buffer, size * Double.BYTES));
+            return;
+        }
         final double[] new_value = new double[size];
         for (int i=0; i<size; ++i)
             new_value[i] = buffer.getDouble();
-        value = new_value;
+        value.set(new_value);
     }
 
     @Override
     public void encode(final ByteBuffer buffer) throws Exception
     {
-        final double[] copy = value;
+        final double[] copy = get();
         PVASize.encodeSize(copy.length, buffer);
         for (int i=0; i<copy.length; ++i)
             buffer.putDouble(copy[i]);
@@ -115,9 +173,10 @@ public class PVADoubleArray extends PVAData implements PVAArray
             // At least for open JDK11,
             // this does use Double.doubleToRawLongBits and thus handles
             // NaN == NaN
-            if (! Arrays.equals(other.value, value))
+            final double[] other_value = other.get();
+            if (! Arrays.equals(other_value, get()))
             {
-                value = other.value.clone();
+                set(other_value.clone());
                 changes.set(index);
             }
         }
@@ -136,7 +195,7 @@ public class PVADoubleArray extends PVAData implements PVAArray
     {
         formatType(level, buffer);
         buffer.append(" [");
-        final double[] safe = value;
+        final double[] safe = get();
         if (safe == null)
             buffer.append("null");
         else
@@ -160,6 +219,6 @@ public class PVADoubleArray extends PVAData implements PVAArray
         if (! (obj instanceof PVADoubleArray))
             return false;
         final PVADoubleArray other = (PVADoubleArray) obj;
-        return Arrays.equals(other.value, value);
+        return Arrays.equals(other.get(), get());
     }
 }
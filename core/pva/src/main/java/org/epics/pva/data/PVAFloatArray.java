@@ -8,6 +8,7 @@
 package org.epics.pva.data;
 
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
@@ -20,12 +21,13 @@ import org.epics.pva.PVASettings;
 @SuppressWarnings("nls")
 public class PVAFloatArray extends PVAData implements PVAArray
 {
-    private volatile float[] value;
+    /** Value, may be pooled, see {@link PVASettings#EPICS_PVA_POOLED_ARRAYS} */
+    private final ArrayValue<float[]> value;
 
     public PVAFloatArray(final String name, final float[] value)
     {
         super(name);
-        this.value = value;
+        this.value = new ArrayValue<>(value, PVAFloatArray::toArray);
     }
 
     public PVAFloatArray(final String name)
@@ -33,16 +35,58 @@ public class PVAFloatArray extends PVAData implements PVAArray
         this(name, new float[0]);
     }
 
-    /** @return Current value */
+    /** Get current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  this copies the data into an array.
+     *
+     *  @return Current value
+     */
     public float[] get()
     {
-        return value;
+        return value.get();
+    }
+
+    /** @param data Pooled data
+     *  @return Data copied into array
+     */
+    private static float[] toArray(final ByteBuffer data)
+    {
+        final FloatBuffer view = data.asFloatBuffer();
+        final float[] array = new float[view.remaining()];
+        view.get(array);
+        return array;
+    }
+
+    /** Get read-only view of current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  the view is only valid until the next value is decoded,
+     *  unless the pooled buffer is retained.
+     *
+     *  @return Current value
+     *  @see #retain()
+     */
+    public FloatBuffer getBuffer()
+    {
+        final ByteBuffer pooled = value.getPooledBuffer();
+        if (pooled != null)
+            return pooled.asFloatBuffer();
+        return FloatBuffer.wrap(value.get()).asReadOnlyBuffer();
+    }
+
+    /** Keep the pooled value valid beyond the next update
+     *  @return {@link PooledBuffer} that caller must release, or <code>null</code> when value is not pooled
+     */
+    public PooledBuffer retain()
+    {
+        return value.retain();
     }
 
     /** @param value Desired new value */
     public void set(final float[] value)
     {
-        this.value = value;
+        this.value.set(value);
     }
 
     @Override
@@ -63,7 +107,7 @@ public class PVAFloatArray extends PVAData implements PVAArray
                 else
                     throw new Exception("Cannot set " + formatType() + " to " + new_value);
             }
-            value = new_items;
+            set(new_items);
         }
         else
             throw new Exception("Cannot set " + formatType() + " to " + new_value);
@@ -78,7 +122,7 @@ public class PVAFloatArray extends PVAData implements PVAArray
     @Override
     public PVAFloatArray cloneData()
     {
-        return new PVAFloatArray(name, value.clone());
+        return new PVAFloatArray(name, get().clone());
     }
 
     @Override
@@ -89,18 +133,32 @@ public class PVAFloatArray extends PVAData implements PVAArray
 
     @Override
     public void decode(final PVATypeRegistry types, final ByteBuffer buffer) throws Exception
+    {
+        decode(buffer, PVASettings.EPICS_PVA_POOLED_ARRAYS);
+    }
+
+    /** @param buffer Buffer positioned on encoded value
+     *  @param pooled Decode into a pooled buffer?
+     *  @throws Exception on error
+     */
+    void decode(final ByteBuffer buffer, final boolean pooled) throws Exception
     {
         final int size = PVASize.decodeSize(buffer);
+        if (pooled)
+        {
+            value.setPooled(PooledBuffer.copyOf(buffer, size * Float.BYTES));
+            return;
+        }
         final float[] new_value = new float[size];
         for (int i=0; i<size; ++i)
             new_value[i] = buffer.getFloat();
-        value = new_value;
+        value.set(new_value);
     }
 
     @Override
     public void encode(final ByteBuffer buffer) throws Exception
     {
-        final float[] copy = value;
+        final float[] copy = get();
         PVASize.encodeSize(copy.length, buffer);
         for (int i=0; i<copy.length; ++i)
             buffer.putFloat(copy[i]);
@@ -115,9 +173,10 @@ public class PVAFloatArray extends PVAData implements PVAArray
             // At least for open JDK11,
             // this does use Float.floatToRawIntBits and thus handles
             // NaN == NaN
-            if (! Arrays.equals(other.value, value))
+            final float[] other_value = other.get();
+            if (! Arrays.equals(other_value, get()))
             {
-                value = other.value.clone();
+                set(other_value.clone());
                 changes.set(index);
             }
         }
@@ -136,7 +195,7 @@ public class PVAFloatArray extends PVAData implements PVAArray
     {
         formatType(level, buffer);
         buffer.append(" [");
-        final float[] safe = value;
+        final float[] safe = get();
         if (safe == null)
             buffer.append("null");
         else
@@ -160,6 +219,6 @@ public class PVAFloatArray extends PVAData implements PVAArray
         if (! (obj instanceof PVAFloatArray))
             return false;
         final PVAFloatArray other = (PVAFloatArray) obj;
-        return Arrays.equals(other.value, value);
+        return Arrays.equals(other.get(), get());
     }
 }
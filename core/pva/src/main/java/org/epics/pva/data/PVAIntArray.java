@@ -8,6 +8,7 @@
 package org.epics.pva.data;
 
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
@@ -21,13 +22,14 @@ import org.epics.pva.PVASettings;
 public class PVAIntArray extends PVAData implements PVAArray
 {
     private final boolean unsigned;
-    private volatile int[] value;
+    /** Value, may be pooled, see {@link PVASettings#EPICS_PVA_POOLED_ARRAYS} */
+    private final ArrayValue<int[]> value;
 
     public PVAIntArray(final String name, final boolean unsigned, final int[] value)
     {
         super(name);
         this.unsigned = unsigned;
-        this.value = value;
+        this.value = new ArrayValue<>(value, PVAIntArray::toArray);
     }
 
     public PVAIntArray(final String name, final boolean unsigned)
@@ -41,16 +43,58 @@ public class PVAIntArray extends PVAData implements PVAArray
         return unsigned;
     }
 
-    /** @return Current value */
+    /** Get current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  this copies the data into an array.
+     *
+     *  @return Current value
+     */
     public int[] get()
     {
-        return value;
+        return value.get();
+    }
+
+    /** @param data Pooled data
+     *  @return Data copied into array
+     */
+    private static int[] toArray(final ByteBuffer data)
+    {
+        final IntBuffer view = data.asIntBuffer();
+        final int[] array = new int[view.remaining()];
+        view.get(array);
+        return array;
+    }
+
+    /** Get read-only view of current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  the view is only valid until the next value is decoded,
+     *  unless the pooled buffer is retained.
+     *
+     *  @return Current value
+     *  @see #retain()
+     */
+    public IntBuffer getBuffer()
+    {
+        final ByteBuffer pooled = value.getPooledBuffer();
+        if (pooled != null)
+            return pooled.asIntBuffer();
+        return IntBuffer.wrap(value.get()).asReadOnlyBuffer();
+    }
+
+    /** Keep the pooled value valid beyond the next update
+     *  @return {@link PooledBuffer} that caller must release, or <code>null</code> when value is not pooled
+     */
+    public PooledBuffer retain()
+    {
+        return value.retain();
     }
 
     /** @param value Desired new value */
     public void set(final int[] value)
     {
-        this.value = value;
+        this.value.set(value);
     }
 
     @Override
@@ -71,7 +115,7 @@ public class PVAIntArray extends PVAData implements PVAArray
                 else
                     throw new Exception("Cannot set " + formatType() + " to " + new_value);
             }
-            value = new_items;
+            set(new_items);
         }
         else
             throw new Exception("Cannot set " + formatType() + " to " + new_value);
@@ -86,7 +130,7 @@ public class PVAIntArray extends PVAData implements PVAArray
     @Override
     public PVAIntArray cloneData()
     {
-        return new PVAIntArray(name, unsigned, value.clone());
+        return new PVAIntArray(name, unsigned, get().clone());
     }
 
     @Override
@@ -100,18 +144,32 @@ public class PVAIntArray extends PVAData implements PVAArray
 
     @Override
     public void decode(final PVATypeRegistry types, final ByteBuffer buffer) throws Exception
+    {
+        decode(buffer, PVASettings.EPICS_PVA_POOLED_ARRAYS);
+    }
+
+    /** @param buffer Buffer positioned on encoded value
+     *  @param pooled Decode into a pooled buffer?
+     *  @throws Exception on error
+     */
+    void decode(final ByteBuffer buffer, final boolean pooled) throws Exception
     {
         final int size = PVASize.decodeSize(buffer);
+        if (pooled)
+        {
+            value.setPooled(PooledBuffer.copyOf(buffer, size * Integer.BYTES));
+            return;
+        }
         final int[] new_value = new int[size];
         for (int i=0; i<size; ++i)
             new_value[i] = buffer.getInt();
-        value = new_value;
+        value.set(new_value);
     }
 
     @Override
     public void encode(final ByteBuffer buffer) throws Exception
     {
-        final int[] copy = value;
+        final int[] copy = get();
         PVASize.encodeSize(copy.length, buffer);
         for (int i=0; i<copy.length; ++i)
             buffer.putInt(copy[i]);
@@ -123,9 +181,10 @@ public class PVAIntArray extends PVAData implements PVAArray
         if (new_value instanceof PVAIntArray)
         {
             final PVAIntArray other = (PVAIntArray) new_value;
-            if (! Arrays.equals(other.value, value))
+            final int[] other_value = other.get();
+            if (! Arrays.equals(other_value, get()))
             {
-                value = other.value.clone();
+                set(other_value.clone());
                 changes.set(index);
             }
         }
@@ -146,7 +205,7 @@ public class PVAIntArray extends PVAData implements PVAArray
     {
         formatType(level, buffer);
         buffer.append(" [");
-        final int[] safe = value;
+        final int[] safe = get();
         if (safe == null)
             buffer.append("null");
         else
@@ -173,6 +232,6 @@ public class PVAIntArray extends PVAData implements PVAArray
         if (! (obj instanceof PVAIntArray))
             return false;
         final PVAIntArray other = (PVAIntArray) obj;
-        return Arrays.equals(other.value, value);
+        return Arrays.equals(other.get(), get());
     }
 }
@@ -8,6 +8,7 @@
 package org.epics.pva.data;
 
 import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
@@ -21,13 +22,14 @@ import org.epics.pva.PVASettings;
 public class PVALongArray extends PVAData implements PVAArray
 {
     private final boolean unsigned;
-    private volatile long[] value;
+    /** Value, may be pooled, see {@link PVASettings#EPICS_PVA_POOLED_ARRAYS} */
+    private final ArrayValue<long[]> value;
 
     public PVALongArray(final String name, final boolean unsigned, final long[] value)
     {
         super(name);
         this.unsigned = unsigned;
-        this.value = value;
+        this.value = new ArrayValue<>(value, PVALongArray::toArray);
     }
 
     public PVALongArray(final String name, final boolean unsigned)
@@ -41,16 +43,58 @@ public class PVALongArray extends PVAData implements PVAArray
         return unsigned;
     }
 
-    /** @return Current value */
+    /** Get current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  this copies the data into an array.
+     *
+     *  @return Current value
+     */
     public long[] get()
     {
-        return value;
+        return value.get();
+    }
+
+    /** @param data Pooled data
+     *  @return Data copied into array
+     */
+    private static long[] toArray(final ByteBuffer data)
+    {
+        final LongBuffer view = data.asLongBuffer();
+        final long[] array = new long[view.remaining()];
+        view.get(array);
+        return array;
+    }
+
+    /** Get read-only view of current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  the view is only valid until the next value is decoded,
+     *  unless the pooled buffer is retained.
+     *
+     *  @return Current value
+     *  @see #retain()
+     */
+    public LongBuffer getBuffer()
+    {
+        final ByteBuffer pooled = value.getPooledBuffer();
+        if (pooled != null)
+            return pooled.asLongBuffer();
+        return LongBuffer.wrap(value.get()).asReadOnlyBuffer();
+    }
+
+    /** Keep the pooled value valid beyond the next update
+     *  @return {@link PooledBuffer} that caller must release, or <code>null</code> when value is not pooled
+     */
+    public PooledBuffer retain()
+    {
+        return value.retain();
     }
 
     /** @param value Desired new value */
     public void set(final long[] value)
     {
-        this.value = value;
+        this.value.set(value);
     }
 
     @Override
@@ -71,7 +115,7 @@ public class PVALongArray extends PVAData implements PVAArray
                 else
                     throw new Exception("Cannot set " + formatType() + " to " + new_value);
             }
-            value = new_items;
+            set(new_items);
         }
         else
             throw new Exception("Cannot set " + formatType() + " to " + new_value);
@@ -86,7 +130,7 @@ public class PVALongArray extends PVAData implements PVAArray
     @Override
     public PVALongArray cloneData()
     {
-        return new PVALongArray(name, unsigned, value.clone());
+        return new PVALongArray(name, unsigned, get().clone());
     }
 
     @Override
@@ -100,18 +144,32 @@ public class PVALongArray extends PVAData implements PVAArray
 
     @Override
     public void decode(final PVATypeRegistry types, final ByteBuffer buffer) throws Exception
+    {
+        decode(buffer, PVASettings.EPICS_PVA_POOLED_ARRAYS);
+    }
+
+    /** @param buffer Buffer positioned on encoded value
+     *  @param pooled Decode into a pooled buffer?
+     *  @throws Exception on error
+     */
+    void decode(final ByteBuffer buffer, final boolean pooled) throws Exception
     {
         final int size = PVASize.decodeSize(buffer);
+        if (pooled)
+        {
+            value.setPooled(PooledBuffer.copyOf(buffer, size * Long.BYTES));
+            return;
+        }
         final long[] new_value = new long[size];
         for (int i=0; i<size; ++i)
             new_value[i] = buffer.getLong();
-        value = new_value;
+        value.set(new_value);
     }
 
     @Override
     public void encode(final ByteBuffer buffer) throws Exception
     {
-        final long[] copy = value;
+        final long[] copy = get();
         PVASize.encodeSize(copy.length, buffer);
         for (int i=0; i<copy.length; ++i)
             buffer.putLong(copy[i]);
@@ -123,9 +181,10 @@ public class PVALongArray extends PVAData implements PVAArray
         if (new_value instanceof PVALongArray)
         {
             final PVALongArray other = (PVALongArray) new_value;
-            if (! Arrays.equals(other.value, value))
+            final long[] other_value = other.get();
+            if (! Arrays.equals(other_value, get()))
             {
-                value = other.value.clone();
+                set(other_value.clone());
                 changes.set(index);
             }
         }
@@ -146,7 +205,7 @@ public class PVALongArray extends PVAData implements PVAArray
     {
         formatType(level, buffer);
         buffer.append(" [");
-        final long[] safe = value;
+        final long[] safe = get();
         if (safe == null)
             buffer.append("null");
         else
@@ -173,6 +232,6 @@ public class PVALongArray extends PVAData implements PVAArray
         if (! (obj instanceof PVALongArray))
             return false;
         final PVALongArray other = (PVALongArray) obj;
-        return Arrays.equals(other.value, value);
+        return Arrays.equals(other.get(), get());
     }
 }
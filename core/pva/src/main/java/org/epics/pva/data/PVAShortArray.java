@@ -8,6 +8,7 @@
 package org.epics.pva.data;
 
 import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
@@ -21,13 +22,14 @@ import org.epics.pva.PVASettings;
 public class PVAShortArray extends PVAData implements PVAArray
 {
     private final boolean unsigned;
-    private volatile short[] value;
+    /** Value, may be pooled, see {@link PVASettings#EPICS_PVA_POOLED_ARRAYS} */
+    private final ArrayValue<short[]> value;
 
     public PVAShortArray(final String name, final boolean unsigned, final short[] value)
     {
         super(name);
         this.unsigned = unsigned;
-        this.value = value;
+        this.value = new ArrayValue<>(value, PVAShortArray::toArray);
     }
 
     public PVAShortArray(final String name, final boolean unsigned)
@@ -41,16 +43,58 @@ public class PVAShortArray extends PVAData implements PVAArray
         return unsigned;
     }
 
-    /** @return Current value */
+    /** Get current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  this copies the data into an array.
+     *
+     *  @return Current value
+     */
     public short[] get()
     {
-        return value;
+        return value.get();
+    }
+
+    /** @param data Pooled data
+     *  @return Data copied into array
+     */
+    private static short[] toArray(final ByteBuffer data)
+    {
+        final ShortBuffer view = data.asShortBuffer();
+        final short[] array = new short[view.remaining()];
+        view.get(array);
+        return array;
+    }
+
+    /** Get read-only view of current value
+     *
+     *  <p>When the value has been decoded into a pooled buffer,
+     *  the view is only valid until the next value is decoded,
+     *  unless the pooled buffer is retained.
+     *
+     *  @return Current value
+     *  @see #retain()
+     */
+    public ShortBuffer getBuffer()
+    {
+        final ByteBuffer pooled = value.getPooledBuffer();
+        if (pooled != null)
+            return pooled.asShortBuffer();
+        return ShortBuffer.wrap(value.get()).asReadOnlyBuffer();
+    }
+
+    /** Keep the pooled value valid beyond the next update
+     *  @return {@link PooledBuffer} that caller must release, or <code>null</code> when value is not pooled
+     */
+    public PooledBuffer retain()
+    {
+        return value.retain();
     }
 
     /** @param value Desired new value */
     public void set(final short[] value)
     {
-        this.value = value;
+        this.value.set(value);
     }
 
     @Override
@@ -71,7 +115,7 @@ public class PVAShortArray extends PVAData implements PVAArray
                 else
                     throw new Exception("Cannot set " + formatType() + " to " + new_value);
             }
-            value = new_items;
+            set(new_items);
         }
         else
             throw new Exception("Cannot set " + formatType() + " to " + new_value);
@@ -86,7 +130,7 @@ public class PVAShortArray extends PVAData implements PVAArray
     @Override
     public PVAShortArray cloneData()
     {
-        return new PVAShortArray(name, unsigned, value.clone());
+        return new PVAShortArray(name, unsigned, get().clone());
     }
 
     @Override
@@ -100,8 +144,22 @@ public class PVAShortArray extends PVAData implements PVAArray
 
     @Override
     public void decode(final PVATypeRegistry types, final ByteBuffer buffer) throws Exception
+    {
+        decode(buffer, PVASettings.EPICS_PVA_POOLED_ARRAYS);
+    }
+
+    /** @param buffer Buffer positioned on encoded value
+     *  @param pooled Decode into a pooled buffer?
+     *  @throws Exception on error
+     */
+    void decode(final ByteBuffer buffer, final boolean pooled) throws Exception
     {
         final int size = PVASize.decodeSize(buffer);
+        if (pooled)
+        {
+            value.setPooled(PooledBuffer.copyOf(buffer, size * Short.BYTES));
+            return;
+        }
         // Try to re-use existing array
         final short[] new_value = new short[size];
         // Considered using
@@ -111,13 +169,13 @@ public class PVAShortArray extends PVAData implements PVAArray
         // Profiler shows that it's overall slower.
         for (int i=0; i<size; ++i)
             new_value[i] = buffer.getShort();
-        value = new_value;
+        value.set(new_value);
     }
 
     @Override
     public void encode(final ByteBuffer buffer) throws Exception
     {
-        final short[] copy = value;
+        final short[] copy = get();
         PVASize.encodeSize(copy.length, buffer);
         for (int i=0; i<copy.length; ++i)
             buffer.putShort(copy[i]);
@@ -129,9 +187,10 @@ public class PVAShortArray extends PVAData implements PVAArray
         if (new_value instanceof PVAShortArray)
         {
             final PVAShortArray other = (PVAShortArray) new_value;
-            if (! Arrays.equals(other.value, value))
+            final short[] other_value = other.get();
+            if (! Arrays.equals(other_value, get()))
             {
-                value = other.value.clone();
+                set(other_value.clone());
                 changes.set(index);
             }
         }
@@ -152,7 +211,7 @@ public class PVAShortArray extends PVAData implements PVAArray
     {
         formatType(level, buffer);
         buffer.append(" [");
-        final short[] safe = value;
+        final short[] safe = get();
         if (safe == null)
             buffer.append("null");
         else
@@ -179,6 +238,6 @@ public class PVAShortArray extends PVAData implements PVAArray
         if (! (obj instanceof PVAShortArray))
             return false;
         final PVAShortArray other = (PVAShortArray) obj;
-        return Arrays.equals(other.value, value);
+        return Arrays.equals(other.get(), get());
     }
 }
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.data;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Reference-counted buffer from the {@link BufferPool}
+ *
+ *  <p>Holds the raw data of an array that was decoded
+ *  with {@link org.epics.pva.PVASettings#EPICS_PVA_POOLED_ARRAYS}.
+ *  The array holds one reference, which it releases
+ *  when the next value is decoded.
+ *  Code that needs the data for longer must
+ *  {@link #retain()} the buffer, and later {@link #release()} it.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PooledBuffer
+{
+    private final ByteBuffer buffer;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    /** Copy data into a pooled buffer
+     *  @param source Buffer positioned on data, will be advanced by the number of bytes
+     *  @param bytes Number of bytes to copy
+     *  @return {@link PooledBuffer} with one reference, using the byte order of the source
+     */
+    static PooledBuffer copyOf(final ByteBuffer source, final int bytes)
+    {
+        final ByteBuffer data = BufferPool.acquire(bytes);
+        data.order(source.order());
+        final ByteBuffer slice = source.slice();
+        slice.limit(bytes);
+        data.put(slice);
+        data.flip();
+        source.position(source.position() + bytes);
+        return new PooledBuffer(data);
+    }
+
+    private PooledBuffer(final ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    /** @return Read-only view of the data, only valid while the buffer is retained */
+    public ByteBuffer getBuffer()
+    {
+        return buffer.asReadOnlyBuffer().order(buffer.order());
+    }
+
+    /** Add a reference
+     *  @return this
+     */
+    public PooledBuffer retain()
+    {
+        if (! tryRetain())
+            throw new IllegalStateException("Buffer has already been released");
+        return this;
+    }
+
+    /** Add a reference unless the buffer has already been released
+     *  @return <code>true</code> if reference was added
+     */
+    boolean tryRetain()
+    {
+        int count = references.get();
+        while (count > 0)
+        {
+            if (references.compareAndSet(count, count + 1))
+                return true;
+            count = references.get();
+        }
+        return false;
+    }
+
+    /** Remove a reference, returning the buffer to the pool when no longer referenced */
+    public void release()
+    {
+        final int left = references.decrementAndGet();
+        if (left == 0)
+            BufferPool.release(buffer);
+        else if (left < 0)
+            throw new IllegalStateException("Buffer released too often");
+    }
+}
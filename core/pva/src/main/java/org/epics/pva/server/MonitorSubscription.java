@@ -14,20 +14,26 @@ import java.util.BitSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
+import org.epics.pva.common.CoalescingRequestEncoder;
 import org.epics.pva.common.PVAHeader;
 import org.epics.pva.data.PVABitSet;
-import org.epics.pva.data.PVAData;
-import org.epics.pva.data.PVAStructure;
 
 /** One client's subscription to "monitor" a PV
  *
- *  <p>Maintains the most recent value sent to client,
- *  sends changes to that client as the value is updated.
+ *  <p>Tracks the changes and overruns that are yet to be sent to client.
+ *  When the client kept up with the previous update,
+ *  the {@link MonitorUpdate} that the PV encoded once for all subscriptions
+ *  is sent.
+ *  Otherwise, changes from several updates are merged and
+ *  the changed elements are encoded for just this client.
+ *
+ *  <p>Since there is at most one pending update,
+ *  it can be deferred or dropped when the send queue is full.
  *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
-class MonitorSubscription
+class MonitorSubscription implements CoalescingRequestEncoder
 {
     /** ID of monitor request sent by client */
     private final int req;
@@ -41,22 +47,22 @@ class MonitorSubscription
     // Clients subscribe at different times,
     // and their TCP connection might be able to handle updates
     // at different rates, so each subscription maintains
-    // the per-client state of the data, changes and overruns.
+    // the per-client state of changes and overruns.
 
-    /** Most recent value, to be sent to clients.
-     *  SYNC on data
+    /** Changes yet to be sent to client
+     *  SYNC on changes
      */
-    private final PVAStructure data;
+    private final BitSet changes = new BitSet();
 
-    /** Most recent changes, yet to be sent to clients
-     *  SYNC on data
+    /** Overruns, i.e. updates received between successful transmissions to client
+     *  SYNC on changes
      */
-    private volatile BitSet changes = new BitSet();
+    private final BitSet overrun = new BitSet();
 
-    /** Overruns, u.e. updates received between successful transmissions to client
-     *  SYNC on data
+    /** Shared encoding of the changes, or <code>null</code> to encode merged changes
+     *  SYNC on changes
      */
-    private final BitSet overrun = new BitSet();
+    private MonitorUpdate shared_update = null;
 
     /** Is an update pending to be sent out?
      *
@@ -70,11 +76,10 @@ class MonitorSubscription
         this.req = req;
         this.pv = pv;
         this.tcp = tcp;
-        data = pv.getData();
 
         // Initial update: Send all the data
         changes.set(0);
-        tcp.submit(this::encodeMonitor);
+        tcp.submit(this);
     }
 
     boolean isFor(final ServerTCPHandler tcp, final int req)
@@ -82,34 +87,71 @@ class MonitorSubscription
         return this.tcp == tcp  &&  (req == -1 || this.req == req);
     }
 
-    void update(final PVAStructure new_data) throws Exception
+    /** @param new_changes Elements of the PV that changed
+     *  @param update Shared encoding of that update, may be <code>null</code>
+     */
+    void update(final BitSet new_changes, final MonitorUpdate update)
     {
-        synchronized (data)
+        synchronized (changes)
         {
-            final BitSet old_changes = changes;
-
-            // Update data, see what's new
-            changes = data.update(new_data);
-
-            // Accumulate overrun:
-            // See what had changed before, and now changed again
-            old_changes.and(changes);
-            overrun.or(old_changes);
+            // Client has received all previous changes,
+            // so this update can be sent as encoded by the PV
+            if (changes.isEmpty())
+                shared_update = update;
+            else
+            {   // Merge with changes that have not been sent:
+                // See what had changed before, and now changed again
+                shared_update = null;
+                final BitSet again = (BitSet) changes.clone();
+                again.and(new_changes);
+                overrun.or(again);
+            }
+            changes.or(new_changes);
         }
 
         // Only submit when there's not already one pending, waiting to be sent out
         if (pending.compareAndSet(false, true))
-            tcp.submit(this::encodeMonitor);
+            tcp.submit(this);
         else
             logger.log(Level.WARNING, "Skipping " + this);
     }
 
-    private void encodeMonitor(final byte version, final ByteBuffer buffer) throws Exception
+    @Override
+    public void dropped()
+    {
+        synchronized (changes)
+        {
+            // Keep changes for the next update,
+            // but those will no longer match a shared update
+            pending.set(false);
+            shared_update = null;
+        }
+    }
+
+    @Override
+    public void encodeRequest(final byte version, final ByteBuffer buffer) throws Exception
     {
-        pending.set(false);
+        final BitSet to_send, overruns;
+        final MonitorUpdate update;
+        synchronized (changes)
+        {
+            pending.set(false);
+            update = shared_update;
+            shared_update = null;
+            to_send = (BitSet) changes.clone();
+            changes.clear();
+            overruns = (BitSet) overrun.clone();
+            overrun.clear();
+        }
 
-        logger.log(Level.FINE, () -> "Sending MONITOR value for " + pv + ": changes " + changes + ", overrun " + overrun);
+        // Changes were already sent by a previously scheduled encoding
+        if (update == null  &&  to_send.isEmpty())
+            return;
 
+        logger.log(Level.FINE, () -> "Sending MONITOR value for " + pv + ": changes " + to_send + ", overrun " + overruns +
+                                     (update == null ? "" : ", shared"));
+
+        final int size_offset = buffer.position() + PVAHeader.HEADER_OFFSET_PAYLOAD_SIZE;
         PVAHeader.encodeMessageHeader(buffer, PVAHeader.FLAG_SERVER, PVAHeader.CMD_MONITOR, 0);
         final int payload_start = buffer.position();
 
@@ -117,34 +159,14 @@ class MonitorSubscription
         // Subcommand 0 = value update
         buffer.put((byte)0);
 
-        synchronized (data)
-        {
-            // Encode what changed
-            PVABitSet.encodeBitSet(changes, buffer);
-            // Encode the changed data
-            for (int index = changes.nextSetBit(0);
-                    index >= 0;
-                    index = changes.nextSetBit(index + 1))
-            {
-                // final version of index to allow use in logging lambdas
-                final int i = index;
-                final PVAData element = data.get(i);
-                logger.log(Level.FINER, () -> "Encode data for indexed element " + i + ": " + element);
-                element.encode(buffer);
-
-                // Javadoc for nextSetBit() suggests checking for MAX_VALUE
-                // to avoid index + 1 overflow and thus starting over with first bit
-                if (i == Integer.MAX_VALUE)
-                    break;
-            }
-            changes.clear();
+        // Encode what changed and the changed data
+        if (update == null  ||  ! update.encode(buffer))
+            pv.encodeChanges(to_send, buffer);
 
-            PVABitSet.encodeBitSet(overrun, buffer);
-            overrun.clear();
-        }
+        PVABitSet.encodeBitSet(overruns, buffer);
 
         final int payload_end = buffer.position();
-        buffer.putInt(PVAHeader.HEADER_OFFSET_PAYLOAD_SIZE, payload_end - payload_start);
+        buffer.putInt(size_offset, payload_end - payload_start);
     }
 
     @Override
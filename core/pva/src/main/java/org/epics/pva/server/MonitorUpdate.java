@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.server;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** One value update of a {@link ServerPV}, encoded once
+ *
+ *  <p>Holds the encoded 'changes' bit set and changed elements.
+ *  Shared by all {@link MonitorSubscription}s that are
+ *  up to date with the previous value, so each update is
+ *  only serialized once no matter how many clients subscribe.
+ *  Immutable; the bytes are released once the last
+ *  subscription has sent them.
+ *
+ *  @author agent
+ */
+class MonitorUpdate
+{
+    private final ByteOrder order;
+    private final byte[] encoded;
+
+    /** @param order Byte order used to encode the update
+     *  @param encoded Encoded changes and changed elements
+     */
+    MonitorUpdate(final ByteOrder order, final byte[] encoded)
+    {
+        this.order = order;
+        this.encoded = encoded;
+    }
+
+    /** Add encoded update to buffer
+     *  @param buffer Buffer that may receive the update
+     *  @return <code>true</code> if encoded update was added,
+     *          <code>false</code> if buffer uses a different byte order
+     */
+    boolean encode(final ByteBuffer buffer)
+    {
+        if (buffer.order() != order)
+            return false;
+        buffer.put(encoded);
+        return true;
+    }
+}
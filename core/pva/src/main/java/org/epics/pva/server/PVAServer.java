@@ -10,11 +10,19 @@ package org.epics.pva.server;
 import static org.epics.pva.PVASettings.logger;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentHashMap.KeySetView;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.logging.Level;
 
+import org.epics.pva.common.SendQueuePolicy;
+import org.epics.pva.data.PVAIntArray;
+import org.epics.pva.data.PVALongArray;
+import org.epics.pva.data.PVAStringArray;
 import org.epics.pva.data.PVAStructure;
 
 /** PVA Server
@@ -53,6 +61,9 @@ public class PVAServer implements AutoCloseable
     /** Handlers for the TCP connections clients established to this server */
     private final KeySetView<ServerTCPHandler, Boolean> tcp_handlers = ConcurrentHashMap.newKeySet();
 
+    /** Provides the send queue policy for each client, <code>null</code> to use default */
+    private volatile Function<InetSocketAddress, SendQueuePolicy> send_queue_policy = null;
+
     /** Create PVA Server
      *  @throws Exception on error
      */
@@ -109,6 +120,71 @@ public class PVAServer implements AutoCloseable
         return pv;
     }
 
+    /** Set the send queue policy for each client
+     *
+     *  <p>By default, all clients use the
+     *  {@link org.epics.pva.PVASettings#EPICS_PVA_SEND_QUEUE_POLICY}.
+     *  The provider is consulted for each newly connected client,
+     *  allowing for example to disconnect slow clients on remote hosts
+     *  while coalescing updates for local clients.
+     *
+     *  @param policy Function that returns the {@link SendQueuePolicy} for a client address
+     */
+    public void setSendQueuePolicy(final Function<InetSocketAddress, SendQueuePolicy> policy)
+    {
+        send_queue_policy = policy;
+    }
+
+    /** Create a PV for diagnosing the send queues of connected clients
+     *
+     *  <p>An RPC call to the PV, with any parameters, returns
+     *  a structure of arrays with one element per client:
+     *  Client address, send queue policy, current and maximum queue depth,
+     *  number of deferred and dropped updates,
+     *  flushes, sent messages and bytes.
+     *
+     *  @param name PV Name
+     *  @return {@link ServerPV}
+     */
+    public ServerPV createSendQueueDiagnosticsPV(final String name)
+    {
+        return createPV(name, parameters -> getSendQueueDiagnostics());
+    }
+
+    /** @return Send queue diagnostics, see {@link #createSendQueueDiagnosticsPV(String)} */
+    private PVAStructure getSendQueueDiagnostics()
+    {
+        final List<ServerTCPHandler> handlers = new ArrayList<>(tcp_handlers);
+        final int N = handlers.size();
+        final String[] client = new String[N], policy = new String[N];
+        final int[] depth = new int[N], max_depth = new int[N];
+        final long[] deferred = new long[N], dropped = new long[N],
+                     flushes = new long[N], messages = new long[N], bytes = new long[N];
+        for (int i=0; i<N; ++i)
+        {
+            final ServerTCPHandler handler = handlers.get(i);
+            client[i] = handler.getRemoteAddress().toString();
+            policy[i] = handler.getSendQueuePolicy().name();
+            depth[i] = handler.getSendQueueDepth();
+            max_depth[i] = handler.getMaxSendQueueDepth();
+            deferred[i] = handler.getDeferredCount();
+            dropped[i] = handler.getDroppedCount();
+            flushes[i] = handler.getSendFlushes();
+            messages[i] = handler.getSentMessages();
+            bytes[i] = handler.getSentBytes();
+        }
+        return new PVAStructure("send_queues", "send_queues_t",
+                                new PVAStringArray("client", client),
+                                new PVAStringArray("policy", policy),
+                                new PVAIntArray("depth", false, depth),
+                                new PVAIntArray("max_depth", false, max_depth),
+                                new PVALongArray("deferred", false, deferred),
+                                new PVALongArray("dropped", false, dropped),
+                                new PVALongArray("flushes", false, flushes),
+                                new PVALongArray("messages", false, messages),
+                                new PVALongArray("bytes", false, bytes));
+    }
+
     /** Get existing PV
      *  @param name PV name
      *  @return PV or <code>null</code> when unknown
@@ -123,21 +199,30 @@ public class PVAServer implements AutoCloseable
         return pv_by_sid.get(sid);
     }
 
-    private void handleSearchRequest(final int seq, final int cid, final String name, final InetSocketAddress addr)
+    private void handleSearchRequest(final int seq, final int[] cid, final String[] name, final InetSocketAddress addr)
     {
-        if (cid < 0)
+        if (cid == null)
         {   // 'List servers' search, no specific name
-            POOL.execute(() -> udp.sendSearchReply(guid, 0, -1, tcp, addr));
+            POOL.execute(() -> udp.sendSearchReply(guid, 0, null, tcp, addr));
         }
         else
         {
-            // Known channel?
-            final ServerPV pv = getPV(name);
-            if (pv != null)
+            // Reply with TCP connection info for all known channels
+            int found = 0;
+            final int[] found_cid = new int[cid.length];
+            for (int i=0; i<cid.length; ++i)
+            {
+                final ServerPV pv = getPV(name[i]);
+                if (pv != null)
+                {
+                    logger.log(Level.FINE, () -> "Received Search for known PV " + pv);
+                    found_cid[found++] = cid[i];
+                }
+            }
+            if (found > 0)
             {
-                // Reply with TCP connection info
-                logger.log(Level.FINE, "Received Search for known PV " + pv);
-                POOL.execute(() -> udp.sendSearchReply(guid, seq, cid, tcp, addr));
+                final int[] reply_cid = found == cid.length ? found_cid : Arrays.copyOf(found_cid, found);
+                POOL.execute(() -> udp.sendSearchReply(guid, seq, reply_cid, tcp, addr));
             }
         }
     }
@@ -145,6 +230,9 @@ public class PVAServer implements AutoCloseable
     /** @param tcp_connection Newly created {@link ServerTCPHandler} */
     void register(final ServerTCPHandler tcp_connection)
     {
+        final Function<InetSocketAddress, SendQueuePolicy> policy = send_queue_policy;
+        if (policy != null)
+            tcp_connection.setSendQueuePolicy(policy.apply(tcp_connection.getRemoteAddress()));
         tcp_handlers.add(tcp_connection);
     }
 
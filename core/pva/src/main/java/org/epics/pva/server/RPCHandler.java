@@ -109,6 +109,7 @@ class RPCHandler implements CommandHandler<ServerTCPHandler>
         {
             logger.log(Level.FINE, () -> "Sending RPC reply for " + pv + ":\n" + result);
 
+            final int size_offset = buffer.position() + PVAHeader.HEADER_OFFSET_PAYLOAD_SIZE;
             PVAHeader.encodeMessageHeader(buffer, PVAHeader.FLAG_SERVER, PVAHeader.CMD_RPC, 0);
             final int payload_start = buffer.position();
             // int requestID
@@ -123,7 +124,7 @@ class RPCHandler implements CommandHandler<ServerTCPHandler>
 
             // Correct payload size
             final int payload_end = buffer.position();
-            buffer.putInt(PVAHeader.HEADER_OFFSET_PAYLOAD_SIZE, payload_end - payload_start);
+            buffer.putInt(size_offset, payload_end - payload_start);
         });
     }
 }
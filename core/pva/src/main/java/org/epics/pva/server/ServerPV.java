@@ -9,12 +9,17 @@ package org.epics.pva.server;
 
 import static org.epics.pva.PVASettings.logger;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.BitSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentHashMap.KeySetView;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
+import org.epics.pva.PVASettings;
+import org.epics.pva.data.PVABitSet;
+import org.epics.pva.data.PVAData;
 import org.epics.pva.data.PVAString;
 import org.epics.pva.data.PVAStructure;
 
@@ -58,6 +63,12 @@ public class ServerPV
      */
     private final PVAStructure data;
 
+    /** Buffer for encoding updates that are shared by all subscriptions
+     *
+     *  <p>Grows as needed. SYNC on data
+     */
+    private ByteBuffer update_buffer = ByteBuffer.allocate(1024);
+
     /** Handler for RPC invocations. May be DEFAULT_RPC_SERVICE */
     private final RPCService rpc;
 
@@ -141,14 +152,103 @@ public class ServerPV
      */
     public void update(final PVAStructure new_data) throws Exception
     {
-        // Update data
+        // Update data, encode changes once for all subscriptions
+        final BitSet changes;
+        MonitorUpdate update = null;
         synchronized (data)
         {
-            data.update(new_data);
+            changes = data.update(new_data);
+            if (! subscriptions.isEmpty())
+                update = encodeUpdate(changes);
         }
         // Update subscriptions
         for (MonitorSubscription subscription : subscriptions)
-            subscription.update(new_data);
+            subscription.update(changes, update);
+    }
+
+    /** Encode update
+     *
+     *  <p>Caller must SYNC on data
+     *
+     *  @param changes Changed elements
+     *  @return {@link MonitorUpdate} or <code>null</code> if update exceeds send buffer size
+     *  @throws Exception on error
+     */
+    private MonitorUpdate encodeUpdate(final BitSet changes) throws Exception
+    {
+        while (true)
+        {
+            update_buffer.clear();
+            try
+            {
+                encodeChanges(data, changes, update_buffer);
+                update_buffer.flip();
+                final byte[] encoded = new byte[update_buffer.remaining()];
+                update_buffer.get(encoded);
+                return new MonitorUpdate(update_buffer.order(), encoded);
+            }
+            catch (BufferOverflowException ex)
+            {
+                final int size = update_buffer.capacity();
+                if (size >= PVASettings.EPICS_PVA_SEND_BUFFER_SIZE)
+                    return null;
+                update_buffer = ByteBuffer.allocate(Math.min(2 * size, PVASettings.EPICS_PVA_SEND_BUFFER_SIZE));
+            }
+        }
+    }
+
+    /** Encode changed elements of the current value
+     *  @param changes Elements to encode
+     *  @param buffer Buffer into which to encode the changes and changed elements
+     *  @throws Exception on error
+     */
+    void encodeChanges(final BitSet changes, final ByteBuffer buffer) throws Exception
+    {
+        synchronized (data)
+        {
+            encodeChanges(data, changes, buffer);
+        }
+    }
+
+    private static void encodeChanges(final PVAStructure data, final BitSet changes, final ByteBuffer buffer) throws Exception
+    {
+        // Encode what changed
+        PVABitSet.encodeBitSet(changes, buffer);
+        // Encode the changed data
+        for (int index = changes.nextSetBit(0);
+                index >= 0;
+                index = changes.nextSetBit(index + 1))
+        {
+            // final version of index to allow use in logging lambdas
+            final int i = index;
+            final PVAData element = data.get(i);
+            logger.log(Level.FINER, () -> "Encode data for indexed element " + i + ": " + element);
+            element.encode(buffer);
+            // Merged changes may mark a structure and some of its elements.
+            // Like the decoder, skip elements that were sent as part of the structure.
+            if (element instanceof PVAStructure)
+                index += countElements((PVAStructure) element);
+
+            // Javadoc for nextSetBit() suggests checking for MAX_VALUE
+            // to avoid index + 1 overflow and thus starting over with first bit
+            if (i == Integer.MAX_VALUE)
+                break;
+        }
+    }
+
+    /** @param structure Structure
+     *  @return Deep count of elements in structure, including those in sub-structures
+     */
+    private static int countElements(final PVAStructure structure)
+    {
+        int count = 0;
+        for (PVAData element : structure.get())
+        {
+            ++count;
+            if (element instanceof PVAStructure)
+                count += countElements((PVAStructure) element);
+        }
+        return count;
     }
 
     /** Get current value (thread-safe copy)
@@ -85,6 +85,8 @@ class ServerTCPHandler extends TCPHandler
             PVAString.encodeString("ca", buffer);
             PVAString.encodeString("anonymous", buffer);
         });
+
+        startReceiver();
     }
 
     PVAServer getServer()
@@ -38,11 +38,11 @@ class ServerUDPHandler extends UDPHandler
     public interface SearchHandler
     {
         /** @param seq Client's search sequence
-         *  @param cid Client channel ID or -1
-         *  @param name Channel name or <code>null</code>
+         *  @param cid Client channel IDs or <code>null</code>
+         *  @param name Channel names or <code>null</code>
          *  @param addr Client's address and TCP port
          */
-        public void handleSearchRequest(int seq, int cid, String name, InetSocketAddress addr);
+        public void handleSearchRequest(int seq, int[] cid, String[] name, InetSocketAddress addr);
     }
 
     private final SearchHandler search_handler;
@@ -129,21 +129,16 @@ class ServerUDPHandler extends UDPHandler
         {
             if (search.reply_required)
             {   // pvlist request
-                search_handler.handleSearchRequest(0, -1, null, search.client);
+                search_handler.handleSearchRequest(0, null, null, search.client);
                 if (search.unicast)
-                    PVAServer.POOL.submit(() -> forwardSearchRequest(0, -1, null, search.client));
+                    PVAServer.POOL.submit(() -> forwardSearchRequest(0, null, null, search.client));
             }
         }
         else
-        {   // Channel search request
-            for (int i=0; i<search.name.length; ++i)
-            {
-                final int cid = search.cid[i];
-                final String name = search.name[i];
-                search_handler.handleSearchRequest(search.seq, cid, name, search.client);
-                if (search.unicast)
-                    PVAServer.POOL.submit(() -> forwardSearchRequest(search.seq, cid, name, search.client));
-            }
+        {   // Channel search request, handling all channels of the request at once
+            search_handler.handleSearchRequest(search.seq, search.cid, search.name, search.client);
+            if (search.unicast)
+                PVAServer.POOL.submit(() -> forwardSearchRequest(search.seq, search.cid, search.name, search.client));
         }
 
         return true;
@@ -158,12 +153,11 @@ class ServerUDPHandler extends UDPHandler
      *  allowing all servers on this host to reply.
      *
      *  @param seq Search sequence or 0
-     *  @param cid Channel ID or -1
-     *  @param name Name or <code>null</code>
-     *  @param address Client's address ..
-     *  @param port    .. and port
+     *  @param cid Channel IDs or <code>null</code>
+     *  @param name Names or <code>null</code>
+     *  @param address Client's address and port
      */
-    private void forwardSearchRequest(final int seq, final int cid, final String name, final InetSocketAddress address)
+    private void forwardSearchRequest(final int seq, final int[] cid, final String[] name, final InetSocketAddress address)
     {
         if (local_multicast == null)
             return;
@@ -187,16 +181,17 @@ class ServerUDPHandler extends UDPHandler
     /** Send a "channel found" reply to a client's search
      *  @param guid This server's GUID
      *  @param seq Client search request sequence number
-     *  @param cid Client's channel ID or -1
+     *  @param cid Client's channel IDs, or <code>null</code> for 'list' reply
      *  @param tcp TCP connection where client can connect to this server
      *  @param client Address of client's UDP port
      */
-    public void sendSearchReply(final Guid guid, final int seq, final int cid, final ServerTCPListener tcp, final InetSocketAddress client)
+    public void sendSearchReply(final Guid guid, final int seq, final int[] cid, final ServerTCPListener tcp, final InetSocketAddress client)
     {
+        final int count = cid == null ? 0 : cid.length;
         synchronized (send_buffer)
         {
             send_buffer.clear();
-            PVAHeader.encodeMessageHeader(send_buffer, PVAHeader.FLAG_SERVER, PVAHeader.CMD_SEARCH_RESPONSE, 12+4+16+2+4+1+2+ (cid < 0 ? 0 : 4));
+            PVAHeader.encodeMessageHeader(send_buffer, PVAHeader.FLAG_SERVER, PVAHeader.CMD_SEARCH_RESPONSE, 12+4+16+2+4+1+2+ count*4);
 
             // Server GUID
             guid.encode(send_buffer);
@@ -212,16 +207,12 @@ class ServerUDPHandler extends UDPHandler
             PVAString.encodeString("tcp", send_buffer);
 
             // Found
-            PVABool.encodeBoolean(cid >= 0, send_buffer);
+            PVABool.encodeBoolean(count > 0, send_buffer);
 
             // int[] cid;
-            if (cid < 0)
-                send_buffer.putShort((short)0);
-            else
-            {
-                send_buffer.putShort((short)1);
-                send_buffer.putInt(cid);
-            }
+            send_buffer.putShort((short)count);
+            for (int i=0; i<count; ++i)
+                send_buffer.putInt(cid[i]);
 
             send_buffer.flip();
             logger.log(Level.FINER, () -> "Sending search reply to " + client + "\n" + Hexdump.toHexdump(send_buffer));
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.combined;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+import org.epics.pva.PVASettings;
+import org.epics.pva.client.PVAChannel;
+import org.epics.pva.client.PVAClient;
+import org.epics.pva.data.PVADouble;
+import org.epics.pva.data.PVAStructure;
+import org.epics.pva.server.PVAServer;
+
+/** Time to connect many channels, one by one or as a batch
+ *
+ *  <p>Serves many PVs, then reports the time until
+ *  a client has connected to all of them.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class BulkConnectDemo
+{
+    private static final int CHANNELS = 10000;
+
+    private static void run(final PVAClient client, final boolean batch, final int run) throws Exception
+    {
+        final List<String> names = new ArrayList<>(CHANNELS);
+        for (int i=0; i<CHANNELS; ++i)
+            names.add("bulk" + i);
+
+        final long start = System.nanoTime();
+        final List<PVAChannel> channels;
+        if (batch)
+            channels = client.getChannels(names);
+        else
+        {
+            channels = new ArrayList<>(CHANNELS);
+            for (String name : names)
+                channels.add(client.getChannel(name));
+        }
+        final List<CompletableFuture<Boolean>> connected = new ArrayList<>(CHANNELS);
+        for (PVAChannel channel : channels)
+            connected.add(channel.connect());
+        CompletableFuture.allOf(connected.toArray(new CompletableFuture[CHANNELS])).get(5, TimeUnit.MINUTES);
+        final long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.format("%-10s run %d: %6d channels connected in %6d ms\n",
+                          batch ? "Batch" : "One by one", run, CHANNELS, ms);
+
+        for (PVAChannel channel : channels)
+            channel.close();
+        client.close();
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        LogManager.getLogManager().readConfiguration(PVASettings.class.getResourceAsStream("/pva_logging.properties"));
+        final Logger root = Logger.getLogger("");
+        root.setLevel(Level.WARNING);
+        for (Handler handler : root.getHandlers())
+            handler.setLevel(root.getLevel());
+
+        // Create clients before server so that the server's UDP socket,
+        // bound last, receives the unicast search requests
+        final List<PVAClient> clients = new ArrayList<>();
+        for (int i=0; i<4; ++i)
+            clients.add(new PVAClient());
+
+        final PVAServer server = new PVAServer();
+        for (int i=0; i<CHANNELS; ++i)
+            server.createPV("bulk" + i, new PVAStructure("demo", "demo_t", new PVADouble("value", i)));
+
+        for (int run=1; run<=2; ++run)
+        {
+            run(clients.remove(0), true, run);
+            run(clients.remove(0), false, run);
+        }
+        server.close();
+    }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.combined;
+
+import java.lang.management.ManagementFactory;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+import org.epics.pva.PVASettings;
+import org.epics.pva.client.PVAChannel;
+import org.epics.pva.client.PVAClient;
+import org.epics.pva.data.PVADoubleArray;
+import org.epics.pva.data.PVAStructure;
+import org.epics.pva.server.PVAServer;
+import org.epics.pva.server.ServerPV;
+
+/** Compare heap allocation for received arrays with and without pooled buffers
+ *
+ *  <p>Serves a large array, monitors it and
+ *  reports the bytes allocated by the TCP receiver threads
+ *  per received update.
+ *  Run once with and once without
+ *  <code>-DEPICS_PVA_POOLED_ARRAYS=true</code>
+ *  to compare.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PooledArrayDemo
+{
+    private static final int SIZE = 1000000;
+    private static final int SECONDS = 5;
+
+    /** @return Bytes allocated by all TCP receive threads */
+    private static long getReceiverAllocation()
+    {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytes = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+            if (thread.getName().startsWith("TCP receiver"))
+                bytes += threads.getThreadAllocatedBytes(thread.getId());
+        return bytes;
+    }
+
+    private static void run() throws Exception
+    {
+        final PVAClient client = new PVAClient();
+        final PVAServer server = new PVAServer();
+        final PVADoubleArray value = new PVADoubleArray("value", new double[SIZE]);
+        final PVAStructure data = new PVAStructure("demo", "demo_t", value);
+        final ServerPV pv = server.createPV("pooled_demo", data);
+
+        final PVAChannel channel = client.getChannel("pooled_demo");
+        channel.connect().get(10, TimeUnit.SECONDS);
+        final AtomicLong updates = new AtomicLong();
+        final AutoCloseable subscription = channel.subscribe("", (ch, changes, overruns, received) ->
+        {
+            // Use the data without copying it into an array
+            final DoubleBuffer array = received.<PVADoubleArray>get("value").getBuffer();
+            if (array.get(array.limit() - 1) >= 0)
+                updates.incrementAndGet();
+        });
+
+        final AtomicBoolean run = new AtomicBoolean(true);
+        final Thread updater = new Thread(() ->
+        {
+            final double[][] arrays = new double[][] { new double[SIZE], new double[SIZE] };
+            int i = 0;
+            while (run.get())
+            {
+                final double[] array = arrays[++i % 2];
+                array[SIZE - 1] = i;
+                value.set(array);
+                try
+                {
+                    pv.update(data);
+                    TimeUnit.MILLISECONDS.sleep(10);
+                }
+                catch (Exception ex)
+                {
+                    ex.printStackTrace();
+                }
+            }
+        });
+        updater.start();
+
+        TimeUnit.SECONDS.sleep(1);
+        updates.set(0);
+        final long start = getReceiverAllocation();
+        TimeUnit.SECONDS.sleep(SECONDS);
+        final long allocated = getReceiverAllocation() - start;
+        final long received = updates.get();
+
+        run.set(false);
+        updater.join();
+        subscription.close();
+        channel.close();
+        client.close();
+        server.close();
+
+        System.out.format("%-15s %6d updates %12d bytes allocated per update\n",
+                          PVASettings.EPICS_PVA_POOLED_ARRAYS ? "Pooled arrays" : "Java arrays", received, allocated / Math.max(1, received));
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        LogManager.getLogManager().readConfiguration(PVASettings.class.getResourceAsStream("/pva_logging.properties"));
+        final Logger root = Logger.getLogger("");
+        root.setLevel(Level.WARNING);
+        for (Handler handler : root.getHandlers())
+            handler.setLevel(root.getLevel());
+
+        run();
+    }
+}
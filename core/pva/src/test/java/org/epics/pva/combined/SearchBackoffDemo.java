@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.combined;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+import org.epics.pva.PVASettings;
+import org.epics.pva.client.PVAChannel;
+import org.epics.pva.client.PVAClient;
+import org.epics.pva.data.PVADouble;
+import org.epics.pva.data.PVAStructure;
+import org.epics.pva.server.PVAServer;
+
+/** Search traffic for channels that don't connect
+ *
+ *  <p>Searches many channels that don't exist,
+ *  reporting the search rates as the search intervals back off,
+ *  then starts a server for the channels and
+ *  reports the time until all connect.
+ *
+ *  <p>Half the channels are created a few seconds later,
+ *  so their searches back off in a different phase.
+ *  Once the first channels are found on the new server,
+ *  the remaining searches are reset to connect soon.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SearchBackoffDemo
+{
+    private static final int CHANNELS = 1000;
+    private static final int SECONDS = 20;
+
+    public static void main(String[] args) throws Exception
+    {
+        LogManager.getLogManager().readConfiguration(PVASettings.class.getResourceAsStream("/pva_logging.properties"));
+        final Logger root = Logger.getLogger("");
+        root.setLevel(Level.WARNING);
+        for (Handler handler : root.getHandlers())
+            handler.setLevel(root.getLevel());
+
+        final PVAClient client = new PVAClient();
+        final List<String> names = new ArrayList<>(CHANNELS);
+        for (int i=0; i<CHANNELS; ++i)
+            names.add("missing" + i);
+        final List<PVAChannel> channels = new ArrayList<>(client.getChannels(names.subList(0, CHANNELS/2)));
+
+        for (int second=1; second<=SECONDS; ++second)
+        {
+            if (second == 5)
+                channels.addAll(client.getChannels(names.subList(CHANNELS/2, CHANNELS)));
+            TimeUnit.SECONDS.sleep(1);
+            System.out.format("%3d s: %6d channels searched, %6.1f requests/sec, %8.1f channel searches/sec\n",
+                              second, client.getSearchedChannelCount(),
+                              client.getSearchRequestRate(), client.getChannelSearchRate());
+        }
+
+        final long start = System.nanoTime();
+        final PVAServer server = new PVAServer();
+        for (int i=0; i<CHANNELS; ++i)
+            server.createPV(names.get(i), new PVAStructure("demo", "demo_t", new PVADouble("value", i)));
+        final List<CompletableFuture<Boolean>> connected = new ArrayList<>(CHANNELS);
+        for (PVAChannel channel : channels)
+            connected.add(channel.connect());
+        CompletableFuture.allOf(connected.toArray(new CompletableFuture[CHANNELS])).get(5, TimeUnit.MINUTES);
+        System.out.format("Server started, all channels connected within %d ms\n",
+                          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        for (PVAChannel channel : channels)
+            channel.close();
+        client.close();
+        server.close();
+    }
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.combined;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+import org.epics.pva.PVASettings;
+import org.epics.pva.client.PVAChannel;
+import org.epics.pva.client.PVAClient;
+import org.epics.pva.data.PVADouble;
+import org.epics.pva.data.PVAStructure;
+import org.epics.pva.data.nt.PVATimeStamp;
+import org.epics.pva.server.PVAServer;
+import org.epics.pva.server.ServerPV;
+
+/** Compare thread-per-connection and selector-based TCP transport
+ *
+ *  <p>Starts a PVA server, then many clients which each
+ *  use their own TCP connection to monitor the same PV.
+ *  Reports the number of threads added by the TCP connections
+ *  and the received updates per second for each transport.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SelectorDemo
+{
+    private static final int CONNECTIONS = 100;
+    private static final int SECONDS = 10;
+
+    private static void run(final String title, final int selector_threads) throws Exception
+    {
+        PVASettings.EPICS_PVA_TCP_SELECTOR_THREADS = selector_threads;
+
+        final List<PVAClient> clients = new ArrayList<>();
+        for (int i=0; i<CONNECTIONS; ++i)
+            clients.add(new PVAClient());
+
+        // Start server after clients so that its UDP socket,
+        // bound last, receives the unicast search requests
+        final PVAServer server = new PVAServer();
+        final PVATimeStamp time = new PVATimeStamp();
+        final PVADouble value = new PVADouble("value", 3.13);
+        final PVAStructure data = new PVAStructure("demo", "demo_t", value, time);
+        final ServerPV pv = server.createPV("selector_demo", data);
+        final int base_threads = Thread.activeCount();
+
+        final AtomicLong updates = new AtomicLong();
+        final List<PVAChannel> channels = new ArrayList<>();
+        final List<AutoCloseable> subscriptions = new ArrayList<>();
+        for (PVAClient client : clients)
+            channels.add(client.getChannel("selector_demo"));
+        for (PVAChannel channel : channels)
+        {
+            channel.connect().get(60, TimeUnit.SECONDS);
+            subscriptions.add(channel.subscribe("", (ch, changes, overruns, received) -> updates.incrementAndGet()));
+        }
+
+        final AtomicBoolean run = new AtomicBoolean(true);
+        final Thread updater = new Thread(() ->
+        {
+            while (run.get())
+            {
+                value.set(value.get() + 1);
+                time.set(Instant.now());
+                try
+                {
+                    pv.update(data);
+                    TimeUnit.MICROSECONDS.sleep(100);
+                }
+                catch (Exception ex)
+                {
+                    ex.printStackTrace();
+                }
+            }
+        });
+        updater.start();
+
+        TimeUnit.SECONDS.sleep(1);
+        final int threads = Thread.activeCount() - base_threads;
+        updates.set(0);
+        TimeUnit.SECONDS.sleep(SECONDS);
+        final long rate = updates.get() / SECONDS;
+
+        run.set(false);
+        updater.join();
+        for (AutoCloseable subscription : subscriptions)
+            subscription.close();
+        for (PVAChannel channel : channels)
+            channel.close();
+        for (PVAClient client : clients)
+            client.close();
+        server.close();
+
+        System.out.format("%-30s %6d connections %6d TCP threads %10d updates/sec\n",
+                          title, CONNECTIONS, threads, rate);
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        LogManager.getLogManager().readConfiguration(PVASettings.class.getResourceAsStream("/pva_logging.properties"));
+        final Logger root = Logger.getLogger("");
+        root.setLevel(Level.WARNING);
+        for (Handler handler : root.getHandlers())
+            handler.setLevel(root.getLevel());
+
+        // Small scalar PV, no need for the default 8MB send buffer per connection
+        PVASettings.EPICS_PVA_SEND_BUFFER_SIZE = 64 * 1024;
+
+        run("Thread per connection", 0);
+        run("Selector, 4 threads", 4);
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.epics.pva.data;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import org.junit.Test;
+
+public class PooledArrayTest
+{
+    @Test
+    public void testBufferPool()
+    {
+        final ByteBuffer buffer = BufferPool.acquire(5000);
+        assertThat(buffer.isDirect(), equalTo(true));
+        assertThat(buffer.capacity(), equalTo(8192));
+        BufferPool.release(buffer);
+
+        // Same size class re-uses the released buffer
+        final ByteBuffer again = BufferPool.acquire(8000);
+        assertThat(again, sameInstance(buffer));
+        assertThat(again.position(), equalTo(0));
+        BufferPool.release(again);
+    }
+
+    @Test
+    public void testPooledDecode() throws Exception
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(1000);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        new PVADoubleArray("a", new double[] { 1.0, 2.0, 3.0 }).encode(buffer);
+        new PVADoubleArray("a", new double[] { 4.0, 5.0 }).encode(buffer);
+        buffer.flip();
+
+        final PVADoubleArray array = new PVADoubleArray("a");
+        array.decode(buffer, true);
+        final DoubleBuffer view = array.getBuffer();
+        assertThat(view.isReadOnly(), equalTo(true));
+        assertThat(view.remaining(), equalTo(3));
+        assertThat(view.get(2), equalTo(3.0));
+
+        // Keep first value while decoding the next one
+        final PooledBuffer kept = array.retain();
+        assertThat(kept, not(nullValue()));
+        array.decode(buffer, true);
+        assertThat(buffer.remaining(), equalTo(0));
+        assertThat(array.get(), equalTo(new double[] { 4.0, 5.0 }));
+        assertThat(view.get(0), equalTo(1.0));
+        kept.release();
+
+        // Setting a plain value drops the pooled one
+        array.set(new double[] { 6.0 });
+        assertThat(array.retain(), nullValue());
+        assertThat(array.getBuffer().get(0), equalTo(6.0));
+    }
+
+    @Test
+    public void testReplacedValue() throws Exception
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(1000);
+        new PVADoubleArray("a", new double[] { 1.0, 2.0 }).encode(buffer);
+        new PVADoubleArray("a", new double[] { 3.0 }).encode(buffer);
+        buffer.flip();
+
+        final PVADoubleArray array = new PVADoubleArray("a");
+        array.decode(buffer, true);
+        assertThat(array.get(), equalTo(new double[] { 1.0, 2.0 }));
+
+        // Copy of the replaced value must not be returned for the new one
+        final PooledBuffer first = array.retain();
+        array.decode(buffer, true);
+        assertThat(array.get(), equalTo(new double[] { 3.0 }));
+
+        // Released buffer cannot be retained again
+        first.release();
+        assertThat(first.tryRetain(), equalTo(false));
+    }
+}
@@ -16,6 +16,7 @@ import org.phoebus.framework.preferences.PreferencesReader;
 public class Preferences
 {
     public static final String url;
+    public static final String write_url;
     public static final String user;
     public static final String password;
     public static final String schema;
@@ -24,9 +25,14 @@ public class Preferences
     public static final String write_sample_table;
     public static final int max_text_sample_length;
     public static final boolean use_postgres_copy;
+    public static final boolean use_postgres_binary_copy;
     public static final int log_trouble_samples;
     public static final int log_overrun;
     public static final int write_period;
+    public static final int write_threads;
+    public static final String spool_directory;
+    public static final int spool_segment_size;
+    public static final int spool_replay_rate;
     public static final int max_repeats;
     public static final int batch_size;
     public static final double buffer_reserve;
@@ -37,6 +43,7 @@ public class Preferences
     {
         final PreferencesReader prefs = new PreferencesReader(Preferences.class, "/archive_preferences.properties");
         url = prefs.get("url");
+        write_url = prefs.get("write_url");
         user = prefs.get("user");
         password = prefs.get("password");
         schema = prefs.get("schema");
@@ -45,9 +52,14 @@ public class Preferences
         write_sample_table = prefs.get("write_sample_table");
         max_text_sample_length = prefs.getInt("max_text_sample_length");
         use_postgres_copy = prefs.getBoolean("use_postgres_copy");
+        use_postgres_binary_copy = prefs.getBoolean("use_postgres_binary_copy");
         log_trouble_samples = prefs.getInt("log_trouble_samples");
         log_overrun = prefs.getInt("log_overrun");
         write_period = prefs.getInt("write_period");
+        write_threads = prefs.getInt("write_threads");
+        spool_directory = prefs.get("spool_directory");
+        spool_segment_size = prefs.getInt("spool_segment_size");
+        spool_replay_rate = prefs.getInt("spool_replay_rate");
         max_repeats = prefs.getInt("max_repeats");
         batch_size = prefs.getInt("batch_size");
         buffer_reserve = prefs.getDouble("buffer_reserve");
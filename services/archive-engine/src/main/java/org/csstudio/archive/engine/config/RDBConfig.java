@@ -16,7 +16,9 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 import org.csstudio.archive.Preferences;
@@ -30,12 +32,26 @@ import org.phoebus.framework.rdb.RDBInfo;
 @SuppressWarnings("nls")
 public class RDBConfig implements AutoCloseable
 {
+    /** Number of channels to insert or update per batch */
+    private static final int BATCH_SIZE = 1000;
+
     private final RDBInfo rdb;
     private final SQL sql;
     private final Connection connection;
     private int scan_mode_id = 0;
     private int monitor_mode_id = 1;
 
+    /** Existing channels for bulk import, name to { channel_id, grp_id }, grp_id 0 for none.
+     *  <code>null</code> until first bulk import.
+     */
+    private Map<String, int[]> channels = null;
+
+    /** Group names by ID for bulk import */
+    private Map<Integer, String> groups;
+
+    /** Next channel ID for bulk import */
+    private int next_channel_id;
+
     /** @throws Exception on error */
     public RDBConfig() throws Exception
     {
@@ -276,6 +292,137 @@ public class RDBConfig implements AutoCloseable
         }
     }
 
+    /** Load existing channels and groups for bulk import */
+    private void loadChannels() throws Exception
+    {
+        logger.log(Level.INFO, "Reading existing channels and groups");
+        channels = new HashMap<>();
+        groups = new HashMap<>();
+        next_channel_id = 1;
+        try
+        (
+            Statement statement = connection.createStatement();
+        )
+        {
+            statement.setFetchSize(1000);
+            try
+            (
+                ResultSet result = statement.executeQuery(sql.chan_grp_sel_all);
+            )
+            {
+                while (result.next())
+                    groups.put(result.getInt(1), result.getString(2));
+            }
+            try
+            (
+                ResultSet result = statement.executeQuery(sql.channel_sel_all);
+            )
+            {
+                while (result.next())
+                {
+                    final int channel_id = result.getInt(1);
+                    // getInt returns 0 for null grp_id
+                    channels.put(result.getString(2), new int[] { channel_id, result.getInt(3) });
+                    next_channel_id = Math.max(next_channel_id, channel_id + 1);
+                }
+            }
+        }
+        logger.log(Level.INFO, "Found " + channels.size() + " channels in " + groups.size() + " groups");
+    }
+
+    /** Add channels to a group
+     *
+     *  <p>Bulk version of {@link #addChannel}.
+     *  Existing channels and groups are read once,
+     *  new channel IDs are assigned from the highest existing ID,
+     *  and all channels of the group are inserted or updated
+     *  in batches within one transaction.
+     *
+     *  <p>Assumes that no other program adds channels
+     *  while the import is running.
+     *
+     *  @param group_id Group where to add channels
+     *  @param group_name Name of that group
+     *  @param steal_channels Steal from other group, if channel already attached?
+     *  @param new_channels Names and sample modes of channels to add
+     *  @throws Exception on error, including existing channel.
+     *                    In that case, none of the channels are added.
+     */
+    public void addChannels(final int group_id, final String group_name, final boolean steal_channels,
+                            final Map<String, SampleMode> new_channels) throws Exception
+    {
+        if (channels == null)
+            loadChannels();
+        groups.put(group_id, group_name);
+
+        final Map<String, int[]> members = new HashMap<>();
+        int added = 0, updated = 0;
+        final int original_next_channel_id = next_channel_id;
+        connection.setAutoCommit(false);
+        try
+        (
+            PreparedStatement insert = connection.prepareStatement(sql.channel_insert);
+            PreparedStatement update = connection.prepareStatement(sql.channel_update);
+        )
+        {
+            for (Map.Entry<String, SampleMode> entry : new_channels.entrySet())
+            {
+                final String name = entry.getKey();
+                final SampleMode mode = entry.getValue();
+                int[] existing = channels.get(name);
+                final PreparedStatement statement;
+                if (existing != null)
+                {
+                    // Check if existing channel is simply an old one with data,
+                    // or currently listed in another engine's group
+                    if (existing[1] > 0  &&  !steal_channels)
+                        throw new Exception("Channel '" + name + "' is already in group '" + groups.get(existing[1]) + "' (" + existing[1] + "). Use option -steal_channels to move to this engine.");
+                    logger.log(Level.FINE, "Updating channel '" + name + "' (" + existing[0] + ")");
+                    statement = update;
+                    ++updated;
+                }
+                else
+                {
+                    existing = new int[] { next_channel_id++, 0 };
+                    logger.log(Level.FINE, "Adding new channel '" + name + "' (" + existing[0] + ")");
+                    statement = insert;
+                    ++added;
+                }
+                statement.setInt(1, group_id);
+                statement.setString(2, name);
+                statement.setInt(3, mode.isMonitor() ? monitor_mode_id : scan_mode_id);
+                statement.setDouble(4, mode.getDelta());
+                statement.setDouble(5, mode.getPeriod());
+                statement.setInt(6, existing[0]);
+                statement.addBatch();
+                members.put(name, new int[] { existing[0], group_id });
+                if (statement == insert  &&  added % BATCH_SIZE == 0)
+                    insert.executeBatch();
+                else if (statement == update  &&  updated % BATCH_SIZE == 0)
+                    update.executeBatch();
+            }
+            if (added % BATCH_SIZE != 0)
+                insert.executeBatch();
+            if (updated % BATCH_SIZE != 0)
+                update.executeBatch();
+            connection.commit();
+        }
+        catch (Exception ex)
+        {
+            connection.rollback();
+            next_channel_id = original_next_channel_id;
+            throw ex;
+        }
+        finally
+        {
+            connection.setAutoCommit(true);
+        }
+
+        // Remember channels as members of this group
+        channels.putAll(members);
+        logger.log(Level.INFO, "Group '" + group_name + "' (" + group_id + "): Added " + added + ", updated " + updated + " channels");
+    }
+
     /** @param config_name Name of engine config to delete
      *  @param complete Delete the sample engine entry itself, or leave that after unlinking all groups and channels?
      *  @throws Exception on error
@@ -347,6 +494,8 @@ public class RDBConfig implements AutoCloseable
         finally
         {
             connection.setAutoCommit(true);
+            // Channels were removed from groups
+            channels = null;
         }
     }
 
@@ -397,59 +546,56 @@ public class RDBConfig implements AutoCloseable
      */
     private void readGroups(final EngineModel model, final int engine_id, final boolean skip_last) throws Exception
     {
+        // Read all groups and channels, including the last sample time, in one query
+        int channel_count = 0;
         try
         (
-            PreparedStatement sel_groups = connection.prepareStatement(sql.chan_grp_sel_by_eng_id);
-            PreparedStatement sel_chann = connection.prepareStatement(sql.channel_sel_by_group_id);
-            PreparedStatement sel_last_sample_time = connection.prepareStatement(sql.sel_last_sample_time_by_id);
+            PreparedStatement statement = connection.prepareStatement(skip_last
+                                                                      ? sql.channel_sel_by_engine_id
+                                                                      : sql.channel_sel_with_last_time_by_engine_id);
         )
         {
-            sel_groups.setInt(1, engine_id);
-            final ResultSet grp_result = sel_groups.executeQuery();
-            while (grp_result.next())
+            statement.setFetchSize(1000);
+            statement.setInt(1, engine_id);
+            final ResultSet result = statement.executeQuery();
+            int grp_id = -1, enabling_chan_id = -1;
+            ArchiveGroup group = null;
+            while (result.next())
             {
-                final int grp_id = grp_result.getInt(1);
-                final String grp_name = grp_result.getString(2);
-                final int enabling_chan_id = grp_result.getInt(3);
-                logger.log(Level.INFO, "Group '" + grp_name + "' (" + grp_id + ")");
-
-                // Add channels to group
-                final ArchiveGroup group = model.addGroup(grp_name);
-
-                sel_chann.setInt(1, grp_id);
-                final ResultSet chann_result = sel_chann.executeQuery();
-                while (chann_result.next())
+                if (group == null  ||  result.getInt(1) != grp_id)
                 {
-                    final int channel_id = chann_result.getInt(1);
-                    final String name = chann_result.getString(2);
-                    final int smpl_mode_id = Math.max(1, chann_result.getInt(3));
-                    final double smpl_val = chann_result.getDouble(4);
-                    final double smpl_per = chann_result.getDouble(5);
-
-                    Instant last_sample_time = null;
-                    if (! skip_last)
-                    {
-                        sel_last_sample_time.setInt(1, channel_id);
-                        final ResultSet result = sel_last_sample_time.executeQuery();
-                        if (result.next())
-                            last_sample_time = TimestampHelper.fromSQLTimestamp(result.getTimestamp(1));
-                        result.close();
-                    }
-
-                    Enablement enablement = Enablement.Passive;
-                    if (channel_id == enabling_chan_id)
-                        enablement = Enablement.Enabling;
-                    final SampleMode sample_mode = new SampleMode(smpl_mode_id == monitor_mode_id, smpl_val,  smpl_per);
-
-                    logger.log(Level.INFO, "Channel '" + name + "' (" + channel_id + "), " + sample_mode +
-                                           (last_sample_time != null ? ", last written " + last_sample_time : ""));
-                    model.addChannel(name, group, enablement, sample_mode, last_sample_time);
+                    grp_id = result.getInt(1);
+                    final String grp_name = result.getString(2);
+                    enabling_chan_id = result.getInt(3);
+                    logger.log(Level.INFO, "Group '" + grp_name + "' (" + grp_id + ")");
+                    group = model.addGroup(grp_name);
                 }
-                chann_result.close();
 
+                // Empty group has null channel
+                final String name = result.getString(5);
+                if (name == null)
+                    continue;
+                final int channel_id = result.getInt(4);
+                final int smpl_mode_id = Math.max(1, result.getInt(6));
+                final double smpl_val = result.getDouble(7);
+                final double smpl_per = result.getDouble(8);
+                final Instant last_sample_time = skip_last
+                                               ? null
+                                               : TimestampHelper.fromSQLTimestamp(result.getTimestamp(9));
+
+                Enablement enablement = Enablement.Passive;
+                if (channel_id == enabling_chan_id)
+                    enablement = Enablement.Enabling;
+                final SampleMode sample_mode = new SampleMode(smpl_mode_id == monitor_mode_id, smpl_val,  smpl_per);
+
+                logger.log(Level.FINE, "Channel '" + name + "' (" + channel_id + "), " + sample_mode +
+                                       (last_sample_time != null ? ", last written " + last_sample_time : ""));
+                model.addChannel(name, group, enablement, sample_mode, last_sample_time);
+                ++channel_count;
             }
-            grp_result.close();
+            result.close();
         }
+        logger.log(Level.INFO, "Read " + channel_count + " channels");
     }
 
     @Override
@@ -30,10 +30,13 @@ public class SQL
     final public String chan_grp_insert;
     final public String chan_grp_next_id;
     final public String chan_grp_sel_by_channel;
+    final public String chan_grp_sel_all;
     final public String chan_grp_set_enable_channel;
 
     // 'channel' table
-    final public String channel_sel_by_group_id;
+    final public String channel_sel_by_engine_id;
+    final public String channel_sel_with_last_time_by_engine_id;
+    final public String channel_sel_all;
     final public String channel_sel_by_id;
     final public String channel_sel_by_name;
     final public String channel_clear_grp_for_engine;
@@ -44,9 +47,6 @@ public class SQL
     // 'sample mode' table
     final public String sample_mode_sel;
 
-    // 'sample' table
-    final public String sel_last_sample_time_by_id;
-
     /** Initialize
      *  @param dialect RDB dialect
      *  @param schema Schema prefix, does not include "."
@@ -73,10 +73,23 @@ public class SQL
         chan_grp_sel_by_channel = "SELECT g.grp_id, g.name FROM " + schema + "chan_grp g " +
                                   "JOIN " + schema + "channel c ON g.grp_id = c.grp_id " +
                                   "WHERE c.name=?";
+        chan_grp_sel_all = "SELECT grp_id, name FROM " + schema + "chan_grp";
         chan_grp_set_enable_channel = "UPDATE " + schema + "chan_grp SET enabling_chan_id=? WHERE grp_id=?";
 
         // 'channel' table
-        channel_sel_by_group_id = "SELECT channel_id, name, smpl_mode_id, smpl_val, smpl_per FROM " + schema + "channel WHERE grp_id=? ORDER BY name";
+        // Groups of engine with their channels, including empty groups.
+        // Last sample time per channel is looked up via the sample table index
+        final String channel_by_engine_columns =
+            "SELECT g.grp_id, g.name, g.enabling_chan_id, c.channel_id, c.name, c.smpl_mode_id, c.smpl_val, c.smpl_per";
+        final String channel_by_engine_tables =
+            " FROM " + schema + "chan_grp g " +
+            "LEFT JOIN " + schema + "channel c ON c.grp_id = g.grp_id " +
+            "WHERE g.eng_id=? ORDER BY g.name, g.grp_id, c.name";
+        channel_sel_by_engine_id = channel_by_engine_columns + channel_by_engine_tables;
+        channel_sel_with_last_time_by_engine_id = channel_by_engine_columns +
+            ", (SELECT MAX(s.smpl_time) FROM " + schema + "sample s WHERE s.channel_id = c.channel_id)" +
+            channel_by_engine_tables;
+        channel_sel_all = "SELECT channel_id, name, grp_id FROM " + schema + "channel";
         channel_sel_by_id = "SELECT name FROM " + schema + "channel WHERE channel_id=?";
         channel_sel_by_name = "SELECT channel_id FROM " + schema + "channel WHERE name=?";
         channel_clear_grp_for_engine =
@@ -88,8 +101,5 @@ public class SQL
 
         // 'sample mode' table
         sample_mode_sel = "SELECT smpl_mode_id, name FROM " + schema + "smpl_mode";
-
-        // 'sample' table
-        sel_last_sample_time_by_id = "SELECT MAX(smpl_time) FROM " + schema + "sample WHERE channel_id=?";
     }
 }
@@ -11,6 +11,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamWriter;
@@ -21,6 +23,7 @@ import org.csstudio.archive.engine.model.DeltaArchiveChannel;
 import org.csstudio.archive.engine.model.Enablement;
 import org.csstudio.archive.engine.model.EngineModel;
 import org.csstudio.archive.engine.model.MonitoredArchiveChannel;
+import org.csstudio.archive.engine.model.SampleMode;
 import org.csstudio.archive.engine.model.ScannedArchiveChannel;
 import org.phoebus.framework.persistence.IndentingXMLStreamWriter;
 import org.phoebus.framework.persistence.XMLUtil;
@@ -139,6 +142,7 @@ public class XMLConfig
 
             final int group_id = config.createGroup(engine_id, group_name);
 
+            final Map<String, SampleMode> channels = new LinkedHashMap<>();
             for (Element ce : XMLUtil.getChildElements(ge, CHANNEL))
             {
                 final String name = XMLUtil.getChildString(ce, NAME)
@@ -146,10 +150,9 @@ public class XMLConfig
                 final boolean monitor = XMLUtil.getChildElement(ce, MONITOR) != null;
                 final double period = SecondsParser.parseSeconds(XMLUtil.getChildString(ce, PERIOD).orElse("60.0"));
                 final double delta = XMLUtil.getChildDouble(ce, DELTA).orElse(-1.0);
-                final boolean enable = XMLUtil.getChildBoolean(ce, ENABLE).orElse(false);
-
-                config.addChannel(group_id, steal_channels, name, monitor, period, delta, enable);
+                channels.put(name, new SampleMode(monitor, delta, period));
             }
+            config.addChannels(group_id, group_name, steal_channels, channels);
         }
     }
 }
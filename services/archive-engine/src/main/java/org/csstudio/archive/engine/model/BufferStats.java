@@ -61,4 +61,10 @@ public class BufferStats
     {
         ++overruns;
     }
+
+    /** @param count Number of overruns to add */
+    synchronized public void addOverruns(final int count)
+    {
+        overruns += count;
+    }
 }
@@ -11,6 +11,7 @@ import static org.csstudio.archive.Engine.logger;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,8 +41,10 @@ public class EngineModel
     /** Name of this model */
     private String name = "Archive Engine";  //$NON-NLS-1$
 
-    /** Thread that writes to the <code>archive</code> */
-    final private WriteThread writer;
+    /** Threads that write to the <code>archive</code>,
+     *  each handling one shard of the channels
+     */
+    final private List<WriteThread> writers = new ArrayList<>();
 
     /** All the channels.
      *  <p>
@@ -91,7 +94,12 @@ public class EngineModel
     /** Construct model that writes to archive */
     public EngineModel()
     {
-        writer = new WriteThread();
+        final int shards = Math.max(1, Preferences.write_threads);
+        if (shards == 1)
+            writers.add(new WriteThread());
+        else
+            for (int i=0; i<shards; ++i)
+                writers.add(new WriteThread("WriteThread " + (i+1)));
     }
 
     /** @return Name (description) */
@@ -263,7 +271,7 @@ public class EngineModel
             channels.add(channel);
             channel_by_name.put(channel.getName(), channel);
         }
-        writer.addChannel(channel);
+        getWriter(channel.getName()).addChannel(channel);
 
         // Connect new or old channel to group
         channel.addGroup(group);
@@ -277,7 +285,10 @@ public class EngineModel
     {
         start_time = Instant.now();
         state = State.RUNNING;
-        writer.start(Preferences.write_period, Preferences.batch_size);
+        // Stagger the write threads across the write period
+        for (int i=0; i<writers.size(); ++i)
+            writers.get(i).start(Preferences.write_period, Preferences.batch_size,
+                                 (double) i * Preferences.write_period / writers.size());
         for (ArchiveGroup group : groups)
         {
             group.start();
@@ -290,22 +301,72 @@ public class EngineModel
         scan_thread.start();
     }
 
-    /** @return Timestamp of end of last write run */
+    /** @param channel_name Channel name
+     *  @return Write thread for that channel's shard
+     */
+    private WriteThread getWriter(final String channel_name)
+    {
+        return writers.get(Math.floorMod(channel_name.hashCode(), writers.size()));
+    }
+
+    /** @return Write threads, one per shard of the channels */
+    public List<WriteThread> getWriters()
+    {
+        return Collections.unmodifiableList(writers);
+    }
+
+    /** @return Timestamp of end of last write run,
+     *          i.e. the oldest of all write threads,
+     *          or <code>null</code> if any thread has not written
+     */
     public Instant getLastWriteTime()
     {
-        return writer.getLastWriteTime();
+        Instant oldest = null;
+        for (WriteThread writer : writers)
+        {
+            final Instant time = writer.getLastWriteTime();
+            if (time == null)
+                return null;
+            if (oldest == null  ||  time.isBefore(oldest))
+                oldest = time;
+        }
+        return oldest;
     }
 
-    /** @return Average number of values per write run */
+    /** @return Average number of values per write run, sum of all write threads */
     public double getWriteCount()
     {
-        return writer.getWriteCount();
+        double count = 0.0;
+        for (WriteThread writer : writers)
+            count += writer.getWriteCount();
+        return count;
     }
 
-    /** @return  Average duration of write run in seconds */
+    /** @return  Average duration of write run in seconds, maximum of all write threads */
     public double getWriteDuration()
     {
-        return writer.getWriteDuration();
+        double duration = 0.0;
+        for (WriteThread writer : writers)
+            duration = Math.max(duration, writer.getWriteDuration());
+        return duration;
+    }
+
+    /** @return Number of samples spooled by all write threads, waiting to be written */
+    public long getSpooledSamples()
+    {
+        long count = 0;
+        for (WriteThread writer : writers)
+            count += writer.getSpooledSamples();
+        return count;
+    }
+
+    /** @return <code>true</code> if any write thread is experiencing write errors */
+    public boolean isInErrorState()
+    {
+        for (WriteThread writer : writers)
+            if (writer.isInErrorState())
+                return true;
+        return false;
     }
 
     /** @see Scanner#getIdlePercentage() */
@@ -344,7 +405,8 @@ public class EngineModel
     /** Reset engine statistics */
     public void reset()
     {
-        writer.reset();
+        for (WriteThread writer : writers)
+            writer.reset();
         scanner.reset();
         synchronized (this)
         {
@@ -368,7 +430,24 @@ public class EngineModel
             group.stop();
         // Flush all values out
         logger.info("Stopping writer");
-        writer.shutdown();
+        // Stop all threads, then report the first error
+        Exception error = null;
+        for (WriteThread writer : writers)
+        {
+            try
+            {
+                writer.shutdown();
+            }
+            catch (Exception ex)
+            {
+                if (error == null)
+                    error = ex;
+                else
+                    error.addSuppressed(ex);
+            }
+        }
+        if (error != null)
+            throw error;
         // Update state
         state = State.IDLE;
         start_time = null;
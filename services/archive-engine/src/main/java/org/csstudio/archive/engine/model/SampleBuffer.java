@@ -7,18 +7,27 @@
  ******************************************************************************/
 package org.csstudio.archive.engine.model;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.csstudio.archive.Preferences;
 import org.csstudio.archive.ThrottledLogger;
 import org.epics.vtype.VType;
-import org.phoebus.framework.util.RingBuffer;
 
 /** Buffer for the samples of one channel.
  *
- *  <p>Assumes that one thread adds samples, while a different
- *  thread removes them.
+ *  <p>Samples can be added by several threads without locking,
+ *  while one thread at a time removes them, typically
+ *  in bulk via {@link #drainTo(Collection)}.
  *  When the queue size is reached, older samples get dropped.
+ *  Dropped samples are counted as overruns when the buffer is drained.
+ *
+ *  <p>Samples that were removed but could not be written
+ *  can be returned via {@link #returnSamples(List)}.
+ *  They are then removed again before any newer samples.
  *
  *  @author Kay Kasemir
  */
@@ -36,21 +45,27 @@ public class SampleBuffer
     final private String retention;
 
     /** The actual samples in a thread-save queue. */
-    final private RingBuffer<VType> samples;
+    final private SampleRing<VType> samples;
+
+    /** Samples that were returned because they could not be written.
+     *  Only accessed by the thread that removes samples
+     */
+    final private ArrayDeque<VType> returned = new ArrayDeque<>();
+
+    /** Number of samples in 'returned' */
+    private volatile int returned_count = 0;
 
     /** Statistics */
     final private BufferStats stats = new BufferStats();
 
-    /** Number of overruns when new string of overruns started, or <code>null</code> */
-    private Integer start_of_overruns;
+    /** Overruns of the sample ring that have been added to stats */
+    private long reported_overruns = 0;
 
     /** Logger for overrun messages */
     final private static ThrottledLogger overrun_msg = new ThrottledLogger(Level.WARNING, Preferences.log_overrun);
 
-    /** Is the buffer in an error state because of RDB write errors?
-     *  Note that this is global for all buffers, not per instance!
-     */
-    private static volatile boolean error = false;
+    /** Is the buffer in an error state because of RDB write errors? */
+    private volatile boolean error = false;
 
     /** Create sample buffer of given capacity
      * @deprecated Use {@link #SampleBuffer(String,String,int)} instead*/
@@ -66,7 +81,7 @@ public class SampleBuffer
     {
         this.channel_name = channel_name;
         this.retention = retention;
-        samples = new RingBuffer<>(capacity);
+        samples = new SampleRing<>(capacity);
     }
 
     /** @return channel name of this buffer */
@@ -84,62 +99,127 @@ public class SampleBuffer
     /** @return Queue capacity, i.e. maximum queue size. */
     public int getCapacity()
     {
-        synchronized (samples)
-        {
-            return samples.getCapacity();
-        }
+        return samples.getCapacity();
     }
 
     /** @return Current queue size, i.e. number of samples in the queue. */
     public int getQueueSize()
     {
-        synchronized (samples)
-        {
-            return samples.size();
-        }
+        return returned_count + samples.size();
     }
 
-    /** @return <code>true</code> if currently experiencing write errors */
-    public static boolean isInErrorState()
+    /** @return <code>true</code> if the thread that writes this buffer
+     *          is currently experiencing write errors
+     */
+    public boolean isInErrorState()
     {
         return error;
     }
 
     /** Set the error state. */
-    static void setErrorState(final boolean error)
+    void setErrorState(final boolean error)
     {
-        SampleBuffer.error = error;
+        this.error = error;
     }
 
     /** Add a sample to the queue, maybe dropping older samples */
-    @SuppressWarnings("nls")
     void add(final VType value)
     {
-        synchronized (samples)
+        samples.add(value);
+    }
+
+    /** @return oldest sample in queue or <code>null</code> if empty */
+    VType remove()
+    {
+        final List<VType> sample = new ArrayList<>(1);
+        drain(sample, 1);
+        return sample.isEmpty() ? null : sample.get(0);
+    }
+
+    /** Remove all samples from the queue
+     *
+     *  <p>Must only be called by one thread at a time.
+     *
+     *  @param target Collection to which samples are added, oldest sample first
+     *  @return Number of samples that were removed
+     */
+    int drainTo(final Collection<? super VType> target)
+    {
+        return drain(target, Integer.MAX_VALUE);
+    }
+
+    /** Remove samples from the queue
+     *
+     *  <p>Must only be called by one thread at a time.
+     *
+     *  @param target Collection to which samples are added, oldest sample first
+     *  @param max_samples Maximum number of samples to remove
+     *  @return Number of samples that were removed
+     */
+    int drainTo(final Collection<? super VType> target, final int max_samples)
+    {
+        return drain(target, max_samples);
+    }
+
+    /** Return samples that could not be written
+     *
+     *  <p>Must only be called by the thread that removes samples.
+     *  Returned samples are removed again before any samples
+     *  that are still in the queue.
+     *  When this exceeds the capacity, the oldest returned samples
+     *  are dropped and counted as overruns.
+     *
+     *  @param unwritten Samples that were removed but not written, oldest sample first
+     */
+    @SuppressWarnings("nls")
+    void returnSamples(final List<VType> unwritten)
+    {
+        for (int i=unwritten.size()-1; i>=0; --i)
+            returned.addFirst(unwritten.get(i));
+        int dropped = 0;
+        while (returned.size() > samples.getCapacity())
         {
-            if (samples.isFull())
-            {   // Note start of overruns, then drop older sample
-                if (start_of_overruns == null)
-                    start_of_overruns = Integer.valueOf(stats.getOverruns());
-                stats.addOverrun();
-            }
-            else if (start_of_overruns != null)
-            {   // Ending a string of overruns. Maybe log it.
-                final int overruns = stats.getOverruns() - start_of_overruns;
-                overrun_msg.log(channel_name + ": " + overruns + " overruns");
-                start_of_overruns = null;
-            }
-            samples.add(value);
+            returned.removeFirst();
+            ++dropped;
+        }
+        returned_count = returned.size();
+        if (dropped > 0)
+        {
+            stats.addOverruns(dropped);
+            overrun_msg.log(channel_name + ": " + dropped + " overruns");
         }
     }
 
-    /** @return latest sample in queue or <code>null</code> if empty */
-    VType remove()
+    /** Remove samples, updating overrun statistics
+     *  @param target Collection to which samples are added
+     *  @param max_samples Maximum number of samples to remove
+     *  @return Number of samples that were removed
+     */
+    @SuppressWarnings("nls")
+    private int drain(final Collection<? super VType> target, final int max_samples)
     {
-        synchronized (samples)
+        int count = 0;
+        if (! returned.isEmpty())
         {
-            return samples.remove();
+            while (count < max_samples  &&  ! returned.isEmpty())
+            {
+                target.add(returned.removeFirst());
+                ++count;
+            }
+            returned_count = returned.size();
+            if (count >= max_samples)
+                return count;
+        }
+        count += samples.drainTo(target, max_samples - count);
+        final long overruns = samples.getOverruns();
+        if (overruns > reported_overruns)
+        {   // Samples were dropped since the last call. Maybe log it.
+            final int dropped = (int) (overruns - reported_overruns);
+            reported_overruns = overruns;
+            stats.addOverruns(dropped);
+            overrun_msg.log(channel_name + ": " + dropped + " overruns");
         }
+        return count;
     }
 
     /** Update stats with current values */
@@ -157,7 +237,6 @@ public class SampleBuffer
     /** Reset statistics */
     public void reset()
     {
-        start_of_overruns = null;
         stats.reset();
     }
 
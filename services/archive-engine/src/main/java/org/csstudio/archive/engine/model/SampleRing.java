@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** Lock-free ring buffer for samples
+ *
+ *  <p>Any number of threads may add samples without locking.
+ *  One thread at a time removes samples, typically in bulk via
+ *  {@link #drainTo(Collection, int)}.
+ *  When the ring is full, newly added samples replace the oldest ones.
+ *
+ *  <p>Each added sample receives a sequence number,
+ *  which is kept next to the sample in its slot.
+ *  This allows the reader to detect samples that have been replaced
+ *  before they could be read, and to count those overruns exactly,
+ *  while keeping the remaining samples in the order they were added.
+ *
+ *  @author agent
+ *  @param <T> Sample type
+ */
+class SampleRing<T>
+{
+    /** Sequence number of a slot that's being updated */
+    private static final long BUSY = Long.MIN_VALUE;
+
+    /** Sequence number of the sample in each slot */
+    private final AtomicLongArray sequences;
+
+    /** Sample in each slot */
+    private final AtomicReferenceArray<T> samples;
+
+    /** Sequence number of the next sample to add */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Sequence number of the next sample to read.
+     *  Only updated by the reader
+     */
+    private volatile long head = 0;
+
+    /** Number of samples that were replaced before they could be read.
+     *  Only updated by the reader
+     */
+    private volatile long overruns = 0;
+
+    /** @param capacity Number of samples that the ring can hold */
+    @SuppressWarnings("nls")
+    SampleRing(final int capacity)
+    {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        sequences = new AtomicLongArray(capacity);
+        samples = new AtomicReferenceArray<>(capacity);
+        // Mark slots as empty by pretending they hold
+        // the sample from one round before the first
+        for (int i=0; i<capacity; ++i)
+            sequences.set(i, i - capacity);
+    }
+
+    /** @return Number of samples that the ring can hold */
+    int getCapacity()
+    {
+        return samples.length();
+    }
+
+    /** @return Number of samples in the ring */
+    int size()
+    {
+        final long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, samples.length()));
+    }
+
+    /** @return Number of samples that were replaced before they could be read,
+     *          as detected by the reader so far
+     */
+    long getOverruns()
+    {
+        return overruns;
+    }
+
+    /** Add a sample, replacing the oldest sample when full
+     *
+     *  <p>May be called by several threads concurrently.
+     *
+     *  @param sample Sample to add
+     */
+    void add(final T sample)
+    {
+        final long sequence = tail.getAndIncrement();
+        final int index = (int) (sequence % samples.length());
+        while (true)
+        {
+            final long current = sequences.get(index);
+            if (current == BUSY)
+                Thread.onSpinWait(); // Slot is briefly updated by another thread
+            else if (current > sequence)
+                return; // A faster thread already placed a newer sample into the slot
+            else if (sequences.compareAndSet(index, current, BUSY))
+            {
+                samples.set(index, sample);
+                sequences.set(index, sequence);
+                return;
+            }
+        }
+    }
+
+    /** Remove samples
+     *
+     *  <p>Must only be called by one thread at a time.
+     *
+     *  @param target Collection to which samples are added, oldest sample first
+     *  @param max_samples Maximum number of samples to remove
+     *  @return Number of samples that were removed
+     */
+    int drainTo(final Collection<? super T> target, final int max_samples)
+    {
+        final int capacity = samples.length();
+        final long end = tail.get();
+        long next = head;
+        long lost = 0;
+
+        // Skip samples that have certainly been replaced
+        if (end - next > capacity)
+        {
+            lost += end - capacity - next;
+            next = end - capacity;
+        }
+
+        int count = 0;
+        while (next < end  &&  count < max_samples)
+        {
+            final int index = (int) (next % capacity);
+            final long current = sequences.get(index);
+            if (current == BUSY  ||  current < next)
+                break; // Sample has been reserved, but not added, yet
+            // Lock slot to read and release the sample,
+            // which fails if the sample has been replaced
+            if (current == next  &&  sequences.compareAndSet(index, next, BUSY))
+            {
+                target.add(samples.get(index));
+                samples.set(index, null);
+                sequences.set(index, next);
+                ++count;
+            }
+            else
+                ++lost;
+            ++next;
+        }
+
+        head = next;
+        if (lost > 0)
+            overruns += lost;
+        return count;
+    }
+}
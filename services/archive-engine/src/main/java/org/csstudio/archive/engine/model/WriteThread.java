@@ -9,10 +9,16 @@ package org.csstudio.archive.engine.model;
 
 import static org.csstudio.archive.Engine.logger;
 
+import java.io.File;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
+import org.csstudio.archive.Preferences;
+import org.csstudio.archive.engine.spool.SampleSpool;
 import org.csstudio.archive.writer.ArchiveWriter;
 import org.csstudio.archive.writer.ArchiveWriterFactory;
 import org.csstudio.archive.writer.WriteChannel;
@@ -21,13 +27,21 @@ import org.epics.vtype.VType;
 /** Thread that writes values from multiple <code>SampleBuffer</code>s
  *  to an <code>RDBArchiveServer</code>.
  *  <p>
+ *  The engine may use several write threads, each handling
+ *  one shard of the channels via its own archive writer connection.
+ *  <p>
  *  When there are write errors, it sets the sample buffer error state
  *  and tries to reconnect to the database and write again until successful.
  *  Since the Oracle batch mechanism doesn't tell us what exactly failed
- *  in a batch, all the samples that were part of the batch might
- *  be lost.
+ *  in a batch, all the samples that were part of the batch are returned
+ *  to their sample buffers and written again on the next attempt.
  *  The channels that add samples to the sample buffer supposedly notice
  *  the error condition and add a special indicator once we recover.
+ *  <p>
+ *  With a spool directory configured, samples that cannot be written,
+ *  including those of a failed batch, are instead appended to a
+ *  {@link SampleSpool} while the database is unreachable,
+ *  and replayed once writes succeed again.
  *
  *  @author Kay Kasemir
  */
@@ -36,8 +50,11 @@ public class WriteThread implements Runnable
     /** Minimum write period [seconds] */
     private static final double MIN_WRITE_PERIOD = 5.0;
 
+    /** Name of this thread */
+    final private String name;
+
     /** Server to which this thread writes. */
-    private ArchiveWriter writer;
+    ArchiveWriter writer;
 
     /** All the sample buffers this thread writes. */
     final private ArrayList<SampleBuffer> buffers =
@@ -54,6 +71,27 @@ public class WriteThread implements Runnable
     /** Delay between write runs. */
     private long millisec_delay = 5000;
 
+    /** Delay before the first write run. */
+    private long millisec_initial_delay = 0;
+
+    /** Samples removed from one buffer, re-used for each write */
+    final private ArrayList<VType> samples = new ArrayList<>();
+
+    /** Spool for samples that cannot be written, or <code>null</code> */
+    private SampleSpool spool = null;
+
+    /** Maximum number of spooled samples to replay per write run */
+    private int max_replay = 0;
+
+    /** Did the spool capture all samples that could not be written? */
+    private boolean spool_ok = true;
+
+    /** Buffers of samples added to the writer since last flush */
+    final private List<SampleBuffer> unflushed_buffers = new ArrayList<>();
+
+    /** Samples added to the writer since last flush */
+    final private List<VType> unflushed_samples = new ArrayList<>();
+
     /** Number of values to place into one batch */
     private int batch_size = 500;
 
@@ -66,9 +104,39 @@ public class WriteThread implements Runnable
     /** Average duration of write run */
     private Average write_time = new Average();
 
+    /** Did the last write run fail? */
+    private volatile boolean write_error = false;
+
     /** Thread the executes this.run() */
     private Thread thread;
 
+    /** Create write thread */
+    @SuppressWarnings("nls")
+    public WriteThread()
+    {
+        this("WriteThread");
+    }
+
+    /** Create write thread
+     *  @param name Thread name
+     */
+    public WriteThread(final String name)
+    {
+        this.name = name;
+    }
+
+    /** @return Name of this write thread */
+    public String getName()
+    {
+        return name;
+    }
+
+    /** @return Number of channels written by this thread */
+    public int getChannelCount()
+    {
+        return buffers.size();
+    }
+
     /** Add a channel's buffer that this thread reads */
     public void addChannel(final ArchiveChannel channel)
     {
@@ -85,8 +153,19 @@ public class WriteThread implements Runnable
      *  @param write_period Period between writes in seconds
      *  @param batch_size Number of values to batch
      */
-    @SuppressWarnings("nls")
     public void start(double write_period, int batch_size)
+    {
+        start(write_period, batch_size, 0.0);
+    }
+
+    /** Start the write thread.
+     *  @param write_period Period between writes in seconds
+     *  @param batch_size Number of values to batch
+     *  @param initial_delay Delay in seconds before first write,
+     *                       used to stagger several write threads
+     */
+    @SuppressWarnings("nls")
+    public void start(double write_period, int batch_size, final double initial_delay)
     {
         if (write_period < MIN_WRITE_PERIOD)
         {
@@ -95,8 +174,22 @@ public class WriteThread implements Runnable
             write_period = MIN_WRITE_PERIOD;
         }
         millisec_delay = (int)(1000.0 * write_period);
+        millisec_initial_delay = (long)(1000.0 * initial_delay);
         this.batch_size = batch_size;
-        thread = new Thread(this, "WriteThread");
+        if (! Preferences.spool_directory.isEmpty())
+        {
+            try
+            {
+                spool = new SampleSpool(new File(Preferences.spool_directory, name.replace(' ', '_')),
+                                        Preferences.spool_segment_size * 1024L * 1024L);
+                max_replay = Math.max(batch_size, (int) (Preferences.spool_replay_rate * write_period));
+            }
+            catch (Exception ex)
+            {
+                logger.log(Level.SEVERE, name + " cannot open spool in " + Preferences.spool_directory, ex);
+            }
+        }
+        thread = new Thread(this, name);
         thread.start();
     }
 
@@ -135,6 +228,39 @@ public class WriteThread implements Runnable
         return write_time.get();
     }
 
+    /** @return <code>true</code> if currently experiencing write errors */
+    public boolean isInErrorState()
+    {
+        return write_error;
+    }
+
+    /** @return Number of samples in the spool, waiting to be written */
+    public long getSpooledSamples()
+    {
+        final SampleSpool safe = spool;
+        return safe == null ? 0 : safe.getSampleCount();
+    }
+
+    /** Wait, unless stopped
+     *  @param millisec Time to wait
+     */
+    @SuppressWarnings("nls")
+    private void waitFor(final long millisec)
+    {
+        synchronized (wait_block)
+        {
+            try
+            {
+                if (do_run)
+                    wait_block.wait(millisec);
+            }
+            catch (InterruptedException ex)
+            {
+                logger.log(Level.WARNING, "Interrupted wait", ex);
+            }
+        }
+    }
+
     /** 'Main loop' of the write thread.
      *  <p>
      *  Writes all values out, then waits.
@@ -152,9 +278,12 @@ public class WriteThread implements Runnable
     @SuppressWarnings("nls")
     public void run()
     {
-        logger.info("WriteThread starts");
+        logger.info(name + " starts");
         boolean write_error = false;
+        boolean buffers_in_error = false;
         do_run = true;
+        if (millisec_initial_delay > 0)
+            waitFor(millisec_initial_delay);
         while (do_run)
         {
             long delay;
@@ -163,11 +292,7 @@ public class WriteThread implements Runnable
                 // If there was an error before...
                 if (write_error)
                 {   // .. try to reconnect
-                    if (writer != null)
-                    {
-                        writer.close();
-                        writer = null;
-                    }
+                    closeWriter();
                     // If we get here, all is OK so far ...
                     write_error = false;
                     // .. and we continue to write.
@@ -177,7 +302,10 @@ public class WriteThread implements Runnable
                 final long start = System.currentTimeMillis();
                 // In case of a network problem, we can hang in here
                 // for a long time...
-                final long written = write();
+                long written = write();
+                // Catch up on spooled samples, at limited rate
+                if (spool != null  &&  ! spool.isEmpty())
+                    written += spool.replay(writer, max_replay, batch_size);
                 final long milli = System.currentTimeMillis() - start;
                 last_write_stamp = Instant.now();
                 write_count.update(written);
@@ -191,26 +319,25 @@ public class WriteThread implements Runnable
                 // Use max. delay
                 delay = millisec_delay;
                 write_error = true;
+                closeWriter();
+                spool();
+            }
+            // Buffers only need to mark the gap if samples were lost
+            final boolean lost_samples = write_error  &&  !spool_ok;
+            if (this.write_error != write_error  ||
+                buffers_in_error != lost_samples)
+            {
+                this.write_error = write_error;
+                buffers_in_error = lost_samples;
+                for (SampleBuffer buffer : buffers)
+                    buffer.setErrorState(lost_samples);
             }
-            SampleBuffer.setErrorState(write_error);
             // See if there's any time left to wait,
             // or if we already used all that time in the last 'write'
             if (delay > 0)
-            {
-                synchronized (wait_block)
-                {
-                    try
-                    {
-                        wait_block.wait(delay);
-                    }
-                    catch (InterruptedException ex)
-                    {
-                        logger.log(Level.WARNING, "Interrupted wait", ex);
-                    }
-                }
-            }
+                waitFor(delay);
         }
-        logger.info("WriteThread exists");
+        logger.info(name + " exists");
     }
 
     /** Stop the write thread, performing a final write. */
@@ -224,10 +351,23 @@ public class WriteThread implements Runnable
         // Errors in this last write are passed up.
         try
         {
+            if (writer == null)
+                writer = ArchiveWriterFactory.getArchiveWriter();
             write();
         }
+        catch (Exception ex)
+        {
+            // Keep what can't be written for the next start
+            closeWriter();
+            spool();
+            if (spool == null  ||  !spool_ok)
+                throw ex;
+            logger.log(Level.WARNING, name + " spooled samples on shutdown", ex);
+        }
         finally
         {
+            if (spool != null)
+                spool.close();
             if (writer != null)
             {
                 writer.close();
@@ -236,10 +376,90 @@ public class WriteThread implements Runnable
         }
     }
 
+    /** Close writer after an error
+     *
+     *  <p>The writer may hold samples that were added but not flushed.
+     *  Those samples are spooled, returned to their buffers or remain in
+     *  the spool, so the writer is discarded right away
+     *  to prevent a later flush from writing them a second time.
+     */
+    private void closeWriter()
+    {
+        if (writer != null)
+        {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /** Spool samples that could not be written:
+     *  Samples of the failed batch, then all buffered samples.
+     *  Without spool, the samples of the failed batch are returned
+     *  to their sample buffers to be written on the next attempt.
+     */
+    @SuppressWarnings("nls")
+    void spool()
+    {
+        if (spool == null)
+        {
+            returnUnflushed();
+            spool_ok = false;
+            return;
+        }
+        int count = 0;
+        try
+        {
+            for (int i=0; i<unflushed_samples.size(); ++i)
+            {
+                final SampleBuffer buffer = unflushed_buffers.get(i);
+                spool.append(buffer.getChannelName(), buffer.getArchiveDataRetention(), unflushed_samples.get(i));
+                ++count;
+            }
+            for (SampleBuffer buffer : buffers)
+            {
+                buffer.updateStats();
+                samples.clear();
+                buffer.drainTo(samples);
+                for (VType sample : samples)
+                {
+                    spool.append(buffer.getChannelName(), buffer.getArchiveDataRetention(), sample);
+                    ++count;
+                }
+            }
+            spool.flush();
+            spool_ok = true;
+        }
+        catch (Exception ex)
+        {
+            logger.log(Level.SEVERE, name + " cannot spool samples", ex);
+            spool_ok = false;
+        }
+        finally
+        {
+            samples.clear();
+            unflushed_buffers.clear();
+            unflushed_samples.clear();
+        }
+        logger.log(Level.FINE, "{0} spooled {1} samples", new Object[] { name, count });
+    }
+
+    /** Return samples of the failed batch to their sample buffers */
+    private void returnUnflushed()
+    {
+        final Map<SampleBuffer, List<VType>> by_buffer = new LinkedHashMap<>();
+        for (int i=0; i<unflushed_samples.size(); ++i)
+            by_buffer.computeIfAbsent(unflushed_buffers.get(i), b -> new ArrayList<>())
+                     .add(unflushed_samples.get(i));
+        for (Map.Entry<SampleBuffer, List<VType>> entry : by_buffer.entrySet())
+            entry.getKey().returnSamples(entry.getValue());
+        unflushed_buffers.clear();
+        unflushed_samples.clear();
+    }
+
     /** Write right now until all sample buffers are empty
      *  @return number of samples written
      */
-    private long write() throws Exception
+    long write() throws Exception
     {
         int total_count = 0;
         int count = 0;
@@ -247,28 +467,58 @@ public class WriteThread implements Runnable
         {
             // Update max buffer length etc. before we start to remove samples
             buffer.updateStats();
-            // Write samples for one channel
+            if (buffer.getQueueSize() <= 0)
+                continue;
+            // Write samples for one channel.
+            // Locate channel before removing any samples
             final String name = buffer.getChannelName();
             final String retention = buffer.getArchiveDataRetention();
             final WriteChannel channel = writer.getChannel(name, retention);
-            VType sample = buffer.remove();
-            while (sample != null)
-            {   // Write one value
-                writer.addSample(channel, sample);
-                // Note: count across different sample buffers!
-                ++count;
-                if (count > batch_size)
+            // Remove samples in chunks of up to one batch
+            samples.clear();
+            while (buffer.drainTo(samples, batch_size) > 0)
+            {
+                // Index of next sample that's not in unflushed_samples
+                int i = 0;
+                try
                 {
-                    total_count += count;
-                    count = 0;
-                    writer.flush();
+                    while (i<samples.size())
+                    {   // Write one value
+                        final VType sample = samples.get(i);
+                        writer.addSample(channel, sample);
+                        unflushed_buffers.add(buffer);
+                        unflushed_samples.add(sample);
+                        ++i;
+                        // Note: count across different sample buffers!
+                        ++count;
+                        if (count > batch_size)
+                        {
+                            total_count += count;
+                            count = 0;
+                            writer.flush();
+                            unflushed_buffers.clear();
+                            unflushed_samples.clear();
+                        }
+                    }
+                }
+                catch (Exception ex)
+                {   // Remaining samples of this chunk have not been written, either
+                    for (/**/; i<samples.size(); ++i)
+                    {
+                        unflushed_buffers.add(buffer);
+                        unflushed_samples.add(samples.get(i));
+                    }
+                    samples.clear();
+                    throw ex;
                 }
-                // next
-                sample = buffer.remove();
+                samples.clear();
             }
         }
+        samples.clear();
         // Flush remaining samples (less than batch_size)
         writer.flush();
+        unflushed_buffers.clear();
+        unflushed_samples.clear();
         total_count += count;
         return total_count;
     }
@@ -20,7 +20,7 @@ import org.csstudio.archive.Engine;
 import org.csstudio.archive.Preferences;
 import org.csstudio.archive.engine.model.ArchiveGroup;
 import org.csstudio.archive.engine.model.EngineModel;
-import org.csstudio.archive.engine.model.SampleBuffer;
+import org.csstudio.archive.engine.model.WriteThread;
 import org.csstudio.archive.writer.rdb.TimestampHelper;
 import org.phoebus.util.time.SecondsParser;
 import org.phoebus.util.time.TimeDuration;
@@ -87,12 +87,30 @@ public class MainServlet extends HttpServlet
             jg.writeNumberField(Messages.HTTP_BatchSize, Preferences.batch_size);
             jg.writeNumberField(Messages.HTTP_WritePeriod, Preferences.write_period);
 
-            jg.writeStringField(Messages.HTTP_WriteState, (SampleBuffer.isInErrorState()
+            jg.writeStringField(Messages.HTTP_WriteState, (model.isInErrorState()
                     ? Messages.HTTP_WriteError : "OK"));
 
             jg.writeStringField(Messages.HTTP_LastWriteTime, last_write_time == null ? "Never" : TimestampHelper.format(last_write_time));
             jg.writeNumberField(Messages.HTTP_WriteCount, model.getWriteCount());
             jg.writeNumberField(Messages.HTTP_WriteDuration, model.getWriteDuration());
+            jg.writeNumberField(Messages.HTTP_SpooledSamples, model.getSpooledSamples());
+
+            jg.writeArrayFieldStart(Messages.HTTP_WriteThreads);
+            for (WriteThread writer : model.getWriters())
+            {
+                final Instant last_write = writer.getLastWriteTime();
+                jg.writeStartObject();
+                jg.writeStringField(Messages.HTTP_Name, writer.getName());
+                jg.writeNumberField(Messages.HTTP_ChannelCount, writer.getChannelCount());
+                jg.writeStringField(Messages.HTTP_WriteState, (writer.isInErrorState()
+                        ? Messages.HTTP_WriteError : "OK"));
+                jg.writeStringField(Messages.HTTP_LastWriteTime, last_write == null ? "Never" : TimestampHelper.format(last_write));
+                jg.writeNumberField(Messages.HTTP_WriteCount, writer.getWriteCount());
+                jg.writeNumberField(Messages.HTTP_WriteDuration, writer.getWriteDuration());
+                jg.writeNumberField(Messages.HTTP_SpooledSamples, writer.getSpooledSamples());
+                jg.writeEndObject();
+            }
+            jg.writeEndArray();
             jg.writeNumberField(Messages.HTTP_Idletime, model.getIdlePercentage());
 
             final Runtime runtime = Runtime.getRuntime();
@@ -132,13 +150,29 @@ public class MainServlet extends HttpServlet
             html.tableLine(Messages.HTTP_BatchSize, Preferences.batch_size + " samples");
             html.tableLine(Messages.HTTP_WritePeriod, Preferences.write_period + " sec");
 
-            html.tableLine(Messages.HTTP_WriteState, (SampleBuffer.isInErrorState()
+            html.tableLine(Messages.HTTP_WriteState, (model.isInErrorState()
                     ? HTMLWriter.makeRedText(Messages.HTTP_WriteError)
                     : "OK"));
 
             html.tableLine(Messages.HTTP_LastWriteTime, last_write_time == null ? "Never" : TimestampHelper.format(last_write_time));
             html.tableLine(Messages.HTTP_WriteCount, (int) model.getWriteCount() + " samples");
             html.tableLine(Messages.HTTP_WriteDuration, String.format("%.1f sec", model.getWriteDuration()));
+            if (! Preferences.spool_directory.isEmpty())
+                html.tableLine(Messages.HTTP_SpooledSamples, model.getSpooledSamples() + " samples");
+
+            // Details for each shard
+            if (model.getWriters().size() > 1)
+                for (WriteThread writer : model.getWriters())
+                {
+                    final String info = String.format("%d channels, %d samples in %.1f sec, %d spooled",
+                                                      writer.getChannelCount(),
+                                                      (int) writer.getWriteCount(),
+                                                      writer.getWriteDuration(),
+                                                      writer.getSpooledSamples());
+                    html.tableLine(writer.getName(), writer.isInErrorState()
+                                                     ? HTMLWriter.makeRedText(Messages.HTTP_WriteError + ", " + info)
+                                                     : info);
+                }
 
             html.tableLine(Messages.HTTP_Idletime, String.format("%.1f %%", model.getIdlePercentage()));
 
@@ -37,6 +37,7 @@ public class Messages
     final public static String HTTP_LastWriteTime = "Last Written";
     final public static String HTTP_MainTitle = "Archive Engine";
     final public static String HTTP_Mechanism = "Mechanism";
+    final public static String HTTP_Name = "Name";
     final public static String HTTP_Never = "never";
     final public static String HTTP_QueueAvg = "Queue Avg.";
     final public static String HTTP_QueueLen = "Queue Len.";
@@ -44,6 +45,7 @@ public class Messages
     final public static String HTTP_QueueCapacity = "Capacity";
     final public static String HTTP_QueueOverruns = "Overruns";
     final public static String HTTP_ReceivedValues = "Received Values";
+    final public static String HTTP_SpooledSamples = "Spooled Samples";
     final public static String HTTP_StartTime = "Start Time";
     final public static String HTTP_State = "State";
     final public static String HTTP_Status = "Status";
@@ -56,4 +58,5 @@ public class Messages
     final public static String HTTP_WriteError = "Write Error";
     final public static String HTTP_WritePeriod = "Write Period";
     final public static String HTTP_WriteState = "Write State";
+    final public static String HTTP_WriteThreads = "Write Threads";
 }
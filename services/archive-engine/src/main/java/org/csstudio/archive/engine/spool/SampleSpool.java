@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.spool;
+
+import static org.csstudio.archive.Engine.logger;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.logging.Level;
+
+import org.csstudio.archive.writer.ArchiveWriter;
+import org.csstudio.archive.writer.WriteChannel;
+import org.epics.vtype.VType;
+
+/** Disk-based spool for samples that cannot be written to the archive
+ *
+ *  <p>While the archive is unreachable, samples are appended
+ *  to the spool instead of remaining in the sample buffers,
+ *  where they would eventually be lost to buffer overruns.
+ *  Once the archive can be reached again, the spooled samples
+ *  are replayed into the archive.
+ *
+ *  <p>The spool is a directory of memory-mapped segment files.
+ *  Samples are appended to the last segment,
+ *  and replayed from the first segment.
+ *  Segments are deleted once all their samples have been replayed.
+ *  The spool directory persists across engine restarts,
+ *  so samples that were spooled before a shutdown are
+ *  replayed after the next start.
+ *
+ *  <p>Not thread-safe, meant to be used by one write thread.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleSpool
+{
+    private static final String PREFIX = "spool-", SUFFIX = ".dat";
+
+    private final File directory;
+
+    private final int segment_size;
+
+    /** Segments, oldest first */
+    private final Deque<SpoolSegment> segments = new ArrayDeque<>();
+
+    /** Number for the next segment file */
+    private long next_number = 0;
+
+    /** Number of spooled samples, read by other threads for status */
+    private volatile long sample_count = 0;
+
+    /** Open spool
+     *  @param directory Spool directory, created if it doesn't exist
+     *  @param segment_size Size of each segment file in bytes, less than 2GB
+     *  @throws Exception on error
+     */
+    public SampleSpool(final File directory, final long segment_size) throws Exception
+    {
+        // Segment is memory-mapped into one buffer, limited to int size
+        if (segment_size <= SpoolSegment.HEADER_SIZE  ||  segment_size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid spool segment size " + segment_size);
+        this.directory = directory;
+        this.segment_size = (int) segment_size;
+        if (! directory.isDirectory()  &&  ! directory.mkdirs())
+            throw new Exception("Cannot create spool directory " + directory);
+
+        // Open existing segments in the order they were created
+        final File[] files = directory.listFiles((dir, name) -> name.startsWith(PREFIX)  &&  name.endsWith(SUFFIX));
+        Arrays.sort(files);
+        for (File file : files)
+        {
+            final long number = getNumber(file);
+            if (number < 0)
+                continue;
+            next_number = Math.max(next_number, number + 1);
+            final SpoolSegment segment = SpoolSegment.open(file);
+            if (segment.isFullyRead())
+                delete(segment);
+            else
+            {
+                segments.add(segment);
+                sample_count += segment.getCount();
+            }
+        }
+        if (sample_count > 0)
+            logger.log(Level.INFO, "Spool {0} holds {1} samples", new Object[] { directory, sample_count });
+    }
+
+    private static long getNumber(final File file)
+    {
+        final String name = file.getName();
+        try
+        {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        }
+        catch (NumberFormatException ex)
+        {
+            return -1;
+        }
+    }
+
+    /** @return Spool directory */
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    /** @return Number of samples in the spool */
+    public long getSampleCount()
+    {
+        return sample_count;
+    }
+
+    /** @return <code>true</code> if the spool holds no samples */
+    public boolean isEmpty()
+    {
+        return sample_count <= 0;
+    }
+
+    /** Append sample
+     *
+     *  <p>The sample might only be written to disk on {@link #flush()}.
+     *
+     *  @param channel Channel name
+     *  @param retention Retention, may be <code>null</code>
+     *  @param value Sample
+     *  @throws Exception on error
+     */
+    public void append(final String channel, final String retention, final VType value) throws Exception
+    {
+        SpoolSegment segment = segments.peekLast();
+        if (segment == null  ||  ! segment.append(channel, retention, value))
+        {
+            // Write the full segment to disk, then start a new one
+            if (segment != null)
+                segment.force();
+            // Sample that exceeds the segment size gets a segment of its own
+            final int size = Math.max(segment_size,
+                                      SpoolSegment.HEADER_SIZE + 2*Integer.BYTES +
+                                      SpoolSegment.getRecordSizeEstimate(channel, retention, value));
+            final File file = new File(directory, String.format("%s%016d%s", PREFIX, next_number++, SUFFIX));
+            segment = SpoolSegment.create(file, size);
+            segments.add(segment);
+            if (! segment.append(channel, retention, value))
+                throw new Exception("Cannot add sample to empty spool segment " + file);
+        }
+        ++sample_count;
+    }
+
+    /** Write appended samples to disk */
+    public void flush()
+    {
+        final SpoolSegment segment = segments.peekLast();
+        if (segment != null)
+            segment.force();
+    }
+
+    /** Replay spooled samples into archive
+     *
+     *  <p>Samples are only removed from the spool
+     *  once the archive writer has been flushed.
+     *  On error, the samples of the failed batch
+     *  remain in the spool.
+     *
+     *  @param writer {@link ArchiveWriter}
+     *  @param max_samples Maximum number of samples to replay
+     *  @param batch_size Number of samples after which the writer is flushed
+     *  @return Number of samples that were replayed
+     *  @throws Exception on error
+     */
+    public int replay(final ArchiveWriter writer, final int max_samples, final int batch_size) throws Exception
+    {
+        int total = 0, count = 0;
+        String channel_name = null;
+        WriteChannel channel = null;
+        try
+        {
+            while (total < max_samples  &&  ! segments.isEmpty())
+            {
+                final SpoolSegment segment = segments.peekFirst();
+                final SpoolSegment.Entry entry = segment.readNext();
+                if (entry == null)
+                {   // Segment has been read. Commit, then delete it
+                    writer.flush();
+                    commit(segment, count);
+                    count = 0;
+                    segments.removeFirst();
+                    delete(segment);
+                    continue;
+                }
+                // Subsequent samples are often for the same channel
+                if (! entry.channel.equals(channel_name))
+                {
+                    channel = writer.getChannel(entry.channel, entry.retention);
+                    channel_name = entry.channel;
+                }
+                writer.addSample(channel, entry.value);
+                ++total;
+                if (++count >= batch_size)
+                {
+                    writer.flush();
+                    commit(segment, count);
+                    count = 0;
+                }
+            }
+            if (count > 0)
+            {
+                writer.flush();
+                commit(segments.peekFirst(), count);
+            }
+        }
+        catch (Exception ex)
+        {
+            final SpoolSegment segment = segments.peekFirst();
+            if (segment != null)
+                segment.rewind();
+            throw ex;
+        }
+        if (total > 0)
+            logger.log(Level.FINE, "Replayed {0} samples from spool {1}, {2} remaining",
+                       new Object[] { total, directory, sample_count });
+        return total;
+    }
+
+    private void commit(final SpoolSegment segment, final int count)
+    {
+        segment.commit();
+        sample_count -= count;
+    }
+
+    private void delete(final SpoolSegment segment)
+    {
+        segment.close();
+        if (! segment.getFile().delete())
+            logger.log(Level.WARNING, "Cannot delete spool segment " + segment.getFile());
+    }
+
+    /** Write samples to disk and release resources */
+    public void close()
+    {
+        for (SpoolSegment segment : segments)
+            segment.close();
+        segments.clear();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Spool " + directory + ": " + sample_count + " samples in " + segments.size() + " segments";
+    }
+}
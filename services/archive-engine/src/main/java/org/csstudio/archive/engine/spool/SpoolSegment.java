@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.spool;
+
+import static org.csstudio.archive.Engine.logger;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+
+import org.epics.vtype.VType;
+
+/** One file of the {@link SampleSpool}
+ *
+ *  <p>Memory-mapped file of fixed size.
+ *  Starts with a header that holds the position of the next
+ *  sample to replay, followed by the spooled samples,
+ *  each as a record with length and data.
+ *  The data holds channel name, retention, sample.
+ *  Records are only appended.
+ *  A record length of zero, which is what the operating system
+ *  provides for the not-yet-written part of a new file,
+ *  marks the end.
+ *
+ *  <p>Each append writes a new end marker after the record,
+ *  then the length of the record, turning the previous end marker
+ *  into a valid record.
+ *  A crash while writing a record thus leaves the previous end marker
+ *  in place, and the incomplete record is ignored.
+ *
+ *  <p>Not thread-safe.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class SpoolSegment
+{
+    private static final int MAGIC = 0x53504F4C; // "SPOL"
+    private static final int VERSION = 1;
+    private static final int READ_POSITION = 8;
+    static final int HEADER_SIZE = 32;
+
+    /** Sample read from the spool */
+    static class Entry
+    {
+        final String channel;
+        final String retention;
+        final VType value;
+
+        Entry(final String channel, final String retention, final VType value)
+        {
+            this.channel = channel;
+            this.retention = retention;
+            this.value = value;
+        }
+    }
+
+    private final File file;
+    private MappedByteBuffer buffer;
+
+    /** Position for the next appended record */
+    private int write_position;
+
+    /** Position of the next record to replay, persisted in header */
+    private int read_position;
+
+    /** Position of the next record to read, not yet committed */
+    private int cursor;
+
+    /** Number of records between read_position and write_position */
+    private int count;
+
+    /** Number of records between read_position and cursor */
+    private int cursor_count = 0;
+
+    /** Create new segment
+     *  @param file File to create
+     *  @param size Size of the file
+     *  @return {@link SpoolSegment}
+     *  @throws Exception on error
+     */
+    static SpoolSegment create(final File file, final int size) throws Exception
+    {
+        if (file.exists())
+            throw new Exception("Spool segment " + file + " already exists");
+        final MappedByteBuffer buffer = map(file, size);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(READ_POSITION, HEADER_SIZE);
+        return new SpoolSegment(file, buffer);
+    }
+
+    /** Open existing segment
+     *  @param file File to open
+     *  @return {@link SpoolSegment}
+     *  @throws Exception on error
+     */
+    static SpoolSegment open(final File file) throws Exception
+    {
+        final MappedByteBuffer buffer = map(file, (int) file.length());
+        if (buffer.capacity() < HEADER_SIZE  ||
+            buffer.getInt(0) != MAGIC  ||
+            buffer.getInt(4) != VERSION)
+            throw new Exception("Invalid spool segment " + file);
+        return new SpoolSegment(file, buffer);
+    }
+
+    private static MappedByteBuffer map(final File file, final int size) throws Exception
+    {
+        try
+        (
+            FileChannel channel = FileChannel.open(file.toPath(),
+                                                   StandardOpenOption.CREATE,
+                                                   StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE);
+        )
+        {   // Mapping remains valid after the channel is closed
+            return channel.map(MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private SpoolSegment(final File file, final MappedByteBuffer buffer) throws Exception
+    {
+        this.file = file;
+        this.buffer = buffer;
+        read_position = (int) buffer.getLong(READ_POSITION);
+        if (read_position < HEADER_SIZE  ||  read_position > buffer.capacity())
+            throw new Exception("Invalid read position " + read_position + " in spool segment " + file);
+        cursor = read_position;
+
+        // Locate end of data, counting the records that remain to be read
+        int position = HEADER_SIZE;
+        count = 0;
+        while (position + Integer.BYTES <= buffer.capacity())
+        {
+            final int length = buffer.getInt(position);
+            if (length <= 0  ||  position + Integer.BYTES + length > buffer.capacity())
+                break;
+            if (position >= read_position)
+                ++count;
+            position += Integer.BYTES + length;
+        }
+        write_position = position;
+    }
+
+    /** @return File of this segment */
+    File getFile()
+    {
+        return file;
+    }
+
+    /** @return Number of samples that have not been replayed */
+    int getCount()
+    {
+        return count;
+    }
+
+    /** @return <code>true</code> if all samples have been replayed */
+    boolean isFullyRead()
+    {
+        return read_position >= write_position;
+    }
+
+    /** Append sample
+     *  @param channel Channel name
+     *  @param retention Retention, may be <code>null</code>
+     *  @param value Sample
+     *  @return <code>true</code> if sample was added,
+     *          <code>false</code> if segment is too full
+     */
+    boolean append(final String channel, final String retention, final VType value)
+    {
+        final int estimate = getRecordSizeEstimate(channel, retention, value);
+        // Leave room for end marker
+        if (write_position + Integer.BYTES + estimate + Integer.BYTES > buffer.capacity())
+            return false;
+        final int start = write_position + Integer.BYTES;
+        buffer.position(start);
+        VTypeCodec.encodeString(buffer, channel);
+        VTypeCodec.encodeString(buffer, retention);
+        VTypeCodec.encode(buffer, value);
+        final int end = buffer.position();
+        // Mark new end, then write length,
+        // turning the previous end marker into a valid record
+        buffer.putInt(end, 0);
+        buffer.putInt(write_position, end - start);
+        write_position = end;
+        ++count;
+        return true;
+    }
+
+    /** @return Number of bytes that a record might need */
+    static int getRecordSizeEstimate(final String channel, final String retention, final VType value)
+    {
+        return 2 * Integer.BYTES + 4 * channel.length() +
+               (retention == null ? 0 : 4 * retention.length()) +
+               VTypeCodec.getEncodedSizeEstimate(value);
+    }
+
+    /** Read next sample
+     *
+     *  <p>The sample is only considered replayed once {@link #commit()}
+     *  is called.
+     *
+     *  @return {@link Entry} or <code>null</code> when there are no more samples
+     *  @throws Exception on error
+     */
+    Entry readNext() throws Exception
+    {
+        if (cursor >= write_position)
+            return null;
+        final int length = buffer.getInt(cursor);
+        buffer.position(cursor + Integer.BYTES);
+        final String channel = VTypeCodec.decodeString(buffer);
+        final String retention = VTypeCodec.decodeString(buffer);
+        final VType value = VTypeCodec.decode(buffer);
+        cursor += Integer.BYTES + length;
+        ++cursor_count;
+        return new Entry(channel, retention, value);
+    }
+
+    /** Mark samples that were read as replayed */
+    void commit()
+    {
+        if (cursor == read_position)
+            return;
+        read_position = cursor;
+        count -= cursor_count;
+        cursor_count = 0;
+        buffer.putLong(READ_POSITION, read_position);
+        buffer.force();
+    }
+
+    /** Return to the last committed read position */
+    void rewind()
+    {
+        cursor = read_position;
+        cursor_count = 0;
+    }
+
+    /** Write appended samples to disk */
+    void force()
+    {
+        buffer.force();
+    }
+
+    /** Write appended samples to disk and unmap the file
+     *
+     *  <p>The segment must not be used after being closed.
+     *  The file can then be deleted, which on Windows fails
+     *  while the file is mapped.
+     */
+    void close()
+    {
+        if (buffer == null)
+            return;
+        buffer.force();
+        unmap(buffer);
+        buffer = null;
+    }
+
+    /** @param buffer Mapped buffer to release right away instead of on garbage collection */
+    private static void unmap(final MappedByteBuffer buffer)
+    {
+        try
+        {
+            final Class<?> unsafe_class = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafe_class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe_class.getMethod("invokeCleaner", ByteBuffer.class).invoke(field.get(null), buffer);
+        }
+        catch (Throwable ex)
+        {
+            logger.log(Level.FINE, "Cannot unmap spool segment", ex);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return file.getName() + " (" + count + " samples)";
+    }
+}
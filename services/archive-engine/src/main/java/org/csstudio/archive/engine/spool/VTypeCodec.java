@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.spool;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.epics.util.array.ArrayByte;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.array.ListByte;
+import org.epics.util.array.ListNumber;
+import org.epics.util.stats.Range;
+import org.epics.util.text.NumberFormats;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.AlarmStatus;
+import org.epics.vtype.Display;
+import org.epics.vtype.EnumDisplay;
+import org.epics.vtype.Time;
+import org.epics.vtype.VByte;
+import org.epics.vtype.VByteArray;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VDoubleArray;
+import org.epics.vtype.VEnum;
+import org.epics.vtype.VFloat;
+import org.epics.vtype.VInt;
+import org.epics.vtype.VLong;
+import org.epics.vtype.VNumber;
+import org.epics.vtype.VNumberArray;
+import org.epics.vtype.VShort;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+
+/** Binary encoding of archived samples
+ *
+ *  <p>Handles the value types that the archive writer distinguishes:
+ *  Numbers, enumerated values, strings, byte arrays and
+ *  other number arrays, which are written as double arrays.
+ *  Any other type is written as a string, just like
+ *  the RDB archive writer would do.
+ *
+ *  <p>Keeps the meta data that the archive writer stores:
+ *  Alarm, time stamp, numeric display info and enum labels.
+ *
+ *  @author agent
+ */
+class VTypeCodec
+{
+    private static final byte STRING = 0,
+                              DOUBLE = 1,
+                              FLOAT = 2,
+                              LONG = 3,
+                              INT = 4,
+                              SHORT = 5,
+                              BYTE = 6,
+                              ENUM = 7,
+                              NUMBER_ARRAY = 8,
+                              BYTE_ARRAY = 9;
+
+    private VTypeCodec()
+    {
+        // prevent instantiation
+    }
+
+    /** @param value Value to encode
+     *  @return Upper estimate of the encoded size in bytes
+     */
+    static int getEncodedSizeEstimate(final VType value)
+    {
+        // Type, alarm, time, display info
+        int size = 1 + 2 + 4 + 12 + 1 + 8*8 + 4 + 4;
+        final Alarm alarm = Alarm.alarmOf(value);
+        if (alarm != null)
+            size += 4 * alarm.getName().length();
+        if (value instanceof VString)
+            size += 4 + 4 * ((VString) value).getValue().length();
+        else if (value instanceof VNumber)
+            size += 8;
+        else if (value instanceof VEnum)
+        {
+            size += 4 + 4;
+            for (String label : ((VEnum) value).getDisplay().getChoices())
+                size += 4 + 4 * label.length();
+        }
+        else if (value instanceof VByteArray)
+            size += 4 + ((VByteArray) value).getData().size();
+        else if (value instanceof VNumberArray)
+            size += 4 + 8 * ((VNumberArray) value).getData().size();
+        else
+            size += 4 + 4 * value.toString().length();
+        final Display display = Display.displayOf(value);
+        if (display != null  &&  display.getUnit() != null)
+            size += 4 * display.getUnit().length();
+        return size;
+    }
+
+    /** @param buffer Buffer where value is encoded, must have sufficient space
+     *  @param value Value to encode
+     *  @see #getEncodedSizeEstimate(VType)
+     */
+    static void encode(final ByteBuffer buffer, final VType value)
+    {
+        final byte type;
+        if (value instanceof VString)
+            type = STRING;
+        else if (value instanceof VDouble)
+            type = DOUBLE;
+        else if (value instanceof VFloat)
+            type = FLOAT;
+        else if (value instanceof VInt)
+            type = INT;
+        else if (value instanceof VShort)
+            type = SHORT;
+        else if (value instanceof VByte)
+            type = BYTE;
+        else if (value instanceof VNumber)
+            type = LONG;
+        else if (value instanceof VEnum)
+            type = ENUM;
+        else if (value instanceof VByteArray)
+            type = BYTE_ARRAY;
+        else if (value instanceof VNumberArray)
+            type = NUMBER_ARRAY;
+        else
+            type = STRING;
+        buffer.put(type);
+
+        encodeAlarm(buffer, Alarm.alarmOf(value));
+        encodeTime(buffer, Time.timeOf(value));
+
+        switch (type)
+        {
+        case DOUBLE:
+        case FLOAT:
+        case LONG:
+        case INT:
+        case SHORT:
+        case BYTE:
+        {
+            final Number number = ((VNumber) value).getValue();
+            if (type == DOUBLE  ||  type == FLOAT)
+                buffer.putDouble(number.doubleValue());
+            else
+                buffer.putLong(number.longValue());
+            encodeDisplay(buffer, ((VNumber) value).getDisplay());
+            break;
+        }
+        case ENUM:
+        {
+            final VEnum enumerated = (VEnum) value;
+            buffer.putInt(enumerated.getIndex());
+            final List<String> labels = enumerated.getDisplay().getChoices();
+            buffer.putInt(labels.size());
+            for (String label : labels)
+                encodeString(buffer, label);
+            break;
+        }
+        case BYTE_ARRAY:
+        {
+            final ListByte data = ((VByteArray) value).getData();
+            final int size = data.size();
+            buffer.putInt(size);
+            for (int i=0; i<size; ++i)
+                buffer.put(data.getByte(i));
+            encodeDisplay(buffer, ((VByteArray) value).getDisplay());
+            break;
+        }
+        case NUMBER_ARRAY:
+        {
+            final ListNumber data = ((VNumberArray) value).getData();
+            final int size = data.size();
+            buffer.putInt(size);
+            for (int i=0; i<size; ++i)
+                buffer.putDouble(data.getDouble(i));
+            encodeDisplay(buffer, ((VNumberArray) value).getDisplay());
+            break;
+        }
+        default:
+            encodeString(buffer, value instanceof VString ? ((VString) value).getValue() : value.toString());
+        }
+    }
+
+    /** @param buffer Buffer from which to decode a value
+     *  @return Decoded value
+     *  @throws Exception on error
+     */
+    @SuppressWarnings("nls")
+    static VType decode(final ByteBuffer buffer) throws Exception
+    {
+        final byte type = buffer.get();
+        final Alarm alarm = decodeAlarm(buffer);
+        final Time time = decodeTime(buffer);
+        switch (type)
+        {
+        case STRING:
+            return VString.of(decodeString(buffer), alarm, time);
+        case DOUBLE:
+            return VDouble.of(buffer.getDouble(), alarm, time, decodeDisplay(buffer));
+        case FLOAT:
+            return VFloat.of((float) buffer.getDouble(), alarm, time, decodeDisplay(buffer));
+        case LONG:
+            return VLong.of(buffer.getLong(), alarm, time, decodeDisplay(buffer));
+        case INT:
+            return VInt.of((int) buffer.getLong(), alarm, time, decodeDisplay(buffer));
+        case SHORT:
+            return VShort.of((short) buffer.getLong(), alarm, time, decodeDisplay(buffer));
+        case BYTE:
+            return VByte.of((byte) buffer.getLong(), alarm, time, decodeDisplay(buffer));
+        case ENUM:
+        {
+            final int index = buffer.getInt();
+            final int count = buffer.getInt();
+            final List<String> labels = new ArrayList<>(count);
+            for (int i=0; i<count; ++i)
+                labels.add(decodeString(buffer));
+            return VEnum.of(index, EnumDisplay.of(labels.toArray(new String[count])), alarm, time);
+        }
+        case BYTE_ARRAY:
+        {
+            final byte[] data = new byte[buffer.getInt()];
+            buffer.get(data);
+            return VByteArray.of(ArrayByte.of(data), alarm, time, decodeDisplay(buffer));
+        }
+        case NUMBER_ARRAY:
+        {
+            final double[] data = new double[buffer.getInt()];
+            for (int i=0; i<data.length; ++i)
+                data[i] = buffer.getDouble();
+            return VDoubleArray.of(ArrayDouble.of(data), alarm, time, decodeDisplay(buffer));
+        }
+        default:
+            throw new Exception("Unknown sample type " + type);
+        }
+    }
+
+    private static void encodeAlarm(final ByteBuffer buffer, final Alarm alarm)
+    {
+        if (alarm == null)
+        {
+            buffer.put((byte) AlarmSeverity.NONE.ordinal());
+            buffer.put((byte) AlarmStatus.NONE.ordinal());
+            encodeString(buffer, ""); //$NON-NLS-1$
+        }
+        else
+        {
+            buffer.put((byte) alarm.getSeverity().ordinal());
+            buffer.put((byte) alarm.getStatus().ordinal());
+            encodeString(buffer, alarm.getName());
+        }
+    }
+
+    private static Alarm decodeAlarm(final ByteBuffer buffer)
+    {
+        final AlarmSeverity severity = AlarmSeverity.values()[buffer.get()];
+        final AlarmStatus status = AlarmStatus.values()[buffer.get()];
+        return Alarm.of(severity, status, decodeString(buffer));
+    }
+
+    private static void encodeTime(final ByteBuffer buffer, final Time time)
+    {
+        // Like archive writer, use current time for missing or invalid time stamp,
+        // but with the time when the sample was spooled, not replayed
+        final Instant stamp = time != null  &&  time.isValid() ? time.getTimestamp() : Instant.now();
+        buffer.putLong(stamp.getEpochSecond());
+        buffer.putInt(stamp.getNano());
+    }
+
+    private static Time decodeTime(final ByteBuffer buffer)
+    {
+        final long seconds = buffer.getLong();
+        return Time.of(Instant.ofEpochSecond(seconds, buffer.getInt()));
+    }
+
+    private static void encodeDisplay(final ByteBuffer buffer, final Display display)
+    {
+        if (display == null)
+        {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        encodeRange(buffer, display.getDisplayRange());
+        encodeRange(buffer, display.getAlarmRange());
+        encodeRange(buffer, display.getWarningRange());
+        encodeRange(buffer, display.getControlRange());
+        encodeString(buffer, display.getUnit());
+        final NumberFormat format = display.getFormat();
+        buffer.putInt(format == null ? -1 : format.getMinimumFractionDigits());
+    }
+
+    private static Display decodeDisplay(final ByteBuffer buffer)
+    {
+        if (buffer.get() == 0)
+            return Display.none();
+        final Range display = decodeRange(buffer),
+                    alarm = decodeRange(buffer),
+                    warning = decodeRange(buffer),
+                    control = decodeRange(buffer);
+        final String units = decodeString(buffer);
+        final int precision = buffer.getInt();
+        final NumberFormat format = precision < 0
+                                  ? NumberFormats.toStringFormat()
+                                  : NumberFormats.precisionFormat(precision);
+        return Display.of(display, alarm, warning, control, units, format);
+    }
+
+    private static void encodeRange(final ByteBuffer buffer, final Range range)
+    {
+        if (range == null)
+        {
+            buffer.putDouble(Double.NaN);
+            buffer.putDouble(Double.NaN);
+        }
+        else
+        {
+            buffer.putDouble(range.getMinimum());
+            buffer.putDouble(range.getMaximum());
+        }
+    }
+
+    private static Range decodeRange(final ByteBuffer buffer)
+    {
+        final double min = buffer.getDouble();
+        final double max = buffer.getDouble();
+        if (Double.isNaN(min)  ||  Double.isNaN(max))
+            return Range.undefined();
+        return Range.of(min, max);
+    }
+
+    /** @param buffer Buffer where string is encoded as length and UTF-8 bytes,
+     *                with length -1 for <code>null</code>
+     *  @param text Text to encode, may be <code>null</code>
+     */
+    static void encodeString(final ByteBuffer buffer, final String text)
+    {
+        if (text == null)
+        {
+            buffer.putInt(-1);
+            return;
+        }
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /** @param buffer Buffer from which to decode a string
+     *  @return Decoded string, may be <code>null</code>
+     */
+    static String decodeString(final ByteBuffer buffer)
+    {
+        final int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
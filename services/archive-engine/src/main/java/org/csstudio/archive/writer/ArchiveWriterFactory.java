@@ -7,7 +7,11 @@
  ******************************************************************************/
 package org.csstudio.archive.writer;
 
+import java.io.File;
+
 import org.csstudio.archive.Preferences;
+import org.csstudio.archive.writer.columnar.ColumnarArchiveWriter;
+import org.phoebus.framework.columnar.ColumnarFormat;
 import org.csstudio.archive.writer.rdb.RDBArchiveWriter;
 
 /** Factory for obtaining an {@link ArchiveWriter}
@@ -21,7 +25,10 @@ public class ArchiveWriterFactory
      */
     public static ArchiveWriter getArchiveWriter() throws Exception
     {
-        // XXX Use SPI when there's more than one implementation.
-        return new RDBArchiveWriter(Preferences.url, Preferences.user, Preferences.password, Preferences.schema, Preferences.use_array_blob);
+        // XXX Use SPI when there are more implementations.
+        final String url = Preferences.write_url.isEmpty() ? Preferences.url : Preferences.write_url;
+        if (url.startsWith(ColumnarFormat.PREFIX))
+            return new ColumnarArchiveWriter(new File(url.substring(ColumnarFormat.PREFIX.length())));
+        return new RDBArchiveWriter(url, Preferences.user, Preferences.password, Preferences.schema, Preferences.use_array_blob);
     }
 }
@@ -0,0 +1,420 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.columnar;
+
+import static org.phoebus.framework.columnar.ColumnarFormat.DOUBLE;
+import static org.phoebus.framework.columnar.ColumnarFormat.DOUBLE_ARRAY;
+import static org.phoebus.framework.columnar.ColumnarFormat.ENUM;
+import static org.phoebus.framework.columnar.ColumnarFormat.HEADER_SIZE;
+import static org.phoebus.framework.columnar.ColumnarFormat.LONG;
+import static org.phoebus.framework.columnar.ColumnarFormat.MAGIC;
+import static org.phoebus.framework.columnar.ColumnarFormat.STRING;
+import static org.phoebus.framework.columnar.ColumnarFormat.toNanos;
+
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.epics.util.array.ListNumber;
+import org.epics.util.stats.Range;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VByteArray;
+import org.epics.vtype.VEnum;
+import org.epics.vtype.VNumber;
+import org.epics.vtype.VNumberArray;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+import org.phoebus.framework.columnar.ColumnarFormat;
+import org.phoebus.pv.LongString;
+
+/** Encoder for one block of a columnar archive file
+ *
+ *  <p>See {@link ColumnarFormat} for the block layout.
+ *
+ *  @author agent
+ */
+class BlockEncoder
+{
+    private byte[] buffer = new byte[64 * 1024];
+    private int position = 0;
+
+    /** Bits not yet written to buffer */
+    private int bits = 0, bit_count = 0;
+
+    /** Gorilla state */
+    private long previous_value;
+    private int previous_leading, previous_trailing;
+
+    /** Alarm dictionary */
+    private final Map<Alarm, Integer> alarm_index = new HashMap<>();
+    private final List<Alarm> alarms = new ArrayList<>();
+
+    /** @param sample Sample
+     *  @return Block type used for the sample
+     */
+    static byte getType(final VType sample)
+    {
+        if (sample instanceof VNumber)
+        {
+            final Number number = ((VNumber) sample).getValue();
+            if (number instanceof Double  ||  number instanceof Float)
+                return DOUBLE;
+            return LONG;
+        }
+        if (sample instanceof VEnum)
+            return ENUM;
+        if (sample instanceof VNumberArray  &&  !(sample instanceof VByteArray))
+            return DOUBLE_ARRAY;
+        // VByteArray as long string, other types as text
+        return STRING;
+    }
+
+    /** @param sample Sample
+     *  @return Time stamp, using current time for invalid stamps
+     */
+    static Instant getTimestamp(final VType sample)
+    {
+        final Time time = Time.timeOf(sample);
+        if (time != null  &&  time.isValid())
+            return time.getTimestamp();
+        return Instant.now();
+    }
+
+    /** @param a Sample
+     *  @param b Other sample of the same type
+     *  @return <code>true</code> if both have the same meta data
+     */
+    static boolean haveSameMetadata(final VType a, final VType b)
+    {
+        if (a instanceof VEnum)
+            return ((VEnum) a).getDisplay().getChoices().equals(((VEnum) b).getDisplay().getChoices());
+        final Display da = Display.displayOf(a), db = Display.displayOf(b);
+        if (da == db)
+            return true;
+        if (da == null  ||  db == null)
+            return false;
+        return Objects.equals(da.getUnit(), db.getUnit())  &&
+               getPrecision(da) == getPrecision(db)  &&
+               isSameRange(da.getDisplayRange(), db.getDisplayRange())  &&
+               isSameRange(da.getAlarmRange(), db.getAlarmRange())  &&
+               isSameRange(da.getWarningRange(), db.getWarningRange())  &&
+               isSameRange(da.getControlRange(), db.getControlRange());
+    }
+
+    private static boolean isSameRange(final Range a, final Range b)
+    {
+        if (a == null  ||  b == null)
+            return a == b;
+        return Double.compare(a.getMinimum(), b.getMinimum()) == 0  &&
+               Double.compare(a.getMaximum(), b.getMaximum()) == 0;
+    }
+
+    private static int getPrecision(final Display display)
+    {
+        final NumberFormat format = display.getFormat();
+        return format == null ? -1 : format.getMinimumFractionDigits();
+    }
+
+    /** Encode block
+     *  @param type Block type
+     *  @param samples Samples, all of the given type
+     *  @param stamps Time stamps of the samples
+     *  @param start Index of first sample to encode
+     *  @param end Index after last sample to encode
+     *  @return Number of bytes in {@link #getBuffer()}
+     */
+    int encode(final byte type, final List<VType> samples, final List<Instant> stamps, final int start, final int end)
+    {
+        position = 0;
+        putInt(MAGIC);
+        putInt(0); // Length, updated at end
+        putByte(type);
+        putInt(end - start);
+        final long first = toNanos(stamps.get(start));
+        putLong(first);
+        putLong(toNanos(stamps.get(end-1)));
+
+        // Meta data of first sample
+        final VType sample = samples.get(start);
+        if (type == ENUM)
+        {
+            final List<String> labels = ((VEnum) sample).getDisplay().getChoices();
+            putVarLong(labels.size());
+            for (String label : labels)
+                putString(label);
+        }
+        else if (type != STRING)
+            putDisplay(Display.displayOf(sample));
+
+        // Alarm dictionary, then index of each sample's alarm
+        alarm_index.clear();
+        alarms.clear();
+        final int[] indices = new int[end - start];
+        for (int i=start; i<end; ++i)
+        {
+            Alarm alarm = Alarm.alarmOf(samples.get(i));
+            if (alarm == null)
+                alarm = Alarm.none();
+            indices[i-start] = alarm_index.computeIfAbsent(alarm, a ->
+            {
+                alarms.add(a);
+                return alarms.size() - 1;
+            });
+        }
+        putVarLong(alarms.size());
+        for (Alarm alarm : alarms)
+        {
+            putByte((byte) alarm.getSeverity().ordinal());
+            putByte((byte) alarm.getStatus().ordinal());
+            putString(alarm.getName());
+        }
+        for (int index : indices)
+            putVarLong(index);
+
+        // Times as delta-of-delta
+        long previous = first, previous_delta = 0;
+        for (int i=start+1; i<end; ++i)
+        {
+            final long nanos = toNanos(stamps.get(i));
+            final long delta = nanos - previous;
+            putZigZag(delta - previous_delta);
+            previous = nanos;
+            previous_delta = delta;
+        }
+
+        // Values
+        switch (type)
+        {
+        case DOUBLE:
+            startDoubles();
+            for (int i=start; i<end; ++i)
+                putDouble(i == start, ((VNumber) samples.get(i)).getValue().doubleValue());
+            flushBits();
+            break;
+        case LONG:
+        {
+            long last = 0;
+            for (int i=start; i<end; ++i)
+            {
+                final long value = ((VNumber) samples.get(i)).getValue().longValue();
+                putZigZag(value - last);
+                last = value;
+            }
+            break;
+        }
+        case ENUM:
+        {
+            long last = 0;
+            for (int i=start; i<end; ++i)
+            {
+                final long value = ((VEnum) samples.get(i)).getIndex();
+                putZigZag(value - last);
+                last = value;
+            }
+            break;
+        }
+        case DOUBLE_ARRAY:
+        {
+            for (int i=start; i<end; ++i)
+                putVarLong(((VNumberArray) samples.get(i)).getData().size());
+            startDoubles();
+            boolean first_element = true;
+            for (int i=start; i<end; ++i)
+            {
+                final ListNumber data = ((VNumberArray) samples.get(i)).getData();
+                final int size = data.size();
+                for (int e=0; e<size; ++e)
+                {
+                    putDouble(first_element, data.getDouble(e));
+                    first_element = false;
+                }
+            }
+            flushBits();
+            break;
+        }
+        default:
+            for (int i=start; i<end; ++i)
+                putString(getText(samples.get(i)));
+        }
+
+        // Update length
+        final int length = position - HEADER_SIZE;
+        buffer[4] = (byte) (length >>> 24);
+        buffer[5] = (byte) (length >>> 16);
+        buffer[6] = (byte) (length >>> 8);
+        buffer[7] = (byte) length;
+        return position;
+    }
+
+    /** @return Buffer that holds the last encoded block */
+    byte[] getBuffer()
+    {
+        return buffer;
+    }
+
+    private static String getText(final VType sample)
+    {
+        if (sample instanceof VString)
+            return ((VString) sample).getValue();
+        if (sample instanceof VByteArray)
+            return LongString.fromArray((VByteArray) sample);
+        return sample.toString();
+    }
+
+    private void putDisplay(final Display display)
+    {
+        if (display == null)
+        {
+            putByte((byte) 0);
+            return;
+        }
+        putByte((byte) 1);
+        putString(display.getUnit() == null ? "" : display.getUnit()); //$NON-NLS-1$
+        putInt(getPrecision(display));
+        putRange(display.getDisplayRange());
+        putRange(display.getAlarmRange());
+        putRange(display.getWarningRange());
+        putRange(display.getControlRange());
+    }
+
+    private void putRange(final Range range)
+    {
+        putLong(Double.doubleToLongBits(range == null ? Double.NaN : range.getMinimum()));
+        putLong(Double.doubleToLongBits(range == null ? Double.NaN : range.getMaximum()));
+    }
+
+    private void ensureCapacity(final int needed)
+    {
+        if (position + needed > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, position + needed));
+    }
+
+    private void putByte(final byte value)
+    {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    private void putInt(final int value)
+    {
+        ensureCapacity(4);
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void putLong(final long value)
+    {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    private void putVarLong(long value)
+    {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0)
+        {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void putZigZag(final long value)
+    {
+        putVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void putString(final String text)
+    {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        putVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void putBits(final long value, final int count)
+    {
+        for (int i=count-1; i>=0; --i)
+        {
+            bits = (bits << 1) | (int) ((value >>> i) & 1);
+            if (++bit_count == 8)
+            {
+                putByte((byte) bits);
+                bits = 0;
+                bit_count = 0;
+            }
+        }
+    }
+
+    /** Write remaining bits, padded to full byte */
+    private void flushBits()
+    {
+        if (bit_count > 0)
+            putBits(0, 8 - bit_count);
+    }
+
+    private void startDoubles()
+    {
+        bits = 0;
+        bit_count = 0;
+        previous_leading = -1;
+    }
+
+    /** Gorilla encoding: XOR with previous value,
+     *  writing only the 'meaningful' bits of the XOR.
+     *  @param first Is this the first value of the stream?
+     *  @param number Value to write
+     */
+    private void putDouble(final boolean first, final double number)
+    {
+        final long value = Double.doubleToRawLongBits(number);
+        if (first)
+        {
+            putBits(value, 64);
+            previous_value = value;
+            return;
+        }
+        final long xor = value ^ previous_value;
+        previous_value = value;
+        if (xor == 0)
+        {   // Same value
+            putBits(0, 1);
+            return;
+        }
+        putBits(1, 1);
+        final int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        final int trailing = Long.numberOfTrailingZeros(xor);
+        if (previous_leading >= 0  &&  leading >= previous_leading  &&  trailing >= previous_trailing)
+        {   // Meaningful bits fit into previous window
+            putBits(0, 1);
+            putBits(xor >>> previous_trailing, 64 - previous_leading - previous_trailing);
+        }
+        else
+        {   // New window
+            final int significant = 64 - leading - trailing;
+            putBits(1, 1);
+            putBits(leading, 5);
+            // 64 significant bits are written as 0
+            putBits(significant & 0x3F, 6);
+            putBits(xor >>> trailing, significant);
+            previous_leading = leading;
+            previous_trailing = trailing;
+        }
+    }
+}
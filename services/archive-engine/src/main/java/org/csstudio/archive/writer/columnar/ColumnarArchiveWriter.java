@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.columnar;
+
+import static org.csstudio.archive.Engine.logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.csstudio.archive.writer.ArchiveWriter;
+import org.csstudio.archive.writer.WriteChannel;
+import org.epics.vtype.VType;
+import org.phoebus.framework.columnar.ColumnarFormat;
+
+/** Archive writer for columnar files
+ *
+ *  <p>Each channel has a directory below the root directory,
+ *  named after the URL-encoded channel name.
+ *  Samples are partitioned by UTC day into files 'yyyyMMdd.col'.
+ *  Each flush appends one block per channel to the partition file,
+ *  see {@link ColumnarFormat} for the block format.
+ *  A new block is started when the day, the sample type
+ *  or the meta data changes.
+ *
+ *  <p>Samples must be added in time order,
+ *  which the sample buffers of the engine already ensure.
+ *
+ *  <p>Not thread-safe, meant to be used by one write thread.
+ *  Write threads handle distinct channels, so several writers
+ *  may share the same root directory.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ColumnarArchiveWriter implements ArchiveWriter
+{
+    private final File root;
+
+    private final Map<String, ColumnarWriteChannel> channels = new HashMap<>();
+
+    /** Channels with samples to flush */
+    private final Set<ColumnarWriteChannel> pending = new LinkedHashSet<>();
+
+    private final BlockEncoder encoder = new BlockEncoder();
+
+    /** Initialize
+     *  @param root Root directory, created if it doesn't exist
+     *  @throws Exception on error
+     */
+    public ColumnarArchiveWriter(final File root) throws Exception
+    {
+        if (! root.isDirectory()  &&  ! root.mkdirs())
+            throw new Exception("Cannot create archive directory " + root);
+        this.root = root;
+    }
+
+    @Override
+    public WriteChannel getChannel(final String name) throws Exception
+    {
+        ColumnarWriteChannel channel = channels.get(name);
+        if (channel == null)
+        {
+            final File directory = new File(root, ColumnarFormat.encodeName(name));
+            if (! directory.isDirectory()  &&  ! directory.mkdirs())
+                throw new Exception("Cannot create directory for channel '" + name + "': " + directory);
+            channel = new ColumnarWriteChannel(name, directory);
+            channels.put(name, channel);
+        }
+        return channel;
+    }
+
+    @Override
+    public void addSample(final WriteChannel channel, final VType sample) throws Exception
+    {
+        final ColumnarWriteChannel col_channel = (ColumnarWriteChannel) channel;
+        col_channel.samples.add(sample);
+        col_channel.stamps.add(BlockEncoder.getTimestamp(sample));
+        pending.add(col_channel);
+    }
+
+    @Override
+    public void flush() throws Exception
+    {
+        Exception error = null;
+        for (ColumnarWriteChannel channel : pending)
+        {
+            try
+            {
+                write(channel);
+            }
+            catch (Exception ex)
+            {
+                // Check for partially written block on next write
+                channel.checked_file = null;
+                if (error == null)
+                    error = ex;
+                else
+                    error.addSuppressed(ex);
+            }
+            finally
+            {
+                channel.samples.clear();
+                channel.stamps.clear();
+            }
+        }
+        pending.clear();
+        if (error != null)
+            throw error;
+    }
+
+    /** Write pending samples of a channel
+     *  @param channel Channel
+     *  @throws Exception on error
+     */
+    private void write(final ColumnarWriteChannel channel) throws Exception
+    {
+        final List<VType> samples = channel.samples;
+        final List<Instant> stamps = channel.stamps;
+        final int N = samples.size();
+        int start = 0;
+        while (start < N)
+        {
+            // Samples of the same day go into the same file
+            final LocalDate day = stamps.get(start).atOffset(ZoneOffset.UTC).toLocalDate();
+            int day_end = start + 1;
+            while (day_end < N  &&  stamps.get(day_end).atOffset(ZoneOffset.UTC).toLocalDate().equals(day))
+                ++day_end;
+
+            final File file = new File(channel.directory, ColumnarFormat.getPartitionName(stamps.get(start)));
+            if (! file.equals(channel.checked_file))
+            {
+                removeIncompleteBlock(file);
+                channel.checked_file = file;
+            }
+            try
+            (
+                final FileOutputStream out = new FileOutputStream(file, true);
+            )
+            {
+                // Block for each run of samples with same type and meta data
+                while (start < day_end)
+                {
+                    final VType first = samples.get(start);
+                    final byte type = BlockEncoder.getType(first);
+                    int end = start + 1;
+                    while (end < day_end  &&
+                           BlockEncoder.getType(samples.get(end)) == type  &&
+                           (type == ColumnarFormat.STRING  ||  BlockEncoder.haveSameMetadata(first, samples.get(end))))
+                        ++end;
+                    final int length = encoder.encode(type, samples, stamps, start, end);
+                    out.write(encoder.getBuffer(), 0, length);
+                    start = end;
+                }
+            }
+        }
+    }
+
+    /** Remove incomplete block at end of file,
+     *  left behind when an earlier write was interrupted.
+     *  @param file Partition file
+     *  @throws Exception on error
+     */
+    private void removeIncompleteBlock(final File file) throws Exception
+    {
+        if (! file.exists())
+            return;
+        try
+        (
+            final RandomAccessFile access = new RandomAccessFile(file, "rw");
+        )
+        {
+            final long size = access.length();
+            long position = 0;
+            while (position + ColumnarFormat.HEADER_SIZE <= size)
+            {
+                access.seek(position);
+                final int magic = access.readInt();
+                final int length = access.readInt();
+                if (magic != ColumnarFormat.MAGIC  ||  length < 0  ||
+                    position + ColumnarFormat.HEADER_SIZE + length > size)
+                    break;
+                position += ColumnarFormat.HEADER_SIZE + length;
+            }
+            if (position < size)
+            {
+                logger.log(Level.WARNING, "Removing incomplete block from " + file + " at " + position);
+                access.setLength(position);
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        channels.clear();
+        pending.clear();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Columnar archive writer for " + root;
+    }
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.columnar;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.archive.writer.WriteChannel;
+import org.epics.vtype.VType;
+
+/** Channel of the {@link ColumnarArchiveWriter}
+ *
+ *  <p>Holds the samples that have been added
+ *  but not yet written.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+class ColumnarWriteChannel implements WriteChannel
+{
+    private final String name;
+
+    /** Directory for the partition files of this channel */
+    final File directory;
+
+    /** Samples added since last flush */
+    final List<VType> samples = new ArrayList<>();
+
+    /** Time stamps of samples */
+    final List<Instant> stamps = new ArrayList<>();
+
+    /** Partition file that has been checked for an incomplete last block */
+    File checked_file = null;
+
+    ColumnarWriteChannel(final String name, final File directory)
+    {
+        this.name = name;
+        this.directory = directory;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Channel '" + name + "' in " + directory;
+    }
+}
@@ -0,0 +1,477 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/** {@link PGCopyPreparedStatement} that uses the binary COPY format
+ *
+ *  <p>Parameters are kept as primitives.
+ *  {@link #addBatch()} encodes them right away as a binary row
+ *  into a buffer that is re-used for each batch,
+ *  avoiding the text formatting of numbers and time stamps.
+ *  Byte arrays, including the array sample blobs,
+ *  are copied as they are, without octal escapes.
+ *
+ *  <p>The COPY lists the columns of the INSERT,
+ *  so other columns receive their default value.
+ *
+ *  <p>Supports columns of type int2, int4, int8, float4, float8, bool,
+ *  timestamp, timestamptz, text, varchar, bpchar and bytea.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PGBinaryCopyPreparedStatement extends PGCopyPreparedStatement
+{
+    /** Binary COPY signature, followed by flags and header extension length */
+    private static final byte[] SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+
+    /** Postgres epoch 2000-01-01 in seconds since 1970-01-01 */
+    private static final long PG_EPOCH_SECS = 946684800L;
+
+    /** Column types */
+    private enum Type { INT2, INT4, INT8, FLOAT4, FLOAT8, BOOL, TIMESTAMP, TIMESTAMPTZ, TEXT, BYTEA }
+
+    /** Kind of parameter value */
+    private enum Kind { NULL, LONG, DOUBLE, OBJECT }
+
+    private final String copy_sql;
+
+    private final Type[] types;
+
+    /** Parameters of the current row, by column index (parameter index - 1) */
+    private final Kind[] kinds;
+    private final long[] longs;
+    private final double[] doubles;
+    private final Object[] objects;
+
+    /** Encoded rows */
+    private ByteBuffer batch = ByteBuffer.allocate(64 * 1024);
+
+    /** Number of rows in batch */
+    private int rows = 0;
+
+    /** @param connection Connection
+     *  @param insertSqlQuery INSERT INTO table (columns...) VALUES (...)
+     *  @throws SQLException on error, including unsupported column types
+     */
+    public PGBinaryCopyPreparedStatement(final Connection connection, final String insertSqlQuery) throws SQLException
+    {
+        this(connection, insertSqlQuery, getTableColumns(connection, parseInsert(insertSqlQuery)[0]));
+    }
+
+    /** @param connection Connection, may be <code>null</code> when only encoding
+     *  @param insertSqlQuery INSERT INTO table (columns...) VALUES (...)
+     *  @param tableColumns Type name by column name for all columns of the table
+     *  @throws SQLException on error, including unsupported column types
+     */
+    PGBinaryCopyPreparedStatement(final Connection connection, final String insertSqlQuery,
+                                  final LinkedHashMap<String, String> tableColumns) throws SQLException
+    {
+        super(connection, insertSqlQuery, tableColumns);
+        copy_sql = createCopySQL();
+        types = getTypes();
+        kinds = new Kind[types.length];
+        longs = new long[types.length];
+        doubles = new double[types.length];
+        objects = new Object[types.length];
+        clearParameters();
+    }
+
+    private String createCopySQL()
+    {
+        return "COPY " + tableName + " (" + String.join(", ", columnNames) + ") FROM STDIN (FORMAT binary)";
+    }
+
+    private Type[] getTypes() throws SQLException
+    {
+        final Type[] types = new Type[columnTypes.length];
+        for (int i=0; i<types.length; ++i)
+        {
+            final String type = columnTypes[i] == null ? "" : columnTypes[i].toLowerCase();
+            switch (type)
+            {
+            case "int2":
+            case "smallint":
+                types[i] = Type.INT2;
+                break;
+            case "int4":
+            case "int":
+            case "integer":
+            case "serial":
+                types[i] = Type.INT4;
+                break;
+            case "int8":
+            case "bigint":
+            case "bigserial":
+                types[i] = Type.INT8;
+                break;
+            case "float4":
+            case "real":
+                types[i] = Type.FLOAT4;
+                break;
+            case "float8":
+            case "double precision":
+                types[i] = Type.FLOAT8;
+                break;
+            case "bool":
+            case "boolean":
+                types[i] = Type.BOOL;
+                break;
+            case "timestamp":
+                types[i] = Type.TIMESTAMP;
+                break;
+            case "timestamptz":
+                types[i] = Type.TIMESTAMPTZ;
+                break;
+            case "text":
+            case "varchar":
+            case "bpchar":
+            case "char":
+                types[i] = Type.TEXT;
+                break;
+            case "bytea":
+                types[i] = Type.BYTEA;
+                break;
+            default:
+                throw new SQLException("Binary COPY does not support type '" + columnTypes[i] +
+                                       "' of " + tableName + "." + columnNames[i]);
+            }
+        }
+        return types;
+    }
+
+    /** @return Number of bytes in current batch */
+    int getBatchSize()
+    {
+        return batch.position();
+    }
+
+    /** @return Bytes of current batch, without the trailer */
+    byte[] getBatchBytes()
+    {
+        return Arrays.copyOf(batch.array(), batch.position());
+    }
+
+    @Override
+    public void clearParameters() throws SQLException
+    {
+        Arrays.fill(kinds, Kind.NULL);
+        Arrays.fill(objects, null);
+    }
+
+    private void setLongParameter(final int parameterIndex, final long x)
+    {
+        kinds[parameterIndex-1] = Kind.LONG;
+        longs[parameterIndex-1] = x;
+    }
+
+    private void setDoubleParameter(final int parameterIndex, final double x)
+    {
+        kinds[parameterIndex-1] = Kind.DOUBLE;
+        doubles[parameterIndex-1] = x;
+    }
+
+    private void setObjectParameter(final int parameterIndex, final Object x)
+    {
+        kinds[parameterIndex-1] = x == null ? Kind.NULL : Kind.OBJECT;
+        objects[parameterIndex-1] = x;
+    }
+
+    @Override
+    public void setBoolean(final int parameterIndex, final boolean x) throws SQLException
+    {
+        setLongParameter(parameterIndex, x ? 1 : 0);
+    }
+
+    @Override
+    public void setShort(final int parameterIndex, final short x) throws SQLException
+    {
+        setLongParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(final int parameterIndex, final int x) throws SQLException
+    {
+        setLongParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(final int parameterIndex, final long x) throws SQLException
+    {
+        setLongParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(final int parameterIndex, final float x) throws SQLException
+    {
+        setDoubleParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(final int parameterIndex, final double x) throws SQLException
+    {
+        setDoubleParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(final int parameterIndex, final BigDecimal x) throws SQLException
+    {
+        if (x == null)
+            setObjectParameter(parameterIndex, null);
+        else if (x.scale() <= 0)
+            setLongParameter(parameterIndex, x.longValueExact());
+        else
+            setDoubleParameter(parameterIndex, x.doubleValue());
+    }
+
+    @Override
+    public void setString(final int parameterIndex, final String x) throws SQLException
+    {
+        setObjectParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(final int parameterIndex, final String value) throws SQLException
+    {
+        setObjectParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setBytes(final int parameterIndex, final byte[] x) throws SQLException
+    {
+        setObjectParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(final int parameterIndex, final Timestamp x) throws SQLException
+    {
+        setObjectParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType) throws SQLException
+    {
+        setObjectParameter(parameterIndex, null);
+    }
+
+    @Override
+    public void setNull(final int parameterIndex, final int sqlType, final String typeName) throws SQLException
+    {
+        setObjectParameter(parameterIndex, null);
+    }
+
+    /** @param needed Number of bytes that need to fit into batch buffer */
+    private void ensureCapacity(final int needed)
+    {
+        if (batch.remaining() >= needed)
+            return;
+        final int size = Math.max(batch.capacity() * 2, batch.position() + needed);
+        final ByteBuffer larger = ByteBuffer.allocate(size);
+        batch.flip();
+        larger.put(batch);
+        batch = larger;
+    }
+
+    @Override
+    public void addBatch() throws SQLException
+    {
+        // On error, drop the partial row, and the header of a first row
+        final int start = batch.position();
+        try
+        {
+            if (rows == 0)
+            {   // Header: Signature, flags, header extension length
+                ensureCapacity(SIGNATURE.length + 8);
+                batch.put(SIGNATURE);
+                batch.putInt(0);
+                batch.putInt(0);
+            }
+            ensureCapacity(2);
+            batch.putShort((short) types.length);
+            for (int i=0; i<types.length; ++i)
+                encode(i);
+        }
+        catch (SQLException ex)
+        {
+            batch.position(start);
+            throw ex;
+        }
+        finally
+        {
+            clearParameters();
+        }
+        ++rows;
+    }
+
+    /** Encode a field
+     *  @param i Column index
+     *  @throws SQLException on error
+     */
+    private void encode(final int i) throws SQLException
+    {
+        final Kind kind = kinds[i];
+        if (kind == Kind.NULL)
+        {
+            ensureCapacity(4);
+            batch.putInt(-1);
+            return;
+        }
+        switch (types[i])
+        {
+        case INT2:
+            ensureCapacity(4 + 2);
+            batch.putInt(2);
+            batch.putShort((short) checkRange(i, getLong(i), Short.MIN_VALUE, Short.MAX_VALUE));
+            break;
+        case INT4:
+            ensureCapacity(4 + 4);
+            batch.putInt(4);
+            batch.putInt((int) checkRange(i, getLong(i), Integer.MIN_VALUE, Integer.MAX_VALUE));
+            break;
+        case INT8:
+            ensureCapacity(4 + 8);
+            batch.putInt(8);
+            batch.putLong(getLong(i));
+            break;
+        case FLOAT4:
+            ensureCapacity(4 + 4);
+            batch.putInt(4);
+            batch.putFloat((float) getDouble(i));
+            break;
+        case FLOAT8:
+            ensureCapacity(4 + 8);
+            batch.putInt(8);
+            batch.putDouble(getDouble(i));
+            break;
+        case BOOL:
+            ensureCapacity(4 + 1);
+            batch.putInt(1);
+            batch.put((byte) (getLong(i) != 0 ? 1 : 0));
+            break;
+        case TIMESTAMP:
+        case TIMESTAMPTZ:
+            ensureCapacity(4 + 8);
+            batch.putInt(8);
+            batch.putLong(getMicros(i));
+            break;
+        case TEXT:
+        {
+            final Object value = kind == Kind.OBJECT ? objects[i]
+                               : kind == Kind.LONG ? Long.toString(longs[i])
+                               : Double.toString(doubles[i]);
+            final byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(4 + bytes.length);
+            batch.putInt(bytes.length);
+            batch.put(bytes);
+            break;
+        }
+        case BYTEA:
+        {
+            if (! (objects[i] instanceof byte[]))
+                throw new SQLException("Expected byte[] for " + columnNames[i]);
+            final byte[] bytes = (byte[]) objects[i];
+            ensureCapacity(4 + bytes.length);
+            batch.putInt(bytes.length);
+            batch.put(bytes);
+            break;
+        }
+        }
+    }
+
+    private long getLong(final int i) throws SQLException
+    {
+        if (kinds[i] == Kind.LONG)
+            return longs[i];
+        throw new SQLException("Expected integer for " + columnNames[i]);
+    }
+
+    private double getDouble(final int i) throws SQLException
+    {
+        if (kinds[i] == Kind.DOUBLE)
+            return doubles[i];
+        if (kinds[i] == Kind.LONG)
+            return longs[i];
+        throw new SQLException("Expected number for " + columnNames[i]);
+    }
+
+    private long checkRange(final int i, final long value, final long min, final long max) throws SQLException
+    {
+        if (value < min  ||  value > max)
+            throw new SQLException("Value " + value + " out of range for " + columnNames[i]);
+        return value;
+    }
+
+    /** @return Microseconds since 2000-01-01, rounded like the text input of a time stamp */
+    private long getMicros(final int i) throws SQLException
+    {
+        if (! (objects[i] instanceof Timestamp))
+            throw new SQLException("Expected time stamp for " + columnNames[i]);
+        final Timestamp stamp = (Timestamp) objects[i];
+        final long seconds;
+        if (types[i] == Type.TIMESTAMP)
+        {   // Like the text format, use the local date and time
+            final LocalDateTime local = stamp.toLocalDateTime();
+            seconds = local.toEpochSecond(ZoneOffset.UTC);
+        }
+        else
+            seconds = Math.floorDiv(stamp.getTime(), 1000L);
+        return (seconds - PG_EPOCH_SECS) * 1000000L + (stamp.getNanos() + 500) / 1000;
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException
+    {
+        if (rows <= 0)
+            return new int[0];
+        // Trailer
+        ensureCapacity(2);
+        batch.putShort((short) -1);
+
+        final CopyIn copy = ((PGConnection) getConnection()).getCopyAPI().copyIn(copy_sql);
+        try
+        {
+            copy.writeToCopy(batch.array(), 0, batch.position());
+            final long res = copy.endCopy();
+            return new int[] { (int) res };
+        }
+        finally
+        {
+            if (copy.isActive())
+                copy.cancelCopy();
+            clearBatch();
+        }
+    }
+
+    @Override
+    public void clearBatch() throws SQLException
+    {
+        batch.clear();
+        rows = 0;
+    }
+
+    @Override
+    public void close() throws SQLException
+    {
+        super.close();
+        batch = null;
+    }
+}
@@ -27,7 +27,9 @@ import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,32 +47,48 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
     private int[] columnOrderMapping;
 
-    private String tableName;
+    /** Table name */
+    final String tableName;
+
+    /** Columns of the insert query, in query order */
+    final String[] columnNames;
+
+    /** Type names of the insert query columns, in query order */
+    final String[] columnTypes;
 
     public PGCopyPreparedStatement(Connection connection, String insertSqlQuery)
             throws SQLException {
+        this(connection, insertSqlQuery, getTableColumns(connection,
+                parseInsert(insertSqlQuery)[0]));
+    }
+
+    /**
+     * @param connection
+     *            Connection, may be <code>null</code> when only encoding
+     * @param insertSqlQuery
+     *            INSERT INTO table (columns...) VALUES (...)
+     * @param tableColumns
+     *            Type name by column name for all columns of the table, in
+     *            database order
+     * @throws SQLException
+     */
+    PGCopyPreparedStatement(Connection connection, String insertSqlQuery,
+            LinkedHashMap<String, String> tableColumns) throws SQLException {
         this.connection = connection;
         batchBuilder = new StringBuffer();
 
         // Analyze query string to get table name and list of column
-        tableName = null;
-        String[] columnsArrays = null;
-        Pattern p = Pattern.compile(
-                "^INSERT[ ]+INTO[ ]+([^ ]+)[ ]+\\(([^)]+)\\)",
-                Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(insertSqlQuery);
-        if (m.find()) {
-            tableName = m.group(1);
-            columnsArrays = m.group(2).split(",");
-        }
+        final String[] parsed = parseInsert(insertSqlQuery);
+        tableName = parsed[0];
+        String[] columnsArrays = parsed[1].split(",");
+        columnNames = new String[columnsArrays.length];
+        columnTypes = new String[columnsArrays.length];
 
         // Get the column order as it's stored in database
         Map<String, Integer> postgresColumnOrderMap = new HashMap<>();
-        ResultSet columnsRs = connection.getMetaData().getColumns(
-                connection.getCatalog(), null, tableName, null);
-        while (columnsRs.next()) {
-            postgresColumnOrderMap.put(columnsRs.getString("COLUMN_NAME"),
-                    columnsRs.getInt("ORDINAL_POSITION"));
+        for (String column : tableColumns.keySet()) {
+            postgresColumnOrderMap.put(column,
+                    postgresColumnOrderMap.size() + 1);
         }
         rowValues = new String[postgresColumnOrderMap.size()];
 
@@ -87,7 +105,55 @@ public class PGCopyPreparedStatement implements PreparedStatement {
                         + "  in table " + tableName);
             }
             columnOrderMapping[i + 1] = postgresColumnOrder.intValue() - 1;
+            columnNames[i] = columnName;
+            columnTypes[i] = tableColumns.get(columnName);
+        }
+    }
+
+    /**
+     * @param insertSqlQuery
+     *            INSERT INTO table (columns...) VALUES (...)
+     * @return Table name and comma-separated list of columns
+     * @throws SQLException
+     *             if query cannot be parsed
+     */
+    static String[] parseInsert(String insertSqlQuery)
+            throws SQLException {
+        Pattern p = Pattern.compile(
+                "^INSERT[ ]+INTO[ ]+([^ ]+)[ ]+\\(([^)]+)\\)",
+                Pattern.CASE_INSENSITIVE);
+        Matcher m = p.matcher(insertSqlQuery.trim());
+        if (!m.find()) {
+            throw new SQLException("Cannot parse " + insertSqlQuery);
+        }
+        return new String[] { m.group(1), m.group(2) };
+    }
+
+    /**
+     * @param connection
+     *            Connection
+     * @param tableName
+     *            Table name
+     * @return Type name by column name for all columns of the table, in
+     *         database order
+     * @throws SQLException
+     */
+    static LinkedHashMap<String, String> getTableColumns(
+            Connection connection, String tableName) throws SQLException {
+        final TreeMap<Integer, String[]> columns = new TreeMap<>();
+        try (ResultSet columnsRs = connection.getMetaData().getColumns(
+                connection.getCatalog(), null, tableName, null)) {
+            while (columnsRs.next()) {
+                columns.put(columnsRs.getInt("ORDINAL_POSITION"),
+                        new String[] { columnsRs.getString("COLUMN_NAME"),
+                                columnsRs.getString("TYPE_NAME") });
+            }
+        }
+        final LinkedHashMap<String, String> result = new LinkedHashMap<>();
+        for (String[] column : columns.values()) {
+            result.put(column[0], column[1]);
         }
+        return result;
     }
 
     @Override
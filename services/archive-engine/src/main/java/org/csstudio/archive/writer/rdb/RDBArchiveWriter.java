@@ -127,7 +127,7 @@ public class RDBArchiveWriter implements ArchiveWriter
 
     /** Create a new prepared statement. For PostgreSQL connections, this method
      *  create a PGCopyPreparedStatement to improve insert speed using COPY
-     *  instead of INSERT.
+     *  instead of INSERT, preferably in binary format.
      *
      *  @param sqlQuery
      *  @return
@@ -140,7 +140,24 @@ public class RDBArchiveWriter implements ArchiveWriter
     {
         final PreparedStatement statement;
         if (dialect == Dialect.PostgreSQL  &&  Preferences.use_postgres_copy)
-            statement = new PGCopyPreparedStatement(connection, sqlQuery);
+        {
+            if (Preferences.use_postgres_binary_copy)
+            {
+                PreparedStatement binary;
+                try
+                {
+                    binary = new PGBinaryCopyPreparedStatement(connection, sqlQuery);
+                }
+                catch (SQLException ex)
+                {
+                    logger.log(Level.WARNING, "Cannot use binary COPY, falling back to CSV", ex);
+                    binary = new PGCopyPreparedStatement(connection, sqlQuery);
+                }
+                statement = binary;
+            }
+            else
+                statement = new PGCopyPreparedStatement(connection, sqlQuery);
+        }
         else
             statement = connection.prepareStatement(sqlQuery);
         if (Preferences.timeout_secs > 0)
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.epics.vtype.Alarm;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VType;
+import org.junit.Test;
+import org.phoebus.framework.util.RingBuffer;
+
+/** Load test for the {@link SampleBuffer}
+ *
+ *  <p>Several 'monitor' threads add samples to many buffers
+ *  while one 'write' thread drains them,
+ *  comparing the lock-free {@link SampleBuffer}
+ *  with a synchronized {@link RingBuffer}.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleBufferDemo
+{
+    private static final int CHANNELS = 10000, CAPACITY = 100, PRODUCERS = 4, SECONDS = 10;
+
+    /** Buffer API used by the load test */
+    private interface Buffer
+    {
+        void add(VType value);
+        int drainTo(List<VType> samples);
+        long getOverruns();
+    }
+
+    /** Previous implementation: Synchronize on ring buffer for every sample */
+    private static class LockedBuffer implements Buffer
+    {
+        private final RingBuffer<VType> samples = new RingBuffer<>(CAPACITY);
+        private long overruns = 0;
+
+        @Override
+        public void add(final VType value)
+        {
+            synchronized (samples)
+            {
+                if (samples.isFull())
+                    ++overruns;
+                samples.add(value);
+            }
+        }
+
+        @Override
+        public int drainTo(final List<VType> target)
+        {
+            int count = 0;
+            VType sample;
+            while (true)
+            {
+                synchronized (samples)
+                {
+                    sample = samples.remove();
+                }
+                if (sample == null)
+                    return count;
+                target.add(sample);
+                ++count;
+            }
+        }
+
+        @Override
+        public long getOverruns()
+        {
+            synchronized (samples)
+            {
+                return overruns;
+            }
+        }
+    }
+
+    /** Lock-free {@link SampleBuffer} */
+    private static class LockFreeBuffer implements Buffer
+    {
+        private final SampleBuffer buffer = new SampleBuffer("demo", null, CAPACITY);
+
+        @Override
+        public void add(final VType value)
+        {
+            buffer.add(value);
+        }
+
+        @Override
+        public int drainTo(final List<VType> samples)
+        {
+            return buffer.drainTo(samples);
+        }
+
+        @Override
+        public long getOverruns()
+        {
+            return buffer.getBufferStats().getOverruns();
+        }
+    }
+
+    private void run(final String title, final List<Buffer> buffers) throws Exception
+    {
+        final AtomicBoolean run = new AtomicBoolean(true);
+        final AtomicLong added = new AtomicLong(), written = new AtomicLong();
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int p=0; p<PRODUCERS; ++p)
+        {
+            final int offset = p;
+            threads.add(new Thread(() ->
+            {
+                long count = 0;
+                while (run.get())
+                    for (int i=offset; i<CHANNELS; i+=PRODUCERS)
+                    {
+                        buffers.get(i).add(VDouble.of(count, Alarm.none(), Time.now(), Display.none()));
+                        ++count;
+                    }
+                added.addAndGet(count);
+            }, "Producer " + p));
+        }
+        final Thread writer = new Thread(() ->
+        {
+            final List<VType> samples = new ArrayList<>();
+            while (run.get())
+                for (Buffer buffer : buffers)
+                {
+                    samples.clear();
+                    written.addAndGet(buffer.drainTo(samples));
+                }
+        }, "Writer");
+        threads.add(writer);
+
+        for (Thread thread : threads)
+            thread.start();
+        TimeUnit.SECONDS.sleep(SECONDS);
+        run.set(false);
+        for (Thread thread : threads)
+            thread.join();
+
+        // Drain what's left, then every added sample must be written or counted as overrun
+        final List<VType> samples = new ArrayList<>();
+        long overruns = 0;
+        for (Buffer buffer : buffers)
+        {
+            samples.clear();
+            written.addAndGet(buffer.drainTo(samples));
+            overruns += buffer.getOverruns();
+        }
+        System.out.format("%-10s: %6.2f M samples/sec added, %6.2f M samples/sec written, %10d overruns\n",
+                          title,
+                          added.get() / 1e6 / SECONDS,
+                          written.get() / 1e6 / SECONDS,
+                          overruns);
+        assertThat(written.get() + overruns, equalTo(added.get()));
+    }
+
+    @Test
+    public void demoLoad() throws Exception
+    {
+        for (int i=0; i<2; ++i)
+        {
+            final List<Buffer> locked = new ArrayList<>(), lock_free = new ArrayList<>();
+            for (int c=0; c<CHANNELS; ++c)
+            {
+                locked.add(new LockedBuffer());
+                lock_free.add(new LockFreeBuffer());
+            }
+            run("Locked", locked);
+            run("Lock-free", lock_free);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link SampleRing}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleRingTest
+{
+    @Test
+    public void testWrapAround()
+    {
+        final SampleRing<Integer> ring = new SampleRing<>(4);
+        final List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        // Fill and drain several times so that slots are re-used
+        for (int round=0; round<5; ++round)
+        {
+            for (int i=0; i<3; ++i)
+                ring.add(next++);
+            assertThat(ring.size(), equalTo(3));
+            drained.clear();
+            assertThat(ring.drainTo(drained, Integer.MAX_VALUE), equalTo(3));
+            assertThat(drained, equalTo(Arrays.asList(next-3, next-2, next-1)));
+            assertThat(ring.size(), equalTo(0));
+        }
+        assertThat(ring.getOverruns(), equalTo(0L));
+
+        // Partial drain keeps the rest in order
+        for (int i=0; i<4; ++i)
+            ring.add(i);
+        drained.clear();
+        assertThat(ring.drainTo(drained, 3), equalTo(3));
+        assertThat(drained, equalTo(Arrays.asList(0, 1, 2)));
+        ring.add(4);
+        drained.clear();
+        assertThat(ring.drainTo(drained, Integer.MAX_VALUE), equalTo(2));
+        assertThat(drained, equalTo(Arrays.asList(3, 4)));
+    }
+
+    @Test
+    public void testOverflow()
+    {
+        final SampleRing<Integer> ring = new SampleRing<>(4);
+        for (int i=0; i<10; ++i)
+            ring.add(i);
+        assertThat(ring.size(), equalTo(4));
+
+        // Oldest samples are replaced and counted as overruns
+        final List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drainTo(drained, Integer.MAX_VALUE), equalTo(4));
+        assertThat(drained, equalTo(Arrays.asList(6, 7, 8, 9)));
+        assertThat(ring.getOverruns(), equalTo(6L));
+
+        // Overflow after a partial drain
+        ring.add(10);
+        ring.add(11);
+        drained.clear();
+        assertThat(ring.drainTo(drained, 1), equalTo(1));
+        assertThat(drained, equalTo(Arrays.asList(10)));
+        for (int i=12; i<17; ++i)
+            ring.add(i);
+        drained.clear();
+        ring.drainTo(drained, Integer.MAX_VALUE);
+        assertThat(drained, equalTo(Arrays.asList(13, 14, 15, 16)));
+        assertThat(ring.getOverruns(), equalTo(8L));
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception
+    {
+        final int writers = 4, per_writer = 100000;
+        final SampleRing<long[]> ring = new SampleRing<>(1000);
+        final CountDownLatch start = new CountDownLatch(1), done = new CountDownLatch(writers);
+        for (int w=0; w<writers; ++w)
+        {
+            final int writer = w;
+            new Thread(() ->
+            {
+                try
+                {
+                    start.await();
+                    for (int i=0; i<per_writer; ++i)
+                        ring.add(new long[] { writer, i });
+                }
+                catch (InterruptedException ex)
+                {
+                    // Ignore, test will fail on missing samples
+                }
+                done.countDown();
+            }, "Writer " + w).start();
+        }
+
+        // Drain while writers add samples
+        final long[] last = new long[writers];
+        Arrays.fill(last, -1);
+        final List<long[]> drained = new ArrayList<>();
+        long received = 0;
+        start.countDown();
+        boolean writing = true;
+        while (writing)
+        {
+            writing = ! done.await(1, TimeUnit.MILLISECONDS);
+            drained.clear();
+            ring.drainTo(drained, 100);
+            // Samples of each writer must arrive in order, without duplicates
+            for (long[] sample : drained)
+            {
+                final int writer = (int) sample[0];
+                assertTrue("Writer " + writer + " sample " + sample[1] + " after " + last[writer],
+                           sample[1] > last[writer]);
+                last[writer] = sample[1];
+            }
+            received += drained.size();
+        }
+        // Get remaining samples
+        drained.clear();
+        received += ring.drainTo(drained, Integer.MAX_VALUE);
+        assertThat(ring.size(), equalTo(0));
+
+        // Each sample was either received or counted as overrun
+        assertThat(received + ring.getOverruns(), equalTo((long) writers * per_writer));
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.archive.writer.ArchiveWriter;
+import org.csstudio.archive.writer.WriteChannel;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VType;
+import org.junit.Test;
+
+/** JUnit test of the {@link WriteThread} error handling
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class WriteThreadTest
+{
+    /** Writer that fails to flush */
+    private static class FailingWriter implements ArchiveWriter
+    {
+        @Override
+        public WriteChannel getChannel(final String name) throws Exception
+        {
+            return () -> name;
+        }
+
+        @Override
+        public void addSample(final WriteChannel channel, final VType sample) throws Exception
+        {
+            // Ignore
+        }
+
+        @Override
+        public void flush() throws Exception
+        {
+            throw new Exception("Test failure");
+        }
+
+        @Override
+        public void close()
+        {
+            // Ignore
+        }
+    }
+
+    @Test
+    public void testFailedFlush() throws Exception
+    {
+        // More samples than the default batch size of 500,
+        // so flush() is called and fails within the batch
+        final int N = 600;
+        final SampleBuffer buffer = new SampleBuffer("test", null, 1000);
+        for (int i=0; i<N; ++i)
+            buffer.add(VDouble.of(i, Alarm.none(), Time.now(), Display.none()));
+
+        final WriteThread thread = new WriteThread();
+        thread.addSampleBuffer(buffer);
+        thread.writer = new FailingWriter();
+        try
+        {
+            thread.write();
+            fail("Write should fail");
+        }
+        catch (Exception ex)
+        {
+            // Expected
+        }
+        // Without spool, samples of the failed batch are returned to the buffer
+        thread.spool();
+
+        // Each sample is returned once, in original order
+        final List<VType> samples = new ArrayList<>();
+        buffer.drainTo(samples);
+        assertThat(samples.size(), equalTo(N));
+        for (int i=0; i<N; ++i)
+            assertThat(((VDouble) samples.get(i)).getValue(), equalTo(Double.valueOf(i)));
+    }
+}
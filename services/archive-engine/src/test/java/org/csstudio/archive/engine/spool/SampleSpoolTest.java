@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.spool;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.archive.writer.ArchiveWriter;
+import org.csstudio.archive.writer.WriteChannel;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.stats.Range;
+import org.epics.util.text.NumberFormats;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.AlarmStatus;
+import org.epics.vtype.Display;
+import org.epics.vtype.EnumDisplay;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VDoubleArray;
+import org.epics.vtype.VEnum;
+import org.epics.vtype.VLong;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** JUnit test of the {@link SampleSpool}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleSpoolTest
+{
+    private static final Display display = Display.of(Range.of(0, 10), Range.of(1, 9), Range.of(2,  8), Range.of(0, 10), "a.u.", NumberFormats.precisionFormat(2));
+
+    private File directory;
+
+    /** Archive writer that remembers samples once flushed, or fails */
+    private static class TestWriter implements ArchiveWriter
+    {
+        final List<String> channels = new ArrayList<>();
+        final List<VType> samples = new ArrayList<>();
+        private final List<String> added_channels = new ArrayList<>();
+        private final List<VType> added_samples = new ArrayList<>();
+        boolean fail = false;
+
+        @Override
+        public WriteChannel getChannel(final String name) throws Exception
+        {
+            return () -> name;
+        }
+
+        @Override
+        public void addSample(final WriteChannel channel, final VType sample) throws Exception
+        {
+            added_channels.add(channel.getName());
+            added_samples.add(sample);
+        }
+
+        @Override
+        public void flush() throws Exception
+        {
+            if (fail)
+            {
+                added_channels.clear();
+                added_samples.clear();
+                throw new Exception("Test error");
+            }
+            channels.addAll(added_channels);
+            samples.addAll(added_samples);
+            added_channels.clear();
+            added_samples.clear();
+        }
+
+        @Override
+        public void close()
+        {
+            // NOP
+        }
+    }
+
+    @Before
+    public void setup() throws Exception
+    {
+        directory = Files.createTempDirectory("spool").toFile();
+    }
+
+    @After
+    public void cleanup()
+    {
+        for (File file : directory.listFiles())
+            file.delete();
+        directory.delete();
+    }
+
+    private static VType makeSample(final int i)
+    {
+        return VDouble.of((double) i, Alarm.none(), Time.of(Instant.ofEpochSecond(1000 + i, 42)), display);
+    }
+
+    @Test
+    public void testTypes() throws Exception
+    {
+        final Instant now = Instant.now();
+        final Alarm alarm = Alarm.of(AlarmSeverity.MINOR, AlarmStatus.RECORD, "LOW");
+        final SampleSpool spool = new SampleSpool(directory, 1024 * 1024);
+        spool.append("a", null, VDouble.of(3.14, alarm, Time.of(now), display));
+        spool.append("b", "Forever", VLong.of(42L, Alarm.none(), Time.of(now), Display.none()));
+        spool.append("c", null, VEnum.of(1, EnumDisplay.of("Off", "On"), alarm, Time.of(now)));
+        spool.append("d", null, VString.of("Hello, Spool", Alarm.none(), Time.of(now)));
+        spool.append("e", null, VDoubleArray.of(ArrayDouble.of(1, 2, 3), Alarm.none(), Time.of(now), display));
+        assertThat(spool.getSampleCount(), equalTo(5L));
+
+        final TestWriter writer = new TestWriter();
+        assertThat(spool.replay(writer, 100, 10), equalTo(5));
+        assertThat(spool.isEmpty(), equalTo(true));
+        assertThat(writer.channels, equalTo(List.of("a", "b", "c", "d", "e")));
+
+        final VDouble dbl = (VDouble) writer.samples.get(0);
+        assertThat(dbl.getValue(), equalTo(3.14));
+        assertThat(dbl.getAlarm().getSeverity(), equalTo(AlarmSeverity.MINOR));
+        assertThat(dbl.getAlarm().getName(), equalTo("LOW"));
+        assertThat(dbl.getTime().getTimestamp(), equalTo(now));
+        assertThat(dbl.getDisplay().getUnit(), equalTo("a.u."));
+        assertThat(dbl.getDisplay().getWarningRange().getMaximum(), equalTo(8.0));
+        assertThat(dbl.getDisplay().getFormat().getMinimumFractionDigits(), equalTo(2));
+
+        assertThat(((VLong) writer.samples.get(1)).getValue(), equalTo(42L));
+
+        final VEnum enumerated = (VEnum) writer.samples.get(2);
+        assertThat(enumerated.getIndex(), equalTo(1));
+        assertThat(enumerated.getDisplay().getChoices(), equalTo(List.of("Off", "On")));
+
+        assertThat(((VString) writer.samples.get(3)).getValue(), equalTo("Hello, Spool"));
+
+        assertThat(writer.samples.get(4), instanceOf(VDoubleArray.class));
+        assertThat(((VDoubleArray) writer.samples.get(4)).getData().getDouble(2), equalTo(3.0));
+    }
+
+    @Test
+    public void testReplay() throws Exception
+    {
+        // Small segments to test segment roll-over
+        SampleSpool spool = new SampleSpool(directory, 4096);
+        for (int i=0; i<1000; ++i)
+            spool.append("ch" + (i % 10), null, makeSample(i));
+        assertThat(spool.getSampleCount(), equalTo(1000L));
+        assertThat(directory.listFiles().length > 10, equalTo(true));
+
+        // Replay at limited rate
+        final TestWriter writer = new TestWriter();
+        assertThat(spool.replay(writer, 300, 50), equalTo(300));
+        assertThat(spool.getSampleCount(), equalTo(700L));
+
+        // Failed replay keeps samples in spool
+        writer.fail = true;
+        try
+        {
+            spool.replay(writer, 300, 50);
+        }
+        catch (Exception ex)
+        {
+            assertThat(ex.getMessage(), equalTo("Test error"));
+        }
+        assertThat(spool.getSampleCount(), equalTo(700L));
+        writer.fail = false;
+
+        // Spool persists across restart
+        spool.close();
+        spool = new SampleSpool(directory, 4096);
+        assertThat(spool.getSampleCount(), equalTo(700L));
+        assertThat(spool.replay(writer, 10000, 50), equalTo(700));
+        assertThat(spool.isEmpty(), equalTo(true));
+        spool.close();
+        assertThat(directory.listFiles().length, equalTo(0));
+
+        // Every sample replayed once, in order
+        assertThat(writer.samples.size(), equalTo(1000));
+        for (int i=0; i<1000; ++i)
+        {
+            assertThat(writer.channels.get(i), equalTo("ch" + (i % 10)));
+            assertThat(((VDouble) writer.samples.get(i)).getValue(), equalTo((double) i));
+        }
+    }
+
+    @Test
+    public void testStaleData() throws Exception
+    {
+        // Segment file with older samples
+        final File file = new File(directory, "stale.dat");
+        SpoolSegment segment = SpoolSegment.create(file, 4096);
+        for (int i=0; i<10; ++i)
+            assertThat(segment.append("old", null, makeSample(i)), equalTo(true));
+        segment.close();
+        final byte[] stale = Files.readAllBytes(file.toPath());
+        assertThat(file.delete(), equalTo(true));
+
+        // New segment that still holds the older records,
+        // as if the file space had been re-used
+        segment = SpoolSegment.create(file, 4096);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw"))
+        {
+            raw.seek(SpoolSegment.HEADER_SIZE);
+            raw.write(stale, SpoolSegment.HEADER_SIZE, stale.length - SpoolSegment.HEADER_SIZE);
+        }
+        for (int i=0; i<2; ++i)
+            assertThat(segment.append("new", null, makeSample(100 + i)), equalTo(true));
+        segment.close();
+
+        // Reopened segment only has the new records
+        segment = SpoolSegment.open(file);
+        assertThat(segment.getCount(), equalTo(2));
+        for (int i=0; i<2; ++i)
+        {
+            final SpoolSegment.Entry entry = segment.readNext();
+            assertThat(entry.channel, equalTo("new"));
+            assertThat(((VDouble) entry.value).getValue(), equalTo(100.0 + i));
+        }
+        assertThat(segment.readNext() == null, equalTo(true));
+        segment.close();
+    }
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.columnar;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.csstudio.archive.writer.WriteChannel;
+import org.epics.util.array.ArrayDouble;
+import org.epics.util.stats.Range;
+import org.epics.util.text.NumberFormats;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.AlarmStatus;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VDouble;
+import org.epics.vtype.VDoubleArray;
+import org.epics.vtype.VString;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.phoebus.framework.columnar.ColumnarFormat;
+
+/** Columnar Archive Writer Demo
+ *
+ *  <p>Writes samples into a temporary directory
+ *  and shows the resulting file size per sample.
+ *  Data Browser's columnar archive reader can read the files.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ColumnarArchiveWriterDemo
+{
+    private static final Display display = Display.of(Range.of(0, 10), Range.of(1, 9), Range.of(2,  8), Range.of(0, 10), "a.u.", NumberFormats.precisionFormat(2));
+
+    /** Start of a day, UTC */
+    private static final Instant start = Instant.ofEpochSecond(1514764800L);
+
+    private File root;
+    private ColumnarArchiveWriter writer;
+
+    @Before
+    public void setup() throws Exception
+    {
+        root = Files.createTempDirectory("columnar").toFile();
+        writer = new ColumnarArchiveWriter(root);
+    }
+
+    @After
+    public void cleanup()
+    {
+        writer.close();
+        for (File directory : root.listFiles())
+        {
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+        root.delete();
+    }
+
+    /** @param name Channel name
+     *  @return Total size of the channel's files
+     */
+    private long getSize(final String name)
+    {
+        long size = 0;
+        for (File file : new File(root, ColumnarFormat.encodeName(name)).listFiles())
+            size += file.length();
+        return size;
+    }
+
+    @Test
+    public void demoCompression() throws Exception
+    {
+        // 10 Hz samples for one day, flushed every 30 seconds
+        final int N = 24 * 60 * 60 * 10;
+        final WriteChannel slow = writer.getChannel("demo:slow"),
+                           noise = writer.getChannel("demo:noise");
+        for (int i=0; i<N; ++i)
+        {
+            final Time time = Time.of(start.plusMillis(i * 100L));
+            writer.addSample(slow, VDouble.of(Math.round(100 * Math.sin(i * 1e-4)) / 100.0, Alarm.none(), time, display));
+            final Alarm alarm = (i % 1000) < 10
+                              ? Alarm.of(AlarmSeverity.MINOR, AlarmStatus.RECORD, "HIGH")
+                              : Alarm.none();
+            writer.addSample(noise, VDouble.of(Math.random(), alarm, time, display));
+            if (i % 300 == 299)
+                writer.flush();
+        }
+        writer.flush();
+        System.out.format("Slowly changing values: %5.2f bytes/sample\n", getSize("demo:slow") / (double) N);
+        System.out.format("Random values         : %5.2f bytes/sample\n", getSize("demo:noise") / (double) N);
+
+        // All samples of the day are in one partition
+        assertThat(Arrays.asList(new File(root, "demo%3Aslow").list()), equalTo(List.of("20180101.col")));
+    }
+
+    @Test
+    public void demoPartitions() throws Exception
+    {
+        final WriteChannel channel = writer.getChannel("demo:wave");
+        // Samples that span two days, changing type
+        writer.addSample(channel, VDoubleArray.of(ArrayDouble.of(1, 2, 3), Alarm.none(), Time.of(start.minusSeconds(1)), display));
+        writer.addSample(channel, VDoubleArray.of(ArrayDouble.of(1, 2, 4), Alarm.none(), Time.of(start), display));
+        writer.addSample(channel, VString.of("Disconnected", Alarm.disconnected(), Time.of(start.plusSeconds(1))));
+        writer.flush();
+        final File directory = new File(root, "demo%3Awave");
+        final String[] files = directory.list();
+        Arrays.sort(files);
+        assertThat(Arrays.asList(files), equalTo(List.of("20171231.col", "20180101.col")));
+
+        // Simulate write that was interrupted
+        final File file = new File(directory, "20180101.col");
+        final long size = file.length();
+        try
+        (
+            final RandomAccessFile access = new RandomAccessFile(file, "rw");
+        )
+        {
+            access.setLength(size + 5);
+        }
+
+        // Incomplete block is replaced on next write
+        final ColumnarArchiveWriter other = new ColumnarArchiveWriter(root);
+        other.addSample(other.getChannel("demo:wave"), VString.of("Back", Alarm.none(), Time.of(start.plusSeconds(2))));
+        other.flush();
+        other.close();
+        try
+        (
+            final RandomAccessFile access = new RandomAccessFile(file, "r");
+        )
+        {
+            access.seek(size);
+            assertThat(access.readInt(), equalTo(BlockEncoder.MAGIC));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link PGBinaryCopyPreparedStatement} encoding
+ *
+ *  <p>Runs without a database.
+ *  Checks the bytes of the binary COPY format
+ *  for each supported column type.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PGBinaryCopyPreparedStatementTest
+{
+    private static final String INSERT =
+        "INSERT INTO test (c_int2, c_int4, c_int8, c_float4, c_float8, c_bool, c_time, c_timetz, c_text, c_bytes) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** 2000-01-01 00:00:01.000002, 1000002 microseconds after the postgres epoch */
+    private static final long MICROS = 1000002L;
+
+    private static LinkedHashMap<String, String> getColumns()
+    {
+        final LinkedHashMap<String, String> columns = new LinkedHashMap<>();
+        // Column that's not part of the INSERT
+        columns.put("id", "int8");
+        columns.put("c_int2", "int2");
+        columns.put("c_int4", "int4");
+        columns.put("c_int8", "int8");
+        columns.put("c_float4", "float4");
+        columns.put("c_float8", "float8");
+        columns.put("c_bool", "bool");
+        columns.put("c_time", "timestamp");
+        columns.put("c_timetz", "timestamptz");
+        columns.put("c_text", "varchar");
+        columns.put("c_bytes", "bytea");
+        return columns;
+    }
+
+    private static void checkHeader(final ByteBuffer buf)
+    {
+        final byte[] signature = new byte[11];
+        buf.get(signature);
+        assertThat(signature, equalTo(new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 }));
+        // Flags
+        assertThat(buf.getInt(), equalTo(0));
+        // Header extension length
+        assertThat(buf.getInt(), equalTo(0));
+    }
+
+    @Test
+    public void testFieldEncoding() throws Exception
+    {
+        final PGBinaryCopyPreparedStatement statement = new PGBinaryCopyPreparedStatement(null, INSERT, getColumns());
+        final byte[] blob = { 1, 2, 3, 4, 5 };
+        statement.setShort(1, (short) -2);
+        statement.setInt(2, 123456);
+        statement.setLong(3, 1L << 40);
+        statement.setFloat(4, 1.5f);
+        statement.setDouble(5, -3.25);
+        statement.setBoolean(6, true);
+        statement.setTimestamp(7, Timestamp.valueOf(LocalDateTime.of(2000, 1, 1, 0, 0, 1, 2000)));
+        statement.setTimestamp(8, Timestamp.from(Instant.parse("2000-01-01T00:00:01.000002Z")));
+        statement.setString(9, "Hello \u00B0C");
+        statement.setBytes(10, blob);
+        statement.addBatch();
+
+        final ByteBuffer buf = ByteBuffer.wrap(statement.getBatchBytes());
+        checkHeader(buf);
+        // Number of fields lists only the columns of the INSERT
+        assertThat(buf.getShort(), equalTo((short) 10));
+        // Each field: length, value in network byte order
+        assertThat(buf.getInt(), equalTo(2));
+        assertThat(buf.getShort(), equalTo((short) -2));
+        assertThat(buf.getInt(), equalTo(4));
+        assertThat(buf.getInt(), equalTo(123456));
+        assertThat(buf.getInt(), equalTo(8));
+        assertThat(buf.getLong(), equalTo(1L << 40));
+        assertThat(buf.getInt(), equalTo(4));
+        assertThat(buf.getFloat(), equalTo(1.5f));
+        assertThat(buf.getInt(), equalTo(8));
+        assertThat(buf.getDouble(), equalTo(-3.25));
+        assertThat(buf.getInt(), equalTo(1));
+        assertThat(buf.get(), equalTo((byte) 1));
+        assertThat(buf.getInt(), equalTo(8));
+        assertThat(buf.getLong(), equalTo(MICROS));
+        assertThat(buf.getInt(), equalTo(8));
+        assertThat(buf.getLong(), equalTo(MICROS));
+        final byte[] text = "Hello \u00B0C".getBytes(StandardCharsets.UTF_8);
+        assertThat(buf.getInt(), equalTo(text.length));
+        final byte[] field = new byte[text.length];
+        buf.get(field);
+        assertThat(field, equalTo(text));
+        assertThat(buf.getInt(), equalTo(blob.length));
+        final byte[] bytes = new byte[blob.length];
+        buf.get(bytes);
+        assertThat(bytes, equalTo(blob));
+        assertThat(buf.remaining(), equalTo(0));
+        statement.close();
+    }
+
+    @Test
+    public void testRows() throws Exception
+    {
+        final PGBinaryCopyPreparedStatement statement = new PGBinaryCopyPreparedStatement(null, INSERT, getColumns());
+        // Parameters that are not set are NULL
+        statement.setInt(2, 1);
+        statement.addBatch();
+        // Parameters are cleared for the next row, numbers can be written to text
+        statement.setLong(9, 42);
+        statement.setNull(10, Types.BINARY);
+        statement.addBatch();
+
+        final ByteBuffer buf = ByteBuffer.wrap(statement.getBatchBytes());
+        checkHeader(buf);
+        // First row
+        assertThat(buf.getShort(), equalTo((short) 10));
+        for (int i=1; i<=10; ++i)
+        {
+            if (i == 2)
+            {
+                assertThat(buf.getInt(), equalTo(4));
+                assertThat(buf.getInt(), equalTo(1));
+            }
+            else
+                assertThat(buf.getInt(), equalTo(-1));
+        }
+        // Second row, no repeated header
+        assertThat(buf.getShort(), equalTo((short) 10));
+        for (int i=1; i<=8; ++i)
+            assertThat(buf.getInt(), equalTo(-1));
+        assertThat(buf.getInt(), equalTo(2));
+        assertThat(buf.get(), equalTo((byte) '4'));
+        assertThat(buf.get(), equalTo((byte) '2'));
+        assertThat(buf.getInt(), equalTo(-1));
+        assertThat(buf.remaining(), equalTo(0));
+
+        // Next batch starts with a new header
+        statement.clearBatch();
+        statement.addBatch();
+        assertThat(statement.getBatchSize(), equalTo(11 + 4 + 4 + 2 + 10 * 4));
+        statement.close();
+    }
+
+    @Test
+    public void testFirstRowError() throws Exception
+    {
+        final PGBinaryCopyPreparedStatement statement = new PGBinaryCopyPreparedStatement(null, INSERT, getColumns());
+        // First row fails to encode
+        statement.setInt(1, 100000);
+        try
+        {
+            statement.addBatch();
+            fail("Accepted int2 out of range");
+        }
+        catch (SQLException ex)
+        {
+            assertThat(statement.getBatchSize(), equalTo(0));
+        }
+
+        // Valid row is preceded by one header
+        statement.setInt(2, 1);
+        statement.addBatch();
+        final ByteBuffer buf = ByteBuffer.wrap(statement.getBatchBytes());
+        checkHeader(buf);
+        assertThat(buf.getShort(), equalTo((short) 10));
+        assertThat(buf.getInt(), equalTo(-1));
+        assertThat(buf.getInt(), equalTo(4));
+        assertThat(buf.getInt(), equalTo(1));
+        for (int i=3; i<=10; ++i)
+            assertThat(buf.getInt(), equalTo(-1));
+        assertThat(buf.remaining(), equalTo(0));
+        statement.close();
+    }
+
+    @Test
+    public void testErrors() throws Exception
+    {
+        final PGBinaryCopyPreparedStatement statement = new PGBinaryCopyPreparedStatement(null, INSERT, getColumns());
+        statement.setInt(2, 1);
+        statement.addBatch();
+        final byte[] valid = statement.getBatchBytes();
+
+        // Value out of range for int2 drops the partial row
+        statement.setInt(1, 100000);
+        try
+        {
+            statement.addBatch();
+            fail("Accepted int2 out of range");
+        }
+        catch (SQLException ex)
+        {
+            assertThat(Arrays.equals(statement.getBatchBytes(), valid), equalTo(true));
+        }
+
+        // Number for time stamp
+        statement.setLong(7, 0);
+        try
+        {
+            statement.addBatch();
+            fail("Accepted number for time stamp");
+        }
+        catch (SQLException ex)
+        {
+            assertThat(Arrays.equals(statement.getBatchBytes(), valid), equalTo(true));
+        }
+        statement.close();
+
+        // Unsupported column type
+        final LinkedHashMap<String, String> columns = getColumns();
+        columns.put("c_text", "json");
+        try
+        {
+            new PGBinaryCopyPreparedStatement(null, INSERT, columns).close();
+            fail("Accepted json column");
+        }
+        catch (SQLException ex)
+        {
+            // Expected
+        }
+    }
+}
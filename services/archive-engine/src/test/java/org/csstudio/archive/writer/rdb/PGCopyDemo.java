@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+
+import org.csstudio.archive.Preferences;
+import org.junit.Test;
+import org.phoebus.framework.rdb.RDBInfo;
+import org.phoebus.framework.rdb.RDBInfo.Dialect;
+
+/** Compare CSV and binary COPY for PostgreSQL
+ *
+ *  <p>{@link #demoEncoding()} runs without a database
+ *  and compares the time spent to format the samples.
+ *
+ *  <p>{@link #demoCopy()} writes to the PostgreSQL database
+ *  configured in the preferences, for example a container
+ *  started from the 'postgres' image with dbd/postgres_schema.txt,
+ *  and compares the overall throughput.
+ *  Samples are added to channel 1 from the example data of the schema.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PGCopyDemo
+{
+    private static final int BATCH = 500, SECONDS = 10;
+
+    /** Columns of the 'sample' table in dbd/postgres_schema.txt */
+    private static LinkedHashMap<String, String> getSampleColumns()
+    {
+        final LinkedHashMap<String, String> columns = new LinkedHashMap<>();
+        columns.put("channel_id", "int8");
+        columns.put("smpl_time", "timestamp");
+        columns.put("nanosecs", "int8");
+        columns.put("severity_id", "int8");
+        columns.put("status_id", "int8");
+        columns.put("num_val", "int4");
+        columns.put("float_val", "float8");
+        columns.put("str_val", "varchar");
+        columns.put("datatype", "bpchar");
+        columns.put("array_val", "bytea");
+        return columns;
+    }
+
+    /** @param N Array size
+     *  @return Array blob as written by the {@link RDBArchiveWriter}
+     */
+    private static byte[] createArray(final int N) throws Exception
+    {
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        final DataOutputStream dout = new DataOutputStream(bout);
+        dout.writeInt(N);
+        for (int i=0; i<N; ++i)
+            dout.writeDouble(Math.sin(i * 0.1));
+        dout.close();
+        return bout.toByteArray();
+    }
+
+    /** Add samples like the {@link RDBArchiveWriter} would for PostgreSQL
+     *  @param insert Statement for sample_insert_double_blob
+     *  @param array Array blob or <code>null</code> for scalars
+     *  @param execute Execute batch or only clear it?
+     *  @return Samples per second
+     */
+    private double run(final PreparedStatement insert, final byte[] array, final boolean execute) throws Exception
+    {
+        final long end = System.currentTimeMillis() + SECONDS * 1000;
+        long count = 0;
+        while (System.currentTimeMillis() < end)
+        {
+            for (int i=0; i<BATCH; ++i)
+            {
+                final Timestamp stamp = Timestamp.from(Instant.now());
+                insert.setDouble(5, count * 0.001);
+                insert.setString(7, array == null ? " " : "d");
+                insert.setBytes(8, array);
+                insert.setInt(1, 1);
+                insert.setTimestamp(2, stamp);
+                insert.setInt(3, 1);
+                insert.setInt(4, 1);
+                insert.setInt(6, stamp.getNanos());
+                insert.addBatch();
+                ++count;
+            }
+            if (execute)
+            {
+                insert.executeBatch();
+                insert.getConnection().commit();
+            }
+            else
+                insert.clearBatch();
+        }
+        return count / (double) SECONDS;
+    }
+
+    @Test
+    public void demoEncoding() throws Exception
+    {
+        final String sql = new SQL(Dialect.PostgreSQL, "").sample_insert_double_blob;
+        final byte[] array = createArray(100);
+        for (int i=0; i<2; ++i)
+        {
+            System.out.format("Scalars, CSV   : %10.0f samples/sec\n", run(new PGCopyPreparedStatement(null, sql, getSampleColumns()), null, false));
+            System.out.format("Scalars, binary: %10.0f samples/sec\n", run(new PGBinaryCopyPreparedStatement(null, sql, getSampleColumns()), null, false));
+            System.out.format("Arrays, CSV    : %10.0f samples/sec\n", run(new PGCopyPreparedStatement(null, sql, getSampleColumns()), array, false));
+            System.out.format("Arrays, binary : %10.0f samples/sec\n", run(new PGBinaryCopyPreparedStatement(null, sql, getSampleColumns()), array, false));
+        }
+    }
+
+    @Test
+    public void demoCopy() throws Exception
+    {
+        final RDBInfo info = new RDBInfo(Preferences.url, Preferences.user, Preferences.password);
+        if (info.getDialect() != Dialect.PostgreSQL)
+            return;
+        final String sql = new SQL(Dialect.PostgreSQL, Preferences.schema).sample_insert_double_blob;
+        try
+        (
+            Connection connection = info.connect();
+        )
+        {
+            connection.setAutoCommit(false);
+            System.out.format("CSV   : %10.0f samples/sec\n", run(new PGCopyPreparedStatement(connection, sql), null, true));
+            System.out.format("Binary: %10.0f samples/sec\n", run(new PGBinaryCopyPreparedStatement(connection, sql), null, true));
+        }
+    }
+}